@@ -0,0 +1,82 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.benchmarks;
+
+import com.artarkatesoft.artsfgspring5webfluxrest.bson.VendorCodec;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.Vendor;
+import org.bson.BsonBinaryReader;
+import org.bson.BsonBinaryWriter;
+import org.bson.Document;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.DocumentCodec;
+import org.bson.codecs.EncoderContext;
+import org.bson.io.BasicOutputBuffer;
+import org.bson.types.ObjectId;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning a vendor's BSON into a {@link Vendor} and back: the hand-written {@link VendorCodec} against
+ * the driver's {@link Document} decoding followed by the reflective {@link MappingMongoConverter}, which is the
+ * path every repository read takes otherwise.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BsonMappingBenchmark {
+
+    private static final DecoderContext DECODER_CONTEXT = DecoderContext.builder().build();
+    private static final EncoderContext ENCODER_CONTEXT = EncoderContext.builder().build();
+
+    private final VendorCodec vendorCodec = new VendorCodec();
+    private final DocumentCodec documentCodec = new DocumentCodec();
+    private MappingMongoConverter converter;
+    private Vendor vendor;
+    private byte[] vendorBson;
+
+    @Setup
+    public void setUp() {
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, new MongoMappingContext());
+        converter.afterPropertiesSet();
+        vendor = Vendor.builder().id(new ObjectId().toHexString()).firstName("Joe").lastName("Buck")
+                .version(3L).lastModified(Instant.ofEpochMilli(1_600_000_000_123L)).build();
+        vendorBson = encodeWithConverter();
+    }
+
+    @Benchmark
+    public Vendor decodeWithCodec() {
+        return vendorCodec.decode(reader(), DECODER_CONTEXT);
+    }
+
+    @Benchmark
+    public Vendor decodeWithConverter() {
+        return converter.read(Vendor.class, documentCodec.decode(reader(), DECODER_CONTEXT));
+    }
+
+    @Benchmark
+    public byte[] encodeWithCodec() {
+        BasicOutputBuffer buffer = new BasicOutputBuffer(256);
+        vendorCodec.encode(new BsonBinaryWriter(buffer), vendor, ENCODER_CONTEXT);
+        return buffer.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] encodeWithConverter() {
+        BasicOutputBuffer buffer = new BasicOutputBuffer(256);
+        Document document = new Document();
+        converter.write(vendor, document);
+        documentCodec.encode(new BsonBinaryWriter(buffer), document, ENCODER_CONTEXT);
+        return buffer.toByteArray();
+    }
+
+    private BsonBinaryReader reader() {
+        return new BsonBinaryReader(ByteBuffer.wrap(vendorBson));
+    }
+}
@@ -0,0 +1,121 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.benchmarks;
+
+import com.artarkatesoft.artsfgspring5webfluxrest.cache.CategoryCache;
+import com.artarkatesoft.artsfgspring5webfluxrest.cache.VendorCache;
+import com.artarkatesoft.artsfgspring5webfluxrest.changes.CollectionVersions;
+import com.artarkatesoft.artsfgspring5webfluxrest.changes.InMemoryChangeFeed;
+import com.artarkatesoft.artsfgspring5webfluxrest.controllers.CategoryController;
+import com.artarkatesoft.artsfgspring5webfluxrest.controllers.ProblemExceptionHandler;
+import com.artarkatesoft.artsfgspring5webfluxrest.controllers.VendorController;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.Category;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.Vendor;
+import com.artarkatesoft.artsfgspring5webfluxrest.repositories.CategoryRepository;
+import com.artarkatesoft.artsfgspring5webfluxrest.repositories.VendorRepository;
+import com.artarkatesoft.artsfgspring5webfluxrest.search.SearchIndex;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.http.HttpHeaders.IF_NONE_MATCH;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+
+/**
+ * Whole request path (routing, argument resolution, codecs, controller) through {@link WebTestClient}
+ * bound to the controllers, with in-memory repositories behind them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ControllerThroughputBenchmark {
+
+    @Param({"20"})
+    int vendorCount;
+
+    private WebTestClient webTestClient;
+    private String categoryId;
+    private String vendorId;
+    private String vendorListETag;
+
+    @Setup
+    public void setUp() {
+        CategoryRepository categoryRepository = Stubs.repository(CategoryRepository.class, Category::getId, Category::setId);
+        VendorRepository vendorRepository = Stubs.repository(VendorRepository.class, Vendor::getId, Vendor::setId);
+        categoryId = categoryRepository.save(Category.builder().name("Fruits").build()).block().getId();
+        vendorId = vendorRepository.saveAll(Flux.range(0, vendorCount)
+                .map(i -> Vendor.builder().firstName("First" + i).lastName("Last" + i).build()))
+                .blockLast().getId();
+
+        CategoryController categoryController = new CategoryController(categoryRepository,
+                new CategoryCache(categoryRepository, 1000, Duration.ofMinutes(10), 1, Duration.ZERO),
+                new InMemoryChangeFeed(), Stubs.NO_BULK_INSERTS, new CollectionVersions(), new SearchIndex());
+        VendorController vendorController = new VendorController(vendorRepository,
+                new VendorCache(vendorRepository, 1000, Duration.ofMinutes(1), 1, Duration.ZERO),
+                new InMemoryChangeFeed(), Stubs.NO_BULK_INSERTS, new CollectionVersions(), new SearchIndex());
+        webTestClient = WebTestClient.bindToController(categoryController, vendorController)
+                .controllerAdvice(new ProblemExceptionHandler())
+                .build();
+        vendorListETag = webTestClient.get().uri(VendorController.BASE_URL)
+                .exchange()
+                .expectBody(byte[].class)
+                .returnResult()
+                .getResponseHeaders().getETag();
+    }
+
+    @Benchmark
+    public byte[] getCategoryById() {
+        return webTestClient.get().uri(CategoryController.BASE_URL + "/{id}", categoryId)
+                .accept(APPLICATION_JSON)
+                .exchange()
+                .expectBody(byte[].class)
+                .returnResult()
+                .getResponseBody();
+    }
+
+    @Benchmark
+    public byte[] getMissingVendor() {
+        return webTestClient.get().uri(VendorController.BASE_URL + "/{id}", "000000000000000000000000")
+                .accept(APPLICATION_JSON)
+                .exchange()
+                .expectBody(byte[].class)
+                .returnResult()
+                .getResponseBody();
+    }
+
+    @Benchmark
+    public byte[] listVendors() {
+        return webTestClient.get().uri(VendorController.BASE_URL)
+                .accept(APPLICATION_JSON)
+                .exchange()
+                .expectBody(byte[].class)
+                .returnResult()
+                .getResponseBody();
+    }
+
+    @Benchmark
+    public byte[] listVendorsNotModified() {
+        return webTestClient.get().uri(VendorController.BASE_URL)
+                .accept(APPLICATION_JSON)
+                .header(IF_NONE_MATCH, vendorListETag)
+                .exchange()
+                .expectBody(byte[].class)
+                .returnResult()
+                .getResponseBody();
+    }
+
+    @Benchmark
+    public byte[] patchVendor() {
+        return webTestClient.patch().uri(VendorController.BASE_URL + "/{id}", vendorId)
+                .contentType(APPLICATION_JSON)
+                .bodyValue("{\"firstName\":\"Art\"}")
+                .exchange()
+                .expectBody(byte[].class)
+                .returnResult()
+                .getResponseBody();
+    }
+}
@@ -0,0 +1,96 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.benchmarks;
+
+import com.artarkatesoft.artsfgspring5webfluxrest.bson.RawJsonTranscoder;
+import com.artarkatesoft.artsfgspring5webfluxrest.bson.VendorCodec;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.Vendor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.bson.BsonBinaryReader;
+import org.bson.ByteBuf;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DecoderContext;
+import org.bson.types.ObjectId;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import reactor.core.publisher.Flux;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+
+/**
+ * Cost of writing a JSON list from the BSON documents a cursor returns: decoding them into {@link Vendor}s
+ * and encoding the list with Jackson, as the controllers do, against transcoding the raw documents with
+ * {@link RawJsonTranscoder}, as the passthrough route does. Both write into pooled Netty buffers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonPassthroughBenchmark {
+
+    private static final ResolvableType VENDOR_LIST = ResolvableType.forClassWithGenerics(List.class, Vendor.class);
+    private static final DecoderContext DECODER_CONTEXT = DecoderContext.builder().build();
+
+    @Param({"100", "1000"})
+    int vendorCount;
+
+    private final VendorCodec vendorCodec = new VendorCodec();
+    private final NettyDataBufferFactory bufferFactory = new NettyDataBufferFactory(PooledByteBufAllocator.DEFAULT);
+    private Jackson2JsonEncoder encoder;
+    private RawJsonTranscoder transcoder;
+    private List<byte[]> documents;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        encoder = new Jackson2JsonEncoder(objectMapper, APPLICATION_JSON);
+        transcoder = RawJsonTranscoder.forVendors(objectMapper);
+        documents = new ArrayList<>(vendorCount);
+        for (int i = 0; i < vendorCount; i++) {
+            Vendor vendor = Vendor.builder().id(new ObjectId().toHexString()).firstName("First" + i).lastName("Last" + i)
+                    .version((long) i).lastModified(Instant.ofEpochMilli(1_600_000_000_000L + i)).build();
+            ByteBuf bson = new RawBsonDocument(vendor, vendorCodec).getByteBuffer();
+            byte[] document = new byte[bson.remaining()];
+            bson.get(document);
+            documents.add(document);
+        }
+    }
+
+    @Benchmark
+    public int decodeAndSerialize() {
+        List<Vendor> vendors = new ArrayList<>(documents.size());
+        for (byte[] document : documents)
+            vendors.add(vendorCodec.decode(new BsonBinaryReader(ByteBuffer.wrap(document)), DECODER_CONTEXT));
+        DataBuffer buffer = encoder.encodeValue(vendors, bufferFactory, VENDOR_LIST, APPLICATION_JSON, null);
+        return release(buffer);
+    }
+
+    @Benchmark
+    public int transcode() {
+        return transcoder.writeArray(Flux.fromIterable(documents).map(RawBsonDocument::new), bufferFactory, 256)
+                .map(JsonPassthroughBenchmark::release)
+                .reduce(0, Integer::sum)
+                .block();
+    }
+
+    private static int release(DataBuffer buffer) {
+        int size = buffer.readableByteCount();
+        DataBufferUtils.release(buffer);
+        return size;
+    }
+}
@@ -0,0 +1,46 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.benchmarks;
+
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.Vendor;
+import com.artarkatesoft.artsfgspring5webfluxrest.exceptions.NotFoundException;
+import org.openjdk.jmh.annotations.*;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Cost of signalling one miss: the former {@code RuntimeException}, which fills in its stack trace, against the
+ * stackless {@link NotFoundException}. The miss is raised below {@code stackDepth} frames, since the price of a
+ * stack trace grows with the depth of the (reactive) call chain it is created in.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NotFoundBenchmark {
+
+    private static final String ID = "5f2b3c4d5e6f708192a3b4c6";
+
+    @Param({"16", "128"})
+    int stackDepth;
+
+    @Benchmark
+    public String runtimeException() {
+        return missAt(stackDepth, () -> new RuntimeException("Vendor with id `" + ID + "` NOT FOUND"));
+    }
+
+    @Benchmark
+    public String notFoundException() {
+        return missAt(stackDepth, () -> NotFoundException.of(Vendor.class, ID));
+    }
+
+    private static String missAt(int depth, Supplier<RuntimeException> error) {
+        if (depth > 0) return missAt(depth - 1, error);
+        return Mono.<String>empty()
+                .switchIfEmpty(Mono.error(error))
+                .onErrorResume(e -> Mono.just(e.getMessage()))
+                .block();
+    }
+}
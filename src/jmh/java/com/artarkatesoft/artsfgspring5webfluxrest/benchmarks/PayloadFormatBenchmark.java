@@ -0,0 +1,84 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.benchmarks;
+
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.Vendor;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPOutputStream;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * CPU per response of the negotiable body formats for a vendor list, plain and gzipped as the server sends it
+ * with compression on. Bytes on the wire per format are printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PayloadFormatBenchmark {
+
+    @Param({"json", "smile", "cbor"})
+    String format;
+
+    @Param({"100"})
+    int vendorCount;
+
+    private ObjectMapper objectMapper;
+    private JavaType listType;
+    private List<Vendor> vendors;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() throws IOException {
+        switch (format) {
+            case "smile":
+                objectMapper = Jackson2ObjectMapperBuilder.smile().build();
+                break;
+            case "cbor":
+                objectMapper = Jackson2ObjectMapperBuilder.cbor().build();
+                break;
+            default:
+                objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        }
+        listType = objectMapper.getTypeFactory().constructCollectionType(List.class, Vendor.class);
+        vendors = IntStream.range(0, vendorCount)
+                .mapToObj(i -> Vendor.builder().id(String.format("%024x", i))
+                        .firstName("First" + i).lastName("Last" + i).version((long) i).build())
+                .collect(toList());
+        payload = objectMapper.writeValueAsBytes(vendors);
+        System.out.printf("%n%s: %d bytes, %d bytes gzipped%n", format, payload.length, gzip(payload).length);
+    }
+
+    @Benchmark
+    public byte[] write() throws IOException {
+        return objectMapper.writeValueAsBytes(vendors);
+    }
+
+    @Benchmark
+    public byte[] writeGzipped() throws IOException {
+        return gzip(objectMapper.writeValueAsBytes(vendors));
+    }
+
+    @Benchmark
+    public List<Vendor> read() throws IOException {
+        return objectMapper.readValue(payload, listType);
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 2);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,87 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.benchmarks;
+
+import com.artarkatesoft.artsfgspring5webfluxrest.cache.VendorCache;
+import com.artarkatesoft.artsfgspring5webfluxrest.changes.CollectionVersions;
+import com.artarkatesoft.artsfgspring5webfluxrest.changes.InMemoryChangeFeed;
+import com.artarkatesoft.artsfgspring5webfluxrest.config.RouterConfig;
+import com.artarkatesoft.artsfgspring5webfluxrest.controllers.VendorController;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.Vendor;
+import com.artarkatesoft.artsfgspring5webfluxrest.handlers.VendorHandler;
+import com.artarkatesoft.artsfgspring5webfluxrest.repositories.VendorRepository;
+import com.artarkatesoft.artsfgspring5webfluxrest.search.SearchIndex;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+
+/**
+ * Same vendor endpoints served through the annotated handler mapping and through the functional routes
+ * of {@link RouterConfig}; run with {@code -prof gc} to compare allocation per request as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class RoutingBenchmark {
+
+    @Param({"annotated", "functional"})
+    String routing;
+
+    @Param({"20"})
+    int vendorCount;
+
+    private WebTestClient webTestClient;
+    private String vendorId;
+
+    @Setup
+    public void setUp() {
+        VendorRepository vendorRepository = Stubs.repository(VendorRepository.class, Vendor::getId, Vendor::setId);
+        vendorId = vendorRepository.saveAll(Flux.range(0, vendorCount)
+                .map(i -> Vendor.builder().firstName("First" + i).lastName("Last" + i).build()))
+                .blockLast().getId();
+
+        VendorController vendorController = new VendorController(vendorRepository,
+                new VendorCache(vendorRepository, 1000, Duration.ofMinutes(1), 1, Duration.ZERO),
+                new InMemoryChangeFeed(), Stubs.NO_BULK_INSERTS, new CollectionVersions(), new SearchIndex());
+        webTestClient = "functional".equals(routing) ?
+                WebTestClient.bindToRouterFunction(new RouterConfig().vendorRoutes(new VendorHandler(vendorController))).build() :
+                WebTestClient.bindToController(vendorController).build();
+    }
+
+    @Benchmark
+    public byte[] findVendorById() {
+        return webTestClient.get().uri(VendorController.BASE_URL + "/{id}", vendorId)
+                .accept(APPLICATION_JSON)
+                .exchange()
+                .expectBody(byte[].class)
+                .returnResult()
+                .getResponseBody();
+    }
+
+    @Benchmark
+    public byte[] listVendors() {
+        return webTestClient.get().uri(VendorController.BASE_URL)
+                .accept(APPLICATION_JSON)
+                .exchange()
+                .expectBody(byte[].class)
+                .returnResult()
+                .getResponseBody();
+    }
+
+    @Benchmark
+    public byte[] patchVendor() {
+        return webTestClient.patch().uri(VendorController.BASE_URL + "/{id}", vendorId)
+                .contentType(APPLICATION_JSON)
+                .bodyValue("{\"firstName\":\"Art\"}")
+                .exchange()
+                .expectBody(byte[].class)
+                .returnResult()
+                .getResponseBody();
+    }
+}
@@ -0,0 +1,61 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.benchmarks;
+
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.SearchHit;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.Vendor;
+import com.artarkatesoft.artsfgspring5webfluxrest.search.SearchIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Type-ahead lookups in {@link SearchIndex} over {@code size} generated vendor names.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchIndexBenchmark {
+
+    private static final String[] SYLLABLES = {"an", "ber", "cal", "dor", "el", "fin", "gar", "hol", "is", "jen",
+            "kar", "lin", "mor", "nel", "or", "pet", "quin", "ros", "sten", "tor", "ul", "ver", "wal", "yan"};
+
+    @Param({"10000", "100000"})
+    public int size;
+
+    private SearchIndex searchIndex;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        searchIndex = new SearchIndex();
+        for (int i = 0; i < size; i++) {
+            searchIndex.put(Vendor.builder().id(Integer.toString(i))
+                    .firstName(name(random, 2)).lastName(name(random, 3)).build());
+        }
+    }
+
+    @Benchmark
+    public List<SearchHit> shortPrefix() {
+        return searchIndex.search("ka", 10);
+    }
+
+    @Benchmark
+    public List<SearchHit> firstAndLastName() {
+        return searchIndex.search("kar ros", 10);
+    }
+
+    @Benchmark
+    public List<SearchHit> infix() {
+        return searchIndex.search("linmor", 10);
+    }
+
+    private static String name(Random random, int syllables) {
+        StringBuilder name = new StringBuilder();
+        for (int i = 0; i < syllables; i++) name.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+}
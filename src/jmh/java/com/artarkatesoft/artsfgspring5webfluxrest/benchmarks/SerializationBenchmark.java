@@ -0,0 +1,74 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.benchmarks;
+
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.Category;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.CategoryList;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.Vendor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Jackson cost of the response bodies, using the same ObjectMapper configuration Spring Boot builds.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"100"})
+    int categoryCount;
+
+    private ObjectMapper objectMapper;
+    private Category category;
+    private Vendor vendor;
+    private CategoryList categoryList;
+    private byte[] vendorJson;
+    private byte[] categoryListJson;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        category = Category.builder().id("5f2b3c4d5e6f708192a3b4c5").name("Fruits").build();
+        vendor = Vendor.builder().id("5f2b3c4d5e6f708192a3b4c6").firstName("Joe").lastName("Buck").build();
+        categoryList = new CategoryList();
+        categoryList.setCategories(IntStream.range(0, categoryCount)
+                .mapToObj(i -> Category.builder().id(String.format("%024x", i)).name("Category " + i).build())
+                .collect(toList()));
+        vendorJson = objectMapper.writeValueAsBytes(vendor);
+        categoryListJson = objectMapper.writeValueAsBytes(categoryList);
+    }
+
+    @Benchmark
+    public byte[] serializeCategory() throws IOException {
+        return objectMapper.writeValueAsBytes(category);
+    }
+
+    @Benchmark
+    public byte[] serializeVendor() throws IOException {
+        return objectMapper.writeValueAsBytes(vendor);
+    }
+
+    @Benchmark
+    public byte[] serializeCategoryList() throws IOException {
+        return objectMapper.writeValueAsBytes(categoryList);
+    }
+
+    @Benchmark
+    public Vendor deserializeVendor() throws IOException {
+        return objectMapper.readValue(vendorJson, Vendor.class);
+    }
+
+    @Benchmark
+    public CategoryList deserializeCategoryList() throws IOException {
+        return objectMapper.readValue(categoryListJson, CategoryList.class);
+    }
+}
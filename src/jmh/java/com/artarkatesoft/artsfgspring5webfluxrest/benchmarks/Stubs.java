@@ -0,0 +1,101 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.benchmarks;
+
+import com.artarkatesoft.artsfgspring5webfluxrest.bulk.BulkInserter;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.BulkItemResult;
+import org.reactivestreams.Publisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Allocation-light in-memory stand-ins for the Mongo-backed collaborators, so benchmarks measure the web and
+ * serialization layers rather than a database round trip.
+ */
+final class Stubs {
+
+    static final BulkInserter NO_BULK_INSERTS = new BulkInserter() {
+        @Override
+        public <T> Flux<BulkItemResult> insert(Publisher<T> items, Class<T> type) {
+            return Flux.error(new UnsupportedOperationException("bulk inserts are not benchmarked"));
+        }
+    };
+
+    private Stubs() {
+    }
+
+    /**
+     * Proxies the repository interface with a sorted map; only the methods the controllers call are supported.
+     */
+    @SuppressWarnings("unchecked")
+    static <R, T> R repository(Class<R> repositoryType, Function<T, String> idGetter, BiConsumer<T, String> idSetter) {
+        Map<String, T> store = new ConcurrentSkipListMap<>();
+        AtomicLong sequence = new AtomicLong();
+        UnaryOperator<T> save = entity -> {
+            if (idGetter.apply(entity) == null) idSetter.accept(entity, String.format("%024x", sequence.incrementAndGet()));
+            store.put(idGetter.apply(entity), entity);
+            return entity;
+        };
+        Object proxy = Proxy.newProxyInstance(repositoryType.getClassLoader(), new Class<?>[]{repositoryType},
+                (self, method, args) -> {
+                    switch (method.getName()) {
+                        case "findAll":
+                        case "streamAllByOrderByIdAsc":
+                            return Flux.fromIterable(store.values());
+                        case "findById":
+                            return Mono.justOrEmpty(store.get((String) args[0]));
+                        case "existsById":
+                            return Mono.just(store.containsKey((String) args[0]));
+                        case "count":
+                            return Mono.fromSupplier(() -> (long) store.size());
+                        case "save":
+                            return Mono.fromSupplier(() -> save.apply((T) args[0]));
+                        case "saveAll":
+                            return Flux.from((Publisher<T>) args[0]).map(save);
+                        case "patch":
+                        case "replace":
+                            return Mono.fromCallable(() -> update(store.get((String) args[0]), (T) args[1], (Long) args[2],
+                                    method.getName().equals("replace")));
+                        case "toString":
+                            return "Stub" + repositoryType.getSimpleName();
+                        case "hashCode":
+                            return System.identityHashCode(self);
+                        case "equals":
+                            return self == args[0];
+                        default:
+                            throw new UnsupportedOperationException(method.toString());
+                    }
+                });
+        return repositoryType.cast(proxy);
+    }
+
+    /**
+     * Copies fields in place the way the atomic update would, bumping the {@code version} field.
+     */
+    private static <T> T update(T stored, T source, Long expectedVersion, boolean copyNulls) throws IllegalAccessException {
+        if (stored == null) return null;
+        for (Field field : stored.getClass().getDeclaredFields()) {
+            if (Modifier.isStatic(field.getModifiers()) || field.getName().equals("id")) continue;
+            field.setAccessible(true);
+            if (field.getName().equals("version")) {
+                Long version = (Long) field.get(stored);
+                if (expectedVersion != null && !expectedVersion.equals(version))
+                    throw new OptimisticLockingFailureException("stale version " + expectedVersion);
+                field.set(stored, (version == null) ? 1L : version + 1);
+                continue;
+            }
+            Object value = field.get(source);
+            if (value != null || copyNulls) field.set(stored, value);
+        }
+        return stored;
+    }
+}
@@ -0,0 +1,214 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.benchmarks;
+
+import com.artarkatesoft.artsfgspring5webfluxrest.bulk.BulkInserter;
+import com.artarkatesoft.artsfgspring5webfluxrest.cache.CategoryCache;
+import com.artarkatesoft.artsfgspring5webfluxrest.cache.VendorCache;
+import com.artarkatesoft.artsfgspring5webfluxrest.changes.CollectionVersions;
+import com.artarkatesoft.artsfgspring5webfluxrest.changes.InMemoryChangeFeed;
+import com.artarkatesoft.artsfgspring5webfluxrest.config.WebFluxConfig;
+import com.artarkatesoft.artsfgspring5webfluxrest.controllers.CategoryController;
+import com.artarkatesoft.artsfgspring5webfluxrest.controllers.ProblemExceptionHandler;
+import com.artarkatesoft.artsfgspring5webfluxrest.controllers.VendorController;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.BulkItemResult;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.Category;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.Vendor;
+import com.artarkatesoft.artsfgspring5webfluxrest.repositories.CategoryRepository;
+import com.artarkatesoft.artsfgspring5webfluxrest.repositories.VendorRepository;
+import com.artarkatesoft.artsfgspring5webfluxrest.rsocket.CategoryRSocketController;
+import com.artarkatesoft.artsfgspring5webfluxrest.rsocket.VendorRSocketController;
+import com.artarkatesoft.artsfgspring5webfluxrest.search.SearchIndex;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.rsocket.core.RSocketServer;
+import io.rsocket.transport.netty.server.CloseableChannel;
+import io.rsocket.transport.netty.server.TcpServerTransport;
+import org.openjdk.jmh.annotations.*;
+import org.reactivestreams.Publisher;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.messaging.rsocket.RSocketRequester;
+import org.springframework.messaging.rsocket.RSocketStrategies;
+import org.springframework.messaging.rsocket.annotation.support.RSocketMessageHandler;
+import org.springframework.web.reactive.config.EnableWebFlux;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.adapter.WebHttpHandlerBuilder;
+import reactor.core.publisher.Flux;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.springframework.http.MediaType.APPLICATION_CBOR;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+
+/**
+ * The same controller operations called over HTTP/1.1 with JSON, as internal callers do today, and over
+ * RSocket with CBOR: both servers and clients run in this JVM on loopback connections kept open between calls,
+ * with in-memory repositories behind the controllers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class TransportThroughputBenchmark {
+
+    @Param({"100"})
+    int vendorCount;
+
+    private AnnotationConfigApplicationContext webContext;
+    private DisposableServer httpServer;
+    private CloseableChannel rsocketServer;
+    private WebClient webClient;
+    private RSocketRequester requester;
+    private String categoryId;
+    private List<Vendor> newVendors;
+
+    @Setup
+    public void setUp() {
+        CategoryRepository categoryRepository = Stubs.repository(CategoryRepository.class, Category::getId, Category::setId);
+        VendorRepository vendorRepository = Stubs.repository(VendorRepository.class, Vendor::getId, Vendor::setId);
+        categoryId = categoryRepository.save(Category.builder().name("Fruits").build()).block().getId();
+        vendorRepository.saveAll(Flux.range(0, vendorCount)
+                .map(i -> Vendor.builder().firstName("First" + i).lastName("Last" + i).build()))
+                .blockLast();
+        newVendors = IntStream.range(0, vendorCount)
+                .mapToObj(i -> Vendor.builder().firstName("New" + i).lastName("Vendor" + i).build())
+                .collect(Collectors.toList());
+
+        CategoryController categoryController = new CategoryController(categoryRepository,
+                new CategoryCache(categoryRepository, 1000, Duration.ofMinutes(10), 1, Duration.ZERO),
+                new InMemoryChangeFeed(), ACKNOWLEDGE_BULK_INSERTS, new CollectionVersions(), new SearchIndex());
+        VendorController vendorController = new VendorController(vendorRepository,
+                new VendorCache(vendorRepository, 1000, Duration.ofMinutes(1), 1, Duration.ZERO),
+                new InMemoryChangeFeed(), ACKNOWLEDGE_BULK_INSERTS, new CollectionVersions(), new SearchIndex());
+
+        webContext = new AnnotationConfigApplicationContext();
+        webContext.registerBean(HttpCodecs.class);
+        webContext.registerBean(CategoryController.class, () -> categoryController);
+        webContext.registerBean(VendorController.class, () -> vendorController);
+        webContext.registerBean(ProblemExceptionHandler.class);
+        webContext.refresh();
+        httpServer = HttpServer.create()
+                .host("localhost")
+                .port(0)
+                .handle(new ReactorHttpHandlerAdapter(WebHttpHandlerBuilder.applicationContext(webContext).build()))
+                .bindNow();
+        webClient = WebClient.create("http://localhost:" + httpServer.port());
+
+        ObjectMapper cborMapper = Jackson2ObjectMapperBuilder.cbor().build();
+        RSocketStrategies strategies = RSocketStrategies.builder()
+                .encoders(encoders -> encoders.add(new Jackson2CborEncoder(cborMapper)))
+                .decoders(decoders -> decoders.add(new Jackson2CborDecoder(cborMapper)))
+                .build();
+        RSocketMessageHandler handler = new RSocketMessageHandler();
+        handler.setHandlers(Arrays.asList(new CategoryRSocketController(categoryController),
+                new VendorRSocketController(vendorController)));
+        handler.setRSocketStrategies(strategies);
+        handler.afterPropertiesSet();
+        rsocketServer = RSocketServer.create(handler.responder())
+                .bind(TcpServerTransport.create("localhost", 0))
+                .block();
+        requester = RSocketRequester.builder()
+                .rsocketStrategies(strategies)
+                .dataMimeType(APPLICATION_CBOR)
+                .connectTcp("localhost", rsocketServer.address().getPort())
+                .block();
+    }
+
+    @TearDown
+    public void tearDown() {
+        requester.rsocket().dispose();
+        rsocketServer.dispose();
+        httpServer.disposeNow();
+        webContext.close();
+    }
+
+    @Benchmark
+    public Category httpGetCategory() {
+        return webClient.get().uri(CategoryController.BASE_URL + "/{id}", categoryId)
+                .accept(APPLICATION_JSON)
+                .retrieve()
+                .bodyToMono(Category.class)
+                .block();
+    }
+
+    @Benchmark
+    public Category rsocketGetCategory() {
+        return requester.route(CategoryRSocketController.GET_ROUTE, categoryId)
+                .retrieveMono(Category.class)
+                .block();
+    }
+
+    @Benchmark
+    public List<Vendor> httpListVendors() {
+        return webClient.get().uri(VendorController.BASE_URL)
+                .accept(APPLICATION_JSON)
+                .retrieve()
+                .bodyToFlux(Vendor.class)
+                .collectList()
+                .block();
+    }
+
+    @Benchmark
+    public List<Vendor> rsocketListVendors() {
+        return requester.route(VendorRSocketController.LIST_ROUTE)
+                .retrieveFlux(Vendor.class)
+                .collectList()
+                .block();
+    }
+
+    @Benchmark
+    public Long httpBulkCreateVendors() {
+        return webClient.post().uri(VendorController.BASE_URL + "/_bulk")
+                .contentType(APPLICATION_JSON)
+                .bodyValue(newVendors)
+                .retrieve()
+                .bodyToFlux(BulkItemResult.class)
+                .count()
+                .block();
+    }
+
+    @Benchmark
+    public Long rsocketBulkCreateVendors() {
+        return requester.route(VendorRSocketController.BULK_ROUTE)
+                .data(Flux.fromIterable(newVendors))
+                .retrieveFlux(BulkItemResult.class)
+                .count()
+                .block();
+    }
+
+    /**
+     * Acknowledges every item without storing it, so bulk calls measure the transport and not the store.
+     */
+    private static final BulkInserter ACKNOWLEDGE_BULK_INSERTS = new BulkInserter() {
+        @Override
+        public <T> Flux<BulkItemResult> insert(Publisher<T> items, Class<T> type) {
+            return Flux.from(items)
+                    .index()
+                    .map(item -> BulkItemResult.builder().index(item.getT1()).id(Long.toString(item.getT1())).build());
+        }
+    };
+
+    @Configuration
+    @EnableWebFlux
+    static class HttpCodecs implements WebFluxConfigurer {
+
+        @Override
+        public void configureHttpMessageCodecs(ServerCodecConfigurer configurer) {
+            WebFluxConfig.configureJacksonCodecs(configurer, Jackson2ObjectMapperBuilder.json().build(),
+                    Jackson2ObjectMapperBuilder::json);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.benchmarks;
+
+import com.artarkatesoft.artsfgspring5webfluxrest.cache.VendorCache;
+import com.artarkatesoft.artsfgspring5webfluxrest.changes.CollectionVersions;
+import com.artarkatesoft.artsfgspring5webfluxrest.changes.InMemoryChangeFeed;
+import com.artarkatesoft.artsfgspring5webfluxrest.controllers.VendorController;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.Vendor;
+import com.artarkatesoft.artsfgspring5webfluxrest.repositories.VendorRepository;
+import com.artarkatesoft.artsfgspring5webfluxrest.search.SearchIndex;
+import org.openjdk.jmh.annotations.*;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The PATCH path of {@link VendorController#updateVendorUsingPatch} without HTTP and without Mongo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VendorPatchBenchmark {
+
+    private static final String VENDOR_ID = "5f2b3c4d5e6f708192a3b4c6";
+
+    private VendorController vendorController;
+    private Vendor firstNamePatch;
+
+    @Setup
+    public void setUp() {
+        VendorRepository vendorRepository = Stubs.repository(VendorRepository.class, Vendor::getId, Vendor::setId);
+        vendorRepository.save(Vendor.builder().id(VENDOR_ID).firstName("Joe").lastName("Buck").build()).block();
+        vendorController = new VendorController(vendorRepository,
+                new VendorCache(vendorRepository, 1000, Duration.ofMinutes(1), 1, Duration.ZERO),
+                new InMemoryChangeFeed(), Stubs.NO_BULK_INSERTS, new CollectionVersions(), new SearchIndex());
+        firstNamePatch = Vendor.builder().firstName("Art").build();
+    }
+
+    @Benchmark
+    public Vendor patchFirstName() {
+        return vendorController.updateVendorUsingPatch(VENDOR_ID, null, Mono.just(firstNamePatch)).block().getBody();
+    }
+}
@@ -0,0 +1,56 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency per operation and over all operations, in HDR histograms of microseconds with three significant digits.
+ * <p>
+ * Latency is measured from the moment a request was due, not from when it was sent: when the client or the server
+ * falls behind the arrival rate, the backlog shows in the percentiles instead of silently lowering the load
+ * (coordinated omission).
+ */
+class LatencyRecorder {
+
+    static final String ALL = "all";
+
+    private static final long HIGHEST_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    private final Map<String, ConcurrentHistogram> histograms = new LinkedHashMap<>();
+    private final Map<String, LongAdder> errors = new LinkedHashMap<>();
+
+    LatencyRecorder(List<String> operations) {
+        histograms.put(ALL, new ConcurrentHistogram(HIGHEST_MICROS, 3));
+        errors.put(ALL, new LongAdder());
+        for (String operation : operations) {
+            histograms.put(operation, new ConcurrentHistogram(HIGHEST_MICROS, 3));
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    void record(String operation, long latencyNanos, boolean ok) {
+        long micros = Math.min(HIGHEST_MICROS, TimeUnit.NANOSECONDS.toMicros(latencyNanos));
+        histograms.get(operation).recordValue(micros);
+        histograms.get(ALL).recordValue(micros);
+        if (!ok) {
+            errors.get(operation).increment();
+            errors.get(ALL).increment();
+        }
+    }
+
+    /**
+     * Histograms by operation, {@value #ALL} first; not to be modified.
+     */
+    Map<String, ConcurrentHistogram> getHistograms() {
+        return histograms;
+    }
+
+    long getErrors(String operation) {
+        return errors.get(operation).sum();
+    }
+}
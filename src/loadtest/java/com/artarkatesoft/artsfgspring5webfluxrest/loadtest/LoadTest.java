@@ -0,0 +1,120 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.loadtest;
+
+import com.artarkatesoft.artsfgspring5webfluxrest.ArtSfgSpring5WebfluxRestApplication;
+import com.artarkatesoft.artsfgspring5webfluxrest.bulk.BulkInserter;
+import com.artarkatesoft.artsfgspring5webfluxrest.changes.CollectionVersions;
+import com.artarkatesoft.artsfgspring5webfluxrest.config.WebFluxConfig;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.Category;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.Vendor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Starts the application with the {@code loadtest} profile on embedded Mongo, seeds it, drives the
+ * {@link Workload} at a fixed arrival rate and reports latency percentiles per operation.
+ * <p>
+ * Arrivals follow a fixed schedule (an open model): request {@code n} is due {@code n / rate} seconds after the
+ * start whether or not earlier ones have completed, and its latency counts from that moment. Requests during the
+ * warm-up are sent but not recorded. Run with {@code mvn -P loadtest -DskipTests verify}; see the profile for the
+ * {@code loadtest.*} properties.
+ */
+@Slf4j
+public final class LoadTest {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofMinutes(1);
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ArtSfgSpring5WebfluxRestApplication.class)
+                .profiles("loadtest")
+                .run(args)) {
+            seed(context, settings);
+            ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+            Integer port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            WebClient webClient = WebClient.builder()
+                    .baseUrl("http://localhost:" + port)
+                    .codecs(configurer -> WebFluxConfig.configureJacksonCodecs(configurer, objectMapper,
+                            () -> context.getBean(Jackson2ObjectMapperBuilder.class)))
+                    .build();
+            Workload workload = new Workload(webClient, settings);
+            LatencyRecorder recorder = new LatencyRecorder(workload.operationNames());
+
+            double elapsedSeconds = run(workload, recorder, settings);
+
+            LoadTestReport report = LoadTestReport.of(settings, recorder, elapsedSeconds);
+            report.write(settings.getResultDirectory(), recorder, objectMapper);
+            LoadTestReport baseline = (settings.getBaseline() == null) ? null :
+                    LoadTestReport.read(settings.getBaseline(), objectMapper);
+            report.print(System.out, baseline);
+            log.info("Results written to {}", settings.getResultDirectory().toAbsolutePath());
+        }
+    }
+
+    private static void seed(ConfigurableApplicationContext context, LoadTestSettings settings) {
+        BulkInserter bulkInserter = context.getBean(BulkInserter.class);
+        CollectionVersions collectionVersions = context.getBean(CollectionVersions.class);
+        long start = System.nanoTime();
+        Long failed = Flux.merge(
+                bulkInserter.insert(Flux.range(0, settings.getCategories())
+                        .map(i -> collectionVersions.stamp(Workload.category(Workload.categoryId(i), i))), Category.class),
+                bulkInserter.insert(Flux.range(0, settings.getVendors())
+                        .map(i -> collectionVersions.stamp(Workload.vendor(Workload.vendorId(i), i))), Vendor.class))
+                .filter(result -> result.getError() != null)
+                .count()
+                .block();
+        if (failed != null && failed > 0) throw new IllegalStateException(failed + " seed documents were not inserted");
+        log.info("Seeded {} categories and {} vendors in {} ms", settings.getCategories(), settings.getVendors(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * @return seconds from the first recorded arrival to the last recorded completion
+     */
+    private static double run(Workload workload, LatencyRecorder recorder, LoadTestSettings settings) {
+        long periodNanos = (long) (TimeUnit.SECONDS.toNanos(1) / settings.getRate());
+        long warmupArrivals = settings.getWarmup().toNanos() / periodNanos;
+        long measuredArrivals = settings.getDuration().toNanos() / periodNanos;
+        Random random = new Random(settings.getSeed());
+        AtomicLong lastCompletion = new AtomicLong();
+        log.info("Sending {} requests at {} req/s, the last {} of them recorded",
+                warmupArrivals + measuredArrivals, settings.getRate(), measuredArrivals);
+
+        long start = System.nanoTime();
+        Flux.interval(Duration.ofNanos(periodNanos))
+                .take(warmupArrivals + measuredArrivals)
+                .onBackpressureBuffer()
+                .flatMap(arrival -> {
+                    long due = start + (arrival + 1) * periodNanos;
+                    boolean recorded = arrival >= warmupArrivals;
+                    Workload.Request request = workload.next(random);
+                    return request.getCall()
+                            .timeout(REQUEST_TIMEOUT)
+                            .map(status -> status >= 200 && status < 300)
+                            .onErrorReturn(false)
+                            .doOnNext(ok -> {
+                                if (!recorded) return;
+                                long now = System.nanoTime();
+                                recorder.record(request.getOperation(), now - due, ok);
+                                lastCompletion.accumulateAndGet(now, Math::max);
+                            });
+                }, settings.getMaxInFlight())
+                .blockLast();
+
+        long firstRecorded = start + (warmupArrivals + 1) * periodNanos;
+        return Math.max(1, lastCompletion.get() - firstRecorded) / (double) TimeUnit.SECONDS.toNanos(1);
+    }
+}
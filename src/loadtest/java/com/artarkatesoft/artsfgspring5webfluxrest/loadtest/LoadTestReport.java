@@ -0,0 +1,124 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.HdrHistogram.ConcurrentHistogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Outcome of a run: the settings it ran with and, per operation, throughput and latency percentiles in milliseconds.
+ * Written as {@value #SUMMARY_FILE} next to one {@code <operation>.hgrm} percentile distribution per operation;
+ * a summary from an earlier run can be passed as the baseline of the next one.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LoadTestReport {
+
+    static final String SUMMARY_FILE = "summary.json";
+
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private String label;
+    private int vendors;
+    private int categories;
+    private double targetRate;
+    private double achievedRate;
+    private long warmupSeconds;
+    private long durationSeconds;
+    private double writeRatio;
+    private long seed;
+    private int maxInFlight;
+    private Map<String, OperationResult> operations;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class OperationResult {
+        private long count;
+        private long errors;
+        private double throughput;
+        private double p50;
+        private double p99;
+        private double p999;
+        private double max;
+    }
+
+    static LoadTestReport of(LoadTestSettings settings, LatencyRecorder recorder, double elapsedSeconds) {
+        Map<String, OperationResult> operations = new LinkedHashMap<>();
+        recorder.getHistograms().forEach((operation, histogram) -> operations.put(operation, OperationResult.builder()
+                .count(histogram.getTotalCount())
+                .errors(recorder.getErrors(operation))
+                .throughput(histogram.getTotalCount() / elapsedSeconds)
+                .p50(histogram.getValueAtPercentile(50) / MICROS_PER_MILLI)
+                .p99(histogram.getValueAtPercentile(99) / MICROS_PER_MILLI)
+                .p999(histogram.getValueAtPercentile(99.9) / MICROS_PER_MILLI)
+                .max(histogram.getMaxValue() / MICROS_PER_MILLI)
+                .build()));
+        return LoadTestReport.builder()
+                .label(settings.getLabel())
+                .vendors(settings.getVendors())
+                .categories(settings.getCategories())
+                .targetRate(settings.getRate())
+                .achievedRate(operations.get(LatencyRecorder.ALL).getThroughput())
+                .warmupSeconds(settings.getWarmup().getSeconds())
+                .durationSeconds(settings.getDuration().getSeconds())
+                .writeRatio(settings.getWriteRatio())
+                .seed(settings.getSeed())
+                .maxInFlight(settings.getMaxInFlight())
+                .operations(operations)
+                .build();
+    }
+
+    static LoadTestReport read(Path baseline, ObjectMapper objectMapper) throws IOException {
+        Path summary = Files.isDirectory(baseline) ? baseline.resolve(SUMMARY_FILE) : baseline;
+        return objectMapper.readValue(summary.toFile(), LoadTestReport.class);
+    }
+
+    void write(Path directory, LatencyRecorder recorder, ObjectMapper objectMapper) throws IOException {
+        Files.createDirectories(directory);
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(directory.resolve(SUMMARY_FILE).toFile(), this);
+        for (Map.Entry<String, ConcurrentHistogram> entry : recorder.getHistograms().entrySet()) {
+            try (PrintStream out = new PrintStream(Files.newOutputStream(directory.resolve(entry.getKey() + ".hgrm")))) {
+                entry.getValue().outputPercentileDistribution(out, MICROS_PER_MILLI);
+            }
+        }
+    }
+
+    /**
+     * Prints one line per operation; with a baseline, each percentile is followed by its change in percent.
+     */
+    void print(PrintStream out, LoadTestReport baseline) {
+        out.printf("Load test %s: %.1f req/s of %.1f targeted, %d s measured after %d s warm-up%n",
+                label, achievedRate, targetRate, durationSeconds, warmupSeconds);
+        if (baseline != null)
+            out.printf("Compared with %s at %.1f req/s%n", baseline.getLabel(), baseline.getAchievedRate());
+        out.printf("%-22s %9s %7s %9s %18s %18s %18s %10s%n",
+                "operation", "count", "errors", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        operations.forEach((operation, result) -> {
+            OperationResult before = (baseline == null) ? null : baseline.getOperations().get(operation);
+            out.printf("%-22s %9d %7d %9.1f %18s %18s %18s %10.2f%n", operation, result.getCount(), result.getErrors(),
+                    result.getThroughput(),
+                    withChange(result.getP50(), (before == null) ? null : before.getP50()),
+                    withChange(result.getP99(), (before == null) ? null : before.getP99()),
+                    withChange(result.getP999(), (before == null) ? null : before.getP999()),
+                    result.getMax());
+        });
+    }
+
+    private static String withChange(double value, Double before) {
+        if (before == null || before == 0) return String.format("%.2f", value);
+        return String.format("%.2f (%+.0f%%)", value, (value - before) * 100 / before);
+    }
+}
@@ -0,0 +1,70 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.loadtest;
+
+import lombok.Builder;
+import lombok.Value;
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+
+/**
+ * Parameters of a load-test run, read from {@code loadtest.*} system properties (set by the {@code loadtest}
+ * Maven profile). Two runs with equal settings issue the same sequence of requests against the same data.
+ */
+@Value
+@Builder
+public class LoadTestSettings {
+
+    /**
+     * Documents seeded before the run, on top of the example data the warm-up seeds.
+     */
+    int vendors;
+    int categories;
+
+    /**
+     * Requests started per second, independent of how fast responses come back.
+     */
+    double rate;
+    Duration warmup;
+    Duration duration;
+
+    /**
+     * Share of requests that write; the rest read.
+     */
+    double writeRatio;
+    long seed;
+
+    /**
+     * Requests in flight at most; arrivals beyond it wait, and the wait counts as latency.
+     */
+    int maxInFlight;
+
+    /**
+     * Free-form name of the run, typically the commit under test.
+     */
+    String label;
+    Path resultDirectory;
+
+    /**
+     * Summary of an earlier run to compare against, or {@code null}.
+     */
+    Path baseline;
+
+    public static LoadTestSettings fromSystemProperties() {
+        String baseline = System.getProperty("loadtest.baseline", "");
+        return LoadTestSettings.builder()
+                .vendors(Integer.getInteger("loadtest.vendors", 10_000))
+                .categories(Integer.getInteger("loadtest.categories", 1_000))
+                .rate(Double.parseDouble(System.getProperty("loadtest.rate", "200")))
+                .warmup(DurationStyle.detectAndParse(System.getProperty("loadtest.warmup", "15s")))
+                .duration(DurationStyle.detectAndParse(System.getProperty("loadtest.duration", "60s")))
+                .writeRatio(Double.parseDouble(System.getProperty("loadtest.write-ratio", "0.1")))
+                .seed(Long.getLong("loadtest.seed", 42L))
+                .maxInFlight(Integer.getInteger("loadtest.max-in-flight", 256))
+                .label(System.getProperty("loadtest.label", ""))
+                .resultDirectory(Paths.get(System.getProperty("loadtest.result", "target/loadtest")))
+                .baseline(baseline.isEmpty() ? null : Paths.get(baseline))
+                .build();
+    }
+}
@@ -0,0 +1,156 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.loadtest;
+
+import com.artarkatesoft.artsfgspring5webfluxrest.controllers.CategoryController;
+import com.artarkatesoft.artsfgspring5webfluxrest.controllers.Cursors;
+import com.artarkatesoft.artsfgspring5webfluxrest.controllers.VendorController;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.BatchGetRequest;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.Category;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.Vendor;
+import lombok.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static com.artarkatesoft.artsfgspring5webfluxrest.config.WebFluxConfig.APPLICATION_NDJSON;
+
+/**
+ * The request mix: every route of the category and vendor APIs except the change feeds, which stay open instead
+ * of completing. A request is a write with probability {@code writeRatio}, then picked by weight within reads or
+ * writes. Every choice, ids and bodies included, is drawn from one seeded {@link Random} in arrival order, so runs
+ * with the same settings send the same requests.
+ */
+class Workload {
+
+    private static final int PAGE_SIZE = 50;
+    private static final int BATCH_GET_SIZE = 10;
+    private static final int BULK_SIZE = 20;
+
+    private final LoadTestSettings settings;
+    private final List<Operation> reads = new ArrayList<>();
+    private final List<Operation> writes = new ArrayList<>();
+
+    Workload(WebClient webClient, LoadTestSettings settings) {
+        this.settings = settings;
+        addRoutes(webClient, "categories", CategoryController.BASE_URL, settings.getCategories(), Workload::categoryId,
+                random -> category(null, random.nextInt(settings.getCategories())), "name", Category::getName,
+                Category.class);
+        addRoutes(webClient, "vendors", VendorController.BASE_URL, settings.getVendors(), Workload::vendorId,
+                random -> vendor(null, random.nextInt(settings.getVendors())), "lastName", Vendor::getLastName,
+                Vendor.class);
+    }
+
+    static String categoryId(int i) {
+        return String.format("lt-c-%07d", i);
+    }
+
+    static String vendorId(int i) {
+        return String.format("lt-v-%07d", i);
+    }
+
+    static Category category(String id, int i) {
+        return Category.builder().id(id).name(String.format("Category %07d", i)).build();
+    }
+
+    static Vendor vendor(String id, int i) {
+        return Vendor.builder().id(id).firstName(String.format("First %07d", i)).lastName(String.format("Last%07d", i))
+                .build();
+    }
+
+    List<String> operationNames() {
+        List<String> names = new ArrayList<>();
+        reads.forEach(operation -> names.add(operation.getName()));
+        writes.forEach(operation -> names.add(operation.getName()));
+        return names;
+    }
+
+    /**
+     * Draws the next request; the returned call is cold and consumes no more randomness.
+     */
+    Request next(Random random) {
+        List<Operation> group = (random.nextDouble() < settings.getWriteRatio()) ? writes : reads;
+        int pick = random.nextInt(group.stream().mapToInt(Operation::getWeight).sum());
+        for (Operation operation : group) {
+            pick -= operation.getWeight();
+            if (pick < 0) return new Request(operation.getName(), operation.getCall().apply(random));
+        }
+        throw new IllegalStateException("Weights do not add up");
+    }
+
+    private <T> void addRoutes(WebClient webClient, String collection, String baseUrl, int size,
+                               IntFunction<String> idOf, Function<Random, T> newDocument, String filterProperty,
+                               Function<T, String> filterValueOf, Class<T> type) {
+        reads.add(new Operation(collection + ".list", 1, random ->
+                status(webClient.get().uri(baseUrl))));
+        reads.add(new Operation(collection + ".filter", 5, random ->
+                status(webClient.get().uri(baseUrl + "?" + filterProperty + "={prefix}",
+                        prefixOf(filterValueOf.apply(newDocument.apply(random)))))));
+        reads.add(new Operation(collection + ".page", 5, random ->
+                status(webClient.get().uri(baseUrl + "?limit={limit}&after={after}", PAGE_SIZE,
+                        Cursors.encode(idOf.apply(random.nextInt(size)))))));
+        reads.add(new Operation(collection + ".stream", 1, random ->
+                status(webClient.get().uri(baseUrl).accept(APPLICATION_NDJSON))));
+        reads.add(new Operation(collection + ".get", 40, random ->
+                status(webClient.get().uri(baseUrl + "/{id}", idOf.apply(random.nextInt(size))))));
+        reads.add(new Operation(collection + ".batch-get", 5, random -> {
+            List<String> ids = IntStream.range(0, BATCH_GET_SIZE)
+                    .mapToObj(i -> idOf.apply(random.nextInt(size)))
+                    .collect(Collectors.toList());
+            return status(webClient.post().uri(baseUrl + "/_batch-get").bodyValue(new BatchGetRequest(ids)));
+        }));
+
+        writes.add(new Operation(collection + ".create", 2, random ->
+                status(webClient.post().uri(baseUrl).bodyValue(newDocument.apply(random)))));
+        writes.add(new Operation(collection + ".bulk", 1, random -> {
+            List<T> documents = IntStream.range(0, BULK_SIZE)
+                    .mapToObj(i -> newDocument.apply(random))
+                    .collect(Collectors.toList());
+            return status(webClient.post().uri(baseUrl + "/_bulk").contentType(APPLICATION_NDJSON)
+                    .body(Flux.fromIterable(documents), type));
+        }));
+        writes.add(new Operation(collection + ".put", 4, random ->
+                status(webClient.put().uri(baseUrl + "/{id}", idOf.apply(random.nextInt(size)))
+                        .bodyValue(newDocument.apply(random)))));
+        writes.add(new Operation(collection + ".patch", 4, random ->
+                status(webClient.patch().uri(baseUrl + "/{id}", idOf.apply(random.nextInt(size)))
+                        .bodyValue(newDocument.apply(random)))));
+    }
+
+    /**
+     * A prefix filter on a generated name without its last two digits, matching up to a hundred documents.
+     */
+    private static String prefixOf(String name) {
+        return name.substring(0, name.length() - 2) + "*";
+    }
+
+    /**
+     * Completes with the status once the whole body has been received, so streamed responses are timed to the end.
+     */
+    private static Mono<Integer> status(WebClient.RequestHeadersSpec<?> request) {
+        return request.exchange()
+                .flatMap(ClientResponse::toBodilessEntity)
+                .map(ResponseEntity::getStatusCodeValue);
+    }
+
+    @Value
+    private static class Operation {
+        String name;
+        int weight;
+        Function<Random, Mono<Integer>> call;
+    }
+
+    @Value
+    static class Request {
+        String operation;
+        Mono<Integer> call;
+    }
+}
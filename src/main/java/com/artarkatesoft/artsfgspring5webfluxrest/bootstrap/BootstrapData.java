@@ -1,15 +1,18 @@
 package com.artarkatesoft.artsfgspring5webfluxrest.bootstrap;
 
-import com.artarkatesoft.artsfgspring5webfluxrest.domain.CategoryList;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.Category;
 import com.artarkatesoft.artsfgspring5webfluxrest.domain.Vendor;
+import com.artarkatesoft.artsfgspring5webfluxrest.importer.Importer;
 import com.artarkatesoft.artsfgspring5webfluxrest.repositories.CategoryRepository;
 import com.artarkatesoft.artsfgspring5webfluxrest.repositories.VendorRepository;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.CommandLineRunner;
 import org.springframework.core.io.Resource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -17,33 +20,39 @@ import reactor.core.publisher.Mono;
 @Component
 @RequiredArgsConstructor
 @Slf4j
-public class BootstrapData implements CommandLineRunner {
+public class BootstrapData {
+
+    private static final int BUFFER_SIZE = 8192;
 
     private final VendorRepository vendorRepository;
     private final CategoryRepository categoryRepository;
-    private final ObjectMapper objectMapper;
+    private final Importer importer;
+    private final DataBufferFactory bufferFactory = new DefaultDataBufferFactory();
 
     @Value("classpath:examples/categories.json")
     Resource categoryResource;
 
-    @Override
-    public void run(String... args) throws Exception {
-        CategoryList categoryList = objectMapper.readValue(categoryResource.getFile(), CategoryList.class);
-        vendorRepository.count()
-                .log("Vendors count")
+    /**
+     * Seeds the example data into empty collections; completes once everything is written.
+     */
+    public Mono<Void> seed() {
+        Flux<DataBuffer> categoryContent = DataBufferUtils.read(categoryResource, bufferFactory, BUFFER_SIZE);
+        return vendorRepository.count()
                 .filter(count -> count > 0)
+                .doOnNext(count -> log.debug("Found {} vendors, skipping bootstrap", count))
                 .switchIfEmpty(
                         vendorRepository.deleteAll()
                                 .then(categoryRepository.deleteAll())
                                 .thenMany(Flux.range(1, 5)
                                         .map(this::createStubVendor)
                                         .flatMap(vendorRepository::save))
-                                .log("Vendor saved")
-                                .thenMany(categoryRepository.saveAll(categoryList.getCategories()))
-                                .log("Category saved")
+                                .count()
+                                .doOnNext(count -> log.info("Bootstrapped {} vendors", count))
+                                .then(importer.importRecords(categoryContent, Category.class, "categories", "categories"))
+                                .doOnNext(summary -> log.info("Bootstrapped {} categories", summary.getInserted()))
                                 .then(Mono.just(1L))
                 )
-                .subscribe();
+                .then();
     }
 
     private Vendor createStubVendor(int stubId) {
@@ -0,0 +1,171 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.bootstrap;
+
+import com.artarkatesoft.artsfgspring5webfluxrest.cache.CategoryCache;
+import com.artarkatesoft.artsfgspring5webfluxrest.cache.VendorCache;
+import com.artarkatesoft.artsfgspring5webfluxrest.controllers.CategoryController;
+import com.artarkatesoft.artsfgspring5webfluxrest.controllers.VendorController;
+import com.artarkatesoft.artsfgspring5webfluxrest.repositories.CategoryRepository;
+import com.artarkatesoft.artsfgspring5webfluxrest.repositories.IndexInitializer;
+import com.artarkatesoft.artsfgspring5webfluxrest.repositories.VendorRepository;
+import com.artarkatesoft.artsfgspring5webfluxrest.search.SearchIndex;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.env.Environment;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Brings the application to a serving state before it reports ready: creates the indexes, seeds the data,
+ * builds the search index and, unless {@code app.warmup.enabled} is false, opens the Mongo connection pool, loads
+ * the caches and exercises the hot endpoints once over HTTP.
+ * <p>
+ * Runs blocking inside the application runner phase; Boot publishes
+ * {@code ReadinessState.ACCEPTING_TRAFFIC} only after the runners return, so the readiness probe stays
+ * down until warm-up has finished. Index creation, seeding and the search index always run and must succeed within
+ * {@code app.bootstrap.timeout}; the warm-up phases are best effort, each skipped when it fails or outlasts
+ * {@code app.warmup.timeout}.
+ * Each phase is logged and recorded as the {@value #METRIC_NAME} timer. Without Mongo (the {@code inmemory}
+ * profile) the index and connection-pool phases complete immediately.
+ */
+@Slf4j
+@Component
+public class WarmUp implements ApplicationRunner {
+
+    public static final String METRIC_NAME = "app.warmup.phase";
+
+    private final ObjectProvider<IndexInitializer> indexInitializer;
+    private final BootstrapData bootstrapData;
+    private final ObjectProvider<ReactiveMongoTemplate> mongoTemplate;
+    private final CategoryRepository categoryRepository;
+    private final VendorRepository vendorRepository;
+    private final CategoryCache categoryCache;
+    private final VendorCache vendorCache;
+    private final SearchIndex searchIndex;
+    private final ObjectProvider<WebClient.Builder> webClientBuilder;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final Environment environment;
+    private final boolean enabled;
+    private final Duration bootstrapTimeout;
+    private final Duration timeout;
+    private final int connections;
+    private final int cacheEntries;
+    private final int endpointRequests;
+
+    public WarmUp(ObjectProvider<IndexInitializer> indexInitializer, BootstrapData bootstrapData,
+                  ObjectProvider<ReactiveMongoTemplate> mongoTemplate,
+                  CategoryRepository categoryRepository, VendorRepository vendorRepository,
+                  CategoryCache categoryCache, VendorCache vendorCache, SearchIndex searchIndex,
+                  ObjectProvider<WebClient.Builder> webClientBuilder, ObjectProvider<MeterRegistry> meterRegistry,
+                  Environment environment,
+                  @Value("${app.warmup.enabled:true}") boolean enabled,
+                  @Value("${app.bootstrap.timeout:60s}") Duration bootstrapTimeout,
+                  @Value("${app.warmup.timeout:20s}") Duration timeout,
+                  @Value("${app.warmup.connections:10}") int connections,
+                  @Value("${app.warmup.cache-entries:1000}") int cacheEntries,
+                  @Value("${app.warmup.endpoint-requests:3}") int endpointRequests) {
+        this.indexInitializer = indexInitializer;
+        this.bootstrapData = bootstrapData;
+        this.mongoTemplate = mongoTemplate;
+        this.categoryRepository = categoryRepository;
+        this.vendorRepository = vendorRepository;
+        this.categoryCache = categoryCache;
+        this.vendorCache = vendorCache;
+        this.searchIndex = searchIndex;
+        this.webClientBuilder = webClientBuilder;
+        this.meterRegistry = meterRegistry;
+        this.environment = environment;
+        this.enabled = enabled;
+        this.bootstrapTimeout = bootstrapTimeout;
+        this.timeout = timeout;
+        this.connections = connections;
+        this.cacheEntries = cacheEntries;
+        this.endpointRequests = endpointRequests;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Map<String, Long> phaseMillis = new LinkedHashMap<>();
+        long start = System.nanoTime();
+        phase("indexes", createIndexes(), phaseMillis)
+                .then(phase("seed", bootstrapData.seed(), phaseMillis))
+                .then(phase("search-index", buildSearchIndex(), phaseMillis))
+                .block(bootstrapTimeout);
+        if (enabled) {
+            bestEffort("connection-pool", openConnections(), phaseMillis)
+                    .then(bestEffort("caches", loadCaches(), phaseMillis))
+                    .then(bestEffort("endpoints", touchEndpoints(), phaseMillis))
+                    .block();
+        }
+        log.info("Warm-up finished in {} ms, phases {}", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), phaseMillis);
+    }
+
+    private Mono<Void> createIndexes() {
+        IndexInitializer initializer = indexInitializer.getIfAvailable();
+        return (initializer == null) ? Mono.empty() : initializer.ensureIndexes();
+    }
+
+    private Mono<Void> openConnections() {
+        ReactiveMongoTemplate template = mongoTemplate.getIfAvailable();
+        if (template == null) return Mono.empty();
+        return Flux.range(0, connections)
+                .flatMap(i -> template.executeCommand("{ ping: 1 }"), connections)
+                .then();
+    }
+
+    private Mono<Void> buildSearchIndex() {
+        return Mono.defer(() -> searchIndex.build(categoryRepository.streamAllByOrderByIdAsc(),
+                vendorRepository.streamAllByOrderByIdAsc()));
+    }
+
+    private Mono<Void> loadCaches() {
+        return Mono.when(
+                categoryRepository.findAll().take(cacheEntries).doOnNext(categoryCache::put),
+                vendorRepository.findAll().take(cacheEntries).doOnNext(vendorCache::put));
+    }
+
+    private Mono<Void> touchEndpoints() {
+        Integer port = environment.getProperty("local.server.port", Integer.class);
+        WebClient.Builder builder = webClientBuilder.getIfAvailable();
+        if (port == null || port <= 0 || builder == null || endpointRequests <= 0) return Mono.empty();
+        WebClient webClient = builder.baseUrl("http://localhost:" + port).build();
+        return Flux.just(CategoryController.BASE_URL, VendorController.BASE_URL,
+                CategoryController.BASE_URL + "?limit=10", VendorController.BASE_URL + "?limit=10")
+                .repeat(endpointRequests - 1)
+                .concatMap(uri -> webClient.get().uri(uri).retrieve().toBodilessEntity())
+                .then();
+    }
+
+    private Mono<Void> phase(String name, Mono<Void> work, Map<String, Long> phaseMillis) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return work.doOnSuccess(done -> {
+                long elapsed = System.nanoTime() - start;
+                phaseMillis.put(name, TimeUnit.NANOSECONDS.toMillis(elapsed));
+                MeterRegistry registry = meterRegistry.getIfAvailable();
+                if (registry != null)
+                    Timer.builder(METRIC_NAME).tag("phase", name).register(registry).record(elapsed, TimeUnit.NANOSECONDS);
+            });
+        });
+    }
+
+    private Mono<Void> bestEffort(String name, Mono<Void> work, Map<String, Long> phaseMillis) {
+        return phase(name, work.timeout(timeout), phaseMillis)
+                .onErrorResume(e -> {
+                    log.warn("Warm-up phase {} failed, continuing without it", name, e);
+                    return Mono.empty();
+                });
+    }
+}
@@ -0,0 +1,89 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.bson;
+
+import org.bson.BsonInvalidOperationException;
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.types.ObjectId;
+
+import java.time.Instant;
+
+/**
+ * Field conversions shared by the codecs, matching what {@code MappingMongoConverter} writes and accepts.
+ */
+final class BsonFields {
+
+    static final String ID = "_id";
+    static final String CLASS = "_class";
+
+    private BsonFields() {
+    }
+
+    /**
+     * Ids that look like an {@link ObjectId} are stored as one, any other id as a string; a null id is left out
+     * for the server to assign.
+     */
+    static void writeId(BsonWriter writer, String id) {
+        if (id == null) return;
+        if (ObjectId.isValid(id)) writer.writeObjectId(ID, new ObjectId(id));
+        else writer.writeString(ID, id);
+    }
+
+    static void writeString(BsonWriter writer, String name, String value) {
+        if (value != null) writer.writeString(name, value);
+    }
+
+    static void writeInt64(BsonWriter writer, String name, Long value) {
+        if (value != null) writer.writeInt64(name, value);
+    }
+
+    static void writeDateTime(BsonWriter writer, String name, Instant value) {
+        if (value != null) writer.writeDateTime(name, value.toEpochMilli());
+    }
+
+    /**
+     * The type alias Spring Data reads back, so documents written by a codec stay readable through repositories.
+     */
+    static void writeClass(BsonWriter writer, Class<?> type) {
+        writer.writeString(CLASS, type.getName());
+    }
+
+    /**
+     * Consumes the current value when it is null, leaving the field unset.
+     */
+    static boolean skipNull(BsonReader reader) {
+        if (reader.getCurrentBsonType() != BsonType.NULL) return false;
+        reader.readNull();
+        return true;
+    }
+
+    static String readId(BsonReader reader) {
+        BsonType type = reader.getCurrentBsonType();
+        switch (type) {
+            case OBJECT_ID:
+                return reader.readObjectId().toHexString();
+            case STRING:
+                return reader.readString();
+            default:
+                throw new BsonInvalidOperationException("Unsupported " + ID + " type " + type);
+        }
+    }
+
+    static Long readInt64(BsonReader reader) {
+        BsonType type = reader.getCurrentBsonType();
+        switch (type) {
+            case INT64:
+                return reader.readInt64();
+            case INT32:
+                return (long) reader.readInt32();
+            case DOUBLE:
+                return (long) reader.readDouble();
+            default:
+                throw new BsonInvalidOperationException("Expected a number but found " + type);
+        }
+    }
+
+    static Instant readDateTime(BsonReader reader) {
+        return Instant.ofEpochMilli(reader.readDateTime());
+    }
+}
@@ -0,0 +1,60 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.bson;
+
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.Category;
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+
+/**
+ * Reads and writes {@link Category} documents field by field, without the reflective mapping of
+ * {@code MappingMongoConverter} but in the same layout. Unknown fields are skipped.
+ */
+public class CategoryCodec implements Codec<Category> {
+
+    @Override
+    public void encode(BsonWriter writer, Category category, EncoderContext encoderContext) {
+        writer.writeStartDocument();
+        BsonFields.writeId(writer, category.getId());
+        BsonFields.writeString(writer, "name", category.getName());
+        BsonFields.writeInt64(writer, "version", category.getVersion());
+        BsonFields.writeDateTime(writer, "lastModified", category.getLastModified());
+        BsonFields.writeClass(writer, Category.class);
+        writer.writeEndDocument();
+    }
+
+    @Override
+    public Category decode(BsonReader reader, DecoderContext decoderContext) {
+        Category category = new Category();
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            String field = reader.readName();
+            if (BsonFields.skipNull(reader)) continue;
+            switch (field) {
+                case BsonFields.ID:
+                    category.setId(BsonFields.readId(reader));
+                    break;
+                case "name":
+                    category.setName(reader.readString());
+                    break;
+                case "version":
+                    category.setVersion(BsonFields.readInt64(reader));
+                    break;
+                case "lastModified":
+                    category.setLastModified(BsonFields.readDateTime(reader));
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+        return category;
+    }
+
+    @Override
+    public Class<Category> getEncoderClass() {
+        return Category.class;
+    }
+}
@@ -0,0 +1,190 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.bson;
+
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.Category;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.Vendor;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import org.bson.BsonBinaryReader;
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.RawBsonDocument;
+import org.bson.io.ByteBufferBsonInput;
+import org.reactivestreams.Publisher;
+import org.springframework.core.codec.EncodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.PooledDataBuffer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Writes stored documents as the JSON array the application's {@link ObjectMapper} writes for a list of the
+ * mapped domain type, without decoding them into objects on the way: fields come out in the order of the
+ * type's properties, {@code _id} as {@code id}, a missing field as {@code null} (unless the mapper leaves nulls
+ * out), and fields the type does not have, such as {@code _class}, are skipped. Strings and dates go through
+ * the mapper's generator and date serializer, so the bytes are the same as Jackson's.
+ * <p>
+ * The array is written in buffers of {@code documentsPerBuffer} documents, requested from upstream one buffer
+ * at a time.
+ */
+public class RawJsonTranscoder {
+
+    private static final byte[] END = {']'};
+    private static final byte[] EMPTY = {'[', ']'};
+
+    private final ObjectMapper objectMapper;
+    private final Property[] properties;
+    private final boolean writeNulls;
+    private final JsonSerializer<Object> instantSerializer;
+
+    private RawJsonTranscoder(ObjectMapper objectMapper, Class<?> type, Property... properties) {
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        JsonInclude.Include inclusion = objectMapper.getSerializationConfig().getDefaultPropertyInclusion(type)
+                .getValueInclusion();
+        this.writeNulls = inclusion == JsonInclude.Include.ALWAYS || inclusion == JsonInclude.Include.USE_DEFAULTS;
+        try {
+            this.instantSerializer = objectMapper.getSerializerProviderInstance().findValueSerializer(Instant.class);
+        } catch (JsonMappingException e) {
+            throw new IllegalStateException("No serializer for " + Instant.class.getName(), e);
+        }
+    }
+
+    /**
+     * Layout of {@link Category}, as written by {@link CategoryCodec}.
+     */
+    public static RawJsonTranscoder forCategories(ObjectMapper objectMapper) {
+        return new RawJsonTranscoder(objectMapper, Category.class,
+                new Property("id", BsonFields.ID, Kind.ID),
+                new Property("name", "name", Kind.STRING),
+                new Property("version", "version", Kind.INT64),
+                new Property("lastModified", "lastModified", Kind.DATE_TIME));
+    }
+
+    /**
+     * Layout of {@link Vendor}, as written by {@link VendorCodec}.
+     */
+    public static RawJsonTranscoder forVendors(ObjectMapper objectMapper) {
+        return new RawJsonTranscoder(objectMapper, Vendor.class,
+                new Property("id", BsonFields.ID, Kind.ID),
+                new Property("firstName", "firstName", Kind.STRING),
+                new Property("lastName", "lastName", Kind.STRING),
+                new Property("version", "version", Kind.INT64),
+                new Property("lastModified", "lastModified", Kind.DATE_TIME));
+    }
+
+    public Flux<DataBuffer> writeArray(Publisher<RawBsonDocument> documents, DataBufferFactory bufferFactory,
+                                       int documentsPerBuffer) {
+        return Flux.defer(() -> {
+            boolean[] started = {false};
+            return Flux.from(documents)
+                    .buffer(documentsPerBuffer)
+                    .map(chunk -> {
+                        DataBuffer buffer = write(chunk, started[0] ? ',' : '[', bufferFactory);
+                        started[0] = true;
+                        return buffer;
+                    })
+                    .concatWith(Mono.fromSupplier(() -> bufferFactory.wrap(started[0] ? END : EMPTY)));
+        }).doOnDiscard(PooledDataBuffer.class, DataBufferUtils::release);
+    }
+
+    private DataBuffer write(List<RawBsonDocument> chunk, char separator, DataBufferFactory bufferFactory) {
+        DataBuffer buffer = bufferFactory.allocateBuffer();
+        boolean release = true;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(buffer.asOutputStream(), JsonEncoding.UTF8)) {
+            objectMapper.getSerializationConfig().initialize(generator);
+            generator.setRootValueSeparator(null);
+            SerializerProvider serializerProvider = objectMapper.getSerializerProviderInstance();
+            for (RawBsonDocument document : chunk) {
+                generator.writeRaw(separator);
+                write(document, generator, serializerProvider);
+                separator = ',';
+            }
+            generator.flush();
+            release = false;
+            return buffer;
+        } catch (IOException e) {
+            throw new EncodingException("JSON encoding error: " + e.getMessage(), e);
+        } finally {
+            if (release) DataBufferUtils.release(buffer);
+        }
+    }
+
+    private void write(RawBsonDocument document, JsonGenerator generator, SerializerProvider serializerProvider)
+            throws IOException {
+        Object[] values = read(document);
+        generator.writeStartObject();
+        for (int i = 0; i < properties.length; i++) {
+            Object value = values[i];
+            if (value == null && !writeNulls) continue;
+            generator.writeFieldName(properties[i].jsonName);
+            if (value == null) generator.writeNull();
+            else if (value instanceof String) generator.writeString((String) value);
+            else if (properties[i].kind == Kind.DATE_TIME)
+                instantSerializer.serialize(Instant.ofEpochMilli((Long) value), generator, serializerProvider);
+            else generator.writeNumber((Long) value);
+        }
+        generator.writeEndObject();
+    }
+
+    private Object[] read(RawBsonDocument document) {
+        Object[] values = new Object[properties.length];
+        try (BsonReader reader = new BsonBinaryReader(new ByteBufferBsonInput(document.getByteBuffer()))) {
+            reader.readStartDocument();
+            while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+                int index = indexOf(reader.readName());
+                if (index < 0) {
+                    reader.skipValue();
+                } else if (!BsonFields.skipNull(reader)) {
+                    values[index] = read(reader, properties[index].kind);
+                }
+            }
+            reader.readEndDocument();
+        }
+        return values;
+    }
+
+    private static Object read(BsonReader reader, Kind kind) {
+        switch (kind) {
+            case ID:
+                return BsonFields.readId(reader);
+            case STRING:
+                return reader.readString();
+            case INT64:
+                return BsonFields.readInt64(reader);
+            default:
+                return reader.readDateTime();
+        }
+    }
+
+    private int indexOf(String bsonName) {
+        for (int i = 0; i < properties.length; i++)
+            if (properties[i].bsonName.equals(bsonName)) return i;
+        return -1;
+    }
+
+    private enum Kind {ID, STRING, INT64, DATE_TIME}
+
+    private static class Property {
+        final SerializedString jsonName;
+        final String bsonName;
+        final Kind kind;
+
+        Property(String jsonName, String bsonName, Kind kind) {
+            this.jsonName = new SerializedString(jsonName);
+            this.bsonName = bsonName;
+            this.kind = kind;
+        }
+    }
+}
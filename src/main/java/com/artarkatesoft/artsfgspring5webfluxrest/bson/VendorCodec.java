@@ -0,0 +1,64 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.bson;
+
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.Vendor;
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+
+/**
+ * Reads and writes {@link Vendor} documents field by field, without the reflective mapping of
+ * {@code MappingMongoConverter} but in the same layout. Unknown fields are skipped.
+ */
+public class VendorCodec implements Codec<Vendor> {
+
+    @Override
+    public void encode(BsonWriter writer, Vendor vendor, EncoderContext encoderContext) {
+        writer.writeStartDocument();
+        BsonFields.writeId(writer, vendor.getId());
+        BsonFields.writeString(writer, "firstName", vendor.getFirstName());
+        BsonFields.writeString(writer, "lastName", vendor.getLastName());
+        BsonFields.writeInt64(writer, "version", vendor.getVersion());
+        BsonFields.writeDateTime(writer, "lastModified", vendor.getLastModified());
+        BsonFields.writeClass(writer, Vendor.class);
+        writer.writeEndDocument();
+    }
+
+    @Override
+    public Vendor decode(BsonReader reader, DecoderContext decoderContext) {
+        Vendor vendor = new Vendor();
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            String field = reader.readName();
+            if (BsonFields.skipNull(reader)) continue;
+            switch (field) {
+                case BsonFields.ID:
+                    vendor.setId(BsonFields.readId(reader));
+                    break;
+                case "firstName":
+                    vendor.setFirstName(reader.readString());
+                    break;
+                case "lastName":
+                    vendor.setLastName(reader.readString());
+                    break;
+                case "version":
+                    vendor.setVersion(BsonFields.readInt64(reader));
+                    break;
+                case "lastModified":
+                    vendor.setLastModified(BsonFields.readDateTime(reader));
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+        return vendor;
+    }
+
+    @Override
+    public Class<Vendor> getEncoderClass() {
+        return Vendor.class;
+    }
+}
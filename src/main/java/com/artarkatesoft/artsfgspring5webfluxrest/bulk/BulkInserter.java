@@ -0,0 +1,14 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.bulk;
+
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.BulkItemResult;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+
+public interface BulkInserter {
+
+    /**
+     * Inserts {@code items} in batches and emits one result per item, in request order.
+     * A failed item is reported in its result and does not abort the remaining items.
+     */
+    <T> Flux<BulkItemResult> insert(Publisher<T> items, Class<T> type);
+}
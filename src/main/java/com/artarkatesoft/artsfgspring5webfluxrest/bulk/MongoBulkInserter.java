@@ -0,0 +1,184 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.bulk;
+
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.BulkItemResult;
+import com.artarkatesoft.artsfgspring5webfluxrest.search.SearchIndex;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.InsertOneModel;
+import com.mongodb.client.model.WriteModel;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mapping.PersistentPropertyAccessor;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.function.Tuple2;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Windows the incoming items by size and time and flushes every window as one unordered {@code bulkWrite},
+ * so a window costs a single round trip and a duplicate or invalid document only fails itself.
+ * <p>
+ * Windows are cut only as fast as the writes take them: items are requested at the pace of the inserts, and a
+ * partial window waiting for a slow producer is flushed by a tick that is dropped while no insert can start.
+ * ({@code bufferTimeout} and {@code windowTimeout} instead fail with an overflow when their timer fires while
+ * every insert slot is busy.)
+ * <p>
+ * Like {@code ReactiveMongoTemplate.insert}, an inserted item gets the generated id written back and an
+ * {@link AfterSaveEvent} is published for it, which the raw {@code bulkWrite} would not do; it is then put into the
+ * {@link SearchIndex}.
+ */
+@Slf4j
+@Component
+@Profile("!inmemory")
+public class MongoBulkInserter implements BulkInserter {
+
+    private static final BulkWriteOptions UNORDERED = new BulkWriteOptions().ordered(false);
+    private static final Object FLUSH = new Object();
+    private static final Object END = new Object();
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final int batchSize;
+    private final Duration maxWait;
+    private final int concurrency;
+    private final SearchIndex searchIndex;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public MongoBulkInserter(ReactiveMongoTemplate mongoTemplate,
+                             @Value("${app.bulk.batch-size:1000}") int batchSize,
+                             @Value("${app.bulk.max-wait:100ms}") Duration maxWait,
+                             @Value("${app.bulk.concurrency:4}") int concurrency,
+                             SearchIndex searchIndex, ApplicationEventPublisher eventPublisher) {
+        this.mongoTemplate = mongoTemplate;
+        this.batchSize = batchSize;
+        this.maxWait = maxWait;
+        this.concurrency = concurrency;
+        this.searchIndex = searchIndex;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public <T> Flux<BulkItemResult> insert(Publisher<T> items, Class<T> type) {
+        return batches(Flux.from(items).index())
+                .flatMapSequential(batch -> insertBatch(batch, type), concurrency);
+    }
+
+    /**
+     * Cuts a batch every {@code batchSize} items, or on the first tick at least {@code maxWait} after the first
+     * item of a partial batch.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> Flux<List<T>> batches(Flux<T> items) {
+        return Flux.defer(() -> {
+            Scheduler clock = Schedulers.parallel();
+            long[] batch = {0, 0}; // size, time of first item
+            return Flux.merge(items.cast(Object.class).concatWith(Mono.just(END)),
+                    Flux.interval(maxWait, clock).onBackpressureDrop().map(tick -> FLUSH))
+                    .takeUntil(signal -> signal == END)
+                    .filter(signal -> signal != FLUSH ||
+                            (batch[0] > 0 && clock.now(TimeUnit.MILLISECONDS) - batch[1] >= maxWait.toMillis()))
+                    .bufferUntil(signal -> {
+                        boolean item = signal != FLUSH && signal != END;
+                        if (item && batch[0]++ == 0) batch[1] = clock.now(TimeUnit.MILLISECONDS);
+                        boolean cut = !item || batch[0] == batchSize;
+                        if (cut) batch[0] = 0;
+                        return cut;
+                    })
+                    .map(signals -> {
+                        List<T> batchItems = new ArrayList<>(signals.size());
+                        for (Object signal : signals)
+                            if (signal != FLUSH && signal != END) batchItems.add((T) signal);
+                        return batchItems;
+                    })
+                    .filter(batchItems -> !batchItems.isEmpty());
+        });
+    }
+
+    private <T> Flux<BulkItemResult> insertBatch(List<Tuple2<Long, T>> batch, Class<T> type) {
+        List<Document> documents = new ArrayList<>(batch.size());
+        List<WriteModel<Document>> inserts = new ArrayList<>(batch.size());
+        MongoPersistentEntity<?> entity = mongoTemplate.getConverter().getMappingContext().getRequiredPersistentEntity(type);
+        for (Tuple2<Long, T> item : batch) {
+            Document document = new Document();
+            mongoTemplate.getConverter().write(item.getT2(), document);
+            if (document.get("_id") == null) document.put("_id", new ObjectId());
+            if (entity.hasVersionProperty()) document.putIfAbsent(entity.getRequiredVersionProperty().getFieldName(), 0L);
+            documents.add(document);
+            inserts.add(new InsertOneModel<>(document));
+        }
+        return mongoTemplate.execute(type, collection -> collection.bulkWrite(inserts, UNORDERED))
+                .then(Mono.just(Collections.<Integer, String>emptyMap()))
+                .onErrorResume(e -> {
+                    MongoBulkWriteException bulkWriteException = findBulkWriteException(e);
+                    if (bulkWriteException == null) {
+                        log.warn("Bulk insert of {} {} documents failed", batch.size(), type.getSimpleName(), e);
+                        return Mono.just(failAll(batch.size(), e));
+                    }
+                    Map<Integer, String> errors = new HashMap<>();
+                    for (BulkWriteError writeError : bulkWriteException.getWriteErrors())
+                        errors.put(writeError.getIndex(), writeError.getMessage());
+                    return Mono.just(errors);
+                })
+                .doOnNext(errors -> afterInsert(batch, documents, errors, entity, type))
+                .flatMapIterable(errors -> toResults(batch, documents, errors));
+    }
+
+    private <T> void afterInsert(List<Tuple2<Long, T>> batch, List<Document> documents, Map<Integer, String> errors,
+                                 MongoPersistentEntity<?> entity, Class<T> type) {
+        String collectionName = mongoTemplate.getCollectionName(type);
+        for (int i = 0; i < batch.size(); i++) {
+            if (errors.containsKey(i)) continue;
+            T item = batch.get(i).getT2();
+            if (entity.hasIdProperty()) {
+                PersistentPropertyAccessor<T> accessor = entity.getPropertyAccessor(item);
+                MongoPersistentProperty idProperty = entity.getRequiredIdProperty();
+                if (accessor.getProperty(idProperty) == null)
+                    accessor.setProperty(idProperty, mongoTemplate.getConverter().getConversionService()
+                            .convert(documents.get(i).get("_id"), idProperty.getType()));
+            }
+            eventPublisher.publishEvent(new AfterSaveEvent<>(item, documents.get(i), collectionName));
+            searchIndex.putInserted(item);
+        }
+    }
+
+    private static <T> List<BulkItemResult> toResults(List<Tuple2<Long, T>> batch, List<Document> documents,
+                                                      Map<Integer, String> errors) {
+        List<BulkItemResult> results = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            Object id = documents.get(i).get("_id");
+            results.add(BulkItemResult.builder()
+                    .index(batch.get(i).getT1())
+                    .id(id instanceof ObjectId ? ((ObjectId) id).toHexString() : String.valueOf(id))
+                    .error(errors.get(i))
+                    .build());
+        }
+        return results;
+    }
+
+    private static Map<Integer, String> failAll(int size, Throwable e) {
+        Map<Integer, String> errors = new HashMap<>();
+        for (int i = 0; i < size; i++) errors.put(i, e.getMessage());
+        return errors;
+    }
+
+    private static MongoBulkWriteException findBulkWriteException(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause())
+            if (cause instanceof MongoBulkWriteException) return (MongoBulkWriteException) cause;
+        return null;
+    }
+}
@@ -0,0 +1,21 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.cache;
+
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.Category;
+import com.artarkatesoft.artsfgspring5webfluxrest.repositories.CategoryRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+public class CategoryCache extends ReactiveCache<Category> {
+
+    public CategoryCache(CategoryRepository categoryRepository,
+                         @Value("${app.cache.categories.maximum-size:10000}") long maximumSize,
+                         @Value("${app.cache.categories.ttl:10m}") Duration ttl,
+                         @Value("${app.cache.batch.max-size:100}") int batchSize,
+                         @Value("${app.cache.batch.max-wait:2ms}") Duration batchWait) {
+        super("categories", RequestBatcher.loader(categoryRepository::findById, categoryRepository::findAllById,
+                Category::getId, batchSize, batchWait), Category::getId, maximumSize, ttl);
+    }
+}
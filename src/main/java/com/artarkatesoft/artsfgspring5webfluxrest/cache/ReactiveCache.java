@@ -0,0 +1,72 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.cache;
+
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.CacheStatistics;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache in front of a reactive loader.
+ * Concurrent misses for the same id share one in-flight load; empty results are not cached.
+ */
+public class ReactiveCache<T> {
+
+    private final String name;
+    private final AsyncCache<String, T> cache;
+    private final Function<String, Mono<T>> loader;
+    private final Function<T, String> idExtractor;
+
+    public ReactiveCache(String name, Function<String, Mono<T>> loader, Function<T, String> idExtractor,
+                         long maximumSize, Duration ttl) {
+        this.name = name;
+        this.loader = loader;
+        this.idExtractor = idExtractor;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Mono<T> get(String id) {
+        CompletableFuture<T> shared = cache.get(id, (key, executor) -> loader.apply(key).toFuture());
+        // cancelling a subscriber must not cancel the load other subscribers are waiting for
+        return Mono.fromFuture(shared.thenApply(Function.identity()));
+    }
+
+    public void put(T value) {
+        cache.put(idExtractor.apply(value), CompletableFuture.completedFuture(value));
+    }
+
+    public void invalidate(String id) {
+        cache.synchronous().invalidate(id);
+    }
+
+    public void invalidateAll() {
+        cache.synchronous().invalidateAll();
+    }
+
+    public AsyncCache<String, T> getNativeCache() {
+        return cache;
+    }
+
+    public CacheStatistics statistics() {
+        CacheStats stats = cache.synchronous().stats();
+        return CacheStatistics.builder()
+                .size(cache.synchronous().estimatedSize())
+                .hitCount(stats.hitCount())
+                .missCount(stats.missCount())
+                .evictionCount(stats.evictionCount())
+                .loadFailureCount(stats.loadFailureCount())
+                .build();
+    }
+}
@@ -0,0 +1,100 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.cache;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * DataLoader-style coalescing of single-id lookups: ids requested within {@code maxWait} of the first one are
+ * resolved together by one batch query. A batch is dispatched once it holds {@code maxBatchSize} ids or its
+ * first id has waited {@code maxWait}; ids the batch query does not return complete empty.
+ */
+public class RequestBatcher<T> {
+
+    private final Function<Iterable<String>, Flux<T>> batchLoader;
+    private final Function<T, String> idExtractor;
+    private final int maxBatchSize;
+    private final Duration maxWait;
+    private final Scheduler scheduler;
+
+    // guarded by this
+    private Map<String, CompletableFuture<T>> pending = new LinkedHashMap<>();
+    private long generation;
+
+    public RequestBatcher(Function<Iterable<String>, Flux<T>> batchLoader, Function<T, String> idExtractor,
+                          int maxBatchSize, Duration maxWait, Scheduler scheduler) {
+        this.batchLoader = batchLoader;
+        this.idExtractor = idExtractor;
+        this.maxBatchSize = maxBatchSize;
+        this.maxWait = maxWait;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * The single-id loader to put in front of a repository: batched when {@code maxBatchSize > 1},
+     * otherwise {@code singleLoader} itself.
+     */
+    public static <T> Function<String, Mono<T>> loader(Function<String, Mono<T>> singleLoader,
+                                                       Function<Iterable<String>, Flux<T>> batchLoader,
+                                                       Function<T, String> idExtractor,
+                                                       int maxBatchSize, Duration maxWait) {
+        if (maxBatchSize <= 1) return singleLoader;
+        return new RequestBatcher<>(batchLoader, idExtractor, maxBatchSize, maxWait, Schedulers.parallel())::load;
+    }
+
+    public Mono<T> load(String id) {
+        // cancelling a subscriber must not cancel the lookup other subscribers of the same id are waiting for
+        return Mono.defer(() -> Mono.fromFuture(enqueue(id).thenApply(Function.identity())));
+    }
+
+    private CompletableFuture<T> enqueue(String id) {
+        CompletableFuture<T> result;
+        Map<String, CompletableFuture<T>> full = null;
+        synchronized (this) {
+            result = pending.computeIfAbsent(id, key -> new CompletableFuture<>());
+            if (pending.size() == 1) {
+                long batch = generation;
+                scheduler.schedule(() -> flush(batch), maxWait.toNanos(), TimeUnit.NANOSECONDS);
+            }
+            if (pending.size() >= maxBatchSize) full = drain();
+        }
+        if (full != null) dispatch(full);
+        return result;
+    }
+
+    private void flush(long batch) {
+        Map<String, CompletableFuture<T>> due;
+        synchronized (this) {
+            // the batch was already dispatched for being full
+            if (batch != generation) return;
+            due = drain();
+        }
+        dispatch(due);
+    }
+
+    private Map<String, CompletableFuture<T>> drain() {
+        Map<String, CompletableFuture<T>> drained = pending;
+        pending = new LinkedHashMap<>();
+        generation++;
+        return drained;
+    }
+
+    private void dispatch(Map<String, CompletableFuture<T>> batch) {
+        batchLoader.apply(new ArrayList<>(batch.keySet()))
+                .subscribe(item -> {
+                            CompletableFuture<T> result = batch.remove(idExtractor.apply(item));
+                            if (result != null) result.complete(item);
+                        },
+                        error -> batch.values().forEach(result -> result.completeExceptionally(error)),
+                        () -> batch.values().forEach(result -> result.complete(null)));
+    }
+}
@@ -0,0 +1,21 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.cache;
+
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.Vendor;
+import com.artarkatesoft.artsfgspring5webfluxrest.repositories.VendorRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+public class VendorCache extends ReactiveCache<Vendor> {
+
+    public VendorCache(VendorRepository vendorRepository,
+                       @Value("${app.cache.vendors.maximum-size:10000}") long maximumSize,
+                       @Value("${app.cache.vendors.ttl:1m}") Duration ttl,
+                       @Value("${app.cache.batch.max-size:100}") int batchSize,
+                       @Value("${app.cache.batch.max-wait:2ms}") Duration batchWait) {
+        super("vendors", RequestBatcher.loader(vendorRepository::findById, vendorRepository::findAllById, Vendor::getId,
+                batchSize, batchWait), Vendor::getId, maximumSize, ttl);
+    }
+}
@@ -0,0 +1,14 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.changes;
+
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.ChangeEvent;
+import reactor.core.publisher.Flux;
+
+public interface ChangeFeed {
+
+    /**
+     * Live changes of the collection mapped by {@code type}.
+     *
+     * @param resumeToken token of the last event the client has seen, or {@code null} to start from now
+     */
+    <T> Flux<ChangeEvent<T>> changes(Class<T> type, String resumeToken);
+}
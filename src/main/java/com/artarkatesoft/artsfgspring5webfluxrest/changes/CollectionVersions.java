@@ -0,0 +1,100 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.changes;
+
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.Versioned;
+import lombok.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collection-level versions, bumped after every write made through the API and served as the validators of
+ * the list endpoints, so an unchanged list is answered with 304 before any query runs.
+ * <p>
+ * Versions live in this instance only: tags carry the start time so they never match across restarts, and
+ * like {@link InMemoryChangeFeed} writes made by other processes are not seen.
+ * <p>
+ * {@code If-Modified-Since} is compared in whole seconds, so every version's {@code Last-Modified} is a whole
+ * second after that of the version before, even when both are written within the same second. Under a sustained
+ * burst of writes those dates run ahead of the clock; a version that would be dated more than {@link #MAX_AHEAD}
+ * ahead has no {@code Last-Modified} and is validated by its tag alone.
+ */
+@Component
+public class CollectionVersions {
+
+    static final Duration MAX_AHEAD = Duration.ofMinutes(1);
+
+    private final String epoch = Long.toString(now().toEpochMilli(), 36);
+    private final Map<Class<?>, Version> versions = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Instant> latestLastModified = new ConcurrentHashMap<>();
+
+    public Version current(Class<?> type) {
+        return versions.computeIfAbsent(type, t -> new Version(0, nextLastModified(t), eTag(0)));
+    }
+
+    /**
+     * Call after the write has completed: a reader that fetched the version earlier must not get it for the new state.
+     */
+    public void bump(Class<?> type) {
+        versions.compute(type, (t, version) -> {
+            long number = (version == null) ? 1 : version.getNumber() + 1;
+            return new Version(number, nextLastModified(t), eTag(number));
+        });
+    }
+
+    /**
+     * Called under the lock of {@code type}'s entry in {@link #versions}.
+     *
+     * @return the next whole second after every {@code Last-Modified} given out for {@code type}, or {@code null}
+     * when that is more than {@link #MAX_AHEAD} ahead of the clock
+     */
+    private Instant nextLastModified(Class<?> type) {
+        Instant now = Instant.now();
+        Instant next = now.truncatedTo(ChronoUnit.SECONDS).plusSeconds(1);
+        Instant latest = latestLastModified.get(type);
+        if (latest != null && !next.isAfter(latest)) next = latest.plusSeconds(1);
+        if (next.isAfter(now.plus(MAX_AHEAD))) return null;
+        latestLastModified.put(type, next);
+        return next;
+    }
+
+    /**
+     * Bumps the version once {@code writes} completes, fails or is cancelled, before its subscriber sees the end,
+     * so a client that reads after its write finished never gets the old tag.
+     */
+    public <T> Flux<T> bumpOnTermination(Flux<T> writes, Class<?> type) {
+        return writes
+                .doOnTerminate(() -> bump(type))
+                .doOnCancel(() -> bump(type));
+    }
+
+    /**
+     * Sets the document's last-modified time to now, at the millisecond precision Mongo stores.
+     */
+    public <T extends Versioned> T stamp(T document) {
+        document.setLastModified(now());
+        return document;
+    }
+
+    private String eTag(long number) {
+        return "W/\"" + epoch + "-" + number + "\"";
+    }
+
+    private static Instant now() {
+        return Instant.now().truncatedTo(ChronoUnit.MILLIS);
+    }
+
+    @Value
+    public static class Version {
+        long number;
+        /**
+         * Whole seconds; {@code null} when the version goes out with its tag only.
+         */
+        Instant lastModified;
+        String eTag;
+    }
+}
@@ -0,0 +1,87 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.changes;
+
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.ChangeEvent;
+import lombok.Value;
+import org.bson.Document;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.data.mongodb.core.mapping.event.MongoMappingEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.ReplayProcessor;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+
+/**
+ * Stand-in for {@link MongoChangeFeed} when no replica set is available (standalone or embedded Mongo, tests).
+ * Feeds on the mapping events published by this application instance, so writes from other processes are not seen.
+ * Resume tokens are sequence numbers; a client can resume as long as its last event is within the last
+ * {@value #HISTORY_SIZE} events.
+ */
+@Component
+@ConditionalOnProperty(name = "app.changes.source", havingValue = "in-memory")
+public class InMemoryChangeFeed implements ChangeFeed, ApplicationListener<MongoMappingEvent<?>> {
+
+    static final int HISTORY_SIZE = 1024;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final ReplayProcessor<Entry> history = ReplayProcessor.create(HISTORY_SIZE);
+    private final FluxSink<Entry> sink = history.sink();
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> Flux<ChangeEvent<T>> changes(Class<T> type, String resumeToken) {
+        long after = (resumeToken == null) ? sequence.get() : parseToken(resumeToken);
+        return history
+                .filter(entry -> entry.getSequence() > after && entry.getType() == type)
+                .map(entry -> (ChangeEvent<T>) entry.getEvent());
+    }
+
+    @Override
+    public void onApplicationEvent(MongoMappingEvent<?> event) {
+        if (event instanceof AfterSaveEvent) {
+            Object saved = event.getSource();
+            publish(saved.getClass(), "save", idOf(event.getDocument()), saved);
+        } else if (event instanceof AfterDeleteEvent) {
+            publish(((AfterDeleteEvent<?>) event).getType(), "delete", idOf(event.getDocument()), null);
+        }
+    }
+
+    public synchronized <T> ChangeEvent<T> publish(Class<?> type, String operation, String documentId, T document) {
+        long seq = sequence.incrementAndGet();
+        ChangeEvent<T> changeEvent = ChangeEvent.<T>builder()
+                .operation(operation)
+                .documentId(documentId)
+                .document(document)
+                .resumeToken(Long.toString(seq))
+                .build();
+        sink.next(new Entry(seq, type, changeEvent));
+        return changeEvent;
+    }
+
+    private static String idOf(Document document) {
+        Object id = (document == null) ? null : document.get("_id");
+        return (id == null) ? null : id.toString();
+    }
+
+    private static long parseToken(String resumeToken) {
+        try {
+            return Long.parseLong(resumeToken);
+        } catch (NumberFormatException e) {
+            throw new ResponseStatusException(BAD_REQUEST, "Malformed resume token `" + resumeToken + "`");
+        }
+    }
+
+    @Value
+    private static class Entry {
+        long sequence;
+        Class<?> type;
+        ChangeEvent<?> event;
+    }
+}
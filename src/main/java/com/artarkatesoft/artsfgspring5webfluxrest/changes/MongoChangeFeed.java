@@ -0,0 +1,69 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.changes;
+
+import com.artarkatesoft.artsfgspring5webfluxrest.controllers.Cursors;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.ChangeEvent;
+import lombok.RequiredArgsConstructor;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.json.JsonParseException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.ChangeStreamEvent;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+
+/**
+ * Change feed backed by MongoDB change streams. Requires a replica set or a sharded cluster.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.changes.source", havingValue = "mongo", matchIfMissing = true)
+public class MongoChangeFeed implements ChangeFeed {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public <T> Flux<ChangeEvent<T>> changes(Class<T> type, String resumeToken) {
+        BsonValue resumeAfter = (resumeToken == null) ? null : decodeToken(resumeToken);
+        return mongoTemplate.changeStream(type)
+                .withOptions(options -> {
+                    options.returnFullDocumentOnUpdate();
+                    if (resumeAfter != null) options.resumeAfter(resumeAfter);
+                })
+                .watchCollection(type)
+                .listen()
+                .map(this::toChangeEvent);
+    }
+
+    private <T> ChangeEvent<T> toChangeEvent(ChangeStreamEvent<T> event) {
+        BsonDocument documentKey = event.getRaw().getDocumentKey();
+        return ChangeEvent.<T>builder()
+                .operation(event.getOperationType() == null ? null : event.getOperationType().getValue())
+                .documentId(documentKey == null ? null : idToString(documentKey.get("_id")))
+                .document(event.getBody())
+                .resumeToken(encodeToken(event.getResumeToken()))
+                .build();
+    }
+
+    private static String idToString(BsonValue id) {
+        if (id == null) return null;
+        if (id.isObjectId()) return id.asObjectId().getValue().toHexString();
+        if (id.isString()) return id.asString().getValue();
+        return id.toString();
+    }
+
+    private static String encodeToken(BsonValue token) {
+        return (token == null) ? null : Cursors.encode(token.asDocument().toJson());
+    }
+
+    private static BsonValue decodeToken(String token) {
+        try {
+            return BsonDocument.parse(Cursors.decode(token));
+        } catch (JsonParseException e) {
+            throw new ResponseStatusException(BAD_REQUEST, "Malformed resume token `" + token + "`");
+        }
+    }
+}
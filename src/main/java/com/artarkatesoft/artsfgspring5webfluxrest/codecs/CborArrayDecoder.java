@@ -0,0 +1,206 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.codecs;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.PooledDataBuffer;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * CBOR decoder that also reads a {@code Flux} body, from either a CBOR array or a sequence of CBOR values;
+ * the CBOR decoder of this Spring version only reads single values.
+ * <p>
+ * Jackson has no non-blocking CBOR parser, so the body is split into values as its buffers arrive and each complete
+ * value is decoded on its own: a large upload streams like JSON, and {@code maxInMemorySize} limits one value
+ * rather than the whole body.
+ */
+public class CborArrayDecoder extends Jackson2CborDecoder {
+
+    public CborArrayDecoder(ObjectMapper cborMapper) {
+        super(cborMapper);
+    }
+
+    @Override
+    public Flux<Object> decode(Publisher<DataBuffer> input, ResolvableType elementType, MimeType mimeType,
+                               Map<String, Object> hints) {
+        ObjectReader reader = getObjectMapper().readerFor(getObjectMapper().constructType(elementType.getType()));
+        return Flux.defer(() -> {
+            ValueSplitter splitter = new ValueSplitter(getMaxInMemorySize());
+            return Flux.from(input)
+                    .concatMapIterable(buffer -> {
+                        try {
+                            return splitter.split(buffer);
+                        } finally {
+                            DataBufferUtils.release(buffer);
+                        }
+                    })
+                    .concatWith(Mono.fromRunnable(splitter::complete))
+                    .map(value -> read(reader, value));
+        }).doOnDiscard(PooledDataBuffer.class, DataBufferUtils::release);
+    }
+
+    private static Object read(ObjectReader reader, byte[] value) {
+        try {
+            return reader.readValue(value);
+        } catch (IOException e) {
+            throw new DecodingException("CBOR decoding error: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Finds where the data items of RFC 7049 end, without decoding them: the elements of a top-level array
+     * (definite or indefinite length), or else every top-level item.
+     */
+    private static class ValueSplitter {
+
+        private static final int ARRAY = 4;
+        private static final int MAP = 5;
+        private static final int BREAK = 0xff;
+        private static final int MAX_DEPTH = 1000;
+
+        private final int maxInMemorySize;
+        private byte[] bytes = new byte[1024];
+        private int start;
+        private int end;
+        private boolean started;
+        private boolean inArray;
+        private long remaining;
+        private boolean finished;
+
+        ValueSplitter(int maxInMemorySize) {
+            this.maxInMemorySize = maxInMemorySize;
+        }
+
+        List<byte[]> split(DataBuffer buffer) {
+            append(buffer);
+            List<byte[]> values = new ArrayList<>();
+            while (start < end) {
+                if (finished) throw new DecodingException("Unexpected data after the CBOR array");
+                if (!started && !startArray()) break;
+                if (finished) continue;
+                if (inArray && remaining < 0 && (bytes[start] & 0xff) == BREAK) {
+                    start++;
+                    finished = true;
+                    continue;
+                }
+                int valueEnd = skip(start, 0);
+                if (valueEnd < 0) break;
+                checkSize(valueEnd - start);
+                values.add(Arrays.copyOfRange(bytes, start, valueEnd));
+                start = valueEnd;
+                if (inArray && remaining > 0 && --remaining == 0) finished = true;
+            }
+            checkSize(end - start);
+            return values;
+        }
+
+        void complete() {
+            if (start < end || (inArray && !finished)) throw new DecodingException("Incomplete CBOR input");
+        }
+
+        /**
+         * @return false while the header of the first item is incomplete
+         */
+        private boolean startArray() {
+            if ((bytes[start] & 0xff) >>> 5 == ARRAY) {
+                int info = bytes[start] & 0x1f;
+                if (info == 31) {
+                    remaining = -1;
+                    start++;
+                } else {
+                    int headerEnd = skipArgument(start);
+                    if (headerEnd < 0) return false;
+                    remaining = argument(start);
+                    if (remaining < 0) throw new DecodingException("Malformed CBOR: length out of range");
+                    finished = remaining == 0;
+                    start = headerEnd;
+                }
+                inArray = true;
+            }
+            started = true;
+            return true;
+        }
+
+        /**
+         * @return the end of the item at {@code position}, or -1 when it is not complete yet
+         */
+        private int skip(int position, int depth) {
+            if (depth > MAX_DEPTH) throw new DecodingException("CBOR nested deeper than " + MAX_DEPTH);
+            if (position >= end) return -1;
+            int major = (bytes[position] & 0xff) >>> 5;
+            int info = bytes[position] & 0x1f;
+            if (info == 31) {
+                if (major < 2 || major > MAP) throw new DecodingException("Malformed CBOR: unexpected break");
+                return skipIndefinite(position + 1, depth);
+            }
+            int next = skipArgument(position);
+            if (next < 0 || major == 0 || major == 1 || major == 7) return next;
+            if (major == 6) return skip(next, depth + 1);
+            long argument = argument(position);
+            if (argument < 0) throw new DecodingException("Malformed CBOR: length out of range");
+            if (major == 2 || major == 3) return (end - next >= argument) ? next + (int) argument : -1;
+            long items = (major == MAP) ? argument * 2 : argument;
+            for (long i = 0; i < items && next >= 0; i++) next = skip(next, depth + 1);
+            return next;
+        }
+
+        private int skipIndefinite(int position, int depth) {
+            while (position >= 0) {
+                if (position >= end) return -1;
+                if ((bytes[position] & 0xff) == BREAK) return position + 1;
+                position = skip(position, depth + 1);
+            }
+            return -1;
+        }
+
+        private int skipArgument(int position) {
+            int info = bytes[position] & 0x1f;
+            if (info < 24) return position + 1;
+            if (info > 27) throw new DecodingException("Malformed CBOR: reserved additional information " + info);
+            int next = position + 1 + (1 << (info - 24));
+            return (next <= end) ? next : -1;
+        }
+
+        private long argument(int position) {
+            int info = bytes[position] & 0x1f;
+            if (info < 24) return info;
+            long argument = 0;
+            for (int i = 1; i <= 1 << (info - 24); i++) argument = (argument << 8) | (bytes[position + i] & 0xff);
+            return argument;
+        }
+
+        private void append(DataBuffer buffer) {
+            int length = buffer.readableByteCount();
+            if (end + length > bytes.length) {
+                int pending = end - start;
+                byte[] target = (pending + length > bytes.length) ?
+                        new byte[Math.max(bytes.length * 2, pending + length)] : bytes;
+                System.arraycopy(bytes, start, target, 0, pending);
+                bytes = target;
+                start = 0;
+                end = pending;
+            }
+            buffer.read(bytes, end, length);
+            end += length;
+        }
+
+        private void checkSize(int size) {
+            if (maxInMemorySize >= 0 && size > maxInMemorySize)
+                throw new DataBufferLimitException("Exceeded limit on max bytes per CBOR value: " + maxInMemorySize);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.codecs;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * CBOR encoder that also writes a {@code Flux}, as one CBOR array the way JSON writes a non-streaming
+ * {@code Flux}; the CBOR encoder of this Spring version only accepts single values.
+ */
+public class CborArrayEncoder extends Jackson2CborEncoder {
+
+    public CborArrayEncoder(ObjectMapper cborMapper) {
+        super(cborMapper);
+    }
+
+    @Override
+    public Flux<DataBuffer> encode(Publisher<?> input, DataBufferFactory bufferFactory, ResolvableType elementType,
+                                   MimeType mimeType, Map<String, Object> hints) {
+        if (input instanceof Mono)
+            return Mono.from(input)
+                    .map(value -> encodeValue(value, bufferFactory, elementType, mimeType, hints))
+                    .flux();
+        ResolvableType listType = ResolvableType.forClassWithGenerics(List.class, elementType);
+        return Flux.from(input)
+                .collectList()
+                .map(list -> encodeValue(list, bufferFactory, listType, mimeType, hints))
+                .flux();
+    }
+}
@@ -0,0 +1,26 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.config;
+
+import com.artarkatesoft.artsfgspring5webfluxrest.inmemory.InMemoryCategoryRepository;
+import com.artarkatesoft.artsfgspring5webfluxrest.inmemory.InMemoryVendorRepository;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Repositories of the {@code inmemory} profile. {@code application-inmemory.properties} turns off the Mongo
+ * auto-configuration, so these are the only repository beans and no Mongo connection is opened.
+ */
+@Configuration
+@Profile("inmemory")
+public class InMemoryConfig {
+
+    @Bean
+    public InMemoryCategoryRepository categoryRepository() {
+        return new InMemoryCategoryRepository();
+    }
+
+    @Bean
+    public InMemoryVendorRepository vendorRepository() {
+        return new InMemoryVendorRepository();
+    }
+}
@@ -0,0 +1,49 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.config;
+
+import com.artarkatesoft.artsfgspring5webfluxrest.changes.CollectionVersions;
+import com.artarkatesoft.artsfgspring5webfluxrest.controllers.CategoryController;
+import com.artarkatesoft.artsfgspring5webfluxrest.controllers.Problems;
+import com.artarkatesoft.artsfgspring5webfluxrest.controllers.VendorController;
+import com.artarkatesoft.artsfgspring5webfluxrest.handlers.EntityResponses;
+import com.artarkatesoft.artsfgspring5webfluxrest.handlers.JsonPassthroughHandler;
+import com.artarkatesoft.artsfgspring5webfluxrest.repositories.CategoryRepository;
+import com.artarkatesoft.artsfgspring5webfluxrest.repositories.VendorRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import static com.artarkatesoft.artsfgspring5webfluxrest.handlers.RoutePredicates.plainJsonList;
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+/**
+ * Serves the plain JSON lists of all categories and vendors from the stored BSON, enabled with
+ * {@code app.web.json-passthrough=true}. Not in the {@code inmemory} profile, where nothing is stored as BSON.
+ * Ordered before the other router functions, which come before the annotated controllers; every other list
+ * request (filtered, paged, streamed or negotiated to another format) falls through to them.
+ */
+@Configuration
+@Profile("!inmemory")
+@ConditionalOnProperty(name = "app.web.json-passthrough", havingValue = "true")
+public class JsonPassthroughConfig {
+
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public RouterFunction<ServerResponse> jsonPassthroughRoutes(CategoryRepository categoryRepository,
+                                                                VendorRepository vendorRepository,
+                                                                CollectionVersions collectionVersions,
+                                                                ObjectMapper objectMapper) {
+        JsonPassthroughHandler handler = new JsonPassthroughHandler(categoryRepository, vendorRepository,
+                collectionVersions, objectMapper);
+        return route()
+                .GET(CategoryController.BASE_URL, plainJsonList(), handler::categories)
+                .GET(VendorController.BASE_URL, plainJsonList(), handler::vendors)
+                .onError(Problems::isMapped, EntityResponses::problem)
+                .build();
+    }
+}
@@ -0,0 +1,49 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.config;
+
+import com.artarkatesoft.artsfgspring5webfluxrest.cache.ReactiveCache;
+import com.artarkatesoft.artsfgspring5webfluxrest.metrics.RepositoryMetricsPostProcessor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micrometer.core.instrument.binder.mongodb.MongoMetricsCommandListener;
+import io.micrometer.core.instrument.binder.mongodb.MongoMetricsConnectionPoolListener;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Schedulers;
+
+import javax.annotation.PostConstruct;
+import java.util.List;
+
+/**
+ * Meters beyond the Boot defaults ({@code http.server.requests} per endpoint, JVM, Netty):
+ * repository invocations, Mongo driver commands and connection pool, Reactor schedulers and the caches.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public static RepositoryMetricsPostProcessor repositoryMetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new RepositoryMetricsPostProcessor(meterRegistry);
+    }
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoMetricsCustomizer(MeterRegistry meterRegistry) {
+        return builder -> builder
+                .addCommandListener(new MongoMetricsCommandListener(meterRegistry))
+                .applyToConnectionPoolSettings(pool -> pool
+                        .addConnectionPoolListener(new MongoMetricsConnectionPoolListener(meterRegistry)));
+    }
+
+    @Bean
+    public MeterBinder cacheMetrics(List<ReactiveCache<?>> caches) {
+        return registry -> caches.forEach(cache ->
+                CaffeineCacheMetrics.monitor(registry, cache.getNativeCache().synchronous(), cache.getName()));
+    }
+
+    @PostConstruct
+    public void enableSchedulerMetrics() {
+        Schedulers.enableMetrics();
+    }
+}
@@ -0,0 +1,26 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.config;
+
+import com.artarkatesoft.artsfgspring5webfluxrest.bson.CategoryCodec;
+import com.artarkatesoft.artsfgspring5webfluxrest.bson.VendorCodec;
+import com.mongodb.MongoClientSettings;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import static org.bson.codecs.configuration.CodecRegistries.fromCodecs;
+import static org.bson.codecs.configuration.CodecRegistries.fromRegistries;
+
+/**
+ * Registers the hand-written domain codecs with the reactive client, ahead of the driver defaults, so a
+ * collection opened with a domain document class decodes straight into it.
+ */
+@Configuration
+public class MongoCodecConfig {
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer domainCodecsCustomizer() {
+        return builder -> builder.codecRegistry(fromRegistries(
+                fromCodecs(new CategoryCodec(), new VendorCodec()),
+                MongoClientSettings.getDefaultCodecRegistry()));
+    }
+}
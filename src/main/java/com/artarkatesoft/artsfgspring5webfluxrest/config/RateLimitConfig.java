@@ -0,0 +1,30 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.config;
+
+import com.artarkatesoft.artsfgspring5webfluxrest.ratelimit.RateLimitWebFilter;
+import com.artarkatesoft.artsfgspring5webfluxrest.ratelimit.RateLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnProperty(name = "app.ratelimit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitConfig {
+
+    @Bean
+    public RateLimiter rateLimiter(@Value("${app.ratelimit.requests-per-second:100}") double requestsPerSecond,
+                                   @Value("${app.ratelimit.burst:200}") int burst,
+                                   @Value("${app.ratelimit.max-clients:100000}") long maxClients) {
+        return new RateLimiter(requestsPerSecond, burst, maxClients);
+    }
+
+    @Bean
+    public RateLimitWebFilter rateLimitWebFilter(RateLimiter rateLimiter, MeterRegistry meterRegistry,
+                                                 @Value("${app.ratelimit.trust-client-id-header:false}") boolean trustClientIdHeader,
+                                                 @Value("${app.bulkhead.max-concurrent-reads:256}") int maxConcurrentReads,
+                                                 @Value("${app.bulkhead.max-concurrent-writes:16}") int maxConcurrentWrites) {
+        return new RateLimitWebFilter(rateLimiter, trustClientIdHeader, maxConcurrentReads, maxConcurrentWrites,
+                meterRegistry);
+    }
+}
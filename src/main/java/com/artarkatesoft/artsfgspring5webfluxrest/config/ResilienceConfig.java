@@ -0,0 +1,50 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.config;
+
+import com.artarkatesoft.artsfgspring5webfluxrest.resilience.RepositoryResiliencePostProcessor;
+import com.artarkatesoft.artsfgspring5webfluxrest.resilience.ResiliencePolicy;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+import java.util.Collections;
+
+@Configuration
+@ConditionalOnProperty(name = "app.resilience.enabled", havingValue = "true", matchIfMissing = true)
+public class ResilienceConfig {
+
+    @Bean
+    public static RepositoryResiliencePostProcessor repositoryResiliencePostProcessor(
+            Environment environment, ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${app.resilience.timeout:2s}") Duration timeout,
+            @Value("${app.resilience.max-retries:2}") int maxRetries,
+            @Value("${app.resilience.min-backoff:50ms}") Duration minBackoff,
+            @Value("${app.resilience.max-backoff:500ms}") Duration maxBackoff,
+            @Value("${app.resilience.failure-threshold:5}") int failureThreshold,
+            @Value("${app.resilience.open-duration:10s}") Duration openDuration,
+            @Value("${app.resilience.stale.max-elements:100000}") long staleMaxElements,
+            @Value("${app.resilience.stale.max-result-size:1000}") int staleMaxResultSize,
+            @Value("${app.resilience.stale.ttl:10m}") Duration staleTtl) {
+        ResiliencePolicy policy = ResiliencePolicy.builder()
+                .timeout(timeout)
+                .timeouts(Binder.get(environment)
+                        .bind("app.resilience.timeouts", Bindable.mapOf(String.class, Duration.class))
+                        .orElse(Collections.emptyMap()))
+                .maxRetries(maxRetries)
+                .minBackoff(minBackoff)
+                .maxBackoff(maxBackoff)
+                .failureThreshold(failureThreshold)
+                .openDuration(openDuration)
+                .staleMaxElements(staleMaxElements)
+                .staleMaxResultSize(staleMaxResultSize)
+                .staleTtl(staleTtl)
+                .build();
+        return new RepositoryResiliencePostProcessor(policy, meterRegistry);
+    }
+}
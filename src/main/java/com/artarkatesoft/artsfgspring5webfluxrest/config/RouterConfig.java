@@ -0,0 +1,75 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.config;
+
+import com.artarkatesoft.artsfgspring5webfluxrest.controllers.CategoryController;
+import com.artarkatesoft.artsfgspring5webfluxrest.controllers.Problems;
+import com.artarkatesoft.artsfgspring5webfluxrest.controllers.VendorController;
+import com.artarkatesoft.artsfgspring5webfluxrest.handlers.CategoryHandler;
+import com.artarkatesoft.artsfgspring5webfluxrest.handlers.EntityResponses;
+import com.artarkatesoft.artsfgspring5webfluxrest.handlers.VendorHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.server.HandlerFunction;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import static com.artarkatesoft.artsfgspring5webfluxrest.handlers.RoutePredicates.hasQueryParam;
+import static com.artarkatesoft.artsfgspring5webfluxrest.handlers.RoutePredicates.streamingAccepted;
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+/**
+ * Functional routes for the whole categories/vendors API, enabled with {@code app.web.routing=functional}.
+ * The router mapping is consulted before the annotated controllers, so these routes take over every request
+ * they match; the controllers remain registered and serve as the handlers' implementation.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.web.routing", havingValue = "functional")
+public class RouterConfig {
+
+    @Bean
+    public RouterFunction<ServerResponse> categoryRoutes(CategoryHandler handler) {
+        String baseUrl = CategoryController.BASE_URL;
+        return route()
+                .GET(baseUrl, hasQueryParam("limit"), handler::page)
+                .GET(baseUrl, streamingAccepted(), handler::stream)
+                .GET(baseUrl, handler::list)
+                .GET(baseUrl + "/changes", handler::changes)
+                .GET(baseUrl + "/{id}", handler::getById)
+                .POST(baseUrl + "/_bulk", handler::bulkCreate)
+                .POST(baseUrl + "/_batch-get", handler::batchGet)
+                .POST(baseUrl, handler::create)
+                .PUT(baseUrl + "/{id}", handler::put)
+                .PATCH(baseUrl + "/{id}", handler::patch)
+                .filter(RouterConfig::problems)
+                .build();
+    }
+
+    @Bean
+    public RouterFunction<ServerResponse> vendorRoutes(VendorHandler handler) {
+        String baseUrl = VendorController.BASE_URL;
+        return route()
+                .GET(baseUrl, hasQueryParam("limit"), handler::page)
+                .GET(baseUrl, streamingAccepted(), handler::stream)
+                .GET(baseUrl, handler::list)
+                .GET(baseUrl + "/changes", handler::changes)
+                .GET(baseUrl + "/{id}", handler::findById)
+                .POST(baseUrl + "/_bulk", handler::bulkCreate)
+                .POST(baseUrl + "/_batch-get", handler::batchGet)
+                .POST(baseUrl, handler::create)
+                .PUT(baseUrl + "/{id}", handler::put)
+                .PATCH(baseUrl + "/{id}", handler::patch)
+                .filter(RouterConfig::problems)
+                .build();
+    }
+
+    /**
+     * Answers mapped errors as problems, like {@code onError}, but also those a handler throws before returning its
+     * {@code Mono}: an invalid {@code limit}, an unacceptable {@code Accept}.
+     */
+    private static Mono<ServerResponse> problems(ServerRequest request, HandlerFunction<ServerResponse> next) {
+        return Mono.defer(() -> next.handle(request))
+                .onErrorResume(Problems::isMapped, e -> EntityResponses.problem(e, request));
+    }
+}
@@ -0,0 +1,39 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.config;
+
+import com.artarkatesoft.artsfgspring5webfluxrest.tracing.RepositoryTracingPostProcessor;
+import com.artarkatesoft.artsfgspring5webfluxrest.tracing.Tracing;
+import com.artarkatesoft.artsfgspring5webfluxrest.tracing.TracingEndpoint;
+import com.artarkatesoft.artsfgspring5webfluxrest.tracing.TracingJmxEndpointExtension;
+import com.artarkatesoft.artsfgspring5webfluxrest.tracing.TracingWebFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class TracingConfig {
+
+    @Bean
+    public static Tracing tracing(@Value("${app.tracing.sample-rate:0}") double sampleRate) {
+        return new Tracing(sampleRate);
+    }
+
+    @Bean
+    public static RepositoryTracingPostProcessor repositoryTracingPostProcessor(Tracing tracing) {
+        return new RepositoryTracingPostProcessor(tracing);
+    }
+
+    @Bean
+    public TracingWebFilter tracingWebFilter(Tracing tracing) {
+        return new TracingWebFilter(tracing);
+    }
+
+    @Bean
+    public TracingEndpoint tracingEndpoint(Tracing tracing) {
+        return new TracingEndpoint(tracing);
+    }
+
+    @Bean
+    public TracingJmxEndpointExtension tracingJmxEndpointExtension(TracingEndpoint tracingEndpoint, Tracing tracing) {
+        return new TracingJmxEndpointExtension(tracingEndpoint, tracing);
+    }
+}
@@ -0,0 +1,72 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.config;
+
+import com.artarkatesoft.artsfgspring5webfluxrest.codecs.CborArrayDecoder;
+import com.artarkatesoft.artsfgspring5webfluxrest.codecs.CborArrayEncoder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.CodecConfigurer;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.http.MediaType.APPLICATION_STREAM_JSON;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebFluxConfig implements WebFluxConfigurer {
+
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+    public static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType(APPLICATION_NDJSON_VALUE);
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+    public static final MediaType APPLICATION_SMILE = MediaType.parseMediaType(APPLICATION_SMILE_VALUE);
+    public static final String APPLICATION_CBOR_VALUE = MediaType.APPLICATION_CBOR_VALUE;
+    public static final MediaType APPLICATION_CBOR = MediaType.APPLICATION_CBOR;
+
+    private final ObjectMapper objectMapper;
+    private final ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilders;
+
+    @Override
+    public void configureHttpMessageCodecs(ServerCodecConfigurer configurer) {
+        configureJacksonCodecs(configurer, objectMapper, objectMapperBuilders::getObject);
+    }
+
+    /**
+     * Registers {@code application/x-ndjson} as a streaming JSON type, so a {@code Flux} is written
+     * one line per element as it arrives instead of being collected into a single JSON array.
+     * Smile ({@value #APPLICATION_SMILE_VALUE}) and CBOR ({@value #APPLICATION_CBOR_VALUE}) are negotiated
+     * by {@code Accept} and {@code Content-Type} as binary alternatives. Both write a {@code Flux} as one array,
+     * collected before it is written; a CBOR request body is read value by value.
+     *
+     * @param builders a fresh builder per call carrying the same customizations as {@code objectMapper}, so the
+     *                 binary mappers write dates and the like just as JSON does
+     */
+    public static void configureJacksonCodecs(CodecConfigurer configurer, ObjectMapper objectMapper,
+                                              Supplier<Jackson2ObjectMapperBuilder> builders) {
+        MediaType anyJson = new MediaType("application", "*+json");
+        Jackson2JsonEncoder encoder = new Jackson2JsonEncoder(objectMapper, APPLICATION_JSON, anyJson, APPLICATION_NDJSON);
+        encoder.setStreamingMediaTypes(Arrays.asList(APPLICATION_STREAM_JSON, APPLICATION_NDJSON));
+        configurer.defaultCodecs().jackson2JsonEncoder(encoder);
+        configurer.defaultCodecs().jackson2JsonDecoder(
+                new Jackson2JsonDecoder(objectMapper, APPLICATION_JSON, anyJson, APPLICATION_NDJSON));
+
+        ObjectMapper smileMapper = builders.get().factory(new SmileFactory()).build();
+        configurer.defaultCodecs().jackson2SmileEncoder(new Jackson2SmileEncoder(smileMapper, APPLICATION_SMILE));
+        configurer.defaultCodecs().jackson2SmileDecoder(new Jackson2SmileDecoder(smileMapper, APPLICATION_SMILE));
+        ObjectMapper cborMapper = builders.get().factory(new CBORFactory()).build();
+        configurer.customCodecs().register(new CborArrayEncoder(cborMapper));
+        configurer.customCodecs().register(new CborArrayDecoder(cborMapper));
+    }
+}
@@ -0,0 +1,36 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.controllers;
+
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.BatchGetItem;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+
+/**
+ * Resolves a list of ids with one {@code $in} query and answers in request order, one item per requested id.
+ */
+final class BatchGets {
+
+    static final int MAX_IDS = 1000;
+
+    private BatchGets() {
+    }
+
+    static <T> Flux<BatchGetItem<T>> resolve(List<String> ids, Function<Iterable<String>, Flux<T>> findAllById,
+                                             Function<T, String> idExtractor) {
+        if (ids == null || ids.isEmpty() || ids.size() > MAX_IDS)
+            throw new ResponseStatusException(BAD_REQUEST, "ids must hold between 1 and " + MAX_IDS + " ids");
+        if (ids.contains(null))
+            throw new ResponseStatusException(BAD_REQUEST, "ids must not contain null");
+        Set<String> distinctIds = new LinkedHashSet<>(ids);
+        return findAllById.apply(distinctIds)
+                .collectMap(idExtractor)
+                .flatMapMany(found -> Flux.fromIterable(ids)
+                        .map(id -> new BatchGetItem<>(id, found.containsKey(id), found.get(id))));
+    }
+}
@@ -0,0 +1,30 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.controllers;
+
+import com.artarkatesoft.artsfgspring5webfluxrest.cache.ReactiveCache;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.CacheStatistics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static com.artarkatesoft.artsfgspring5webfluxrest.controllers.CacheController.BASE_URL;
+
+@RestController
+@RequestMapping(BASE_URL)
+@RequiredArgsConstructor
+public class CacheController {
+    public static final String BASE_URL = "/api/v1/caches";
+
+    private final List<ReactiveCache<?>> caches;
+
+    @GetMapping
+    public Map<String, CacheStatistics> statistics() {
+        Map<String, CacheStatistics> statistics = new TreeMap<>();
+        caches.forEach(cache -> statistics.put(cache.getName(), cache.statistics()));
+        return statistics;
+    }
+}
@@ -1,15 +1,40 @@
 package com.artarkatesoft.artsfgspring5webfluxrest.controllers;
 
+import com.artarkatesoft.artsfgspring5webfluxrest.bulk.BulkInserter;
+import com.artarkatesoft.artsfgspring5webfluxrest.cache.CategoryCache;
+import com.artarkatesoft.artsfgspring5webfluxrest.changes.ChangeFeed;
+import com.artarkatesoft.artsfgspring5webfluxrest.changes.CollectionVersions;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.BatchGetItem;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.BatchGetRequest;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.BulkItemResult;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.ChangeEvent;
 import com.artarkatesoft.artsfgspring5webfluxrest.domain.Category;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.CursorPage;
+import com.artarkatesoft.artsfgspring5webfluxrest.exceptions.NotFoundException;
 import com.artarkatesoft.artsfgspring5webfluxrest.repositories.CategoryRepository;
+import com.artarkatesoft.artsfgspring5webfluxrest.search.SearchIndex;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.reactivestreams.Publisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.MultiValueMap;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import static com.artarkatesoft.artsfgspring5webfluxrest.config.WebFluxConfig.APPLICATION_NDJSON_VALUE;
+import static org.springframework.http.HttpHeaders.IF_MATCH;
+import static org.springframework.http.MediaType.TEXT_EVENT_STREAM_VALUE;
+
 @Slf4j
 @RestController
 @RequiredArgsConstructor
@@ -18,44 +43,147 @@ public class CategoryController {
 
     public static final String BASE_URL = "/api/v1/categories";
 
+    public static final Set<String> INDEXED_PROPERTIES = Collections.singleton("name");
+    private static final List<String> LIST_PARAMETERS = Arrays.asList("name", "fields", "sort");
+
+    /**
+     * Saves one {@code POST} keeps in flight, so the write bulkhead bounds the saves on the connection pool.
+     */
+    static final int MAX_CONCURRENT_SAVES = 4;
+
     private final CategoryRepository categoryRepository;
+    private final CategoryCache categoryCache;
+    private final ChangeFeed changeFeed;
+    private final BulkInserter bulkInserter;
+    private final CollectionVersions collectionVersions;
+    private final SearchIndex searchIndex;
 
+    /**
+     * All categories, or with any of the parameters a filtered ({@code name=Fr*} for a prefix),
+     * projected ({@code fields=name}) and sorted ({@code sort=-name}) list. Tagged with the collection version,
+     * so a client holding the current list gets 304 without a query.
+     */
     @GetMapping
-    public Flux<Category> list() {
-        return categoryRepository.findAll();
+    public ResponseEntity<Flux<Category>> list(@RequestParam(required = false) String name,
+                                               @RequestParam(required = false) String fields,
+                                               @RequestParam(required = false) String sort) {
+        CollectionVersions.Version version = collectionVersions.current(Category.class);
+        if (name == null && fields == null && sort == null) return ETags.ok(categoryRepository.findAll(), version);
+        return ETags.ok(categoryRepository.search(ListQueries.parse(Category.class, INDEXED_PROPERTIES,
+                Collections.singletonMap("name", name), fields, sort)), version);
+    }
+
+    /**
+     * Streams documents as they leave the Mongo cursor; demand is requested in cursor-batch sized chunks.
+     * The parameters of {@link #list} are rejected rather than ignored.
+     */
+    @GetMapping(produces = {APPLICATION_NDJSON_VALUE, TEXT_EVENT_STREAM_VALUE})
+    public Flux<Category> stream(@RequestParam MultiValueMap<String, String> parameters) {
+        Cursors.rejectListParameters(parameters, LIST_PARAMETERS, "a streaming response");
+        return categoryRepository.streamAllByOrderByIdAsc()
+                .limitRate(CategoryRepository.STREAM_BATCH_SIZE);
+    }
+
+    /**
+     * One page in id order; the parameters of {@link #list} are rejected rather than ignored.
+     */
+    @GetMapping(params = "limit")
+    public Mono<CursorPage<Category>> page(@RequestParam int limit, @RequestParam(required = false) String after,
+                                       @RequestParam MultiValueMap<String, String> parameters) {
+        Cursors.rejectListParameters(parameters, LIST_PARAMETERS, "`limit`");
+        Pageable pageable = Cursors.pageRequest(limit);
+        Flux<Category> categories = (after == null) ?
+                categoryRepository.findAllByOrderByIdAsc(pageable) :
+                categoryRepository.findByIdGreaterThanOrderByIdAsc(Cursors.decode(after), pageable);
+        return Cursors.toPage(categories, limit, Category::getId);
+    }
+
+    /**
+     * Live feed of changes; reconnecting clients resume via {@code Last-Event-ID} or the {@code resumeAfter} parameter.
+     */
+    @GetMapping(value = "changes", produces = TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<ChangeEvent<Category>>> changes(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+            @RequestParam(required = false) String resumeAfter) {
+        String resumeToken = (resumeAfter != null) ? resumeAfter : lastEventId;
+        return changeFeed.changes(Category.class, resumeToken)
+                .map(event -> ServerSentEvent.builder(event)
+                        .id(event.getResumeToken())
+                        .build());
     }
 
     @GetMapping("{id}")
-    public Mono<Category> getById(@PathVariable("id") String id) {
-        return categoryRepository.findById(id);
+    public Mono<ResponseEntity<Category>> getById(@PathVariable("id") String id) {
+        return categoryCache.get(id)
+                .switchIfEmpty(Mono.error(() -> NotFoundException.of(Category.class, id)))
+                .map(ETags::ok);
     }
 
+    /**
+     * Saves the streamed categories {@value #MAX_CONCURRENT_SAVES} at a time and answers them in request order.
+     */
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public Flux<Category> createCategory(@RequestBody Publisher<Category> categoryPublisher) {
-        return categoryRepository.saveAll(categoryPublisher);
+        Flux<Category> saved = Flux.from(categoryPublisher)
+                .map(collectionVersions::stamp)
+                .flatMapSequential(categoryRepository::save, MAX_CONCURRENT_SAVES)
+                .doOnNext(categoryCache::put)
+                .doOnNext(searchIndex::put);
+        return collectionVersions.bumpOnTermination(saved, Category.class);
+    }
+
+    /**
+     * Batched ingestion: unlike {@code POST} it writes unordered bulk inserts and reports failures per item.
+     */
+    @PostMapping("_bulk")
+    public Flux<BulkItemResult> bulkCreate(@RequestBody Flux<Category> categoryPublisher) {
+        return collectionVersions.bumpOnTermination(
+                bulkInserter.insert(categoryPublisher.map(collectionVersions::stamp), Category.class), Category.class);
+    }
+
+    /**
+     * Resolves many ids with a single query instead of one {@code GET} per id. Answers in request order with
+     * one item per requested id, missing ids marked {@code found: false}; streamed as NDJSON when accepted.
+     */
+    @PostMapping("_batch-get")
+    public Flux<BatchGetItem<Category>> batchGet(@RequestBody Mono<BatchGetRequest> request) {
+        return request.flatMapMany(batch ->
+                BatchGets.resolve(batch.getIds(), categoryRepository::findAllById, Category::getId));
     }
 
+    /**
+     * Full replacement in one atomic write; with {@code If-Match} a stale version is rejected with 412.
+     */
     @PutMapping("{id}")
-    public Mono<Category> updateCategoryUsingPut(@PathVariable String id, @RequestBody Mono<Category> categoryMono) {
-        return categoryRepository.findById(id)
-                .switchIfEmpty(Mono.error(new RuntimeException("Category with id `" + id + "` not found")))
-                .then(categoryMono)
-                .doOnNext(category -> category.setId(id))
-                .flatMap(categoryRepository::save)
-                .log("Category saved");
+    public Mono<ResponseEntity<Category>> updateCategoryUsingPut(@PathVariable String id,
+                                                                 @RequestHeader(value = IF_MATCH, required = false) String ifMatch,
+                                                                 @RequestBody Mono<Category> categoryMono) {
+        Long expectedVersion = ETags.expectedVersion(ifMatch);
+        return categoryMono
+                .flatMap(category -> categoryRepository.replace(id, collectionVersions.stamp(category), expectedVersion))
+                .onErrorMap(OptimisticLockingFailureException.class, ETags::preconditionFailed)
+                .switchIfEmpty(Mono.error(() -> NotFoundException.of(Category.class, id)))
+                .doOnNext(categoryCache::put)
+                .doOnNext(searchIndex::put)
+                .doOnNext(category -> collectionVersions.bump(Category.class))
+                .map(ETags::ok);
     }
 
+    /**
+     * Sets only the non-null fields in one atomic write; with {@code If-Match} a stale version is rejected with 412.
+     */
     @PatchMapping("{id}")
-    public Mono<Category> updateCategoryUsingPatch(@PathVariable String id, @RequestBody Category categoryNew) {
-        return categoryRepository.findById(id)
-                .switchIfEmpty(Mono.error(new RuntimeException("Category with id `" + id + "` not found")))
-                .map(category -> {
-                    String newName = categoryNew.getName();
-                    if (newName != null) category.setName(newName);
-                    return category;
-                })
-                .flatMap(categoryRepository::save)
-                .log("Category saved");
+    public Mono<ResponseEntity<Category>> updateCategoryUsingPatch(@PathVariable String id,
+                                                                   @RequestHeader(value = IF_MATCH, required = false) String ifMatch,
+                                                                   @RequestBody Category categoryNew) {
+        Long expectedVersion = ETags.expectedVersion(ifMatch);
+        return categoryRepository.patch(id, collectionVersions.stamp(categoryNew), expectedVersion)
+                .onErrorMap(OptimisticLockingFailureException.class, ETags::preconditionFailed)
+                .switchIfEmpty(Mono.error(() -> NotFoundException.of(Category.class, id)))
+                .doOnNext(categoryCache::put)
+                .doOnNext(searchIndex::put)
+                .doOnNext(category -> collectionVersions.bump(Category.class))
+                .map(ETags::ok);
     }
 }
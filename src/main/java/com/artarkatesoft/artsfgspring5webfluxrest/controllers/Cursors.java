@@ -0,0 +1,74 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.controllers;
+
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.CursorPage;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+
+/**
+ * Opaque keyset cursors over {@code _id}: a cursor is the URL-safe Base64 of the last id on the previous page.
+ */
+public final class Cursors {
+
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    private Cursors() {
+    }
+
+    public static String encode(String id) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(id.getBytes(UTF_8));
+    }
+
+    public static String decode(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(BAD_REQUEST, "Malformed cursor `" + cursor + "`");
+        }
+    }
+
+    /**
+     * Requests one element more than {@code limit} so the page knows whether a next page exists.
+     */
+    public static Pageable pageRequest(int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE)
+            throw new ResponseStatusException(BAD_REQUEST, "limit must be between 1 and " + MAX_PAGE_SIZE);
+        return PageRequest.of(0, limit + 1);
+    }
+
+    /**
+     * Pages and streams run in id order over the whole collection, so filters, {@code fields} and {@code sort}
+     * would be ignored there; rejects them instead.
+     *
+     * @param mode what the parameters cannot be combined with, for the error detail
+     */
+    public static void rejectListParameters(MultiValueMap<String, String> parameters, Collection<String> listParameters,
+                                            String mode) {
+        for (String name : listParameters) {
+            if (parameters.containsKey(name))
+                throw new ResponseStatusException(BAD_REQUEST, "`" + name + "` cannot be combined with " + mode);
+        }
+    }
+
+    public static <T> Mono<CursorPage<T>> toPage(Flux<T> limitPlusOne, int limit, Function<T, String> idExtractor) {
+        return limitPlusOne
+                .collectList()
+                .map(items -> {
+                    if (items.size() <= limit) return new CursorPage<>(items, null);
+                    List<T> content = items.subList(0, limit);
+                    String nextCursor = encode(idExtractor.apply(content.get(limit - 1)));
+                    return new CursorPage<>(content, nextCursor);
+                });
+    }
+}
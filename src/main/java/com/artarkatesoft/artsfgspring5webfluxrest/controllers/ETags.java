@@ -0,0 +1,74 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.controllers;
+
+import com.artarkatesoft.artsfgspring5webfluxrest.changes.CollectionVersions;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.Versioned;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.springframework.http.HttpStatus.PRECONDITION_FAILED;
+
+/**
+ * Strong entity tags derived from the document {@code @Version}, weak ones for whole collections,
+ * and {@code If-Match} parsing for updates.
+ */
+public final class ETags {
+
+    private ETags() {
+    }
+
+    public static String of(long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * 200 with the body and, as far as the document has them, its {@code ETag} and {@code Last-Modified}.
+     * For a {@code GET} Spring answers 304 instead when the request's conditional headers match.
+     * <p>
+     * {@code If-Modified-Since} is compared in whole seconds, so {@code Last-Modified} is only sent once the second
+     * of the document's last write is over: a later write then falls into a later second. Until then the document
+     * is validated by its tag alone.
+     */
+    public static <T extends Versioned> ResponseEntity<T> ok(T body) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (body.getVersion() != null) builder.eTag(of(body.getVersion()));
+        Instant lastModified = body.getLastModified();
+        if (lastModified != null && !Instant.now().isBefore(lastModified.truncatedTo(ChronoUnit.SECONDS).plusSeconds(1)))
+            builder.lastModified(lastModified);
+        return builder.body(body);
+    }
+
+    /**
+     * 200 with the validators of the collection version. The body is only subscribed when the response is
+     * written, so a matching {@code If-None-Match} or {@code If-Modified-Since} costs no query and no serialization.
+     */
+    public static <T> ResponseEntity<Flux<T>> ok(Flux<T> body, CollectionVersions.Version version) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok().eTag(version.getETag());
+        if (version.getLastModified() != null) builder.lastModified(version.getLastModified());
+        return builder.body(body);
+    }
+
+    /**
+     * @return the version the client expects, or {@code null} when the update is unconditional
+     * (no header or {@code *})
+     * @throws ResponseStatusException 412 when the tag cannot match any version
+     */
+    public static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) return null;
+        String tag = ifMatch.trim();
+        if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) tag = tag.substring(1, tag.length() - 1);
+        try {
+            return Long.valueOf(tag);
+        } catch (NumberFormatException e) {
+            throw new ResponseStatusException(PRECONDITION_FAILED, "If-Match `" + ifMatch + "` matches no version");
+        }
+    }
+
+    static Throwable preconditionFailed(OptimisticLockingFailureException e) {
+        return new ResponseStatusException(PRECONDITION_FAILED, e.getMessage(), e);
+    }
+}
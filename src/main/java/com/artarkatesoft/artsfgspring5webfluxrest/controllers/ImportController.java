@@ -0,0 +1,52 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.controllers;
+
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.Category;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.ImportSummary;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.Vendor;
+import com.artarkatesoft.artsfgspring5webfluxrest.importer.Importer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static com.artarkatesoft.artsfgspring5webfluxrest.config.WebFluxConfig.APPLICATION_NDJSON_VALUE;
+import static com.artarkatesoft.artsfgspring5webfluxrest.controllers.ImportController.BASE_URL;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+
+/**
+ * Admin import of large files: the request body is decoded record by record while it is still arriving.
+ * A JSON body is either an array of records or an object holding them under the collection name,
+ * e.g. {@code {"categories": [...]}}.
+ */
+@RestController
+@RequestMapping(BASE_URL)
+@RequiredArgsConstructor
+public class ImportController {
+    public static final String BASE_URL = "/api/v1/import";
+
+    private final Importer importer;
+
+    @PostMapping(consumes = APPLICATION_JSON_VALUE)
+    public Mono<ImportSummary> importJson(@RequestParam String collection, @RequestBody Flux<DataBuffer> content) {
+        return importer.importRecords(content, typeOf(collection), collection, collection);
+    }
+
+    @PostMapping(consumes = APPLICATION_NDJSON_VALUE)
+    public Mono<ImportSummary> importNdjson(@RequestParam String collection, @RequestBody Flux<DataBuffer> content) {
+        return importer.importRecords(content, typeOf(collection), collection, null);
+    }
+
+    private static Class<?> typeOf(String collection) {
+        switch (collection) {
+            case "categories":
+                return Category.class;
+            case "vendors":
+                return Vendor.class;
+            default:
+                throw new ResponseStatusException(BAD_REQUEST, "Unknown collection `" + collection + "`");
+        }
+    }
+}
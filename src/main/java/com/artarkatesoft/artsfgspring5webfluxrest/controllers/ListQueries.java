@@ -0,0 +1,68 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.controllers;
+
+import com.artarkatesoft.artsfgspring5webfluxrest.repositories.ListQuery;
+import org.springframework.data.domain.Sort;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+
+/**
+ * Builds a {@link ListQuery} from request parameters. Projection and sorting are limited to the indexed
+ * properties, and a sort to a single direction, so that every accepted query can be answered from an index:
+ * the compound indexes are ascending, and Mongo walks one either forwards or backwards, never mixed.
+ */
+public final class ListQueries {
+
+    private ListQueries() {
+    }
+
+    /**
+     * @param indexed properties that can be filtered, projected and sorted on
+     * @param filters property to filter value; {@code null} values are ignored
+     * @param fields  comma-separated properties to return, {@code null} for all
+     * @param sort    comma-separated properties, {@code -} prefixed for descending, {@code null} for natural order
+     */
+    public static <T> ListQuery<T> parse(Class<T> type, Set<String> indexed, Map<String, String> filters,
+                                         String fields, String sort) {
+        ListQuery<T> listQuery = new ListQuery<>(type);
+        filters.forEach((property, value) -> {
+            if (value == null) return;
+            if (value.isEmpty() || value.equals(ListQuery.PREFIX_WILDCARD))
+                throw new ResponseStatusException(BAD_REQUEST, "Filter on `" + property + "` needs a value");
+            listQuery.getFilters().put(property, value);
+        });
+        for (String field : split(fields)) {
+            if (!indexed.contains(field))
+                throw new ResponseStatusException(BAD_REQUEST, "Unknown field `" + field + "`, fields are " + indexed);
+            listQuery.getFields().add(field);
+        }
+        List<Sort.Order> orders = new ArrayList<>();
+        Set<String> sorted = new LinkedHashSet<>();
+        for (String order : split(sort)) {
+            boolean descending = order.startsWith("-");
+            String property = descending ? order.substring(1) : order;
+            if (!indexed.contains(property) || !sorted.add(property))
+                throw new ResponseStatusException(BAD_REQUEST, "Sorting is supported on " + indexed + " only");
+            if (!orders.isEmpty() && orders.get(0).isDescending() != descending)
+                throw new ResponseStatusException(BAD_REQUEST, "Sort properties must share one direction");
+            orders.add(descending ? Sort.Order.desc(property) : Sort.Order.asc(property));
+        }
+        listQuery.setSort(Sort.by(orders));
+        return listQuery;
+    }
+
+    private static List<String> split(String commaSeparated) {
+        List<String> values = new ArrayList<>();
+        if (commaSeparated == null) return values;
+        for (String value : commaSeparated.split(",")) {
+            if (!value.trim().isEmpty()) values.add(value.trim());
+        }
+        return values;
+    }
+}
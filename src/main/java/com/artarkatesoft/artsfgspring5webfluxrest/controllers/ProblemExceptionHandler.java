@@ -0,0 +1,32 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.controllers;
+
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.Problem;
+import com.artarkatesoft.artsfgspring5webfluxrest.exceptions.CircuitOpenException;
+import com.artarkatesoft.artsfgspring5webfluxrest.exceptions.NotFoundException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Renders the expected failures of the annotated controllers as RFC 7807 problems (404 for a missing document,
+ * 409 for a conflicting write, 503 while a repository circuit is open, 504 for a repository call that timed out,
+ * 413 for a request body value over the codec's in-memory limit, the carried status for
+ * {@link ResponseStatusException}).
+ */
+@RestControllerAdvice
+public class ProblemExceptionHandler {
+
+    @ExceptionHandler({NotFoundException.class, DuplicateKeyException.class,
+            OptimisticLockingFailureException.class, ResponseStatusException.class,
+            CircuitOpenException.class, TimeoutException.class, DataBufferLimitException.class})
+    public ResponseEntity<Problem> handle(Exception e, ServerHttpRequest request) {
+        return Problems.toResponse(e, request.getPath().value());
+    }
+}
@@ -0,0 +1,65 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.controllers;
+
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.Problem;
+import com.artarkatesoft.artsfgspring5webfluxrest.exceptions.CircuitOpenException;
+import com.artarkatesoft.artsfgspring5webfluxrest.exceptions.NotFoundException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.TimeoutException;
+
+import static org.springframework.http.HttpHeaders.RETRY_AFTER;
+import static org.springframework.http.HttpStatus.CONFLICT;
+import static org.springframework.http.HttpStatus.GATEWAY_TIMEOUT;
+import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static org.springframework.http.HttpStatus.PAYLOAD_TOO_LARGE;
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
+import static org.springframework.http.MediaType.APPLICATION_PROBLEM_JSON;
+
+/**
+ * Maps the exceptions the API raises on purpose to problem responses; anything else is left to the default
+ * error handling as a genuine server error.
+ */
+public final class Problems {
+
+    private Problems() {
+    }
+
+    public static boolean isMapped(Throwable e) {
+        return statusOf(e) != null;
+    }
+
+    public static ResponseEntity<Problem> toResponse(Throwable e, String path) {
+        HttpStatus status = statusOf(e);
+        if (status == null) throw new IllegalArgumentException("No problem mapping for " + e.getClass().getName());
+        Problem problem = Problem.builder()
+                .type(Problem.UNTYPED)
+                .title(status.getReasonPhrase())
+                .status(status.value())
+                .detail((e instanceof ResponseStatusException) ? ((ResponseStatusException) e).getReason() : e.getMessage())
+                .instance(path)
+                .build();
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(status).contentType(APPLICATION_PROBLEM_JSON);
+        if (e instanceof ResponseStatusException)
+            builder.headers(((ResponseStatusException) e).getResponseHeaders());
+        if (e instanceof CircuitOpenException) {
+            long millis = ((CircuitOpenException) e).getRetryAfter().toMillis();
+            builder.header(RETRY_AFTER, Long.toString(Math.max(1, (millis + 999) / 1000)));
+        }
+        return builder.body(problem);
+    }
+
+    private static HttpStatus statusOf(Throwable e) {
+        if (e instanceof NotFoundException) return NOT_FOUND;
+        if (e instanceof DuplicateKeyException || e instanceof OptimisticLockingFailureException) return CONFLICT;
+        if (e instanceof ResponseStatusException) return ((ResponseStatusException) e).getStatus();
+        if (e instanceof CircuitOpenException) return SERVICE_UNAVAILABLE;
+        if (e instanceof TimeoutException) return GATEWAY_TIMEOUT;
+        if (e instanceof DataBufferLimitException) return PAYLOAD_TOO_LARGE;
+        return null;
+    }
+}
@@ -0,0 +1,37 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.controllers;
+
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.SearchHit;
+import com.artarkatesoft.artsfgspring5webfluxrest.search.SearchIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+import static com.artarkatesoft.artsfgspring5webfluxrest.controllers.SearchController.BASE_URL;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+
+@RestController
+@RequestMapping(BASE_URL)
+@RequiredArgsConstructor
+public class SearchController {
+    public static final String BASE_URL = "/api/v1/search";
+
+    public static final int MAX_LIMIT = 100;
+
+    private final SearchIndex searchIndex;
+
+    /**
+     * Type-ahead suggestions for {@code q} over category names and vendor names, best first; answered from the
+     * in-memory index without touching the database.
+     */
+    @GetMapping
+    public List<SearchHit> search(@RequestParam String q, @RequestParam(defaultValue = "10") int limit) {
+        if (limit < 1 || limit > MAX_LIMIT)
+            throw new ResponseStatusException(BAD_REQUEST, "limit must be between 1 and " + MAX_LIMIT);
+        return searchIndex.search(q, limit);
+    }
+}
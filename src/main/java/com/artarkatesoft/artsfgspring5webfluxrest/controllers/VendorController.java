@@ -1,15 +1,36 @@
 package com.artarkatesoft.artsfgspring5webfluxrest.controllers;
 
+import com.artarkatesoft.artsfgspring5webfluxrest.bulk.BulkInserter;
+import com.artarkatesoft.artsfgspring5webfluxrest.cache.VendorCache;
+import com.artarkatesoft.artsfgspring5webfluxrest.changes.ChangeFeed;
+import com.artarkatesoft.artsfgspring5webfluxrest.changes.CollectionVersions;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.BatchGetItem;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.BatchGetRequest;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.BulkItemResult;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.ChangeEvent;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.CursorPage;
 import com.artarkatesoft.artsfgspring5webfluxrest.domain.Vendor;
+import com.artarkatesoft.artsfgspring5webfluxrest.exceptions.NotFoundException;
 import com.artarkatesoft.artsfgspring5webfluxrest.repositories.VendorRepository;
+import com.artarkatesoft.artsfgspring5webfluxrest.search.SearchIndex;
 import lombok.RequiredArgsConstructor;
 import org.reactivestreams.Publisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.util.MultiValueMap;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.*;
+
+import static com.artarkatesoft.artsfgspring5webfluxrest.config.WebFluxConfig.APPLICATION_NDJSON_VALUE;
 import static com.artarkatesoft.artsfgspring5webfluxrest.controllers.VendorController.BASE_URL;
+import static org.springframework.http.HttpHeaders.IF_MATCH;
 import static org.springframework.http.HttpStatus.CREATED;
+import static org.springframework.http.MediaType.TEXT_EVENT_STREAM_VALUE;
 
 @RestController
 @RequestMapping(BASE_URL)
@@ -17,49 +38,154 @@ import static org.springframework.http.HttpStatus.CREATED;
 public class VendorController {
     public static final String BASE_URL = "/api/v1/vendors";
 
+    public static final Set<String> INDEXED_PROPERTIES =
+            Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList("lastName", "firstName")));
+    private static final List<String> LIST_PARAMETERS = Arrays.asList("firstName", "lastName", "fields", "sort");
+
+    /**
+     * Saves one {@code POST} keeps in flight, so the write bulkhead bounds the saves on the connection pool.
+     */
+    static final int MAX_CONCURRENT_SAVES = 4;
+
     private final VendorRepository vendorRepository;
+    private final VendorCache vendorCache;
+    private final ChangeFeed changeFeed;
+    private final BulkInserter bulkInserter;
+    private final CollectionVersions collectionVersions;
+    private final SearchIndex searchIndex;
 
+    /**
+     * All vendors, or with any of the parameters a filtered ({@code lastName=Sm*} for a prefix),
+     * projected ({@code fields=firstName,lastName}) and sorted ({@code sort=-lastName,-firstName}) list.
+     * Tagged with the collection version, so a client holding the current list gets 304 without a query.
+     */
     @GetMapping
-    public Flux<Vendor> list() {
-        return vendorRepository.findAll();
+    public ResponseEntity<Flux<Vendor>> list(@RequestParam(required = false) String firstName,
+                                             @RequestParam(required = false) String lastName,
+                                             @RequestParam(required = false) String fields,
+                                             @RequestParam(required = false) String sort) {
+        CollectionVersions.Version version = collectionVersions.current(Vendor.class);
+        if (firstName == null && lastName == null && fields == null && sort == null)
+            return ETags.ok(vendorRepository.findAll(), version);
+        Map<String, String> filters = new LinkedHashMap<>();
+        filters.put("firstName", firstName);
+        filters.put("lastName", lastName);
+        Flux<Vendor> vendors = vendorRepository.search(ListQueries.parse(Vendor.class, INDEXED_PROPERTIES, filters, fields, sort));
+        return ETags.ok(vendors, version);
+    }
+
+    /**
+     * Streams documents as they leave the Mongo cursor; demand is requested in cursor-batch sized chunks.
+     * The parameters of {@link #list} are rejected rather than ignored.
+     */
+    @GetMapping(produces = {APPLICATION_NDJSON_VALUE, TEXT_EVENT_STREAM_VALUE})
+    public Flux<Vendor> stream(@RequestParam MultiValueMap<String, String> parameters) {
+        Cursors.rejectListParameters(parameters, LIST_PARAMETERS, "a streaming response");
+        return vendorRepository.streamAllByOrderByIdAsc()
+                .limitRate(VendorRepository.STREAM_BATCH_SIZE);
+    }
+
+    /**
+     * One page in id order; the parameters of {@link #list} are rejected rather than ignored.
+     */
+    @GetMapping(params = "limit")
+    public Mono<CursorPage<Vendor>> page(@RequestParam int limit, @RequestParam(required = false) String after,
+                                       @RequestParam MultiValueMap<String, String> parameters) {
+        Cursors.rejectListParameters(parameters, LIST_PARAMETERS, "`limit`");
+        Pageable pageable = Cursors.pageRequest(limit);
+        Flux<Vendor> vendors = (after == null) ?
+                vendorRepository.findAllByOrderByIdAsc(pageable) :
+                vendorRepository.findByIdGreaterThanOrderByIdAsc(Cursors.decode(after), pageable);
+        return Cursors.toPage(vendors, limit, Vendor::getId);
+    }
+
+    /**
+     * Live feed of changes; reconnecting clients resume via {@code Last-Event-ID} or the {@code resumeAfter} parameter.
+     */
+    @GetMapping(value = "changes", produces = TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<ChangeEvent<Vendor>>> changes(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+            @RequestParam(required = false) String resumeAfter) {
+        String resumeToken = (resumeAfter != null) ? resumeAfter : lastEventId;
+        return changeFeed.changes(Vendor.class, resumeToken)
+                .map(event -> ServerSentEvent.builder(event)
+                        .id(event.getResumeToken())
+                        .build());
     }
 
     @GetMapping("{id}")
-    public Mono<Vendor> findById(@PathVariable String id) {
-        return vendorRepository.findById(id);
+    public Mono<ResponseEntity<Vendor>> findById(@PathVariable String id) {
+        return vendorCache.get(id)
+                .switchIfEmpty(Mono.error(() -> NotFoundException.of(Vendor.class, id)))
+                .map(ETags::ok);
     }
 
+    /**
+     * Saves the streamed vendors {@value #MAX_CONCURRENT_SAVES} at a time and answers them in request order.
+     */
     @PostMapping
     @ResponseStatus(CREATED)
     public Flux<Vendor> createVendor(@RequestBody Publisher<Vendor> vendorStream) {
-        return vendorRepository.saveAll(vendorStream);
+        Flux<Vendor> saved = Flux.from(vendorStream)
+                .map(collectionVersions::stamp)
+                .flatMapSequential(vendorRepository::save, MAX_CONCURRENT_SAVES)
+                .doOnNext(vendorCache::put)
+                .doOnNext(searchIndex::put);
+        return collectionVersions.bumpOnTermination(saved, Vendor.class);
     }
 
-    @PutMapping("{id}")
-    public Mono<Vendor> updateVendorUsingPut(@PathVariable String id, @RequestBody Mono<Vendor> vendorMono) {
-        return vendorRepository.findById(id)
-                .switchIfEmpty(Mono.error(new RuntimeException("Vendor with id `" + id + "` NOT FOUND")))
-                .then(vendorMono)
-                .doOnNext(vendor -> vendor.setId(id))
-                .flatMap(vendorRepository::save);
+    /**
+     * Batched ingestion: unlike {@code POST} it writes unordered bulk inserts and reports failures per item.
+     */
+    @PostMapping("_bulk")
+    public Flux<BulkItemResult> bulkCreate(@RequestBody Flux<Vendor> vendorStream) {
+        return collectionVersions.bumpOnTermination(
+                bulkInserter.insert(vendorStream.map(collectionVersions::stamp), Vendor.class), Vendor.class);
     }
 
-    @PatchMapping("{id}")
-    public Mono<Vendor> updateVendorUsingPatch(@PathVariable String id, @RequestBody Mono<Vendor> vendorMono) {
-        return vendorRepository.findById(id)
-                .switchIfEmpty(Mono.error(new RuntimeException("Vendor with id `" + id + "` NOT FOUND")))
-                .zipWith(vendorMono)
-                .map(tuple2 -> {
-                    Vendor vendorRepo = tuple2.getT1();
-                    Vendor vendorWithNewFields = tuple2.getT2();
-                    String newFirstName = vendorWithNewFields.getFirstName();
-                    String newLastName = vendorWithNewFields.getLastName();
-                    if (newFirstName != null) vendorRepo.setFirstName(newFirstName);
-                    if (newLastName != null) vendorRepo.setLastName(newLastName);
-                    return vendorRepo;
-                })
-                .flatMap(vendorRepository::save);
+    /**
+     * Resolves many ids with a single query instead of one {@code GET} per id. Answers in request order with
+     * one item per requested id, missing ids marked {@code found: false}; streamed as NDJSON when accepted.
+     */
+    @PostMapping("_batch-get")
+    public Flux<BatchGetItem<Vendor>> batchGet(@RequestBody Mono<BatchGetRequest> request) {
+        return request.flatMapMany(batch ->
+                BatchGets.resolve(batch.getIds(), vendorRepository::findAllById, Vendor::getId));
     }
 
+    /**
+     * Full replacement in one atomic write; with {@code If-Match} a stale version is rejected with 412.
+     */
+    @PutMapping("{id}")
+    public Mono<ResponseEntity<Vendor>> updateVendorUsingPut(@PathVariable String id,
+                                                             @RequestHeader(value = IF_MATCH, required = false) String ifMatch,
+                                                             @RequestBody Mono<Vendor> vendorMono) {
+        Long expectedVersion = ETags.expectedVersion(ifMatch);
+        return vendorMono
+                .flatMap(vendor -> vendorRepository.replace(id, collectionVersions.stamp(vendor), expectedVersion))
+                .onErrorMap(OptimisticLockingFailureException.class, ETags::preconditionFailed)
+                .switchIfEmpty(Mono.error(() -> NotFoundException.of(Vendor.class, id)))
+                .doOnNext(vendorCache::put)
+                .doOnNext(searchIndex::put)
+                .doOnNext(vendor -> collectionVersions.bump(Vendor.class))
+                .map(ETags::ok);
+    }
 
+    /**
+     * Sets only the non-null fields in one atomic write; with {@code If-Match} a stale version is rejected with 412.
+     */
+    @PatchMapping("{id}")
+    public Mono<ResponseEntity<Vendor>> updateVendorUsingPatch(@PathVariable String id,
+                                                               @RequestHeader(value = IF_MATCH, required = false) String ifMatch,
+                                                               @RequestBody Mono<Vendor> vendorMono) {
+        Long expectedVersion = ETags.expectedVersion(ifMatch);
+        return vendorMono
+                .flatMap(vendor -> vendorRepository.patch(id, collectionVersions.stamp(vendor), expectedVersion))
+                .onErrorMap(OptimisticLockingFailureException.class, ETags::preconditionFailed)
+                .switchIfEmpty(Mono.error(() -> NotFoundException.of(Vendor.class, id)))
+                .doOnNext(vendorCache::put)
+                .doOnNext(searchIndex::put)
+                .doOnNext(vendor -> collectionVersions.bump(Vendor.class))
+                .map(ETags::ok);
+    }
 }
@@ -0,0 +1,17 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One requested id of a batch get; {@code found} is false and {@code item} null when no document has that id.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchGetItem<T> {
+    private String id;
+    private boolean found;
+    private T item;
+}
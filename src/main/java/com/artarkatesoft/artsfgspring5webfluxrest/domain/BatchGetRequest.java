@@ -0,0 +1,14 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchGetRequest {
+    private List<String> ids;
+}
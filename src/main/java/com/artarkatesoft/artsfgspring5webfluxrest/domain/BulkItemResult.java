@@ -0,0 +1,19 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one element of a bulk request; {@code index} is the element's position in the request body.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkItemResult {
+    private long index;
+    private String id;
+    private String error;
+}
@@ -0,0 +1,18 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CacheStatistics {
+    private long size;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+    private long loadFailureCount;
+}
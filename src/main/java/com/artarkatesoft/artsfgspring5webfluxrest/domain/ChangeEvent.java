@@ -0,0 +1,17 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ChangeEvent<T> {
+    private String operation;
+    private String documentId;
+    private T document;
+    private String resumeToken;
+}
@@ -0,0 +1,25 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.domain;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * RFC 7807 problem details, served as {@code application/problem+json}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class Problem {
+    public static final String UNTYPED = "about:blank";
+
+    private String type;
+    private String title;
+    private int status;
+    private String detail;
+    private String instance;
+}
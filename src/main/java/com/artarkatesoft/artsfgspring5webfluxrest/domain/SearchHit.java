@@ -0,0 +1,20 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One type-ahead suggestion: {@code type} is {@code category} or {@code vendor}, {@code text} the matched name.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SearchHit {
+    private String type;
+    private String id;
+    private String text;
+    private int score;
+}
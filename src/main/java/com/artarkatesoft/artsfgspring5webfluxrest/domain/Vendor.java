@@ -5,16 +5,25 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import java.time.Instant;
+
 @Data
 @Document
+@CompoundIndex(name = "lastName_firstName", def = "{'lastName': 1, 'firstName': 1}")
+@CompoundIndex(name = "firstName_lastName", def = "{'firstName': 1, 'lastName': 1}")
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-public class Vendor {
+public class Vendor implements Versioned {
     @Id
     private String id;
     private String firstName;
     private String lastName;
+    @Version
+    private Long version;
+    private Instant lastModified;
 }
@@ -0,0 +1,16 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.domain;
+
+import java.time.Instant;
+
+/**
+ * Documents whose optimistic-locking version and time of last write are exposed to clients as the
+ * {@code ETag} and {@code Last-Modified} validators.
+ */
+public interface Versioned {
+
+    Long getVersion();
+
+    Instant getLastModified();
+
+    void setLastModified(Instant lastModified);
+}
@@ -0,0 +1,24 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.exceptions;
+
+import java.time.Duration;
+
+/**
+ * A repository call refused without being attempted because its circuit breaker is open. Raised for every call
+ * while the database is unhealthy, so it is stackless like {@link NotFoundException}.
+ */
+public class CircuitOpenException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public CircuitOpenException(String message, Duration retryAfter) {
+        super(message, null, false, false);
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Time until the breaker lets a trial call through.
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,16 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.exceptions;
+
+/**
+ * No document with the requested id. Misses are routine (clients replay stale ids), so the exception is
+ * stackless: creating one does not walk the stack and it carries nothing worth logging beyond its message.
+ */
+public class NotFoundException extends RuntimeException {
+
+    public NotFoundException(String message) {
+        super(message, null, false, false);
+    }
+
+    public static NotFoundException of(Class<?> type, String id) {
+        return new NotFoundException(type.getSimpleName() + " with id `" + id + "` not found");
+    }
+}
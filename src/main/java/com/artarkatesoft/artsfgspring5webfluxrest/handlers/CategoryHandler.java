@@ -0,0 +1,104 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.handlers;
+
+import com.artarkatesoft.artsfgspring5webfluxrest.controllers.CategoryController;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.BatchGetItem;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.BatchGetRequest;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.BulkItemResult;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.Category;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.ChangeEvent;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.CursorPage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static com.artarkatesoft.artsfgspring5webfluxrest.handlers.RoutePredicates.ifMatch;
+import static com.artarkatesoft.artsfgspring5webfluxrest.handlers.RoutePredicates.intQueryParam;
+import static com.artarkatesoft.artsfgspring5webfluxrest.handlers.RoutePredicates.streamingType;
+import static org.springframework.http.HttpStatus.CREATED;
+import static org.springframework.http.MediaType.TEXT_EVENT_STREAM;
+import static org.springframework.web.reactive.function.server.ServerResponse.ok;
+import static org.springframework.web.reactive.function.server.ServerResponse.status;
+
+/**
+ * Handler functions for the functional routes. They call the {@link CategoryController} methods directly,
+ * so both dispatch styles share the same behaviour while skipping reflective argument resolution.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.web.routing", havingValue = "functional")
+public class CategoryHandler {
+
+    private static final ParameterizedTypeReference<CursorPage<Category>> PAGE_TYPE =
+            new ParameterizedTypeReference<CursorPage<Category>>() {
+            };
+    private static final ParameterizedTypeReference<ServerSentEvent<ChangeEvent<Category>>> CHANGE_TYPE =
+            new ParameterizedTypeReference<ServerSentEvent<ChangeEvent<Category>>>() {
+            };
+    private static final ParameterizedTypeReference<BatchGetItem<Category>> BATCH_ITEM_TYPE =
+            new ParameterizedTypeReference<BatchGetItem<Category>>() {
+            };
+
+    private final CategoryController categoryController;
+
+    public Mono<ServerResponse> list(ServerRequest request) {
+        ResponseEntity<Flux<Category>> categories = categoryController.list(request.queryParam("name").orElse(null),
+                request.queryParam("fields").orElse(null),
+                request.queryParam("sort").orElse(null));
+        return EntityResponses.toListResponse(request, categories, Category.class);
+    }
+
+    public Mono<ServerResponse> stream(ServerRequest request) {
+        return ok().contentType(streamingType(request)).body(categoryController.stream(request.queryParams()), Category.class);
+    }
+
+    public Mono<ServerResponse> page(ServerRequest request) {
+        Mono<CursorPage<Category>> page = categoryController.page(intQueryParam(request, "limit"),
+                request.queryParam("after").orElse(null), request.queryParams());
+        return ok().contentType(EntityResponses.contentType(request)).body(page, PAGE_TYPE);
+    }
+
+    public Mono<ServerResponse> changes(ServerRequest request) {
+        String lastEventId = request.headers().header("Last-Event-ID").stream().findFirst().orElse(null);
+        return ok().contentType(TEXT_EVENT_STREAM)
+                .body(categoryController.changes(lastEventId, request.queryParam("resumeAfter").orElse(null)), CHANGE_TYPE);
+    }
+
+    public Mono<ServerResponse> getById(ServerRequest request) {
+        return categoryController.getById(request.pathVariable("id"))
+                .flatMap(entity -> EntityResponses.toConditionalResponse(request, entity));
+    }
+
+    public Mono<ServerResponse> create(ServerRequest request) {
+        return status(CREATED).contentType(EntityResponses.streamContentType(request))
+                .body(categoryController.createCategory(request.bodyToFlux(Category.class)), Category.class);
+    }
+
+    public Mono<ServerResponse> bulkCreate(ServerRequest request) {
+        return ok().contentType(EntityResponses.streamContentType(request))
+                .body(categoryController.bulkCreate(request.bodyToFlux(Category.class)), BulkItemResult.class);
+    }
+
+    public Mono<ServerResponse> batchGet(ServerRequest request) {
+        return ok().contentType(EntityResponses.streamContentType(request))
+                .body(categoryController.batchGet(request.bodyToMono(BatchGetRequest.class)), BATCH_ITEM_TYPE);
+    }
+
+    public Mono<ServerResponse> put(ServerRequest request) {
+        return categoryController.updateCategoryUsingPut(request.pathVariable("id"), ifMatch(request),
+                request.bodyToMono(Category.class))
+                .flatMap(entity -> EntityResponses.toServerResponse(request, entity));
+    }
+
+    public Mono<ServerResponse> patch(ServerRequest request) {
+        return request.bodyToMono(Category.class)
+                .flatMap(changes -> categoryController.updateCategoryUsingPatch(request.pathVariable("id"), ifMatch(request), changes))
+                .flatMap(entity -> EntityResponses.toServerResponse(request, entity));
+    }
+}
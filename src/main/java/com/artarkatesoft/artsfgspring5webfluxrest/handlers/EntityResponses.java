@@ -0,0 +1,116 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.handlers;
+
+import com.artarkatesoft.artsfgspring5webfluxrest.controllers.Problems;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.NotAcceptableStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.artarkatesoft.artsfgspring5webfluxrest.config.WebFluxConfig.APPLICATION_CBOR;
+import static com.artarkatesoft.artsfgspring5webfluxrest.config.WebFluxConfig.APPLICATION_NDJSON;
+import static com.artarkatesoft.artsfgspring5webfluxrest.config.WebFluxConfig.APPLICATION_SMILE;
+import static org.springframework.http.HttpStatus.NOT_MODIFIED;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+
+/**
+ * Adapts the {@link ResponseEntity} results of controller methods, keeping their status and headers, and picks the
+ * body type from {@code Accept} as content negotiation does for the annotated controllers (a functional response
+ * without a content type would get the first writer's default).
+ */
+public final class EntityResponses {
+
+    private static final List<MediaType> PRODUCIBLE = Arrays.asList(APPLICATION_JSON, APPLICATION_CBOR, APPLICATION_SMILE);
+    private static final List<MediaType> PRODUCIBLE_STREAMS =
+            Arrays.asList(APPLICATION_JSON, APPLICATION_NDJSON, APPLICATION_CBOR, APPLICATION_SMILE);
+
+    private EntityResponses() {
+    }
+
+    /**
+     * The type a single value is written in: the most specific, highest quality accepted type the Jackson writers
+     * produce, JSON without an {@code Accept} header.
+     *
+     * @throws NotAcceptableStatusException when no accepted type can be produced
+     */
+    static MediaType contentType(ServerRequest request) {
+        return negotiate(request, PRODUCIBLE);
+    }
+
+    /**
+     * The type a {@code Flux} is written in, which may also be streamed as NDJSON.
+     */
+    static MediaType streamContentType(ServerRequest request) {
+        return negotiate(request, PRODUCIBLE_STREAMS);
+    }
+
+    private static MediaType negotiate(ServerRequest request, List<MediaType> producible) {
+        List<MediaType> accepted = new ArrayList<>(request.headers().accept());
+        if (accepted.isEmpty()) return APPLICATION_JSON;
+        MediaType.sortBySpecificityAndQuality(accepted);
+        for (MediaType mediaType : accepted)
+            for (MediaType candidate : producible)
+                if (mediaType.isCompatibleWith(candidate)) return candidate;
+        throw new NotAcceptableStatusException(producible);
+    }
+
+    static <T> Mono<ServerResponse> toServerResponse(ServerRequest request, ResponseEntity<T> entity) {
+        return write(entity, contentType(request));
+    }
+
+    /**
+     * For {@code GET} routes: 304 when the request's conditional headers match the entity's validators,
+     * as Spring answers for the annotated controllers.
+     */
+    static <T> Mono<ServerResponse> toConditionalResponse(ServerRequest request, ResponseEntity<T> entity) {
+        MediaType contentType = contentType(request);
+        return notModified(request, entity)
+                .switchIfEmpty(Mono.defer(() -> write(entity, contentType)));
+    }
+
+    /**
+     * A list result written as one array, or 304 without subscribing to it when the client's copy is current.
+     */
+    static <T> Mono<ServerResponse> toListResponse(ServerRequest request, ResponseEntity<Flux<T>> entity, Class<T> type) {
+        MediaType contentType = contentType(request);
+        return notModified(request, entity)
+                .switchIfEmpty(Mono.defer(() -> ServerResponse.status(entity.getStatusCode())
+                        .headers(headers -> headers.addAll(entity.getHeaders()))
+                        .contentType(contentType)
+                        .body(entity.getBody(), type)));
+    }
+
+    /**
+     * Keeps a content type the entity has set itself, such as that of a problem.
+     */
+    private static <T> Mono<ServerResponse> write(ResponseEntity<T> entity, MediaType contentType) {
+        ServerResponse.BodyBuilder builder = ServerResponse.status(entity.getStatusCode())
+                .headers(headers -> headers.addAll(entity.getHeaders()));
+        T body = entity.getBody();
+        if (body == null) return builder.build();
+        MediaType ownType = entity.getHeaders().getContentType();
+        return builder.contentType((ownType != null) ? ownType : contentType).bodyValue(body);
+    }
+
+    private static Mono<ServerResponse> notModified(ServerRequest request, ResponseEntity<?> entity) {
+        HttpHeaders headers = entity.getHeaders();
+        if (!request.exchange().checkNotModified(headers.getETag(), Instant.ofEpochMilli(headers.getLastModified())))
+            return Mono.empty();
+        return ServerResponse.status(NOT_MODIFIED).headers(notModified -> notModified.addAll(headers)).build();
+    }
+
+    /**
+     * Error handler for the routes: the same problem responses the annotated controllers get from their advice.
+     */
+    public static Mono<ServerResponse> problem(Throwable e, ServerRequest request) {
+        return write(Problems.toResponse(e, request.path()), APPLICATION_JSON);
+    }
+}
@@ -0,0 +1,58 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.handlers;
+
+import com.artarkatesoft.artsfgspring5webfluxrest.bson.RawJsonTranscoder;
+import com.artarkatesoft.artsfgspring5webfluxrest.changes.CollectionVersions;
+import com.artarkatesoft.artsfgspring5webfluxrest.controllers.ETags;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.Category;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.Vendor;
+import com.artarkatesoft.artsfgspring5webfluxrest.repositories.CategoryRepository;
+import com.artarkatesoft.artsfgspring5webfluxrest.repositories.VendorRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.bson.RawBsonDocument;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * The plain JSON lists of all categories and all vendors, transcoded from the stored BSON by
+ * {@link RawJsonTranscoder} instead of decoded into objects and serialized again. The response is the one the
+ * controllers' {@code list} gives for the same request: the same bytes, validators and 304s, but written one
+ * cursor batch at a time rather than once the whole list is read.
+ */
+public class JsonPassthroughHandler {
+
+    private final CategoryRepository categoryRepository;
+    private final VendorRepository vendorRepository;
+    private final CollectionVersions collectionVersions;
+    private final RawJsonTranscoder categoryTranscoder;
+    private final RawJsonTranscoder vendorTranscoder;
+
+    public JsonPassthroughHandler(CategoryRepository categoryRepository, VendorRepository vendorRepository,
+                                  CollectionVersions collectionVersions, ObjectMapper objectMapper) {
+        this.categoryRepository = categoryRepository;
+        this.vendorRepository = vendorRepository;
+        this.collectionVersions = collectionVersions;
+        this.categoryTranscoder = RawJsonTranscoder.forCategories(objectMapper);
+        this.vendorTranscoder = RawJsonTranscoder.forVendors(objectMapper);
+    }
+
+    public Mono<ServerResponse> categories(ServerRequest request) {
+        return list(request, Category.class, categoryRepository.findAllAsRawBson(), categoryTranscoder,
+                CategoryRepository.STREAM_BATCH_SIZE);
+    }
+
+    public Mono<ServerResponse> vendors(ServerRequest request) {
+        return list(request, Vendor.class, vendorRepository.findAllAsRawBson(), vendorTranscoder,
+                VendorRepository.STREAM_BATCH_SIZE);
+    }
+
+    private Mono<ServerResponse> list(ServerRequest request, Class<?> type, Flux<RawBsonDocument> documents,
+                                      RawJsonTranscoder transcoder, int documentsPerBuffer) {
+        CollectionVersions.Version version = collectionVersions.current(type);
+        Flux<DataBuffer> json = transcoder.writeArray(documents, request.exchange().getResponse().bufferFactory(),
+                documentsPerBuffer);
+        return EntityResponses.toListResponse(request, ETags.ok(json, version), DataBuffer.class);
+    }
+}
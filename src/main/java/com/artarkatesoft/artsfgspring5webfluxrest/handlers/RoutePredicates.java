@@ -0,0 +1,70 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.handlers;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.RequestPredicate;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.server.ServerWebInputException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.artarkatesoft.artsfgspring5webfluxrest.config.WebFluxConfig.APPLICATION_NDJSON;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.http.MediaType.TEXT_EVENT_STREAM;
+
+public final class RoutePredicates {
+
+    private RoutePredicates() {
+    }
+
+    /**
+     * Unlike {@code RequestPredicates.accept}, a missing or wildcard {@code Accept} header does not match,
+     * which mirrors how the annotated {@code produces} condition prefers the plain JSON list.
+     */
+    public static RequestPredicate streamingAccepted() {
+        return request -> streamingType(request) != null;
+    }
+
+    /**
+     * A list request without query parameters that the annotated controllers would answer with a plain JSON
+     * array: no streaming type accepted and JSON the best match of the {@code Accept} header, if there is one.
+     */
+    public static RequestPredicate plainJsonList() {
+        return request -> request.queryParams().isEmpty() && streamingType(request) == null && jsonPreferred(request);
+    }
+
+    public static RequestPredicate hasQueryParam(String name) {
+        return request -> request.queryParam(name).isPresent();
+    }
+
+    static MediaType streamingType(ServerRequest request) {
+        List<MediaType> accepted = request.headers().accept();
+        for (MediaType mediaType : accepted) {
+            if (mediaType.equalsTypeAndSubtype(APPLICATION_NDJSON)) return APPLICATION_NDJSON;
+            if (mediaType.equalsTypeAndSubtype(TEXT_EVENT_STREAM)) return TEXT_EVENT_STREAM;
+        }
+        return null;
+    }
+
+    private static boolean jsonPreferred(ServerRequest request) {
+        List<MediaType> accepted = new ArrayList<>(request.headers().accept());
+        if (accepted.isEmpty()) return true;
+        MediaType.sortBySpecificityAndQuality(accepted);
+        return accepted.get(0).isCompatibleWith(APPLICATION_JSON);
+    }
+
+    static int intQueryParam(ServerRequest request, String name) {
+        String value = request.queryParam(name)
+                .orElseThrow(() -> new ServerWebInputException("Required int parameter '" + name + "' is not present"));
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new ServerWebInputException("Parameter '" + name + "' must be an integer but was `" + value + "`");
+        }
+    }
+
+    static String ifMatch(ServerRequest request) {
+        return request.headers().header(HttpHeaders.IF_MATCH).stream().findFirst().orElse(null);
+    }
+}
@@ -0,0 +1,105 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.handlers;
+
+import com.artarkatesoft.artsfgspring5webfluxrest.controllers.VendorController;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.BatchGetItem;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.BatchGetRequest;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.BulkItemResult;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.Vendor;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.ChangeEvent;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.CursorPage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static com.artarkatesoft.artsfgspring5webfluxrest.handlers.RoutePredicates.ifMatch;
+import static com.artarkatesoft.artsfgspring5webfluxrest.handlers.RoutePredicates.intQueryParam;
+import static com.artarkatesoft.artsfgspring5webfluxrest.handlers.RoutePredicates.streamingType;
+import static org.springframework.http.HttpStatus.CREATED;
+import static org.springframework.http.MediaType.TEXT_EVENT_STREAM;
+import static org.springframework.web.reactive.function.server.ServerResponse.ok;
+import static org.springframework.web.reactive.function.server.ServerResponse.status;
+
+/**
+ * Handler functions for the functional routes. They call the {@link VendorController} methods directly,
+ * so both dispatch styles share the same behaviour while skipping reflective argument resolution.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.web.routing", havingValue = "functional")
+public class VendorHandler {
+
+    private static final ParameterizedTypeReference<CursorPage<Vendor>> PAGE_TYPE =
+            new ParameterizedTypeReference<CursorPage<Vendor>>() {
+            };
+    private static final ParameterizedTypeReference<ServerSentEvent<ChangeEvent<Vendor>>> CHANGE_TYPE =
+            new ParameterizedTypeReference<ServerSentEvent<ChangeEvent<Vendor>>>() {
+            };
+    private static final ParameterizedTypeReference<BatchGetItem<Vendor>> BATCH_ITEM_TYPE =
+            new ParameterizedTypeReference<BatchGetItem<Vendor>>() {
+            };
+
+    private final VendorController vendorController;
+
+    public Mono<ServerResponse> list(ServerRequest request) {
+        ResponseEntity<Flux<Vendor>> vendors = vendorController.list(request.queryParam("firstName").orElse(null),
+                request.queryParam("lastName").orElse(null),
+                request.queryParam("fields").orElse(null),
+                request.queryParam("sort").orElse(null));
+        return EntityResponses.toListResponse(request, vendors, Vendor.class);
+    }
+
+    public Mono<ServerResponse> stream(ServerRequest request) {
+        return ok().contentType(streamingType(request)).body(vendorController.stream(request.queryParams()), Vendor.class);
+    }
+
+    public Mono<ServerResponse> page(ServerRequest request) {
+        Mono<CursorPage<Vendor>> page = vendorController.page(intQueryParam(request, "limit"),
+                request.queryParam("after").orElse(null), request.queryParams());
+        return ok().contentType(EntityResponses.contentType(request)).body(page, PAGE_TYPE);
+    }
+
+    public Mono<ServerResponse> changes(ServerRequest request) {
+        String lastEventId = request.headers().header("Last-Event-ID").stream().findFirst().orElse(null);
+        return ok().contentType(TEXT_EVENT_STREAM)
+                .body(vendorController.changes(lastEventId, request.queryParam("resumeAfter").orElse(null)), CHANGE_TYPE);
+    }
+
+    public Mono<ServerResponse> findById(ServerRequest request) {
+        return vendorController.findById(request.pathVariable("id"))
+                .flatMap(entity -> EntityResponses.toConditionalResponse(request, entity));
+    }
+
+    public Mono<ServerResponse> create(ServerRequest request) {
+        return status(CREATED).contentType(EntityResponses.streamContentType(request))
+                .body(vendorController.createVendor(request.bodyToFlux(Vendor.class)), Vendor.class);
+    }
+
+    public Mono<ServerResponse> bulkCreate(ServerRequest request) {
+        return ok().contentType(EntityResponses.streamContentType(request))
+                .body(vendorController.bulkCreate(request.bodyToFlux(Vendor.class)), BulkItemResult.class);
+    }
+
+    public Mono<ServerResponse> batchGet(ServerRequest request) {
+        return ok().contentType(EntityResponses.streamContentType(request))
+                .body(vendorController.batchGet(request.bodyToMono(BatchGetRequest.class)), BATCH_ITEM_TYPE);
+    }
+
+    public Mono<ServerResponse> put(ServerRequest request) {
+        return vendorController.updateVendorUsingPut(request.pathVariable("id"), ifMatch(request),
+                request.bodyToMono(Vendor.class))
+                .flatMap(entity -> EntityResponses.toServerResponse(request, entity));
+    }
+
+    public Mono<ServerResponse> patch(ServerRequest request) {
+        return vendorController.updateVendorUsingPatch(request.pathVariable("id"), ifMatch(request),
+                request.bodyToMono(Vendor.class))
+                .flatMap(entity -> EntityResponses.toServerResponse(request, entity));
+    }
+}
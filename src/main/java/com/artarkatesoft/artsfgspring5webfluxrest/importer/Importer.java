@@ -0,0 +1,42 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.importer;
+
+import com.artarkatesoft.artsfgspring5webfluxrest.bulk.BulkInserter;
+import com.artarkatesoft.artsfgspring5webfluxrest.changes.CollectionVersions;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.ImportSummary;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.Versioned;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Streams records from JSON/NDJSON content into bounded bulk-insert batches. Demand flows from the inserter
+ * back to the content source, so memory stays constant regardless of the input size.
+ */
+@Component
+@RequiredArgsConstructor
+public class Importer {
+
+    private final JsonRecordReader jsonRecordReader;
+    private final BulkInserter bulkInserter;
+    private final CollectionVersions collectionVersions;
+
+    /**
+     * @param recordsField name of the array field when the records are wrapped in an object,
+     *                     {@code null} for newline-delimited records
+     */
+    public <T> Mono<ImportSummary> importRecords(Flux<DataBuffer> content, Class<T> type, String collection,
+                                                 String recordsField) {
+        Flux<T> records = jsonRecordReader.read(content, type, recordsField)
+                .doOnNext(record -> {
+                    if (record instanceof Versioned) collectionVersions.stamp((Versioned) record);
+                });
+        return collectionVersions.bumpOnTermination(bulkInserter.insert(records, type), type)
+                .reduceWith(() -> ImportSummary.builder().collection(collection).build(), (summary, result) -> {
+                    if (result.getError() == null) summary.setInserted(summary.getInserted() + 1);
+                    else summary.setFailed(summary.getFailed() + 1);
+                    return summary;
+                });
+    }
+}
@@ -0,0 +1,133 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.importer;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.stereotype.Component;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decodes records incrementally from a stream of {@link DataBuffer}s with Jackson's non-blocking parser,
+ * holding at most one record's tokens in memory. Accepted layouts:
+ * <ul>
+ * <li>a top-level array of records: {@code [{...}, {...}]}</li>
+ * <li>a wrapper object whose {@code recordsField} holds the array: {@code {"categories": [{...}]}}</li>
+ * <li>newline-delimited (or just concatenated) records, when {@code recordsField} is {@code null}</li>
+ * </ul>
+ */
+@Component
+@RequiredArgsConstructor
+public class JsonRecordReader {
+
+    private final ObjectMapper objectMapper;
+
+    public <T> Flux<T> read(Flux<DataBuffer> content, Class<T> type, String recordsField) {
+        return Flux.defer(() -> {
+            Tokenizer<T> tokenizer = new Tokenizer<>(type, recordsField);
+            return content
+                    .concatMapIterable(tokenizer::feed)
+                    .concatWith(Flux.defer(() -> Flux.fromIterable(tokenizer.endOfInput())));
+        });
+    }
+
+    private class Tokenizer<T> {
+
+        private final Class<T> type;
+        private final String recordsField;
+        private final JsonParser parser;
+
+        private int depth;
+        private int recordsDepth = -1;
+        private boolean inWrapper;
+        private String fieldName;
+        private TokenBuffer record;
+        private int recordDepth;
+
+        Tokenizer(Class<T> type, String recordsField) {
+            this.type = type;
+            this.recordsField = recordsField;
+            try {
+                this.parser = objectMapper.getFactory().createNonBlockingByteArrayParser();
+            } catch (IOException e) {
+                throw Exceptions.propagate(e);
+            }
+        }
+
+        List<T> feed(DataBuffer buffer) {
+            byte[] bytes = new byte[buffer.readableByteCount()];
+            buffer.read(bytes);
+            DataBufferUtils.release(buffer);
+            try {
+                ((ByteArrayFeeder) parser.getNonBlockingInputFeeder()).feedInput(bytes, 0, bytes.length);
+                return parseAvailable();
+            } catch (IOException e) {
+                throw Exceptions.propagate(e);
+            }
+        }
+
+        List<T> endOfInput() {
+            parser.getNonBlockingInputFeeder().endOfInput();
+            try {
+                List<T> records = parseAvailable();
+                if (depth != 0 || record != null) throw new IOException("Unexpected end of JSON input");
+                return records;
+            } catch (IOException e) {
+                throw Exceptions.propagate(e);
+            }
+        }
+
+        private List<T> parseAvailable() throws IOException {
+            List<T> records = new ArrayList<>();
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+                if (record == null && startsRecord(token)) {
+                    record = new TokenBuffer(parser);
+                    recordDepth = depth;
+                }
+                if (token.isStructStart()) depth++;
+                else if (token.isStructEnd()) depth--;
+
+                if (record != null) {
+                    record.copyCurrentEvent(parser);
+                    if (depth == recordDepth) {
+                        records.add(objectMapper.readValue(record.asParser(objectMapper), type));
+                        record = null;
+                    }
+                    continue;
+                }
+                if (depth < recordsDepth) recordsDepth = -1;
+                if (depth == 0) inWrapper = false;
+                if (token == JsonToken.FIELD_NAME && inWrapper && depth == 1) fieldName = parser.getCurrentName();
+            }
+            return records;
+        }
+
+        private boolean startsRecord(JsonToken token) {
+            if (token == JsonToken.FIELD_NAME || token.isStructEnd()) return false;
+            if (depth == recordsDepth) return true;
+            if (depth == 0 && token == JsonToken.START_ARRAY) {
+                recordsDepth = 1;
+                return false;
+            }
+            if (depth == 0 && token == JsonToken.START_OBJECT && recordsField != null) {
+                inWrapper = true;
+                return false;
+            }
+            if (depth == 1 && inWrapper && token == JsonToken.START_ARRAY && recordsField.equals(fieldName)) {
+                recordsDepth = 2;
+                return false;
+            }
+            return depth == 0;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.inmemory;
+
+import com.artarkatesoft.artsfgspring5webfluxrest.bulk.BulkInserter;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.BulkItemResult;
+import com.artarkatesoft.artsfgspring5webfluxrest.search.SearchIndex;
+import org.reactivestreams.Publisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Inserts into the in-memory collections one item at a time; there is no round trip to batch away. Inserted items
+ * are put into the {@link SearchIndex}.
+ */
+@Component
+@Profile("inmemory")
+public class InMemoryBulkInserter implements BulkInserter {
+
+    private final List<InMemoryCollection<?>> collections;
+    private final SearchIndex searchIndex;
+
+    public InMemoryBulkInserter(List<InMemoryCollection<?>> collections, SearchIndex searchIndex) {
+        this.collections = collections;
+        this.searchIndex = searchIndex;
+    }
+
+    @Override
+    public <T> Flux<BulkItemResult> insert(Publisher<T> items, Class<T> type) {
+        InMemoryCollection<T> collection = collectionOf(type);
+        return Flux.from(items)
+                .index()
+                .concatMap(item -> collection.insert(item.getT2())
+                        .doOnNext(searchIndex::putInserted)
+                        .map(inserted -> BulkItemResult.builder()
+                                .index(item.getT1())
+                                .id(collection.idOf(inserted))
+                                .build())
+                        .onErrorResume(e -> Mono.just(BulkItemResult.builder()
+                                .index(item.getT1())
+                                .error(e.getMessage())
+                                .build())));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> InMemoryCollection<T> collectionOf(Class<T> type) {
+        return (InMemoryCollection<T>) collections.stream()
+                .filter(collection -> collection.getType() == type)
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("No in-memory collection of " + type.getName()));
+    }
+}
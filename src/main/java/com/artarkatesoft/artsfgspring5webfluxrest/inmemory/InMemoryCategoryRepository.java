@@ -0,0 +1,25 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.inmemory;
+
+import com.artarkatesoft.artsfgspring5webfluxrest.bson.CategoryCodec;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.Category;
+import com.artarkatesoft.artsfgspring5webfluxrest.repositories.CategoryRepository;
+import org.bson.RawBsonDocument;
+import reactor.core.publisher.Flux;
+
+import java.util.Collections;
+import java.util.function.Function;
+
+public class InMemoryCategoryRepository extends InMemoryRepository<Category> implements CategoryRepository {
+
+    private static final CategoryCodec CODEC = new CategoryCodec();
+
+    public InMemoryCategoryRepository() {
+        super(Category.class, Category::getId, Category::setId, Category::getVersion, Category::setVersion,
+                Collections.<String, Function<Category, String>>singletonMap("name", Category::getName));
+    }
+
+    @Override
+    public Flux<RawBsonDocument> findAllAsRawBson() {
+        return findAll().map(category -> new RawBsonDocument(category, CODEC));
+    }
+}
@@ -0,0 +1,31 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.inmemory;
+
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The store-level operations of an in-memory repository, as an interface so they stay reachable through the
+ * metrics and tracing proxies around the repository beans.
+ */
+public interface InMemoryCollection<T> {
+
+    Class<T> getType();
+
+    String getCollectionName();
+
+    String idOf(T document);
+
+    <S extends T> Mono<S> insert(S entity);
+
+    /**
+     * Copies of every document, in id order.
+     */
+    List<T> snapshot();
+
+    /**
+     * Replaces the content with {@code documents} as they are, versions included, without publishing events.
+     */
+    void restore(Collection<T> documents);
+}
@@ -0,0 +1,528 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.inmemory;
+
+import com.artarkatesoft.artsfgspring5webfluxrest.repositories.ListQuery;
+import com.artarkatesoft.artsfgspring5webfluxrest.repositories.ListQueryRepository;
+import com.artarkatesoft.artsfgspring5webfluxrest.repositories.VersionedUpdateRepository;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.ApplicationEventPublisherAware;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.data.support.ExampleMatcherAccessor;
+import org.springframework.util.StringUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.beans.PropertyDescriptor;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * {@link ReactiveMongoRepository} over a concurrent in-memory store, for the {@code inmemory} profile.
+ * <p>
+ * Documents live in a skip list ordered by id, so reads never lock and id-ordered scans and keyset pages come for
+ * free. Writes to one id are serialized on one of {@value #STRIPES} striped locks. Secondary indexes (property
+ * value to ids) serve exact and prefix filters of {@link #search(ListQuery)}; a read that races a write may miss
+ * the document being moved between index entries, but never returns a document that does not match.
+ * <p>
+ * Documents are copied in and out, so callers cannot modify stored state. Ids, versions, duplicate-key and
+ * optimistic-locking failures follow the Mongo repositories, and saves and deletes publish the same mapping
+ * events, so the in-memory change feed keeps working. Query by example scans every document.
+ */
+public abstract class InMemoryRepository<T> implements ReactiveMongoRepository<T, String>, VersionedUpdateRepository<T>,
+        ListQueryRepository<T>, InMemoryCollection<T>, ApplicationEventPublisherAware {
+
+    static final int STRIPES = 64;
+
+    private final Class<T> type;
+    private final String collectionName;
+    private final Function<T, String> idGetter;
+    private final BiConsumer<T, String> idSetter;
+    private final Function<T, Long> versionGetter;
+    private final BiConsumer<T, Long> versionSetter;
+    private final Map<String, Function<T, String>> indexedProperties;
+
+    private final ConcurrentNavigableMap<String, T> documents = new ConcurrentSkipListMap<>();
+    private final Map<String, ConcurrentNavigableMap<String, Set<String>>> indexes = new HashMap<>();
+    private final Object[] stripes = new Object[STRIPES];
+    private ApplicationEventPublisher eventPublisher = event -> {
+    };
+
+    protected InMemoryRepository(Class<T> type, Function<T, String> idGetter, BiConsumer<T, String> idSetter,
+                                 Function<T, Long> versionGetter, BiConsumer<T, Long> versionSetter,
+                                 Map<String, Function<T, String>> indexedProperties) {
+        this.type = type;
+        this.collectionName = StringUtils.uncapitalize(type.getSimpleName());
+        this.idGetter = idGetter;
+        this.idSetter = idSetter;
+        this.versionGetter = versionGetter;
+        this.versionSetter = versionSetter;
+        this.indexedProperties = indexedProperties;
+        indexedProperties.keySet().forEach(property -> indexes.put(property, new ConcurrentSkipListMap<>()));
+        for (int i = 0; i < STRIPES; i++) stripes[i] = new Object();
+    }
+
+    @Override
+    public void setApplicationEventPublisher(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public Class<T> getType() {
+        return type;
+    }
+
+    @Override
+    public String getCollectionName() {
+        return collectionName;
+    }
+
+    @Override
+    public String idOf(T document) {
+        return idGetter.apply(document);
+    }
+
+    // ---- writes
+
+    @Override
+    public <S extends T> Mono<S> save(S entity) {
+        return Mono.fromCallable(() -> store(entity, false));
+    }
+
+    @Override
+    public <S extends T> Flux<S> saveAll(Iterable<S> entities) {
+        return Flux.fromIterable(entities).concatMap(this::save);
+    }
+
+    @Override
+    public <S extends T> Flux<S> saveAll(Publisher<S> entityStream) {
+        return Flux.from(entityStream).concatMap(this::save);
+    }
+
+    @Override
+    public <S extends T> Mono<S> insert(S entity) {
+        return Mono.fromCallable(() -> store(entity, true));
+    }
+
+    @Override
+    public <S extends T> Flux<S> insert(Iterable<S> entities) {
+        return Flux.fromIterable(entities).concatMap(this::insert);
+    }
+
+    @Override
+    public <S extends T> Flux<S> insert(Publisher<S> entities) {
+        return Flux.from(entities).concatMap(this::insert);
+    }
+
+    @Override
+    public Mono<T> patch(String id, T changes, Long expectedVersion) {
+        return Mono.fromCallable(() -> update(id, changes, expectedVersion, false));
+    }
+
+    @Override
+    public Mono<T> replace(String id, T replacement, Long expectedVersion) {
+        return Mono.fromCallable(() -> update(id, replacement, expectedVersion, true));
+    }
+
+    @Override
+    public Mono<Void> deleteById(String id) {
+        return Mono.fromRunnable(() -> remove(id));
+    }
+
+    @Override
+    public Mono<Void> deleteById(Publisher<String> id) {
+        return Mono.from(id).flatMap(this::deleteById);
+    }
+
+    @Override
+    public Mono<Void> delete(T entity) {
+        return deleteById(idGetter.apply(entity));
+    }
+
+    @Override
+    public Mono<Void> deleteAll(Iterable<? extends T> entities) {
+        return Flux.fromIterable(entities).concatMap(this::delete).then();
+    }
+
+    @Override
+    public Mono<Void> deleteAll(Publisher<? extends T> entityStream) {
+        return Flux.from(entityStream).concatMap(this::delete).then();
+    }
+
+    @Override
+    public Mono<Void> deleteAll() {
+        return Mono.fromRunnable(() -> documents.keySet().forEach(this::remove));
+    }
+
+    // ---- reads
+
+    @Override
+    public Mono<T> findById(String id) {
+        return Mono.fromSupplier(() -> copyOrNull(documents.get(id)));
+    }
+
+    @Override
+    public Mono<T> findById(Publisher<String> id) {
+        return Mono.from(id).flatMap(this::findById);
+    }
+
+    @Override
+    public Mono<Boolean> existsById(String id) {
+        return Mono.fromSupplier(() -> documents.containsKey(id));
+    }
+
+    @Override
+    public Mono<Boolean> existsById(Publisher<String> id) {
+        return Mono.from(id).flatMap(this::existsById);
+    }
+
+    @Override
+    public Flux<T> findAll() {
+        return Flux.defer(() -> Flux.fromIterable(documents.values())).map(this::copy);
+    }
+
+    @Override
+    public Flux<T> findAll(Sort sort) {
+        return Flux.defer(() -> Flux.fromIterable(sorted(documents.values(), sort))).map(this::copy);
+    }
+
+    @Override
+    public Flux<T> findAllById(Iterable<String> ids) {
+        return Flux.fromIterable(ids)
+                .distinct()
+                .handle((id, sink) -> {
+                    T document = documents.get(id);
+                    if (document != null) sink.next(copy(document));
+                });
+    }
+
+    @Override
+    public Flux<T> findAllById(Publisher<String> idStream) {
+        return Flux.from(idStream).collectList().flatMapMany(this::findAllById);
+    }
+
+    @Override
+    public Mono<Long> count() {
+        return Mono.fromSupplier(() -> (long) documents.size());
+    }
+
+    public Flux<T> findAllByOrderByIdAsc(Pageable pageable) {
+        return Flux.defer(() -> Flux.fromIterable(documents.values()))
+                .skip(pageable.getOffset())
+                .take(pageable.getPageSize())
+                .map(this::copy);
+    }
+
+    public Flux<T> streamAllByOrderByIdAsc() {
+        return findAll();
+    }
+
+    public Flux<T> findByIdGreaterThanOrderByIdAsc(String id, Pageable pageable) {
+        return Flux.defer(() -> Flux.fromIterable(documents.tailMap(id, false).values()))
+                .skip(pageable.getOffset())
+                .take(pageable.getPageSize())
+                .map(this::copy);
+    }
+
+    @Override
+    public Flux<T> search(ListQuery<T> query) {
+        return Flux.defer(() -> {
+            List<T> matches = candidates(query.getFilters()).stream()
+                    .filter(document -> matches(document, query.getFilters()))
+                    .collect(Collectors.toList());
+            return Flux.fromIterable(sorted(matches, query.getSort()));
+        }).map(document -> query.getFields().isEmpty() ? copy(document) : project(document, query.getFields()));
+    }
+
+    // ---- query by example
+
+    @Override
+    public <S extends T> Mono<S> findOne(Example<S> example) {
+        return findAll(example).take(2).collectList().flatMap(matches -> (matches.size() > 1) ?
+                Mono.error(new IncorrectResultSizeDataAccessException(1, matches.size())) :
+                Mono.justOrEmpty(matches.isEmpty() ? null : matches.get(0)));
+    }
+
+    @Override
+    public <S extends T> Flux<S> findAll(Example<S> example) {
+        return findAll(example, Sort.unsorted());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <S extends T> Flux<S> findAll(Example<S> example, Sort sort) {
+        return Flux.defer(() -> {
+            List<T> matches = documents.values().stream()
+                    .filter(document -> example.getProbeType().isInstance(document) && matches(document, example))
+                    .collect(Collectors.toList());
+            return Flux.fromIterable(sorted(matches, sort));
+        }).map(document -> (S) copy(document));
+    }
+
+    @Override
+    public <S extends T> Mono<Long> count(Example<S> example) {
+        return findAll(example).count();
+    }
+
+    @Override
+    public <S extends T> Mono<Boolean> exists(Example<S> example) {
+        return findAll(example).hasElements();
+    }
+
+    // ---- snapshots
+
+    @Override
+    public List<T> snapshot() {
+        return documents.values().stream().map(this::copy).collect(Collectors.toList());
+    }
+
+    @Override
+    public void restore(Collection<T> restored) {
+        documents.keySet().forEach(id -> {
+            synchronized (stripe(id)) {
+                T previous = documents.remove(id);
+                if (previous != null) reindex(id, previous, null);
+            }
+        });
+        for (T document : restored) {
+            String id = idGetter.apply(document);
+            synchronized (stripe(id)) {
+                T copy = copy(document);
+                reindex(id, documents.put(id, copy), copy);
+            }
+        }
+    }
+
+    // ---- internals
+
+    private <S extends T> S store(S entity, boolean insertOnly) {
+        String id = idGetter.apply(entity);
+        if (id == null) {
+            id = new ObjectId().toHexString();
+            idSetter.accept(entity, id);
+        }
+        synchronized (stripe(id)) {
+            T current = documents.get(id);
+            Long version = versionGetter.apply(entity);
+            if (insertOnly || version == null) {
+                if (current != null)
+                    throw new DuplicateKeyException(type.getSimpleName() + " with id `" + id + "` already exists");
+                versionSetter.accept(entity, 0L);
+            } else {
+                if (current == null || !version.equals(versionGetter.apply(current)))
+                    throw new OptimisticLockingFailureException(type.getSimpleName() + " with id `" + id
+                            + "` is not at version " + version);
+                versionSetter.accept(entity, version + 1);
+            }
+            T copy = copy(entity);
+            documents.put(id, copy);
+            reindex(id, current, copy);
+        }
+        eventPublisher.publishEvent(new AfterSaveEvent<>(entity, new Document("_id", id), collectionName));
+        return entity;
+    }
+
+    private T update(String id, T source, Long expectedVersion, boolean replace) {
+        T updated;
+        synchronized (stripe(id)) {
+            T current = documents.get(id);
+            if (current == null) return null;
+            Long version = versionGetter.apply(current);
+            if (expectedVersion != null && !expectedVersion.equals(version))
+                throw new OptimisticLockingFailureException(type.getSimpleName() + " with id `" + id
+                        + "` is not at version " + expectedVersion);
+            updated = copy(current);
+            BeanUtils.copyProperties(source, updated, ignoredOnUpdate(source, replace));
+            versionSetter.accept(updated, (version == null) ? 1L : version + 1);
+            documents.put(id, updated);
+            reindex(id, current, updated);
+        }
+        eventPublisher.publishEvent(new AfterSaveEvent<>(copy(updated), new Document("_id", id), collectionName));
+        return copy(updated);
+    }
+
+    private void remove(String id) {
+        T removed;
+        synchronized (stripe(id)) {
+            removed = documents.remove(id);
+            if (removed != null) reindex(id, removed, null);
+        }
+        if (removed != null)
+            eventPublisher.publishEvent(new AfterDeleteEvent<>(new Document("_id", id), type, collectionName));
+    }
+
+    /**
+     * Moves {@code id} between index entries; index maps are only modified under their own lock, so an entry
+     * emptied by one writer cannot swallow an id added by another.
+     */
+    private void reindex(String id, T previous, T current) {
+        indexedProperties.forEach((property, getter) -> {
+            String oldValue = (previous == null) ? null : getter.apply(previous);
+            String newValue = (current == null) ? null : getter.apply(current);
+            if (Objects.equals(oldValue, newValue)) return;
+            ConcurrentNavigableMap<String, Set<String>> index = indexes.get(property);
+            synchronized (index) {
+                if (newValue != null) index.computeIfAbsent(newValue, value -> ConcurrentHashMap.newKeySet()).add(id);
+                if (oldValue != null) {
+                    Set<String> ids = index.get(oldValue);
+                    if (ids != null && ids.remove(id) && ids.isEmpty()) index.remove(oldValue);
+                }
+            }
+        });
+    }
+
+    private Collection<T> candidates(Map<String, String> filters) {
+        for (Map.Entry<String, String> filter : filters.entrySet()) {
+            ConcurrentNavigableMap<String, Set<String>> index = indexes.get(filter.getKey());
+            if (index == null) continue;
+            String value = filter.getValue();
+            Collection<Set<String>> idSets;
+            if (value.endsWith(ListQuery.PREFIX_WILDCARD)) {
+                String prefix = value.substring(0, value.length() - ListQuery.PREFIX_WILDCARD.length());
+                idSets = index.subMap(prefix, true, prefix + Character.MAX_VALUE, true).values();
+            } else {
+                Set<String> ids = index.get(value);
+                idSets = (ids == null) ? Collections.emptyList() : Collections.singletonList(ids);
+            }
+            List<T> candidates = new ArrayList<>();
+            for (Set<String> ids : idSets) {
+                for (String id : ids) {
+                    T document = documents.get(id);
+                    if (document != null) candidates.add(document);
+                }
+            }
+            return candidates;
+        }
+        return documents.values();
+    }
+
+    private static boolean matches(Object document, Map<String, String> filters) {
+        BeanWrapper wrapper = PropertyAccessorFactory.forBeanPropertyAccess(document);
+        for (Map.Entry<String, String> filter : filters.entrySet()) {
+            Object actual = wrapper.getPropertyValue(filter.getKey());
+            if (actual == null) return false;
+            String value = filter.getValue();
+            boolean match = value.endsWith(ListQuery.PREFIX_WILDCARD) ?
+                    actual.toString().startsWith(value.substring(0, value.length() - ListQuery.PREFIX_WILDCARD.length())) :
+                    actual.toString().equals(value);
+            if (!match) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Compares the probe's properties like the Mongo query by example: a {@code null} per the null handler, a string
+     * per the string matcher and case sensitivity of its path, anything else by equality.
+     */
+    private static boolean matches(Object document, Example<?> example) {
+        ExampleMatcherAccessor matcher = new ExampleMatcherAccessor(example.getMatcher());
+        BeanWrapper probe = PropertyAccessorFactory.forBeanPropertyAccess(example.getProbe());
+        BeanWrapper candidate = PropertyAccessorFactory.forBeanPropertyAccess(document);
+        boolean allMatching = example.getMatcher().isAllMatching();
+        boolean compared = false;
+        for (PropertyDescriptor descriptor : probe.getPropertyDescriptors()) {
+            String path = descriptor.getName();
+            if (path.equals("class") || !probe.isReadableProperty(path) || matcher.isIgnoredPath(path)) continue;
+            Object expected = matcher.getValueTransformerForPath(path)
+                    .apply(Optional.ofNullable(probe.getPropertyValue(path))).orElse(null);
+            if (expected == null && matcher.getNullHandler() == ExampleMatcher.NullHandler.IGNORE) continue;
+            boolean match = matches(candidate.getPropertyValue(path), expected, matcher, path);
+            if (match != allMatching) return match;
+            compared = true;
+        }
+        return allMatching || !compared;
+    }
+
+    private static boolean matches(Object actual, Object expected, ExampleMatcherAccessor matcher, String path) {
+        if (actual == null || expected == null) return actual == expected;
+        if (!(expected instanceof String)) return expected.equals(actual);
+        boolean ignoreCase = matcher.isIgnoreCaseForPath(path);
+        ExampleMatcher.StringMatcher stringMatcher = matcher.getStringMatcherForPath(path);
+        if (stringMatcher == ExampleMatcher.StringMatcher.REGEX)
+            return Pattern.compile((String) expected, ignoreCase ? Pattern.CASE_INSENSITIVE : 0).matcher(actual.toString()).find();
+        String text = ignoreCase ? actual.toString().toLowerCase(Locale.ROOT) : actual.toString();
+        String value = ignoreCase ? ((String) expected).toLowerCase(Locale.ROOT) : (String) expected;
+        switch (stringMatcher) {
+            case STARTING:
+                return text.startsWith(value);
+            case ENDING:
+                return text.endsWith(value);
+            case CONTAINING:
+                return text.contains(value);
+            default:
+                return text.equals(value);
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <T> List<T> sorted(Collection<T> documents, Sort sort) {
+        List<T> sorted = new ArrayList<>(documents);
+        if (sort.isUnsorted()) return sorted;
+        Comparator<T> comparator = null;
+        for (Sort.Order order : sort) {
+            Comparator<T> byProperty = Comparator.comparing(
+                    document -> (Comparable) PropertyAccessorFactory.forBeanPropertyAccess(document)
+                            .getPropertyValue(order.getProperty()),
+                    Comparator.nullsFirst(Comparator.naturalOrder()));
+            if (order.isDescending()) byProperty = byProperty.reversed();
+            comparator = (comparator == null) ? byProperty : comparator.thenComparing(byProperty);
+        }
+        sorted.sort(comparator);
+        return sorted;
+    }
+
+    private T project(T document, List<String> fields) {
+        T projection = BeanUtils.instantiateClass(type);
+        idSetter.accept(projection, idGetter.apply(document));
+        BeanWrapper source = PropertyAccessorFactory.forBeanPropertyAccess(document);
+        BeanWrapper target = PropertyAccessorFactory.forBeanPropertyAccess(projection);
+        fields.forEach(field -> target.setPropertyValue(field, source.getPropertyValue(field)));
+        return projection;
+    }
+
+    private String[] ignoredOnUpdate(T source, boolean replace) {
+        List<String> ignored = new ArrayList<>(Arrays.asList("id", "version"));
+        if (!replace) {
+            BeanWrapper wrapper = PropertyAccessorFactory.forBeanPropertyAccess(source);
+            for (PropertyDescriptor descriptor : wrapper.getPropertyDescriptors()) {
+                if (wrapper.isReadableProperty(descriptor.getName())
+                        && wrapper.getPropertyValue(descriptor.getName()) == null)
+                    ignored.add(descriptor.getName());
+            }
+        }
+        return ignored.toArray(new String[0]);
+    }
+
+    private T copy(T document) {
+        T copy = BeanUtils.instantiateClass(type);
+        BeanUtils.copyProperties(document, copy);
+        return copy;
+    }
+
+    private T copyOrNull(T document) {
+        return (document == null) ? null : copy(document);
+    }
+
+    private Object stripe(String id) {
+        return stripes[(id.hashCode() & Integer.MAX_VALUE) % STRIPES];
+    }
+}
@@ -0,0 +1,100 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.inmemory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.type.CollectionType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.List;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/**
+ * Optional snapshots of the in-memory collections, one JSON array per collection in
+ * {@code app.inmemory.snapshot.directory}. Snapshots are restored on startup (before warm-up seeds an empty store),
+ * written on shutdown and, with a positive {@code app.inmemory.snapshot.interval}, periodically. A snapshot is
+ * written to a temporary file and moved into place, so a crash never leaves a torn file behind.
+ */
+@Slf4j
+@Component
+@Profile("inmemory")
+public class InMemorySnapshots {
+
+    private final List<InMemoryCollection<?>> collections;
+    private final ObjectMapper objectMapper;
+    private final Path directory;
+    private final Duration interval;
+    private Disposable periodicSnapshots;
+
+    public InMemorySnapshots(List<InMemoryCollection<?>> collections, ObjectMapper objectMapper,
+                             @Value("${app.inmemory.snapshot.directory:}") String directory,
+                             @Value("${app.inmemory.snapshot.interval:0s}") Duration interval) {
+        this.collections = collections;
+        this.objectMapper = objectMapper;
+        this.directory = StringUtils.hasText(directory) ? Paths.get(directory) : null;
+        this.interval = interval;
+    }
+
+    @PostConstruct
+    public void restore() throws IOException {
+        if (directory == null) return;
+        for (InMemoryCollection<?> collection : collections) restore(collection);
+        if (!interval.isZero() && !interval.isNegative())
+            periodicSnapshots = Flux.interval(interval, interval, Schedulers.boundedElastic())
+                    .subscribe(tick -> writeAll());
+    }
+
+    @PreDestroy
+    public void close() {
+        if (periodicSnapshots != null) periodicSnapshots.dispose();
+        if (directory != null) writeAll();
+    }
+
+    public void writeAll() {
+        for (InMemoryCollection<?> collection : collections) {
+            try {
+                write(collection);
+            } catch (IOException | UncheckedIOException e) {
+                log.warn("Snapshot of {} failed", collection.getCollectionName(), e);
+            }
+        }
+    }
+
+    private <T> void restore(InMemoryCollection<T> collection) throws IOException {
+        Path file = fileOf(collection);
+        if (!Files.exists(file)) return;
+        CollectionType listType = objectMapper.getTypeFactory().constructCollectionType(List.class, collection.getType());
+        List<T> documents = objectMapper.readValue(file.toFile(), listType);
+        collection.restore(documents);
+        log.info("Restored {} {} from {}", documents.size(), collection.getCollectionName(), file);
+    }
+
+    private void write(InMemoryCollection<?> collection) throws IOException {
+        Files.createDirectories(directory);
+        Path file = fileOf(collection);
+        Path temporary = Files.createTempFile(directory, collection.getCollectionName(), ".tmp");
+        List<?> documents = collection.snapshot();
+        objectMapper.writeValue(temporary.toFile(), documents);
+        Files.move(temporary, file, REPLACE_EXISTING, ATOMIC_MOVE);
+        log.debug("Wrote {} {} to {}", documents.size(), collection.getCollectionName(), file);
+    }
+
+    private Path fileOf(InMemoryCollection<?> collection) {
+        return directory.resolve(collection.getCollectionName() + ".json");
+    }
+}
@@ -0,0 +1,25 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.inmemory;
+
+import com.artarkatesoft.artsfgspring5webfluxrest.bson.VendorCodec;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.Vendor;
+import com.artarkatesoft.artsfgspring5webfluxrest.repositories.VendorRepository;
+import org.bson.RawBsonDocument;
+import reactor.core.publisher.Flux;
+
+import java.util.Collections;
+import java.util.function.Function;
+
+public class InMemoryVendorRepository extends InMemoryRepository<Vendor> implements VendorRepository {
+
+    private static final VendorCodec CODEC = new VendorCodec();
+
+    public InMemoryVendorRepository() {
+        super(Vendor.class, Vendor::getId, Vendor::setId, Vendor::getVersion, Vendor::setVersion,
+                Collections.<String, Function<Vendor, String>>singletonMap("lastName", Vendor::getLastName));
+    }
+
+    @Override
+    public Flux<RawBsonDocument> findAllAsRawBson() {
+        return findAll().map(vendor -> new RawBsonDocument(vendor, CODEC));
+    }
+}
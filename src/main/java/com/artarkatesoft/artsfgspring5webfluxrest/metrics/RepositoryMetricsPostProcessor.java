@@ -0,0 +1,97 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.Arrays;
+
+/**
+ * Times every reactive repository call from subscription to its terminal signal, tagged by repository,
+ * method and outcome, as {@value #METRIC_NAME}.
+ */
+@RequiredArgsConstructor
+public class RepositoryMetricsPostProcessor implements BeanPostProcessor {
+
+    public static final String METRIC_NAME = "spring.data.repository.invocations";
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof Repository)) return bean;
+        String repositoryName = Arrays.stream(AopProxyUtils.proxiedUserInterfaces(bean))
+                .filter(Repository.class::isAssignableFrom)
+                .findFirst()
+                .map(Class::getSimpleName)
+                .orElse(beanName);
+        TimingInterceptor interceptor = new TimingInterceptor(repositoryName);
+        if (bean instanceof Advised && !((Advised) bean).isFrozen()) {
+            ((Advised) bean).addAdvice(0, interceptor);
+            return bean;
+        }
+        ProxyFactory proxyFactory = new ProxyFactory(bean);
+        proxyFactory.addAdvice(interceptor);
+        return proxyFactory.getProxy();
+    }
+
+    @RequiredArgsConstructor
+    private class TimingInterceptor implements MethodInterceptor {
+
+        private final String repositoryName;
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            Object result = invocation.proceed();
+            MeterRegistry registry = meterRegistry.getIfAvailable();
+            if (registry == null) return result;
+            String method = invocation.getMethod().getName();
+            if (result instanceof Mono) {
+                Mono<?> mono = (Mono<?>) result;
+                return Mono.defer(() -> {
+                    Timer.Sample sample = Timer.start(registry);
+                    return mono.doFinally(signal -> sample.stop(timer(registry, method, signal)));
+                });
+            }
+            if (result instanceof Flux) {
+                Flux<?> flux = (Flux<?>) result;
+                return Flux.defer(() -> {
+                    Timer.Sample sample = Timer.start(registry);
+                    return flux.doFinally(signal -> sample.stop(timer(registry, method, signal)));
+                });
+            }
+            return result;
+        }
+
+        private Timer timer(MeterRegistry registry, String method, SignalType signal) {
+            return Timer.builder(METRIC_NAME)
+                    .description("Duration of repository invocations")
+                    .tag("repository", repositoryName)
+                    .tag("method", method)
+                    .tag("state", state(signal))
+                    .register(registry);
+        }
+    }
+
+    private static String state(SignalType signal) {
+        switch (signal) {
+            case ON_COMPLETE:
+                return "SUCCESS";
+            case ON_ERROR:
+                return "ERROR";
+            default:
+                return "CANCELED";
+        }
+    }
+}
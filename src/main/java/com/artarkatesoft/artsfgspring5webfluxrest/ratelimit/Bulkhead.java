@@ -0,0 +1,37 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.ratelimit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Non-blocking concurrency limit: a request either takes a slot immediately or is turned away.
+ */
+public class Bulkhead {
+
+    private final int maxConcurrent;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public Bulkhead(int maxConcurrent) {
+        if (maxConcurrent < 1) throw new IllegalArgumentException("Bulkhead needs at least one slot");
+        this.maxConcurrent = maxConcurrent;
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= maxConcurrent) return false;
+            if (inFlight.compareAndSet(current, current + 1)) return true;
+        }
+    }
+
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+}
@@ -0,0 +1,152 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.ratelimit;
+
+import com.artarkatesoft.artsfgspring5webfluxrest.controllers.CategoryController;
+import com.artarkatesoft.artsfgspring5webfluxrest.controllers.VendorController;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.http.HttpHeaders.RETRY_AFTER;
+import static org.springframework.http.HttpStatus.TOO_MANY_REQUESTS;
+
+/**
+ * Guards the category and vendor routes before any decoding or repository work happens: every request takes a
+ * token from its client's {@link RateLimiter} bucket and a slot in the read or write {@link Bulkhead} of its route,
+ * held until the exchange completes. A request that gets neither is answered 429 with {@code Retry-After}.
+ * <p>
+ * Clients are told apart by their remote address, or by {@value #CLIENT_ID_HEADER} when a trusted gateway sets it:
+ * honoured from any caller, a client could take a fresh bucket with every request.
+ * Change feeds are rate limited but hold no bulkhead slot, as they stay open for as long as the client listens.
+ * Decisions are counted as {@value #METRIC_NAME} by route, access and outcome.
+ */
+public class RateLimitWebFilter implements WebFilter, Ordered {
+
+    public static final String CLIENT_ID_HEADER = "X-Client-Id";
+    public static final String METRIC_NAME = "app.ratelimit.requests";
+
+    private static final long BULKHEAD_RETRY_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final RateLimiter rateLimiter;
+    private final boolean trustClientIdHeader;
+    private final List<Route> routes;
+
+    public RateLimitWebFilter(RateLimiter rateLimiter, boolean trustClientIdHeader, int maxConcurrentReads,
+                              int maxConcurrentWrites, MeterRegistry meterRegistry) {
+        this.rateLimiter = rateLimiter;
+        this.trustClientIdHeader = trustClientIdHeader;
+        this.routes = Arrays.asList(
+                new Route("categories", CategoryController.BASE_URL, maxConcurrentReads, maxConcurrentWrites, meterRegistry),
+                new Route("vendors", VendorController.BASE_URL, maxConcurrentReads, maxConcurrentWrites, meterRegistry));
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 1;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        String path = request.getPath().value();
+        Route route = routeOf(path);
+        if (route == null) return chain.filter(exchange);
+
+        Access access = isRead(request.getMethod(), path) ? route.reads : route.writes;
+        long waitNanos = rateLimiter.tryAcquire(clientId(request));
+        if (waitNanos > 0) {
+            access.rateLimited.increment();
+            return reject(exchange, waitNanos);
+        }
+        if (path.endsWith("/changes")) {
+            access.admitted.increment();
+            return chain.filter(exchange);
+        }
+        if (!access.bulkhead.tryAcquire()) {
+            access.bulkheadFull.increment();
+            return reject(exchange, BULKHEAD_RETRY_NANOS);
+        }
+        access.admitted.increment();
+        return Mono.defer(() -> chain.filter(exchange))
+                .doFinally(signal -> access.bulkhead.release());
+    }
+
+    private Route routeOf(String path) {
+        for (Route route : routes) {
+            if (path.startsWith(route.baseUrl) &&
+                    (path.length() == route.baseUrl.length() || path.charAt(route.baseUrl.length()) == '/'))
+                return route;
+        }
+        return null;
+    }
+
+    private static boolean isRead(HttpMethod method, String path) {
+        return method == HttpMethod.GET || method == HttpMethod.HEAD || method == HttpMethod.OPTIONS ||
+                path.endsWith("/_batch-get");
+    }
+
+    private String clientId(ServerHttpRequest request) {
+        String clientId = trustClientIdHeader ? request.getHeaders().getFirst(CLIENT_ID_HEADER) : null;
+        if (clientId != null) return clientId;
+        InetSocketAddress remoteAddress = request.getRemoteAddress();
+        return (remoteAddress == null) ? "anonymous" : remoteAddress.getHostString();
+    }
+
+    private static Mono<Void> reject(ServerWebExchange exchange, long waitNanos) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(TOO_MANY_REQUESTS);
+        long seconds = (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);
+        response.getHeaders().set(RETRY_AFTER, Long.toString(Math.max(1, seconds)));
+        return response.setComplete();
+    }
+
+    private static class Route {
+        final String baseUrl;
+        final Access reads;
+        final Access writes;
+
+        Route(String name, String baseUrl, int maxConcurrentReads, int maxConcurrentWrites, MeterRegistry registry) {
+            this.baseUrl = baseUrl;
+            this.reads = new Access(name, "read", maxConcurrentReads, registry);
+            this.writes = new Access(name, "write", maxConcurrentWrites, registry);
+        }
+    }
+
+    private static class Access {
+        final Bulkhead bulkhead;
+        final Counter admitted;
+        final Counter rateLimited;
+        final Counter bulkheadFull;
+
+        Access(String route, String access, int maxConcurrent, MeterRegistry registry) {
+            this.bulkhead = new Bulkhead(maxConcurrent);
+            this.admitted = counter(route, access, "admitted", registry);
+            this.rateLimited = counter(route, access, "rate-limited", registry);
+            this.bulkheadFull = counter(route, access, "bulkhead-full", registry);
+            Gauge.builder("app.bulkhead.in-flight", bulkhead, Bulkhead::getInFlight)
+                    .tag("route", route)
+                    .tag("access", access)
+                    .register(registry);
+        }
+
+        private static Counter counter(String route, String access, String outcome, MeterRegistry registry) {
+            return Counter.builder(METRIC_NAME)
+                    .tag("route", route)
+                    .tag("access", access)
+                    .tag("outcome", outcome)
+                    .register(registry);
+        }
+    }
+}
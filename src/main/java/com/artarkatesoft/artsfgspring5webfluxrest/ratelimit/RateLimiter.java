@@ -0,0 +1,55 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket per client: {@code burst} requests at once, refilled at {@code permitsPerSecond}.
+ * <p>
+ * Each bucket is a single atomic "theoretical arrival time" (the generic cell rate algorithm, equivalent to a
+ * token bucket), so admitting a request is one compare-and-set without locks or timers. Buckets of clients that
+ * have been idle long enough to be full again are evicted; at most {@code maxClients} are kept.
+ */
+public class RateLimiter {
+
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final LongSupplier nanoClock;
+    private final Cache<String, AtomicLong> buckets;
+
+    public RateLimiter(double permitsPerSecond, int burst, long maxClients) {
+        this(permitsPerSecond, burst, maxClients, System::nanoTime);
+    }
+
+    RateLimiter(double permitsPerSecond, int burst, long maxClients, LongSupplier nanoClock) {
+        if (permitsPerSecond <= 0) throw new IllegalArgumentException("Permits per second must be positive");
+        if (burst < 1) throw new IllegalArgumentException("Burst must be at least 1");
+        this.emissionIntervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+        this.burstToleranceNanos = emissionIntervalNanos * burst;
+        this.nanoClock = nanoClock;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterAccess(burstToleranceNanos, TimeUnit.NANOSECONDS)
+                .ticker(nanoClock::getAsLong)
+                .build();
+    }
+
+    /**
+     * @return 0 when the request is admitted, otherwise the nanoseconds until this client may retry
+     */
+    public long tryAcquire(String clientId) {
+        long now = nanoClock.getAsLong();
+        AtomicLong arrival = buckets.get(clientId, key -> new AtomicLong(now));
+        while (true) {
+            long current = arrival.get();
+            long next = Math.max(current, now) + emissionIntervalNanos;
+            long wait = next - now - burstToleranceNanos;
+            if (wait > 0) return wait;
+            if (arrival.compareAndSet(current, next)) return 0;
+        }
+    }
+}
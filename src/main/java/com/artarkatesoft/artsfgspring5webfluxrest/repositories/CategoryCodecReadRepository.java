@@ -0,0 +1,20 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.repositories;
+
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.Category;
+import org.bson.RawBsonDocument;
+import reactor.core.publisher.Flux;
+
+/**
+ * Unfiltered reads of every category, served by {@link CodecReadSupport}.
+ */
+public interface CategoryCodecReadRepository {
+
+    Flux<Category> findAll();
+
+    Flux<Category> streamAllByOrderByIdAsc();
+
+    /**
+     * Every category as stored, not decoded, in natural order.
+     */
+    Flux<RawBsonDocument> findAllAsRawBson();
+}
@@ -0,0 +1,11 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.repositories;
+
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.Category;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+
+public class CategoryCodecReadRepositoryImpl extends CodecReadSupport<Category> implements CategoryCodecReadRepository {
+
+    public CategoryCodecReadRepositoryImpl(ReactiveMongoTemplate mongoTemplate) {
+        super(mongoTemplate, Category.class, CategoryRepository.STREAM_BATCH_SIZE);
+    }
+}
@@ -1,7 +1,16 @@
 package com.artarkatesoft.artsfgspring5webfluxrest.repositories;
 
 import com.artarkatesoft.artsfgspring5webfluxrest.domain.Category;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
 
-public interface CategoryRepository extends ReactiveMongoRepository<Category, String> {
+public interface CategoryRepository extends ReactiveMongoRepository<Category, String>, VersionedUpdateRepository<Category>,
+        ListQueryRepository<Category>, CategoryCodecReadRepository {
+
+    int STREAM_BATCH_SIZE = 256;
+
+    Flux<Category> findAllByOrderByIdAsc(Pageable pageable);
+
+    Flux<Category> findByIdGreaterThanOrderByIdAsc(String id, Pageable pageable);
 }
@@ -0,0 +1,64 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.repositories;
+
+import com.mongodb.reactivestreams.client.MongoCollection;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.conversions.Bson;
+import org.reactivestreams.Publisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.support.PersistenceExceptionTranslator;
+import org.springframework.data.mongodb.core.MongoExceptionTranslator;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import reactor.core.publisher.Flux;
+
+import java.util.function.Function;
+
+/**
+ * Whole-collection reads, the ones moving the most documents, decoded by the codecs registered in
+ * {@link com.artarkatesoft.artsfgspring5webfluxrest.config.MongoCodecConfig} instead of being read as
+ * {@link Document}s and mapped reflectively by the converter, or left undecoded as {@link RawBsonDocument}s for
+ * callers that only pass the bytes on. Errors are translated like the template's, so callers still see
+ * {@link DataAccessException}s.
+ */
+public abstract class CodecReadSupport<T> {
+
+    private static final PersistenceExceptionTranslator EXCEPTION_TRANSLATOR = new MongoExceptionTranslator();
+    private static final Bson BY_ID = new Document("_id", 1);
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final Class<T> type;
+    private final int streamBatchSize;
+
+    protected CodecReadSupport(ReactiveMongoTemplate mongoTemplate, Class<T> type, int streamBatchSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.type = type;
+        this.streamBatchSize = streamBatchSize;
+    }
+
+    public Flux<T> findAll() {
+        return find(MongoCollection::find);
+    }
+
+    public Flux<T> streamAllByOrderByIdAsc() {
+        return find(collection -> collection.find().sort(BY_ID).batchSize(streamBatchSize));
+    }
+
+    public Flux<RawBsonDocument> findAllAsRawBson() {
+        return find(RawBsonDocument.class, collection -> collection.find().batchSize(streamBatchSize));
+    }
+
+    private Flux<T> find(Function<MongoCollection<T>, Publisher<T>> find) {
+        return find(type, find);
+    }
+
+    private <D> Flux<D> find(Class<D> documentClass, Function<MongoCollection<D>, Publisher<D>> find) {
+        return mongoTemplate.getCollection(mongoTemplate.getCollectionName(type))
+                .flatMapMany(collection -> find.apply(collection.withDocumentClass(documentClass)))
+                .onErrorMap(RuntimeException.class, CodecReadSupport::translate);
+    }
+
+    private static Throwable translate(RuntimeException e) {
+        DataAccessException translated = EXCEPTION_TRANSLATOR.translateExceptionIfPossible(e);
+        return (translated == null) ? e : translated;
+    }
+}
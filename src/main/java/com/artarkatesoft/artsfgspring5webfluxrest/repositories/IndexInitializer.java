@@ -0,0 +1,39 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.repositories;
+
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.Category;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.Vendor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Creates the indexes declared on the documents ({@code @Indexed}, {@code @CompoundIndex}); Spring Data no
+ * longer does this on its own. Existing indexes with the same definition are left as they are.
+ */
+@Slf4j
+@Component
+@Profile("!inmemory")
+@RequiredArgsConstructor
+public class IndexInitializer {
+
+    static final List<Class<?>> DOCUMENT_TYPES = Arrays.asList(Category.class, Vendor.class);
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    public Mono<Void> ensureIndexes() {
+        IndexResolver indexResolver = IndexResolver.create(mongoTemplate.getConverter().getMappingContext());
+        return Flux.fromIterable(DOCUMENT_TYPES)
+                .concatMap(type -> Flux.fromIterable(indexResolver.resolveIndexFor(type))
+                        .concatMap(index -> mongoTemplate.indexOps(type).ensureIndex(index))
+                        .doOnNext(name -> log.debug("Ensured index {} on {}", name, type.getSimpleName())))
+                .then();
+    }
+}
@@ -0,0 +1,24 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.repositories;
+
+import lombok.Data;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Filter, projection and sort of a list request. A filter value ending with {@value #PREFIX_WILDCARD}
+ * matches by prefix, any other value matches exactly.
+ */
+@Data
+public class ListQuery<T> {
+
+    public static final String PREFIX_WILDCARD = "*";
+
+    private final Class<T> type;
+    private final Map<String, String> filters = new LinkedHashMap<>();
+    private final List<String> fields = new ArrayList<>();
+    private Sort sort = Sort.unsorted();
+}
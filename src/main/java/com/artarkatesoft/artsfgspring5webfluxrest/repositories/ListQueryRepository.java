@@ -0,0 +1,8 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.repositories;
+
+import reactor.core.publisher.Flux;
+
+public interface ListQueryRepository<T> {
+
+    Flux<T> search(ListQuery<T> listQuery);
+}
@@ -0,0 +1,46 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.repositories;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Runs {@link ListQuery list queries}. Prefix filters become anchored, case-sensitive regular expressions,
+ * which Mongo answers with an index range scan.
+ */
+@RequiredArgsConstructor
+public class ListQueryRepositoryImpl<T> implements ListQueryRepository<T> {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Flux<T> search(ListQuery<T> listQuery) {
+        return mongoTemplate.find(toQuery(listQuery), listQuery.getType());
+    }
+
+    static Query toQuery(ListQuery<?> listQuery) {
+        Query query = new Query();
+        listQuery.getFilters().forEach((property, value) -> {
+            if (value.endsWith(ListQuery.PREFIX_WILDCARD)) {
+                String prefix = value.substring(0, value.length() - ListQuery.PREFIX_WILDCARD.length());
+                query.addCriteria(where(property).regex("^" + escapeRegex(prefix)));
+            } else {
+                query.addCriteria(where(property).is(value));
+            }
+        });
+        listQuery.getFields().forEach(query.fields()::include);
+        return query.with(listQuery.getSort());
+    }
+
+    private static String escapeRegex(String literal) {
+        StringBuilder escaped = new StringBuilder(literal.length());
+        for (char c : literal.toCharArray()) {
+            if ("\\^$.|?*+()[]{}".indexOf(c) >= 0) escaped.append('\\');
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+}
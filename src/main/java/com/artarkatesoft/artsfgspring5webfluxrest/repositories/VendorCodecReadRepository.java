@@ -0,0 +1,20 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.repositories;
+
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.Vendor;
+import org.bson.RawBsonDocument;
+import reactor.core.publisher.Flux;
+
+/**
+ * Unfiltered reads of every vendor, served by {@link CodecReadSupport}.
+ */
+public interface VendorCodecReadRepository {
+
+    Flux<Vendor> findAll();
+
+    Flux<Vendor> streamAllByOrderByIdAsc();
+
+    /**
+     * Every vendor as stored, not decoded, in natural order.
+     */
+    Flux<RawBsonDocument> findAllAsRawBson();
+}
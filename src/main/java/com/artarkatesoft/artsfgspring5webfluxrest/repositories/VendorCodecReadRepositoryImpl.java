@@ -0,0 +1,11 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.repositories;
+
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.Vendor;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+
+public class VendorCodecReadRepositoryImpl extends CodecReadSupport<Vendor> implements VendorCodecReadRepository {
+
+    public VendorCodecReadRepositoryImpl(ReactiveMongoTemplate mongoTemplate) {
+        super(mongoTemplate, Vendor.class, VendorRepository.STREAM_BATCH_SIZE);
+    }
+}
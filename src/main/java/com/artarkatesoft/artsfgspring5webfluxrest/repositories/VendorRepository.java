@@ -1,7 +1,16 @@
 package com.artarkatesoft.artsfgspring5webfluxrest.repositories;
 
 import com.artarkatesoft.artsfgspring5webfluxrest.domain.Vendor;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
 
-public interface VendorRepository extends ReactiveMongoRepository<Vendor, String> {
+public interface VendorRepository extends ReactiveMongoRepository<Vendor, String>, VersionedUpdateRepository<Vendor>,
+        ListQueryRepository<Vendor>, VendorCodecReadRepository {
+
+    int STREAM_BATCH_SIZE = 256;
+
+    Flux<Vendor> findAllByOrderByIdAsc(Pageable pageable);
+
+    Flux<Vendor> findByIdGreaterThanOrderByIdAsc(String id, Pageable pageable);
 }
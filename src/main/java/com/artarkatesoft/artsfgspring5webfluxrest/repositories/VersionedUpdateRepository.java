@@ -0,0 +1,23 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.repositories;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Single round-trip updates of {@link org.springframework.data.annotation.Version versioned} documents.
+ * <p>
+ * Both methods complete empty when there is no document with the given id and fail with
+ * {@link org.springframework.dao.OptimisticLockingFailureException} when {@code expectedVersion} is given
+ * but the stored document has moved on. A {@code null} expected version updates unconditionally.
+ */
+public interface VersionedUpdateRepository<T> {
+
+    /**
+     * Sets the non-null fields of {@code changes} and bumps the version.
+     */
+    Mono<T> patch(String id, T changes, Long expectedVersion);
+
+    /**
+     * Sets every field of {@code replacement}, unsetting the ones that are null, and bumps the version.
+     */
+    Mono<T> replace(String id, T replacement, Long expectedVersion);
+}
@@ -0,0 +1,75 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.repositories;
+
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+
+import static org.springframework.data.mongodb.core.FindAndModifyOptions.options;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Applies updates with one {@code findAndModify}: the version check, the write and the read of the new
+ * state happen atomically on the server instead of a find / mutate / save sequence.
+ * <p>
+ * {@code findAndModify} publishes no mapping events, so the {@link AfterSaveEvent} a save would have published is
+ * published here for every applied update, as the in-memory change feed and repositories expect.
+ */
+@RequiredArgsConstructor
+public class VersionedUpdateRepositoryImpl<T> implements VersionedUpdateRepository<T> {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public Mono<T> patch(String id, T changes, Long expectedVersion) {
+        return update(id, changes, expectedVersion, false);
+    }
+
+    @Override
+    public Mono<T> replace(String id, T replacement, Long expectedVersion) {
+        return update(id, replacement, expectedVersion, true);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Mono<T> update(String id, T source, Long expectedVersion, boolean unsetNulls) {
+        Class<T> type = (Class<T>) source.getClass();
+        MongoConverter converter = mongoTemplate.getConverter();
+        MongoPersistentEntity<?> entity = converter.getMappingContext().getRequiredPersistentEntity(type);
+        MongoPersistentProperty versionProperty = entity.getRequiredVersionProperty();
+
+        Document document = new Document();
+        converter.write(source, document);
+        Update update = new Update();
+        for (MongoPersistentProperty property : entity) {
+            if (property.isIdProperty() || property.isVersionProperty()) continue;
+            Object value = document.get(property.getFieldName());
+            if (value != null) update.set(property.getFieldName(), value);
+            else if (unsetNulls) update.unset(property.getFieldName());
+        }
+        update.inc(versionProperty.getFieldName(), 1);
+
+        String idName = entity.getRequiredIdProperty().getName();
+        Criteria criteria = where(idName).is(id);
+        if (expectedVersion != null) criteria = criteria.and(versionProperty.getName()).is(expectedVersion);
+        Mono<T> conflictOrAbsent = (expectedVersion == null) ? Mono.empty() :
+                Mono.defer(() -> mongoTemplate.exists(query(where(idName).is(id)), type))
+                        .flatMap(exists -> exists ?
+                                Mono.error(new OptimisticLockingFailureException(type.getSimpleName() + " with id `" + id +
+                                        "` is no longer at version " + expectedVersion)) :
+                                Mono.empty());
+        return mongoTemplate.findAndModify(query(criteria), update, options().returnNew(true), type)
+                .doOnNext(updated -> eventPublisher.publishEvent(new AfterSaveEvent<>(updated, new Document("_id", id),
+                        mongoTemplate.getCollectionName(type))))
+                .switchIfEmpty(conflictOrAbsent);
+    }
+}
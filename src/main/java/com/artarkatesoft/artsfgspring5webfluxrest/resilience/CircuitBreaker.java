@@ -0,0 +1,105 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.resilience;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * Opens after {@code failureThreshold} consecutive {@link #isFailure failures} and then refuses calls for
+ * {@code openDuration}. After that a single trial call is let through (half-open): its success closes the circuit,
+ * its failure opens it again. All transitions are compare-and-set, callers never block.
+ */
+@Slf4j
+public class CircuitBreaker {
+
+    public enum State {CLOSED, OPEN, HALF_OPEN}
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openNanos;
+    private final LongSupplier nanoClock;
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private volatile long openedAt;
+
+    public CircuitBreaker(String name, int failureThreshold, Duration openDuration) {
+        this(name, failureThreshold, openDuration, System::nanoTime);
+    }
+
+    CircuitBreaker(String name, int failureThreshold, Duration openDuration, LongSupplier nanoClock) {
+        this.name = name;
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Errors that say the database is unhealthy. Answers such as a version conflict or a duplicate key are not
+     * failures: the database did its job.
+     */
+    public static boolean isFailure(Throwable e) {
+        if (e instanceof ConcurrencyFailureException) return false;
+        return e instanceof TimeoutException || e instanceof TransientDataAccessException ||
+                e instanceof DataAccessResourceFailureException;
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    /**
+     * @return whether the call may proceed; every permitted call must end in {@link #onSuccess()},
+     * {@link #onError(Throwable)} or {@link #onCancel()}
+     */
+    public boolean tryAcquirePermission() {
+        State current = state.get();
+        if (current == State.CLOSED) return true;
+        if (current == State.OPEN && nanoClock.getAsLong() - openedAt >= openNanos)
+            return state.compareAndSet(State.OPEN, State.HALF_OPEN);
+        return false;
+    }
+
+    public Duration getRetryAfter() {
+        if (state.get() == State.CLOSED) return Duration.ZERO;
+        return Duration.ofNanos(Math.max(0, openNanos - (nanoClock.getAsLong() - openedAt)));
+    }
+
+    public void onSuccess() {
+        consecutiveFailures.set(0);
+        if (state.compareAndSet(State.HALF_OPEN, State.CLOSED)) log.info("Circuit {} closed", name);
+    }
+
+    public void onError(Throwable e) {
+        if (!isFailure(e)) {
+            onSuccess();
+            return;
+        }
+        if (state.get() == State.HALF_OPEN) {
+            open(State.HALF_OPEN, e);
+        } else if (consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            open(State.CLOSED, e);
+        }
+    }
+
+    /**
+     * A cancelled trial call proves nothing; the next call after it gets to try again.
+     */
+    public void onCancel() {
+        state.compareAndSet(State.HALF_OPEN, State.OPEN);
+    }
+
+    private void open(State from, Throwable cause) {
+        // written first, so whoever sees OPEN also sees when it opened
+        openedAt = nanoClock.getAsLong();
+        if (state.compareAndSet(from, State.OPEN)) {
+            log.warn("Circuit {} opened for {} ms after {}", name, openNanos / 1_000_000, cause.toString());
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.resilience;
+
+import com.artarkatesoft.artsfgspring5webfluxrest.exceptions.CircuitOpenException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.reactivestreams.Publisher;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+
+/**
+ * Bounds every reactive repository call by its {@link ResiliencePolicy}:
+ * <ul>
+ * <li>a timeout on the first answer; a {@code Flux} then streams at its consumer's pace,
+ * and calls consuming a publisher (such as {@code saveAll}) at the pace of that publisher,</li>
+ * <li>retries with jittered exponential backoff for reads that fail before emitting anything
+ * (writes are never retried, a timed-out write may still have been applied),</li>
+ * <li>one {@link CircuitBreaker} per repository that refuses calls while the database keeps failing,</li>
+ * <li>reads refused by the breaker or failed after their retries are answered from the last good result of the
+ * same call when there is one, counted as {@value #STALE_READS_METRIC}.</li>
+ * </ul>
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class RepositoryResiliencePostProcessor implements BeanPostProcessor {
+
+    public static final String STALE_READS_METRIC = "app.resilience.stale-reads";
+
+    private static final List<String> READ_PREFIXES = Arrays.asList("find", "stream", "search", "count", "exists");
+
+    private final ResiliencePolicy policy;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final Map<String, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof Repository)) return bean;
+        String repositoryName = Arrays.stream(AopProxyUtils.proxiedUserInterfaces(bean))
+                .filter(Repository.class::isAssignableFrom)
+                .findFirst()
+                .map(Class::getSimpleName)
+                .orElse(beanName);
+        CircuitBreaker circuitBreaker = new CircuitBreaker(repositoryName, policy.getFailureThreshold(),
+                policy.getOpenDuration());
+        circuitBreakers.put(repositoryName, circuitBreaker);
+        ResilienceInterceptor interceptor = new ResilienceInterceptor(repositoryName, circuitBreaker);
+        if (bean instanceof Advised && !((Advised) bean).isFrozen()) {
+            ((Advised) bean).addAdvice(0, interceptor);
+            return bean;
+        }
+        ProxyFactory proxyFactory = new ProxyFactory(bean);
+        proxyFactory.addAdvice(interceptor);
+        return proxyFactory.getProxy();
+    }
+
+    public CircuitBreaker getCircuitBreaker(String repositoryName) {
+        return circuitBreakers.get(repositoryName);
+    }
+
+    private static boolean isRead(String method) {
+        for (String prefix : READ_PREFIXES)
+            if (method.startsWith(prefix)) return true;
+        return false;
+    }
+
+    private static boolean isServedStale(Throwable e) {
+        return e instanceof CircuitOpenException || CircuitBreaker.isFailure(e);
+    }
+
+    private class ResilienceInterceptor implements MethodInterceptor {
+
+        private final String repositoryName;
+        private final CircuitBreaker circuitBreaker;
+        private final Cache<List<Object>, List<Object>> staleResults;
+
+        ResilienceInterceptor(String repositoryName, CircuitBreaker circuitBreaker) {
+            this.repositoryName = repositoryName;
+            this.circuitBreaker = circuitBreaker;
+            this.staleResults = Caffeine.newBuilder()
+                    .maximumWeight(policy.getStaleMaxElements())
+                    .weigher((List<Object> key, List<Object> result) -> result.size() + 1)
+                    .expireAfterWrite(policy.getStaleTtl())
+                    .build();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            Object result = invocation.proceed();
+            String method = invocation.getMethod().getName();
+            boolean paced = Arrays.stream(invocation.getArguments()).anyMatch(Publisher.class::isInstance);
+            // a call consuming a publisher answers at the pace of that publisher, not of the database
+            Duration timeout = paced ? null : policy.timeoutOf(method);
+            List<Object> key = (isRead(method) && !paced) ? staleKey(method, invocation.getArguments()) : null;
+            if (result instanceof Mono) return guard((Mono<Object>) result, method, timeout, key);
+            if (result instanceof Flux) return guard((Flux<Object>) result, method, timeout, key);
+            return result;
+        }
+
+        private Mono<Object> guard(Mono<Object> mono, String method, Duration timeout, List<Object> staleKey) {
+            Mono<Object> attempt = Mono.defer(() -> {
+                if (!circuitBreaker.tryAcquirePermission()) return Mono.error(circuitOpen(method));
+                return ((timeout == null) ? mono : mono.timeout(timeout))
+                        .doOnSuccess(value -> circuitBreaker.onSuccess())
+                        .doOnError(circuitBreaker::onError)
+                        .doOnCancel(circuitBreaker::onCancel);
+            });
+            if (!isRead(method)) return attempt;
+            return attempt
+                    .retryWhen(retry(CircuitBreaker::isFailure))
+                    .doOnSuccess(value -> remember(staleKey,
+                            (value == null) ? Collections.emptyList() : Collections.singletonList(value)))
+                    .onErrorResume(RepositoryResiliencePostProcessor::isServedStale, e -> {
+                        List<Object> stale = stale(staleKey, method, e);
+                        return (stale == null) ? Mono.error(e) : Mono.justOrEmpty(stale.isEmpty() ? null : stale.get(0));
+                    });
+        }
+
+        private Flux<Object> guard(Flux<Object> flux, String method, Duration timeout, List<Object> staleKey) {
+            Flux<Object> attempt = Flux.defer(() -> {
+                if (!circuitBreaker.tryAcquirePermission()) return Flux.error(circuitOpen(method));
+                AtomicBoolean answered = new AtomicBoolean();
+                return ((timeout == null) ? flux : flux.timeout(Mono.delay(timeout), value -> Mono.never()))
+                        .doOnNext(value -> {
+                            if (answered.compareAndSet(false, true)) circuitBreaker.onSuccess();
+                        })
+                        .doOnComplete(circuitBreaker::onSuccess)
+                        .doOnError(circuitBreaker::onError)
+                        .doOnCancel(circuitBreaker::onCancel);
+            });
+            if (!isRead(method)) return attempt;
+            return Flux.defer(() -> {
+                Recording recording = new Recording(policy.getStaleMaxResultSize());
+                return attempt
+                        .doOnNext(recording::add)
+                        .retryWhen(retry(e -> !recording.isStarted() && CircuitBreaker.isFailure(e)))
+                        .doOnComplete(() -> {
+                            if (!recording.isOverflowed()) remember(staleKey, recording.getValues());
+                        })
+                        .onErrorResume(e -> !recording.isStarted() && isServedStale(e), e -> {
+                            List<Object> stale = stale(staleKey, method, e);
+                            return (stale == null) ? Flux.error(e) : Flux.fromIterable(stale);
+                        });
+            });
+        }
+
+        private Retry retry(Predicate<Throwable> retryable) {
+            return Retry.backoff(policy.getMaxRetries(), policy.getMinBackoff())
+                    .maxBackoff(policy.getMaxBackoff())
+                    .jitter(0.5)
+                    .filter(retryable)
+                    .onRetryExhaustedThrow((spec, signal) -> signal.failure());
+        }
+
+        private CircuitOpenException circuitOpen(String method) {
+            return new CircuitOpenException("Circuit of " + repositoryName + " is open, " + method + " not attempted",
+                    circuitBreaker.getRetryAfter());
+        }
+
+        private void remember(List<Object> staleKey, List<Object> result) {
+            if (staleKey != null) staleResults.put(staleKey, result);
+        }
+
+        private List<Object> stale(List<Object> staleKey, String method, Throwable cause) {
+            List<Object> stale = (staleKey == null) ? null : staleResults.getIfPresent(staleKey);
+            if (stale == null) return null;
+            log.debug("Serving stale {}.{} after {}", repositoryName, method, cause.toString());
+            MeterRegistry registry = meterRegistry.getIfAvailable();
+            if (registry != null)
+                registry.counter(STALE_READS_METRIC, "repository", repositoryName, "method", method).increment();
+            return stale;
+        }
+    }
+
+    /**
+     * Key of a read's stale result: the method and its arguments.
+     */
+    private static List<Object> staleKey(String method, Object[] arguments) {
+        List<Object> key = new ArrayList<>(arguments.length + 1);
+        key.add(method);
+        key.addAll(Arrays.asList(arguments));
+        return key;
+    }
+
+    /**
+     * Elements a read has emitted so far, kept up to the size limit of a stale result.
+     */
+    private static class Recording {
+        private final int maxSize;
+        private final List<Object> values = new ArrayList<>();
+        private boolean started;
+        private boolean overflowed;
+
+        Recording(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        void add(Object value) {
+            started = true;
+            if (overflowed) return;
+            if (values.size() < maxSize) {
+                values.add(value);
+            } else {
+                overflowed = true;
+                values.clear();
+            }
+        }
+
+        boolean isStarted() {
+            return started;
+        }
+
+        boolean isOverflowed() {
+            return overflowed;
+        }
+
+        List<Object> getValues() {
+            return values;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.resilience;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Limits applied to every repository call by {@link RepositoryResiliencePostProcessor}.
+ */
+@Value
+@Builder
+public class ResiliencePolicy {
+
+    /**
+     * Time a call may take to answer, unless {@link #timeouts} has an entry for the method name.
+     */
+    Duration timeout;
+    @Builder.Default
+    Map<String, Duration> timeouts = Collections.emptyMap();
+
+    /**
+     * Retries of a failed read, with exponential backoff from {@code minBackoff} to {@code maxBackoff} and jitter.
+     */
+    int maxRetries;
+    Duration minBackoff;
+    Duration maxBackoff;
+
+    int failureThreshold;
+    Duration openDuration;
+
+    /**
+     * Last good read results kept to answer reads while the circuit is open: at most {@code staleMaxElements}
+     * documents in total, results larger than {@code staleMaxResultSize} are not kept.
+     */
+    long staleMaxElements;
+    int staleMaxResultSize;
+    Duration staleTtl;
+
+    public Duration timeoutOf(String method) {
+        return timeouts.getOrDefault(method, timeout);
+    }
+}
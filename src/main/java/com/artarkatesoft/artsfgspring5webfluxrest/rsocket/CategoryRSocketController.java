@@ -0,0 +1,53 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.rsocket;
+
+import com.artarkatesoft.artsfgspring5webfluxrest.controllers.CategoryController;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.BulkItemResult;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.Category;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.stereotype.Controller;
+import org.springframework.util.LinkedMultiValueMap;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * The category operations over RSocket. Each route delegates to the {@link CategoryController} method of the same
+ * operation, so caching, collection versions and the change feed see these calls like HTTP ones.
+ */
+@Controller
+@RequiredArgsConstructor
+public class CategoryRSocketController {
+
+    public static final String GET_ROUTE = "categories.get.{id}";
+    public static final String LIST_ROUTE = "categories.list";
+    public static final String BULK_ROUTE = "categories.bulk";
+
+    private final CategoryController categoryController;
+
+    /**
+     * Request-response; a missing category is answered with an error carrying the not-found message.
+     */
+    @MessageMapping(GET_ROUTE)
+    public Mono<Category> getById(@DestinationVariable String id) {
+        return categoryController.getById(id).map(ResponseEntity::getBody);
+    }
+
+    /**
+     * Request-stream in id order, read from the cursor as the requester asks for more.
+     */
+    @MessageMapping(LIST_ROUTE)
+    public Flux<Category> list() {
+        return categoryController.stream(new LinkedMultiValueMap<>());
+    }
+
+    /**
+     * Request-channel: categories in, one result per category out, inserted in unordered batches. Requests for more
+     * categories follow the batches being written.
+     */
+    @MessageMapping(BULK_ROUTE)
+    public Flux<BulkItemResult> bulkCreate(Flux<Category> categories) {
+        return categoryController.bulkCreate(categories);
+    }
+}
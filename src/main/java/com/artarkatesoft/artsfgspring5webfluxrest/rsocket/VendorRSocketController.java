@@ -0,0 +1,53 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.rsocket;
+
+import com.artarkatesoft.artsfgspring5webfluxrest.controllers.VendorController;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.BulkItemResult;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.Vendor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.stereotype.Controller;
+import org.springframework.util.LinkedMultiValueMap;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * The vendor operations over RSocket. Each route delegates to the {@link VendorController} method of the same
+ * operation, so caching, collection versions and the change feed see these calls like HTTP ones.
+ */
+@Controller
+@RequiredArgsConstructor
+public class VendorRSocketController {
+
+    public static final String GET_ROUTE = "vendors.get.{id}";
+    public static final String LIST_ROUTE = "vendors.list";
+    public static final String BULK_ROUTE = "vendors.bulk";
+
+    private final VendorController vendorController;
+
+    /**
+     * Request-response; a missing vendor is answered with an error carrying the not-found message.
+     */
+    @MessageMapping(GET_ROUTE)
+    public Mono<Vendor> findById(@DestinationVariable String id) {
+        return vendorController.findById(id).map(ResponseEntity::getBody);
+    }
+
+    /**
+     * Request-stream in id order, read from the cursor as the requester asks for more.
+     */
+    @MessageMapping(LIST_ROUTE)
+    public Flux<Vendor> list() {
+        return vendorController.stream(new LinkedMultiValueMap<>());
+    }
+
+    /**
+     * Request-channel: vendors in, one result per vendor out, inserted in unordered batches. Requests for more
+     * vendors follow the batches being written.
+     */
+    @MessageMapping(BULK_ROUTE)
+    public Flux<BulkItemResult> bulkCreate(Flux<Vendor> vendors) {
+        return vendorController.bulkCreate(vendors);
+    }
+}
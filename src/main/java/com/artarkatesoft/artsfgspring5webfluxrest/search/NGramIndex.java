@@ -0,0 +1,176 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.search;
+
+import lombok.Value;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Type-ahead index over one short text per document. Every word is posted under its one- and two-character
+ * prefixes and its trigrams, so a query term resolves to candidates by intersecting a few posting sets instead of
+ * scanning: a term shorter than a trigram matches word prefixes, a longer one any part of a word.
+ * <p>
+ * Candidates must match every query term and are ranked by how well: a word equal to the term scores 3, a word
+ * starting with it 2, a word containing it 1. Equal scores prefer the shorter text, which is closer to what was
+ * typed. Only the best {@code limit} are kept while scanning. Text is compared lower-cased and without accents.
+ * <p>
+ * Searches take no locks. Updates are serialized; a search checks candidates against the text stored with the
+ * document, so it never matches a mix of an old and a new text.
+ */
+public class NGramIndex<T> {
+
+    private static final int GRAM_LENGTH = 3;
+    private static final String PREFIX_MARK = "^";
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private static final Comparator<Match<?>> RANKING = Comparator.<Match<?>>comparingInt(Match::getScore).reversed()
+            .thenComparingInt(match -> match.getText().length())
+            .thenComparing(Match::getText);
+
+    private final Function<T, String> idExtractor;
+    private final Function<T, String> textExtractor;
+    private final Map<String, Entry<T>> entries = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> postings = new ConcurrentHashMap<>();
+
+    public NGramIndex(Function<T, String> idExtractor, Function<T, String> textExtractor) {
+        this.idExtractor = idExtractor;
+        this.textExtractor = textExtractor;
+    }
+
+    public synchronized void put(T document) {
+        String id = idExtractor.apply(document);
+        if (id == null) return;
+        Entry<T> entry = new Entry<>(document, textExtractor.apply(document));
+        entry.grams.forEach(gram -> postings.computeIfAbsent(gram, key -> ConcurrentHashMap.newKeySet()).add(id));
+        Entry<T> previous = entries.put(id, entry);
+        if (previous != null) {
+            previous.grams.stream()
+                    .filter(gram -> !entry.grams.contains(gram))
+                    .forEach(gram -> unpost(gram, id));
+        }
+    }
+
+    public synchronized void remove(String id) {
+        Entry<T> previous = entries.remove(id);
+        if (previous != null) previous.grams.forEach(gram -> unpost(gram, id));
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return at most {@code limit} documents matching every word of {@code query}, best first
+     */
+    public List<Match<T>> search(String query, int limit) {
+        List<String> terms = words(query);
+        if (terms.isEmpty() || limit < 1) return Collections.emptyList();
+        List<Set<String>> candidateSets = new ArrayList<>();
+        for (String term : terms) {
+            for (String gram : queryGrams(term)) {
+                Set<String> posting = postings.get(gram);
+                if (posting == null) return Collections.emptyList();
+                candidateSets.add(posting);
+            }
+        }
+        candidateSets.sort(Comparator.comparingInt(Set::size));
+        Set<String> smallest = candidateSets.get(0);
+        List<Set<String>> others = candidateSets.subList(1, candidateSets.size());
+
+        PriorityQueue<Match<T>> best = new PriorityQueue<>(limit + 1, RANKING.reversed());
+        for (String id : smallest) {
+            if (!containsAll(others, id)) continue;
+            Entry<T> entry = entries.get(id);
+            int score = (entry == null) ? 0 : entry.score(terms);
+            if (score == 0) continue;
+            best.add(new Match<>(entry.document, entry.text, score));
+            if (best.size() > limit) best.poll();
+        }
+        List<Match<T>> matches = new ArrayList<>(best);
+        matches.sort(RANKING);
+        return matches;
+    }
+
+    private void unpost(String gram, String id) {
+        Set<String> posting = postings.get(gram);
+        if (posting == null) return;
+        posting.remove(id);
+        if (posting.isEmpty()) postings.remove(gram, posting);
+    }
+
+    private static boolean containsAll(List<Set<String>> sets, String id) {
+        for (Set<String> set : sets)
+            if (!set.contains(id)) return false;
+        return true;
+    }
+
+    static List<String> words(String text) {
+        if (text == null) return Collections.emptyList();
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        return Arrays.stream(SEPARATORS.split(folded))
+                .filter(word -> !word.isEmpty())
+                .collect(Collectors.toList());
+    }
+
+    private static Set<String> queryGrams(String term) {
+        if (term.length() < GRAM_LENGTH) return Collections.singleton(PREFIX_MARK + term);
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= term.length(); i++) grams.add(term.substring(i, i + GRAM_LENGTH));
+        return grams;
+    }
+
+    private static Set<String> wordGrams(String word) {
+        Set<String> grams = new HashSet<>();
+        for (int length = 1; length < GRAM_LENGTH && length <= word.length(); length++)
+            grams.add(PREFIX_MARK + word.substring(0, length));
+        for (int i = 0; i + GRAM_LENGTH <= word.length(); i++) grams.add(word.substring(i, i + GRAM_LENGTH));
+        return grams;
+    }
+
+    private static class Entry<T> {
+        final T document;
+        final String text;
+        final List<String> words;
+        final Set<String> grams;
+
+        Entry(T document, String text) {
+            this.document = document;
+            this.text = (text == null) ? "" : text;
+            this.words = words(text);
+            this.grams = words.stream()
+                    .flatMap(word -> wordGrams(word).stream())
+                    .collect(Collectors.toSet());
+        }
+
+        /**
+         * Sum of each term's best word match, or 0 when some term matches no word.
+         */
+        int score(List<String> terms) {
+            int total = 0;
+            for (String term : terms) {
+                int best = 0;
+                for (String word : words) {
+                    if (word.equals(term)) best = 3;
+                    else if (word.startsWith(term)) best = Math.max(best, 2);
+                    else if (word.contains(term)) best = Math.max(best, 1);
+                }
+                if (best == 0) return 0;
+                total += best;
+            }
+            return total;
+        }
+    }
+
+    @Value
+    public static class Match<T> {
+        T document;
+        String text;
+        int score;
+    }
+}
@@ -0,0 +1,72 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.search;
+
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.Category;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.SearchHit;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.Vendor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Type-ahead suggestions over category names and vendor full names, answered from memory by one
+ * {@link NGramIndex} so both kinds are ranked together.
+ * <p>
+ * Built at startup from a streaming scan of both collections and kept current by the controllers on every
+ * create, {@code PUT} and {@code PATCH}, and by the bulk inserters for {@code _bulk} and imports. Like
+ * {@link com.artarkatesoft.artsfgspring5webfluxrest.changes.CollectionVersions} it only sees writes made through
+ * this instance.
+ */
+@Slf4j
+@Component
+public class SearchIndex {
+
+    public static final String CATEGORY = "category";
+    public static final String VENDOR = "vendor";
+
+    private final NGramIndex<SearchHit> index = new NGramIndex<>(hit -> hit.getType() + "/" + hit.getId(),
+            SearchHit::getText);
+
+    public void put(Category category) {
+        index.put(new SearchHit(CATEGORY, category.getId(), category.getName(), 0));
+    }
+
+    public void put(Vendor vendor) {
+        String fullName = (nullToEmpty(vendor.getFirstName()) + " " + nullToEmpty(vendor.getLastName())).trim();
+        index.put(new SearchHit(VENDOR, vendor.getId(), fullName, 0));
+    }
+
+    /**
+     * Indexes a category or a vendor; documents of other types have no name to suggest.
+     */
+    public void putInserted(Object document) {
+        if (document instanceof Category) put((Category) document);
+        else if (document instanceof Vendor) put((Vendor) document);
+    }
+
+    /**
+     * Indexes everything the given scans emit; completes once both have.
+     */
+    public Mono<Void> build(Flux<Category> categories, Flux<Vendor> vendors) {
+        return Mono.when(categories.doOnNext(this::put), vendors.doOnNext(this::put))
+                .doOnSuccess(done -> log.info("Search index holds {} names", index.size()));
+    }
+
+    public List<SearchHit> search(String query, int limit) {
+        return index.search(query, limit).stream()
+                .map(match -> new SearchHit(match.getDocument().getType(), match.getDocument().getId(),
+                        match.getText(), match.getScore()))
+                .collect(Collectors.toList());
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    private static String nullToEmpty(String value) {
+        return (value == null) ? "" : value;
+    }
+}
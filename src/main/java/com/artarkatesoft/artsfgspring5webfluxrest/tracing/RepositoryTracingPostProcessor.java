@@ -0,0 +1,75 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.tracing;
+
+import lombok.RequiredArgsConstructor;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+
+/**
+ * Adds each reactive repository call made within a sampled request to its {@link TraceSpan}.
+ * While tracing is disabled the repository publishers are returned untouched.
+ */
+@RequiredArgsConstructor
+public class RepositoryTracingPostProcessor implements BeanPostProcessor {
+
+    private final Tracing tracing;
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof Repository)) return bean;
+        String repositoryName = Arrays.stream(AopProxyUtils.proxiedUserInterfaces(bean))
+                .filter(Repository.class::isAssignableFrom)
+                .findFirst()
+                .map(Class::getSimpleName)
+                .orElse(beanName);
+        TracingInterceptor interceptor = new TracingInterceptor(repositoryName);
+        if (bean instanceof Advised && !((Advised) bean).isFrozen()) {
+            ((Advised) bean).addAdvice(interceptor);
+            return bean;
+        }
+        ProxyFactory proxyFactory = new ProxyFactory(bean);
+        proxyFactory.addAdvice(interceptor);
+        return proxyFactory.getProxy();
+    }
+
+    @RequiredArgsConstructor
+    private class TracingInterceptor implements MethodInterceptor {
+
+        private final String repositoryName;
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            Object result = invocation.proceed();
+            if (!tracing.isEnabled()) return result;
+            String event = repositoryName + '.' + invocation.getMethod().getName();
+            if (result instanceof Mono) {
+                Mono<Object> mono = (Mono<Object>) result;
+                return Mono.deferWithContext(context -> {
+                    TraceSpan span = context.getOrDefault(TraceSpan.class, null);
+                    if (span == null) return mono;
+                    long start = System.nanoTime();
+                    return mono.doFinally(signal -> span.event(event, start, signal));
+                });
+            }
+            if (result instanceof Flux) {
+                Flux<Object> flux = (Flux<Object>) result;
+                return Flux.deferWithContext(context -> {
+                    TraceSpan span = context.getOrDefault(TraceSpan.class, null);
+                    if (span == null) return flux;
+                    long start = System.nanoTime();
+                    return flux.doFinally(signal -> span.event(event, start, signal));
+                });
+            }
+            return result;
+        }
+    }
+}
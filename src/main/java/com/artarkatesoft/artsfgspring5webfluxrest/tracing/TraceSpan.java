@@ -0,0 +1,58 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.tracing;
+
+import reactor.core.publisher.SignalType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * One sampled request: its correlation id, timing and the timed events (repository calls) recorded within it.
+ * Travels in the Reactor {@link reactor.util.context.Context} under its own class as the key.
+ */
+public class TraceSpan {
+
+    private final String correlationId;
+    private final String method;
+    private final String path;
+    private final long startNanos = System.nanoTime();
+    private final List<String> events = new ArrayList<>();
+
+    public TraceSpan(String correlationId, String method, String path) {
+        this.correlationId = correlationId;
+        this.method = method;
+        this.path = path;
+    }
+
+    public String getCorrelationId() {
+        return correlationId;
+    }
+
+    public void event(String name, long startNanos, SignalType signal) {
+        String event = name + ':' + signal + ':' + millis(System.nanoTime() - startNanos) + "ms";
+        synchronized (events) {
+            events.add(event);
+        }
+    }
+
+    /**
+     * @return one structured {@code key=value} line describing the finished request
+     */
+    public String finish(Integer status, SignalType signal) {
+        String recordedEvents;
+        synchronized (events) {
+            recordedEvents = events.toString();
+        }
+        return "correlationId=" + correlationId +
+                " method=" + method +
+                " path=" + path +
+                " status=" + status +
+                " signal=" + signal +
+                " durationMs=" + millis(System.nanoTime() - startNanos) +
+                " events=" + recordedEvents;
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1_000_000.0);
+    }
+}
@@ -0,0 +1,44 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.tracing;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Sampling decision and reporting for request tracing. A sample rate of 0 disables tracing entirely;
+ * the rate can be changed at runtime through the {@code tracing} actuator endpoint.
+ */
+@Slf4j
+public class Tracing {
+
+    public static final String CORRELATION_ID_HEADER = "X-Correlation-Id";
+
+    private volatile double sampleRate;
+
+    public Tracing(double sampleRate) {
+        setSampleRate(sampleRate);
+    }
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    public void setSampleRate(double sampleRate) {
+        if (sampleRate < 0 || sampleRate > 1)
+            throw new IllegalArgumentException("Sample rate must be within [0, 1] but was " + sampleRate);
+        this.sampleRate = sampleRate;
+    }
+
+    public boolean isEnabled() {
+        return sampleRate > 0;
+    }
+
+    public boolean sample() {
+        double rate = sampleRate;
+        return rate >= 1 || (rate > 0 && ThreadLocalRandom.current().nextDouble() < rate);
+    }
+
+    public void report(String trace) {
+        log.info(trace);
+    }
+}
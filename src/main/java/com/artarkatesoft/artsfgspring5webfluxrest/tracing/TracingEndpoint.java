@@ -0,0 +1,24 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.tracing;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * {@code GET /actuator/tracing} shows the sample rate. It is changed over JMX only, see
+ * {@link TracingJmxEndpointExtension}: the HTTP actuator endpoints are unauthenticated.
+ */
+@Endpoint(id = "tracing")
+@RequiredArgsConstructor
+public class TracingEndpoint {
+
+    private final Tracing tracing;
+
+    @ReadOperation
+    public Map<String, Double> settings() {
+        return Collections.singletonMap("sampleRate", tracing.getSampleRate());
+    }
+}
@@ -0,0 +1,24 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.tracing;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.jmx.annotation.EndpointJmxExtension;
+
+import java.util.Map;
+
+/**
+ * Adds {@code configure(sampleRate)} to the {@code tracing} MBean; the operation is not exposed over HTTP.
+ */
+@EndpointJmxExtension(endpoint = TracingEndpoint.class)
+@RequiredArgsConstructor
+public class TracingJmxEndpointExtension {
+
+    private final TracingEndpoint tracingEndpoint;
+    private final Tracing tracing;
+
+    @WriteOperation
+    public Map<String, Double> configure(double sampleRate) {
+        tracing.setSampleRate(sampleRate);
+        return tracingEndpoint.settings();
+    }
+}
@@ -0,0 +1,48 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.tracing;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+import static com.artarkatesoft.artsfgspring5webfluxrest.tracing.Tracing.CORRELATION_ID_HEADER;
+
+/**
+ * Opens a {@link TraceSpan} for sampled requests and reports it when the exchange completes.
+ * Requests that are not sampled only get an incoming {@value Tracing#CORRELATION_ID_HEADER} echoed back.
+ */
+@RequiredArgsConstructor
+public class TracingWebFilter implements WebFilter, Ordered {
+
+    private final Tracing tracing;
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        String correlationId = request.getHeaders().getFirst(CORRELATION_ID_HEADER);
+        if (!tracing.sample()) {
+            if (correlationId != null) exchange.getResponse().getHeaders().set(CORRELATION_ID_HEADER, correlationId);
+            return chain.filter(exchange);
+        }
+        if (correlationId == null) correlationId = UUID.randomUUID().toString();
+        exchange.getResponse().getHeaders().set(CORRELATION_ID_HEADER, correlationId);
+        TraceSpan span = new TraceSpan(correlationId, request.getMethodValue(), request.getPath().value());
+        return chain.filter(exchange)
+                .doFinally(signal -> {
+                    HttpStatus status = exchange.getResponse().getStatusCode();
+                    tracing.report(span.finish(status == null ? null : status.value(), signal));
+                })
+                .subscriberContext(context -> context.put(TraceSpan.class, span));
+    }
+}
@@ -3,7 +3,7 @@ package com.artarkatesoft.artsfgspring5webfluxrest;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = "spring.rsocket.server.port=0")
 class ArtSfgSpring5WebfluxRestApplicationTests {
 
     @Test
@@ -0,0 +1,185 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.bootstrap;
+
+import com.artarkatesoft.artsfgspring5webfluxrest.cache.CategoryCache;
+import com.artarkatesoft.artsfgspring5webfluxrest.cache.VendorCache;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.Category;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.Vendor;
+import com.artarkatesoft.artsfgspring5webfluxrest.repositories.CategoryRepository;
+import com.artarkatesoft.artsfgspring5webfluxrest.repositories.IndexInitializer;
+import com.artarkatesoft.artsfgspring5webfluxrest.repositories.VendorRepository;
+import com.artarkatesoft.artsfgspring5webfluxrest.search.SearchIndex;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+import static com.artarkatesoft.artsfgspring5webfluxrest.bootstrap.WarmUp.METRIC_NAME;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+
+@ExtendWith(MockitoExtension.class)
+class WarmUpTest {
+
+    @Mock
+    IndexInitializer indexInitializer;
+
+    @Mock
+    BootstrapData bootstrapData;
+
+    @Mock
+    ReactiveMongoTemplate mongoTemplate;
+
+    @Mock
+    CategoryRepository categoryRepository;
+
+    @Mock
+    VendorRepository vendorRepository;
+
+    SimpleMeterRegistry meterRegistry;
+    CategoryCache categoryCache;
+    VendorCache vendorCache;
+    SearchIndex searchIndex;
+    WarmUp warmUp;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("meterRegistry", meterRegistry);
+        beanFactory.addBean("indexInitializer", indexInitializer);
+        beanFactory.addBean("mongoTemplate", mongoTemplate);
+        categoryCache = new CategoryCache(categoryRepository, 100, Duration.ofMinutes(1), 1, Duration.ZERO);
+        vendorCache = new VendorCache(vendorRepository, 100, Duration.ofMinutes(1), 1, Duration.ZERO);
+        searchIndex = new SearchIndex();
+        warmUp = createWarmUp(beanFactory, true, Duration.ofSeconds(5));
+    }
+
+    @Test
+    void run_seedsOpensPoolAndLoadsCaches() {
+        //given
+        given(indexInitializer.ensureIndexes()).willReturn(Mono.empty());
+        given(bootstrapData.seed()).willReturn(Mono.empty());
+        given(categoryRepository.streamAllByOrderByIdAsc())
+                .willReturn(Flux.just(Category.builder().id("c1").name("Fruits").build()));
+        given(vendorRepository.streamAllByOrderByIdAsc())
+                .willReturn(Flux.just(Vendor.builder().id("v1").firstName("Joe").lastName("Newman").build()));
+        given(mongoTemplate.executeCommand(anyString())).willReturn(Mono.just(new Document("ok", 1)));
+        given(categoryRepository.findAll()).willReturn(Flux.just(Category.builder().id("c1").name("Fruits").build()));
+        given(vendorRepository.findAll()).willReturn(Flux.just(
+                Vendor.builder().id("v1").build(), Vendor.builder().id("v2").build()));
+
+        //when
+        warmUp.run(null);
+
+        //then
+        then(mongoTemplate).should(times(3)).executeCommand(anyString());
+        assertThat(categoryCache.statistics().getSize()).isEqualTo(1);
+        assertThat(vendorCache.statistics().getSize()).isEqualTo(2);
+        assertThat(searchIndex.size()).isEqualTo(2);
+        assertThat(meterRegistry.get(METRIC_NAME).timers()).hasSize(6);
+    }
+
+    @Test
+    void run_toleratesFailingOptionalPhase() {
+        //given
+        given(indexInitializer.ensureIndexes()).willReturn(Mono.empty());
+        given(bootstrapData.seed()).willReturn(Mono.empty());
+        given(categoryRepository.streamAllByOrderByIdAsc()).willReturn(Flux.empty());
+        given(vendorRepository.streamAllByOrderByIdAsc()).willReturn(Flux.empty());
+        given(mongoTemplate.executeCommand(anyString())).willReturn(Mono.error(new IllegalStateException("no pool")));
+        given(categoryRepository.findAll()).willReturn(Flux.empty());
+        given(vendorRepository.findAll()).willReturn(Flux.empty());
+
+        //when
+        warmUp.run(null);
+
+        //then
+        assertThat(meterRegistry.find(METRIC_NAME).tag("phase", "connection-pool").timer()).isNull();
+        assertThat(meterRegistry.find(METRIC_NAME).tag("phase", "caches").timer()).isNotNull();
+    }
+
+    @Test
+    void run_skipsOptionalPhaseThatOutlastsItsTimeout() {
+        //given
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("meterRegistry", meterRegistry);
+        beanFactory.addBean("mongoTemplate", mongoTemplate);
+        warmUp = createWarmUp(beanFactory, true, Duration.ofMillis(100));
+        given(bootstrapData.seed()).willReturn(Mono.empty());
+        given(categoryRepository.streamAllByOrderByIdAsc()).willReturn(Flux.empty());
+        given(vendorRepository.streamAllByOrderByIdAsc()).willReturn(Flux.empty());
+        given(mongoTemplate.executeCommand(anyString())).willReturn(Mono.never());
+        given(categoryRepository.findAll()).willReturn(Flux.just(Category.builder().id("c1").name("Fruits").build()));
+        given(vendorRepository.findAll()).willReturn(Flux.empty());
+
+        //when
+        warmUp.run(null);
+
+        //then
+        assertThat(meterRegistry.find(METRIC_NAME).tag("phase", "connection-pool").timer()).isNull();
+        assertThat(categoryCache.statistics().getSize()).isEqualTo(1);
+    }
+
+    @Test
+    void run_warmUpDisabled_stillCreatesIndexesSeedsAndBuildsSearchIndex() {
+        //given
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("indexInitializer", indexInitializer);
+        beanFactory.addBean("mongoTemplate", mongoTemplate);
+        warmUp = createWarmUp(beanFactory, false, Duration.ofSeconds(5));
+        given(indexInitializer.ensureIndexes()).willReturn(Mono.empty());
+        given(bootstrapData.seed()).willReturn(Mono.empty());
+        given(categoryRepository.streamAllByOrderByIdAsc())
+                .willReturn(Flux.just(Category.builder().id("c1").name("Fruits").build()));
+        given(vendorRepository.streamAllByOrderByIdAsc()).willReturn(Flux.empty());
+
+        //when
+        warmUp.run(null);
+
+        //then
+        then(indexInitializer).should().ensureIndexes();
+        then(bootstrapData).should().seed();
+        assertThat(searchIndex.size()).isEqualTo(1);
+        then(mongoTemplate).shouldHaveNoInteractions();
+        assertThat(categoryCache.statistics().getSize()).isZero();
+    }
+
+    @Test
+    void run_failsWhenSeedingFails() {
+        //given
+        given(indexInitializer.ensureIndexes()).willReturn(Mono.empty());
+        given(bootstrapData.seed()).willReturn(Mono.error(new IllegalStateException("mongo down")));
+
+        //when
+        assertThatThrownBy(() -> warmUp.run(null))
+
+                //then
+                .hasMessageContaining("mongo down");
+        then(mongoTemplate).should(never()).executeCommand(anyString());
+    }
+
+    private WarmUp createWarmUp(StaticListableBeanFactory beanFactory, boolean enabled, Duration phaseTimeout) {
+        return new WarmUp(beanFactory.getBeanProvider(IndexInitializer.class), bootstrapData,
+                beanFactory.getBeanProvider(ReactiveMongoTemplate.class), categoryRepository, vendorRepository,
+                categoryCache, vendorCache, searchIndex,
+                beanFactory.getBeanProvider(WebClient.Builder.class), beanFactory.getBeanProvider(MeterRegistry.class),
+                new MockEnvironment(), enabled, Duration.ofSeconds(5), phaseTimeout, 3, 100, 1);
+    }
+}
@@ -0,0 +1,133 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.bson;
+
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.Category;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.Vendor;
+import com.mongodb.MongoClientSettings;
+import org.bson.BsonDocument;
+import org.bson.BsonDocumentReader;
+import org.bson.BsonDocumentWriter;
+import org.bson.Document;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.DocumentCodec;
+import org.bson.codecs.EncoderContext;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.time.Instant;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+/**
+ * The hand-written codecs must agree with {@link MappingMongoConverter} on every entity; only the fixtures
+ * differ per type.
+ */
+class EntityCodecTest {
+
+    MappingMongoConverter converter;
+
+    @BeforeEach
+    void setUp() {
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, new MongoMappingContext());
+        converter.afterPropertiesSet();
+    }
+
+    static Stream<Arguments> entities() {
+        return Stream.of(
+                arguments(new VendorCodec(), Vendor.builder().id(new ObjectId().toHexString()).firstName("Joe")
+                        .lastName("Buck").version(2L).lastModified(Instant.ofEpochMilli(1_600_000_000_123L)).build()),
+                arguments(new VendorCodec(), Vendor.builder().id("vendor-42").firstName("Micheal").lastName("Weston")
+                        .version(0L).build()),
+                arguments(new VendorCodec(), Vendor.builder().firstName("Jessie").build()),
+                arguments(new VendorCodec(), new Vendor()),
+                arguments(new CategoryCodec(), Category.builder().id(new ObjectId().toHexString()).name("Fruits")
+                        .version(2L).lastModified(Instant.ofEpochMilli(1_600_000_000_123L)).build()),
+                arguments(new CategoryCodec(), Category.builder().id("category-42").name("Nuts").version(0L).build()),
+                arguments(new CategoryCodec(), Category.builder().name("Dried").build()),
+                arguments(new CategoryCodec(), new Category()));
+    }
+
+    /**
+     * A document with an int32 version, a null, and a field the entity does not have, next to what it decodes to.
+     */
+    static Stream<Arguments> lenientDocuments() {
+        ObjectId vendorId = new ObjectId();
+        ObjectId categoryId = new ObjectId();
+        return Stream.of(
+                arguments(new VendorCodec(), new Document("_id", vendorId)
+                                .append("firstName", "Joe")
+                                .append("lastName", null)
+                                .append("nickname", new Document("short", "Jo"))
+                                .append("version", 3),
+                        Vendor.builder().id(vendorId.toHexString()).firstName("Joe").version(3L).build()),
+                arguments(new CategoryCodec(), new Document("_id", categoryId)
+                                .append("name", "Fruits")
+                                .append("lastModified", null)
+                                .append("description", new Document("short", "Fresh"))
+                                .append("version", 3),
+                        Category.builder().id(categoryId.toHexString()).name("Fruits").version(3L).build()));
+    }
+
+    @ParameterizedTest
+    @MethodSource("entities")
+    void encode_writesWhatTheConverterWrites(Codec<Object> codec, Object entity) {
+        //given
+        Document expected = new Document();
+        converter.write(entity, expected);
+
+        //when
+        Document encoded = encode(codec, entity);
+
+        //then
+        assertThat(encoded).isEqualTo(expected);
+        assertThat(encoded.keySet()).containsExactlyElementsOf(expected.keySet());
+    }
+
+    @ParameterizedTest
+    @MethodSource("entities")
+    void decode_readsWhatTheConverterReads(Codec<Object> codec, Object entity) {
+        //given
+        Document document = new Document();
+        converter.write(entity, document);
+
+        //when
+        Object decoded = decode(codec, toBson(document));
+
+        //then
+        assertThat(decoded).isEqualTo(converter.read(codec.getEncoderClass(), document));
+        assertThat(decoded).isEqualTo(entity);
+    }
+
+    @ParameterizedTest
+    @MethodSource("lenientDocuments")
+    void decode_acceptsInt32VersionsAndSkipsNullsAndUnknownFields(Codec<Object> codec, Document document,
+                                                                  Object expected) {
+        //when
+        Object decoded = decode(codec, toBson(document));
+
+        //then
+        assertThat(decoded).isEqualTo(expected);
+    }
+
+    private static Document encode(Codec<Object> codec, Object entity) {
+        BsonDocument document = new BsonDocument();
+        codec.encode(new BsonDocumentWriter(document), entity, EncoderContext.builder().build());
+        return new DocumentCodec().decode(new BsonDocumentReader(document), DecoderContext.builder().build());
+    }
+
+    private static Object decode(Codec<Object> codec, BsonDocument document) {
+        return codec.decode(new BsonDocumentReader(document), DecoderContext.builder().build());
+    }
+
+    private static BsonDocument toBson(Document document) {
+        return document.toBsonDocument(Document.class, MongoClientSettings.getDefaultCodecRegistry());
+    }
+}
@@ -0,0 +1,126 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.bson;
+
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.Category;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.Vendor;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+import static java.util.stream.Collectors.joining;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RawJsonTranscoderTest {
+
+    ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    @Test
+    void writeArray_writesTheBytesJacksonWritesForTheVendors() throws Exception {
+        //given
+        List<Vendor> vendors = Arrays.asList(
+                Vendor.builder().id(new ObjectId().toHexString()).firstName("Zoë \"Q\"\t").lastName("</script>")
+                        .version(2L).lastModified(Instant.ofEpochMilli(1_600_000_000_000L)).build(),
+                Vendor.builder().id("vendor-42").firstName("Joe").lastModified(Instant.ofEpochMilli(1_600_000_000_120L)).build(),
+                new Vendor());
+        VendorCodec codec = new VendorCodec();
+
+        //when
+        List<DataBuffer> buffers = RawJsonTranscoder.forVendors(objectMapper)
+                .writeArray(Flux.fromIterable(vendors).map(vendor -> new RawBsonDocument(vendor, codec)),
+                        new DefaultDataBufferFactory(), 2)
+                .collectList().block();
+
+        //then
+        assertThat(buffers).hasSize(3);
+        assertThat(join(buffers)).isEqualTo(objectMapper.writeValueAsString(vendors));
+    }
+
+    @Test
+    void writeArray_writesTheBytesJacksonWritesForTheCategories() throws Exception {
+        //given
+        List<Category> categories = Arrays.asList(
+                Category.builder().id(new ObjectId().toHexString()).name("Fruits").version(0L)
+                        .lastModified(Instant.ofEpochMilli(1_600_000_000_123L)).build(),
+                Category.builder().id("nuts").name("Nuts").build());
+        CategoryCodec codec = new CategoryCodec();
+
+        //when
+        List<DataBuffer> buffers = RawJsonTranscoder.forCategories(objectMapper)
+                .writeArray(Flux.fromIterable(categories).map(category -> new RawBsonDocument(category, codec)),
+                        new DefaultDataBufferFactory(), 256)
+                .collectList().block();
+
+        //then
+        assertThat(buffers).hasSize(2);
+        assertThat(join(buffers)).isEqualTo(objectMapper.writeValueAsString(categories));
+    }
+
+    @Test
+    void writeArray_emptyCollection() {
+        //when
+        List<DataBuffer> buffers = RawJsonTranscoder.forCategories(objectMapper)
+                .writeArray(Flux.empty(), new DefaultDataBufferFactory(), 256)
+                .collectList().block();
+
+        //then
+        assertThat(join(buffers)).isEqualTo("[]");
+    }
+
+    @Test
+    void writeArray_ordersFieldsLikeTheTypeAndSkipsUnknownOnes() {
+        //given
+        RawBsonDocument document = RawBsonDocument.parse(new Document("lastModified", null)
+                .append("version", 7)
+                .append("tags", Arrays.asList("a", "b"))
+                .append("name", "Dried")
+                .append("_id", "dried")
+                .toJson());
+
+        //when
+        List<DataBuffer> buffers = RawJsonTranscoder.forCategories(objectMapper)
+                .writeArray(Flux.just(document), new DefaultDataBufferFactory(), 256)
+                .collectList().block();
+
+        //then
+        assertThat(join(buffers))
+                .isEqualTo("[{\"id\":\"dried\",\"name\":\"Dried\",\"version\":7,\"lastModified\":null}]");
+    }
+
+    @Test
+    void writeArray_leavesNullsOutWhenTheMapperDoes() throws Exception {
+        //given
+        ObjectMapper nonNullMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .serializationInclusion(JsonInclude.Include.NON_NULL)
+                .build();
+        List<Vendor> vendors = Arrays.asList(Vendor.builder().id("v1").lastName("Buck").build(), new Vendor());
+        VendorCodec codec = new VendorCodec();
+
+        //when
+        List<DataBuffer> buffers = RawJsonTranscoder.forVendors(nonNullMapper)
+                .writeArray(Flux.fromIterable(vendors).map(vendor -> new RawBsonDocument(vendor, codec)),
+                        new DefaultDataBufferFactory(), 256)
+                .collectList().block();
+
+        //then
+        assertThat(join(buffers)).isEqualTo(nonNullMapper.writeValueAsString(vendors));
+    }
+
+    private static String join(List<DataBuffer> buffers) {
+        return buffers.stream().map(buffer -> buffer.toString(StandardCharsets.UTF_8)).collect(joining());
+    }
+}
@@ -0,0 +1,169 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.bulk;
+
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.BulkItemResult;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.SearchHit;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.Vendor;
+import com.artarkatesoft.artsfgspring5webfluxrest.search.SearchIndex;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.reactivestreams.client.MongoCollection;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.reactivestreams.Publisher;
+import org.springframework.data.mongodb.core.ReactiveCollectionCallback;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.times;
+
+@ExtendWith(MockitoExtension.class)
+class MongoBulkInserterTest {
+
+    @Mock
+    ReactiveMongoTemplate mongoTemplate;
+
+    @Mock
+    MongoCollection<Document> collection;
+
+    SearchIndex searchIndex;
+
+    List<Object> events;
+
+    MongoBulkInserter bulkInserter;
+
+    @BeforeEach
+    void setUp() {
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, new MongoMappingContext());
+        converter.afterPropertiesSet();
+        given(mongoTemplate.getConverter()).willReturn(converter);
+        given(mongoTemplate.execute(eq(Vendor.class), any())).willAnswer(invocation -> {
+            ReactiveCollectionCallback<?> callback = invocation.getArgument(1);
+            return Flux.from(callback.doInCollection(collection));
+        });
+        searchIndex = new SearchIndex();
+        events = new ArrayList<>();
+        bulkInserter = new MongoBulkInserter(mongoTemplate, 2, Duration.ofSeconds(1), 1, searchIndex, events::add);
+    }
+
+    @Test
+    void insert_reportsPerItemFailuresAndContinues() {
+        //given
+        BulkWriteError duplicate = new BulkWriteError(11000, "E11000 duplicate key error", new BsonDocument(), 1);
+        Publisher<BulkWriteResult> firstBatch = Mono.error(new MongoBulkWriteException(BulkWriteResult.unacknowledged(),
+                Collections.singletonList(duplicate), null, new ServerAddress()));
+        Publisher<BulkWriteResult> secondBatch = Mono.just(BulkWriteResult.unacknowledged());
+        given(collection.bulkWrite(anyList(), any(BulkWriteOptions.class))).willReturn(firstBatch, secondBatch);
+
+        //when
+        Flux<Vendor> vendors = Flux.fromStream(IntStream.range(0, 3)
+                .mapToObj(i -> Vendor.builder().firstName("First" + i).lastName("Last" + i).build()));
+
+        //then
+        StepVerifier.create(bulkInserter.insert(vendors, Vendor.class))
+                .assertNext(result -> {
+                    assertThat(result.getIndex()).isEqualTo(0);
+                    assertThat(result.getId()).hasSize(24);
+                    assertThat(result.getError()).isNull();
+                })
+                .assertNext(result -> {
+                    assertThat(result.getIndex()).isEqualTo(1);
+                    assertThat(result.getError()).contains("duplicate key");
+                })
+                .assertNext(result -> {
+                    assertThat(result.getIndex()).isEqualTo(2);
+                    assertThat(result.getError()).isNull();
+                })
+                .verifyComplete();
+        then(collection).should(times(2)).bulkWrite(anyList(), any(BulkWriteOptions.class));
+    }
+
+    @Test
+    void insert_indexesInsertedItemsUnderTheirGeneratedIds() {
+        //given
+        BulkWriteError duplicate = new BulkWriteError(11000, "E11000 duplicate key error", new BsonDocument(), 1);
+        given(collection.bulkWrite(anyList(), any(BulkWriteOptions.class))).willReturn(
+                Mono.error(new MongoBulkWriteException(BulkWriteResult.unacknowledged(),
+                        Collections.singletonList(duplicate), null, new ServerAddress())));
+        List<Vendor> vendors = Arrays.asList(Vendor.builder().firstName("Ada").lastName("Lovelace").build(),
+                Vendor.builder().firstName("Alan").lastName("Turing").build());
+
+        //when
+        List<BulkItemResult> results = bulkInserter.insert(Flux.fromIterable(vendors), Vendor.class)
+                .collectList().block();
+
+        //then
+        assertThat(vendors.get(0).getId()).isEqualTo(results.get(0).getId());
+        assertThat(searchIndex.search("lovelace", 10)).extracting(SearchHit::getType, SearchHit::getId)
+                .containsExactly(tuple(SearchIndex.VENDOR, results.get(0).getId()));
+        assertThat(searchIndex.search("turing", 10)).isEmpty();
+        assertThat(events).hasSize(1).first().isInstanceOfSatisfying(AfterSaveEvent.class, event -> {
+            assertThat(event.getSource()).isSameAs(vendors.get(0));
+            assertThat(event.getDocument().get("_id").toString()).isEqualTo(results.get(0).getId());
+        });
+    }
+
+    @Test
+    void insert_whenWholeBatchFails_marksEveryItemOfThatBatch() {
+        //given
+        Publisher<BulkWriteResult> failure = Mono.error(new IllegalStateException("connection reset"));
+        given(collection.bulkWrite(anyList(), any(BulkWriteOptions.class))).willReturn(failure);
+
+        //when
+        Flux<Vendor> vendors = Flux.just(Vendor.builder().firstName("Foo").build(), Vendor.builder().firstName("Bar").build());
+
+        //then
+        StepVerifier.create(bulkInserter.insert(vendors, Vendor.class).map(BulkItemResult::getError))
+                .expectNext("connection reset", "connection reset")
+                .verifyComplete();
+        assertThat(searchIndex.size()).isZero();
+        assertThat(events).isEmpty();
+    }
+
+    @Test
+    void insert_slowProducerAndSlowWrites_flushesPartialBatchesWithoutOverflow() {
+        //given
+        given(collection.bulkWrite(anyList(), any(BulkWriteOptions.class)))
+                .willAnswer(invocation -> Mono.delay(Duration.ofMillis(100)).thenReturn(BulkWriteResult.unacknowledged()));
+        MongoBulkInserter slowInserter = new MongoBulkInserter(mongoTemplate, 100, Duration.ofMillis(20), 4,
+                searchIndex, events::add);
+
+        //when
+        Flux<Vendor> vendors = Flux.interval(Duration.ofMillis(2))
+                .onBackpressureBuffer()
+                .take(200)
+                .map(i -> Vendor.builder().firstName("First" + i).lastName("Last" + i).build());
+
+        //then
+        StepVerifier.create(slowInserter.insert(vendors, Vendor.class).map(BulkItemResult::getIndex))
+                .expectNextSequence(LongStream.range(0, 200).boxed().collect(Collectors.toList()))
+                .verifyComplete();
+    }
+}
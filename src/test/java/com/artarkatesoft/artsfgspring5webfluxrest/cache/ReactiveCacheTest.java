@@ -0,0 +1,80 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReactiveCacheTest {
+
+    private AtomicInteger loads;
+    private ReactiveCache<String> cache;
+
+    @BeforeEach
+    void setUp() {
+        loads = new AtomicInteger();
+        cache = new ReactiveCache<>("test",
+                id -> Mono.fromCallable(() -> {
+                    loads.incrementAndGet();
+                    return id.startsWith("missing") ? null : "value-" + id;
+                }).delayElement(Duration.ofMillis(50)),
+                value -> value.substring("value-".length()),
+                2, Duration.ofMinutes(1));
+    }
+
+    @Test
+    void concurrentMissesCollapseIntoSingleLoad() {
+        //when
+        Flux<String> concurrentGets = Flux.range(0, 10)
+                .flatMap(i -> cache.get("1"));
+
+        //then
+        StepVerifier.create(concurrentGets)
+                .expectNextCount(10)
+                .verifyComplete();
+        assertThat(loads).hasValue(1);
+        assertThat(cache.statistics().getMissCount()).isEqualTo(1);
+        assertThat(cache.statistics().getHitCount()).isEqualTo(9);
+    }
+
+    @Test
+    void emptyResultIsNotCached() {
+        StepVerifier.create(cache.get("missing")).verifyComplete();
+        StepVerifier.create(cache.get("missing")).verifyComplete();
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void putRefreshesAndInvalidateEvicts() {
+        //given
+        cache.put("value-2");
+
+        //then
+        StepVerifier.create(cache.get("2")).expectNext("value-2").verifyComplete();
+        assertThat(loads).hasValue(0);
+
+        //when
+        cache.invalidate("2");
+
+        //then
+        StepVerifier.create(cache.get("2")).expectNext("value-2").verifyComplete();
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void cancelledSubscriberDoesNotCancelSharedLoad() {
+        //when
+        cache.get("3").subscribe().dispose();
+
+        //then
+        StepVerifier.create(cache.get("3")).expectNext("value-3").verifyComplete();
+        assertThat(loads).hasValue(1);
+    }
+}
@@ -0,0 +1,87 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.StreamSupport;
+
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestBatcherTest {
+
+    private List<List<String>> batches;
+    private RequestBatcher<String> batcher;
+
+    @BeforeEach
+    void setUp() {
+        batches = new CopyOnWriteArrayList<>();
+        batcher = new RequestBatcher<>(ids -> {
+            List<String> batch = StreamSupport.stream(ids.spliterator(), false).collect(toList());
+            batches.add(batch);
+            return Flux.fromIterable(batch)
+                    .filter(id -> !id.startsWith("missing"))
+                    .map(id -> "value-" + id);
+        }, value -> value.substring("value-".length()), 3, Duration.ofMillis(20), Schedulers.parallel());
+    }
+
+    @Test
+    void concurrentLoadsShareOneBatch() {
+        //when
+        Flux<String> loads = Flux.just("1", "2", "1")
+                .flatMap(batcher::load);
+
+        //then
+        StepVerifier.create(loads.collectList())
+                .assertNext(values -> assertThat(values).containsExactlyInAnyOrder("value-1", "value-2", "value-1"))
+                .verifyComplete();
+        assertThat(batches).hasSize(1);
+        assertThat(batches.get(0)).containsExactly("1", "2");
+    }
+
+    @Test
+    void fullBatchIsDispatchedWithoutWaiting() {
+        //when
+        Flux<String> loads = Flux.range(1, 7)
+                .map(String::valueOf)
+                .flatMap(batcher::load);
+
+        //then
+        StepVerifier.create(loads)
+                .expectNextCount(7)
+                .verifyComplete();
+        List<Integer> batchSizes = new ArrayList<>();
+        batches.forEach(batch -> batchSizes.add(batch.size()));
+        assertThat(batchSizes).containsExactly(3, 3, 1);
+    }
+
+    @Test
+    void missingIdCompletesEmpty() {
+        StepVerifier.create(Mono.zip(batcher.load("missing").hasElement(), batcher.load("1")))
+                .assertNext(result -> {
+                    assertThat(result.getT1()).isFalse();
+                    assertThat(result.getT2()).isEqualTo("value-1");
+                })
+                .verifyComplete();
+        assertThat(batches).hasSize(1);
+    }
+
+    @Test
+    void batchFailureFailsEveryLoad() {
+        //given
+        RequestBatcher<String> failing = new RequestBatcher<>(ids -> Flux.error(new IllegalStateException("boom")),
+                value -> value, 10, Duration.ofMillis(5), Schedulers.parallel());
+
+        //then
+        StepVerifier.create(failing.load("1"))
+                .verifyErrorMessage("boom");
+    }
+}
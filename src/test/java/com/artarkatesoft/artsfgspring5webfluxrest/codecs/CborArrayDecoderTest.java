@@ -0,0 +1,136 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.codecs;
+
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.Vendor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static com.artarkatesoft.artsfgspring5webfluxrest.config.WebFluxConfig.APPLICATION_CBOR;
+import static java.util.stream.Collectors.toList;
+
+class CborArrayDecoderTest {
+
+    private static final ResolvableType VENDOR = ResolvableType.forClass(Vendor.class);
+
+    ObjectMapper cborMapper;
+
+    CborArrayDecoder decoder;
+
+    List<Vendor> vendors;
+
+    @BeforeEach
+    void setUp() {
+        cborMapper = Jackson2ObjectMapperBuilder.cbor().build();
+        decoder = new CborArrayDecoder(cborMapper);
+        vendors = IntStream.rangeClosed(1, 5).mapToObj(this::createStubVendor).collect(toList());
+    }
+
+    @Test
+    void decode_arraySplitAcrossBuffers() throws Exception {
+        //given
+        byte[] body = cborMapper.writeValueAsBytes(vendors);
+
+        //when
+        Flux<Object> decoded = decoder.decode(chunks(body, 3), VENDOR, APPLICATION_CBOR, Collections.emptyMap());
+
+        //then
+        StepVerifier.create(decoded)
+                .expectNextSequence(vendors)
+                .verifyComplete();
+    }
+
+    @Test
+    void decode_sequenceOfValues() throws Exception {
+        //given
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        for (Vendor vendor : vendors) body.write(cborMapper.writeValueAsBytes(vendor));
+
+        //when
+        Flux<Object> decoded = decoder.decode(chunks(body.toByteArray(), 7), VENDOR, APPLICATION_CBOR,
+                Collections.emptyMap());
+
+        //then
+        StepVerifier.create(decoded)
+                .expectNextSequence(vendors)
+                .verifyComplete();
+    }
+
+    @Test
+    void decode_emitsValuesBeforeTheBodyCompletes() throws Exception {
+        //given
+        byte[] body = cborMapper.writeValueAsBytes(vendors);
+        Flux<DataBuffer> unfinished = chunks(Arrays.copyOf(body, body.length - 1), 5).concatWith(Flux.never());
+
+        //when
+        Flux<Object> decoded = decoder.decode(unfinished, VENDOR, APPLICATION_CBOR, Collections.emptyMap());
+
+        //then
+        StepVerifier.create(decoded)
+                .expectNextSequence(vendors.subList(0, vendors.size() - 1))
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void decode_valueOverLimit_failsAfterTheValuesBeforeIt() throws Exception {
+        //given
+        char[] name = new char[2048];
+        Arrays.fill(name, 'a');
+        List<Vendor> body = new ArrayList<>(vendors.subList(0, 2));
+        body.add(Vendor.builder().firstName(new String(name)).build());
+        decoder.setMaxInMemorySize(1024);
+
+        //when
+        Flux<Object> decoded = decoder.decode(chunks(cborMapper.writeValueAsBytes(body), 64), VENDOR,
+                APPLICATION_CBOR, Collections.emptyMap());
+
+        //then
+        StepVerifier.create(decoded)
+                .expectNextSequence(vendors.subList(0, 2))
+                .verifyError(DataBufferLimitException.class);
+    }
+
+    @Test
+    void decode_truncatedArray_fails() throws Exception {
+        //given
+        byte[] body = cborMapper.writeValueAsBytes(vendors);
+
+        //when
+        Flux<Object> decoded = decoder.decode(chunks(Arrays.copyOf(body, body.length - 1), 16), VENDOR,
+                APPLICATION_CBOR, Collections.emptyMap());
+
+        //then
+        StepVerifier.create(decoded)
+                .expectNextSequence(vendors.subList(0, vendors.size() - 1))
+                .verifyError(DecodingException.class);
+    }
+
+    private Flux<DataBuffer> chunks(byte[] bytes, int size) {
+        DefaultDataBufferFactory bufferFactory = new DefaultDataBufferFactory();
+        return Flux.range(0, (bytes.length + size - 1) / size)
+                .map(i -> bufferFactory.wrap(Arrays.copyOfRange(bytes, i * size, Math.min(bytes.length, (i + 1) * size))));
+    }
+
+    private Vendor createStubVendor(int stubId) {
+        return Vendor.builder()
+                .id("id" + stubId)
+                .firstName("First" + stubId)
+                .lastName("Last" + stubId)
+                .build();
+    }
+}
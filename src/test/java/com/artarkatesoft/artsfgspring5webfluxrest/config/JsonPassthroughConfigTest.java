@@ -0,0 +1,110 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.config;
+
+import com.artarkatesoft.artsfgspring5webfluxrest.bson.VendorCodec;
+import com.artarkatesoft.artsfgspring5webfluxrest.changes.CollectionVersions;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.Vendor;
+import com.artarkatesoft.artsfgspring5webfluxrest.repositories.CategoryRepository;
+import com.artarkatesoft.artsfgspring5webfluxrest.repositories.VendorRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.bson.RawBsonDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static com.artarkatesoft.artsfgspring5webfluxrest.config.WebFluxConfig.APPLICATION_CBOR;
+import static com.artarkatesoft.artsfgspring5webfluxrest.config.WebFluxConfig.APPLICATION_NDJSON;
+import static com.artarkatesoft.artsfgspring5webfluxrest.controllers.VendorController.BASE_URL;
+import static java.util.stream.Collectors.toList;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
+import static org.springframework.http.HttpHeaders.ETAG;
+import static org.springframework.http.HttpHeaders.IF_NONE_MATCH;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+
+@ExtendWith(MockitoExtension.class)
+class JsonPassthroughConfigTest {
+
+    @Mock
+    CategoryRepository categoryRepository;
+
+    @Mock
+    VendorRepository vendorRepository;
+
+    ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    CollectionVersions collectionVersions = new CollectionVersions();
+    WebTestClient webTestClient;
+    List<Vendor> vendors;
+
+    @BeforeEach
+    void setUp() {
+        webTestClient = WebTestClient
+                .bindToRouterFunction(new JsonPassthroughConfig()
+                        .jsonPassthroughRoutes(categoryRepository, vendorRepository, collectionVersions, objectMapper))
+                .build();
+        vendors = IntStream.rangeClosed(1, 3)
+                .mapToObj(i -> Vendor.builder().id(String.format("%024x", i)).firstName("First" + i).lastName("Last" + i)
+                        .version((long) i).lastModified(Instant.ofEpochMilli(1_600_000_000_000L + i)).build())
+                .collect(toList());
+    }
+
+    @Test
+    void list_answersTheBytesOfTheJacksonList() throws Exception {
+        //given
+        VendorCodec codec = new VendorCodec();
+        given(vendorRepository.findAllAsRawBson())
+                .willReturn(Flux.fromIterable(vendors).map(vendor -> new RawBsonDocument(vendor, codec)));
+
+        //when
+        webTestClient.get().uri(BASE_URL)
+                .accept(APPLICATION_JSON)
+                .exchange()
+
+                //then
+                .expectStatus().isOk()
+                .expectHeader().contentType(APPLICATION_JSON)
+                .expectHeader().valueEquals(ETAG, collectionVersions.current(Vendor.class).getETag())
+                .expectBody(String.class).isEqualTo(objectMapper.writeValueAsString(vendors));
+    }
+
+    @Test
+    void list_currentTag_notModifiedWithoutQuery() {
+        //given
+        String eTag = collectionVersions.current(Vendor.class).getETag();
+        given(vendorRepository.findAllAsRawBson()).willReturn(Flux.error(new IllegalStateException("not subscribed")));
+
+        //when
+        webTestClient.get().uri(BASE_URL)
+                .header(IF_NONE_MATCH, eTag)
+                .exchange()
+
+                //then
+                .expectStatus().isNotModified()
+                .expectBody().isEmpty();
+    }
+
+    @Test
+    void otherListRequests_fallThrough() {
+        //when
+        webTestClient.get().uri(BASE_URL + "?lastName=Buck").exchange()
+                //then
+                .expectStatus().isNotFound();
+        webTestClient.get().uri(BASE_URL).accept(APPLICATION_NDJSON).exchange()
+                .expectStatus().isNotFound();
+        webTestClient.get().uri(BASE_URL).accept(APPLICATION_CBOR).exchange()
+                .expectStatus().isNotFound();
+        then(vendorRepository).should(never()).findAllAsRawBson();
+    }
+}
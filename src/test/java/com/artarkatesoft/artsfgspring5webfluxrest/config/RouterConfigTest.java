@@ -0,0 +1,388 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.config;
+
+import com.artarkatesoft.artsfgspring5webfluxrest.bulk.BulkInserter;
+import com.artarkatesoft.artsfgspring5webfluxrest.cache.VendorCache;
+import com.artarkatesoft.artsfgspring5webfluxrest.changes.CollectionVersions;
+import com.artarkatesoft.artsfgspring5webfluxrest.changes.InMemoryChangeFeed;
+import com.artarkatesoft.artsfgspring5webfluxrest.controllers.Cursors;
+import com.artarkatesoft.artsfgspring5webfluxrest.controllers.VendorController;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.CursorPage;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.Vendor;
+import com.artarkatesoft.artsfgspring5webfluxrest.handlers.VendorHandler;
+import com.artarkatesoft.artsfgspring5webfluxrest.repositories.VendorRepository;
+import com.artarkatesoft.artsfgspring5webfluxrest.search.SearchIndex;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import static com.artarkatesoft.artsfgspring5webfluxrest.config.WebFluxConfig.APPLICATION_CBOR;
+import static com.artarkatesoft.artsfgspring5webfluxrest.config.WebFluxConfig.APPLICATION_NDJSON;
+import static com.artarkatesoft.artsfgspring5webfluxrest.config.WebFluxConfig.APPLICATION_SMILE;
+import static com.artarkatesoft.artsfgspring5webfluxrest.controllers.VendorController.BASE_URL;
+import static com.fasterxml.jackson.databind.SerializationFeature.WRITE_DATES_AS_TIMESTAMPS;
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.springframework.http.HttpHeaders.ETAG;
+import static org.springframework.http.HttpHeaders.IF_MATCH;
+import static org.springframework.http.HttpHeaders.IF_NONE_MATCH;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.http.MediaType.APPLICATION_PROBLEM_JSON;
+
+@ExtendWith(MockitoExtension.class)
+class RouterConfigTest {
+
+    private static final int SIZE = 3;
+
+    @Mock
+    VendorRepository vendorRepository;
+
+    @Mock
+    BulkInserter bulkInserter;
+
+    WebTestClient webTestClient;
+
+    private List<Vendor> stubVendorList;
+
+    @BeforeEach
+    void setUp() {
+        VendorController vendorController = new VendorController(vendorRepository,
+                new VendorCache(vendorRepository, 100, Duration.ofMinutes(1), 1, Duration.ZERO),
+                new InMemoryChangeFeed(), bulkInserter, new CollectionVersions(), new SearchIndex());
+        Supplier<Jackson2ObjectMapperBuilder> builders = () -> Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(WRITE_DATES_AS_TIMESTAMPS);
+        ObjectMapper objectMapper = builders.get().build();
+        webTestClient = WebTestClient
+                .bindToRouterFunction(new RouterConfig().vendorRoutes(new VendorHandler(vendorController)))
+                .handlerStrategies(HandlerStrategies.builder()
+                        .codecs(configurer -> WebFluxConfig.configureJacksonCodecs(configurer, objectMapper, builders))
+                        .build())
+                .configureClient()
+                .codecs(configurer -> WebFluxConfig.configureJacksonCodecs(configurer, objectMapper, builders))
+                .build();
+        stubVendorList = IntStream.rangeClosed(1, SIZE)
+                .mapToObj(i -> Vendor.builder().id("id" + i).firstName("First" + i).lastName("Last" + i).build())
+                .collect(toList());
+    }
+
+    @Test
+    void list() {
+        //given
+        given(vendorRepository.findAll()).willReturn(Flux.fromIterable(stubVendorList));
+
+        //when
+        webTestClient.get().uri(BASE_URL)
+                .exchange()
+
+                //then
+                .expectStatus().isOk()
+                .expectHeader().contentType(APPLICATION_JSON)
+                .expectBodyList(Vendor.class)
+                .isEqualTo(stubVendorList);
+        then(vendorRepository).should(never()).streamAllByOrderByIdAsc();
+    }
+
+    @Test
+    void list_cbor() {
+        //given
+        given(vendorRepository.findAll()).willReturn(Flux.fromIterable(stubVendorList));
+
+        //when
+        webTestClient.get().uri(BASE_URL)
+                .accept(APPLICATION_CBOR)
+                .exchange()
+
+                //then
+                .expectStatus().isOk()
+                .expectHeader().contentType(APPLICATION_CBOR)
+                .expectBodyList(Vendor.class)
+                .isEqualTo(stubVendorList);
+    }
+
+    @Test
+    void list_whenUnchanged_notModified() {
+        //given
+        given(vendorRepository.findAll()).willReturn(Flux.fromIterable(stubVendorList));
+        String eTag = webTestClient.get().uri(BASE_URL)
+                .exchange()
+                .expectBody(byte[].class)
+                .returnResult()
+                .getResponseHeaders().getETag();
+
+        //when
+        webTestClient.get().uri(BASE_URL)
+                .header(IF_NONE_MATCH, eTag)
+                .exchange()
+
+                //then
+                .expectStatus().isNotModified()
+                .expectHeader().valueEquals(ETAG, eTag)
+                .expectBody().isEmpty();
+        then(vendorRepository).should(times(1)).findAll();
+    }
+
+    @Test
+    void stream_whenNdjsonAccepted() {
+        //given
+        given(vendorRepository.streamAllByOrderByIdAsc()).willReturn(Flux.fromIterable(stubVendorList));
+
+        //when
+        webTestClient.get().uri(BASE_URL)
+                .accept(APPLICATION_NDJSON)
+                .exchange()
+
+                //then
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(APPLICATION_NDJSON)
+                .expectBody(String.class)
+                .value(body -> assertThat(body.split("\\n")).hasSize(SIZE));
+    }
+
+    @Test
+    void page() {
+        //given
+        given(vendorRepository.findAllByOrderByIdAsc(any(Pageable.class))).willReturn(Flux.fromIterable(stubVendorList));
+
+        //when
+        webTestClient.get().uri(BASE_URL + "?limit=2")
+                .exchange()
+
+                //then
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.content.length()").isEqualTo(2)
+                .jsonPath("$.nextCursor").isNotEmpty();
+        then(vendorRepository).should().findAllByOrderByIdAsc(eq(PageRequest.of(0, 3)));
+    }
+
+    @Test
+    void page_limitZero_problem() {
+        //when
+        webTestClient.get().uri(BASE_URL + "?limit=0")
+                .exchange()
+
+                //then
+                .expectStatus().isBadRequest()
+                .expectHeader().contentType(APPLICATION_PROBLEM_JSON)
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(400)
+                .jsonPath("$.detail").isEqualTo("limit must be between 1 and " + Cursors.MAX_PAGE_SIZE);
+        then(vendorRepository).shouldHaveNoInteractions();
+    }
+
+    @Test
+    void page_withFilter_problem() {
+        //when
+        webTestClient.get().uri(BASE_URL + "?limit=10&firstName=Jo*")
+                .exchange()
+
+                //then
+                .expectStatus().isBadRequest()
+                .expectHeader().contentType(APPLICATION_PROBLEM_JSON);
+        then(vendorRepository).shouldHaveNoInteractions();
+    }
+
+    @Test
+    void page_nonNumericLimit_problem() {
+        //when
+        webTestClient.get().uri(BASE_URL + "?limit=ten")
+                .exchange()
+
+                //then
+                .expectStatus().isBadRequest()
+                .expectHeader().contentType(APPLICATION_PROBLEM_JSON);
+    }
+
+    @Test
+    void create_unacceptable_problem() {
+        //when
+        webTestClient.post().uri(BASE_URL)
+                .accept(MediaType.APPLICATION_XML)
+                .bodyValue(stubVendorList)
+                .exchange()
+
+                //then
+                .expectStatus().isEqualTo(HttpStatus.NOT_ACCEPTABLE)
+                .expectHeader().contentType(APPLICATION_PROBLEM_JSON);
+        then(vendorRepository).shouldHaveNoInteractions();
+    }
+
+    @Test
+    void page_smile() {
+        //given
+        given(vendorRepository.findAllByOrderByIdAsc(any(Pageable.class))).willReturn(Flux.fromIterable(stubVendorList));
+
+        //when
+        webTestClient.get().uri(BASE_URL + "?limit=2")
+                .accept(APPLICATION_SMILE)
+                .exchange()
+
+                //then
+                .expectStatus().isOk()
+                .expectHeader().contentType(APPLICATION_SMILE)
+                .expectBody(new ParameterizedTypeReference<CursorPage<Vendor>>() {
+                })
+                .value(page -> assertThat(page.getContent()).isEqualTo(stubVendorList.subList(0, 2)));
+    }
+
+    @Test
+    void findById() {
+        //given
+        given(vendorRepository.findById(anyString())).willReturn(Mono.just(stubVendorList.get(0)));
+
+        //when
+        webTestClient.get().uri(BASE_URL + "/{id}", "id1")
+                .exchange()
+
+                //then
+                .expectStatus().isOk()
+                .expectBody(Vendor.class)
+                .isEqualTo(stubVendorList.get(0));
+    }
+
+    @Test
+    void findById_smile() {
+        //given
+        given(vendorRepository.findById(anyString())).willReturn(Mono.just(stubVendorList.get(0)));
+
+        //when
+        webTestClient.get().uri(BASE_URL + "/{id}", "id1")
+                .accept(APPLICATION_SMILE)
+                .exchange()
+
+                //then
+                .expectStatus().isOk()
+                .expectHeader().contentType(APPLICATION_SMILE)
+                .expectBody(Vendor.class)
+                .isEqualTo(stubVendorList.get(0));
+    }
+
+    @Test
+    void findById_smile_writesLastModifiedAsJsonDoes() throws Exception {
+        //given
+        Vendor vendor = Vendor.builder().id("id1").firstName("First1").lastName("Last1")
+                .lastModified(Instant.parse("2020-08-01T10:15:30Z")).build();
+        given(vendorRepository.findById(anyString())).willReturn(Mono.just(vendor));
+
+        //when
+        byte[] body = webTestClient.get().uri(BASE_URL + "/{id}", "id1")
+                .accept(APPLICATION_SMILE)
+                .exchange()
+
+                //then
+                .expectStatus().isOk()
+                .expectBody(byte[].class)
+                .returnResult()
+                .getResponseBody();
+        JsonNode lastModified = new ObjectMapper(new SmileFactory()).readTree(body).get("lastModified");
+        assertThat(lastModified.isTextual()).isTrue();
+        assertThat(lastModified.asText()).isEqualTo("2020-08-01T10:15:30Z");
+    }
+
+    @Test
+    void list_cbor_writesLastModifiedAsJsonDoes() throws Exception {
+        //given
+        Vendor vendor = Vendor.builder().id("id1").firstName("First1").lastName("Last1")
+                .lastModified(Instant.parse("2020-08-01T10:15:30Z")).build();
+        given(vendorRepository.findAll()).willReturn(Flux.just(vendor));
+
+        //when
+        byte[] body = webTestClient.get().uri(BASE_URL)
+                .accept(APPLICATION_CBOR)
+                .exchange()
+
+                //then
+                .expectStatus().isOk()
+                .expectBody(byte[].class)
+                .returnResult()
+                .getResponseBody();
+        JsonNode lastModified = new ObjectMapper(new CBORFactory()).readTree(body).get(0).get("lastModified");
+        assertThat(lastModified.isTextual()).isTrue();
+        assertThat(lastModified.asText()).isEqualTo("2020-08-01T10:15:30Z");
+    }
+
+    @Test
+    void create_cbor() {
+        //given
+        given(vendorRepository.save(any(Vendor.class))).willAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+        //when
+        webTestClient.post().uri(BASE_URL)
+                .contentType(APPLICATION_CBOR)
+                .accept(APPLICATION_CBOR)
+                .bodyValue(stubVendorList)
+                .exchange()
+
+                //then
+                .expectStatus().isCreated()
+                .expectHeader().contentType(APPLICATION_CBOR)
+                .expectBodyList(Vendor.class)
+                .value(vendors -> assertThat(vendors)
+                        .usingElementComparatorIgnoringFields("lastModified")
+                        .isEqualTo(stubVendorList));
+    }
+
+    @Test
+    void findById_whenAbsent_problem() {
+        //given
+        given(vendorRepository.findById(anyString())).willReturn(Mono.empty());
+
+        //when
+        webTestClient.get().uri(BASE_URL + "/{id}", "staleId")
+                .exchange()
+
+                //then
+                .expectStatus().isNotFound()
+                .expectHeader().contentType(APPLICATION_PROBLEM_JSON)
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(404)
+                .jsonPath("$.instance").isEqualTo(BASE_URL + "/staleId");
+    }
+
+    @Test
+    void patch() {
+        //given
+        Vendor updatedVendor = Vendor.builder().id("id1").firstName("Art").lastName("bar").version(2L).build();
+        given(vendorRepository.patch(anyString(), any(Vendor.class), any())).willReturn(Mono.just(updatedVendor));
+
+        //when
+        webTestClient.patch().uri(BASE_URL + "/{id}", "id1")
+                .contentType(APPLICATION_JSON)
+                .header(IF_MATCH, "\"1\"")
+                .bodyValue("{\"firstName\":\"Art\"}")
+                .exchange()
+
+                //then
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(ETAG, "\"2\"")
+                .expectBody(Vendor.class)
+                .isEqualTo(updatedVendor);
+        then(vendorRepository).should().patch(eq("id1"), refEq(Vendor.builder().firstName("Art").build(), "lastModified"), eq(1L));
+    }
+}
@@ -1,20 +1,40 @@
 package com.artarkatesoft.artsfgspring5webfluxrest.controllers;
 
+import com.artarkatesoft.artsfgspring5webfluxrest.bulk.BulkInserter;
+import com.artarkatesoft.artsfgspring5webfluxrest.cache.CategoryCache;
+import com.artarkatesoft.artsfgspring5webfluxrest.changes.CollectionVersions;
+import com.artarkatesoft.artsfgspring5webfluxrest.changes.InMemoryChangeFeed;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.BulkItemResult;
 import com.artarkatesoft.artsfgspring5webfluxrest.domain.Category;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.Problem;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.ChangeEvent;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.Vendor;
 import com.artarkatesoft.artsfgspring5webfluxrest.repositories.CategoryRepository;
+import com.artarkatesoft.artsfgspring5webfluxrest.search.SearchIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.reactivestreams.Publisher;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
 
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.stream.IntStream;
 
+import static com.artarkatesoft.artsfgspring5webfluxrest.config.WebFluxConfig.APPLICATION_NDJSON;
 import static com.artarkatesoft.artsfgspring5webfluxrest.controllers.CategoryController.BASE_URL;
 import static java.util.stream.Collectors.toList;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -22,9 +42,20 @@ import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.then;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.springframework.http.HttpHeaders.ETAG;
+import static org.springframework.http.HttpHeaders.IF_MATCH;
+import static org.springframework.http.HttpHeaders.IF_MODIFIED_SINCE;
+import static org.springframework.http.HttpHeaders.IF_NONE_MATCH;
+import static org.springframework.http.HttpHeaders.LAST_MODIFIED;
+import static org.springframework.http.HttpStatus.PRECONDITION_FAILED;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.http.MediaType.APPLICATION_PROBLEM_JSON;
+import static org.springframework.http.MediaType.TEXT_EVENT_STREAM;
 
-@WebFluxTest(CategoryController.class)
+@WebFluxTest(controllers = CategoryController.class,
+        properties = {"app.changes.source=in-memory", "app.cache.batch.max-size=1"})
+@Import({InMemoryChangeFeed.class, CategoryCache.class, CollectionVersions.class, SearchIndex.class})
 class CategoryControllerTest {
 
     private static final int SIZE = 6;
@@ -32,13 +63,23 @@ class CategoryControllerTest {
     @MockBean
     CategoryRepository categoryRepository;
 
+    @MockBean
+    BulkInserter bulkInserter;
+
     @Autowired
     WebTestClient webTestClient;
 
+    @Autowired
+    InMemoryChangeFeed changeFeed;
+
+    @Autowired
+    CategoryCache categoryCache;
+
     private List<Category> stubCategoryList;
 
     @BeforeEach
     void setUp() {
+        categoryCache.invalidateAll();
         stubCategoryList = IntStream.rangeClosed(1, SIZE)
                 .mapToObj(this::createStubCategory)
                 .collect(toList());
@@ -64,6 +105,246 @@ class CategoryControllerTest {
 
     }
 
+    @Test
+    void list_whenUnchanged_notModifiedWithoutQuery() {
+        //given
+        given(categoryRepository.findAll()).willReturn(Flux.fromIterable(stubCategoryList));
+        String eTag = webTestClient.get().uri(BASE_URL)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().exists(LAST_MODIFIED)
+                .expectBody(byte[].class)
+                .returnResult()
+                .getResponseHeaders().getETag();
+
+        //when
+        webTestClient.get().uri(BASE_URL)
+                .header(IF_NONE_MATCH, eTag)
+                .exchange()
+
+                //then
+                .expectStatus().isNotModified()
+                .expectHeader().valueEquals(ETAG, eTag)
+                .expectBody().isEmpty();
+        then(categoryRepository).should(times(1)).findAll();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void list_afterCreate_modified() {
+        //given
+        given(categoryRepository.findAll()).willReturn(Flux.fromIterable(stubCategoryList));
+        given(categoryRepository.save(any(Category.class))).willReturn(Mono.just(stubCategoryList.get(0)));
+        String eTag = webTestClient.get().uri(BASE_URL)
+                .exchange()
+                .expectBody(byte[].class)
+                .returnResult()
+                .getResponseHeaders().getETag();
+        webTestClient.post().uri(BASE_URL)
+                .contentType(APPLICATION_JSON)
+                .bodyValue(stubCategoryList.get(0))
+                .exchange()
+                .expectStatus().isCreated();
+
+        //when
+        webTestClient.get().uri(BASE_URL)
+                .header(IF_NONE_MATCH, eTag)
+                .exchange()
+
+                //then
+                .expectStatus().isOk()
+                .expectHeader().value(ETAG, newETag -> assertThat(newETag).isNotEqualTo(eTag))
+                .expectBodyList(Category.class)
+                .hasSize(SIZE);
+    }
+
+    @Test
+    void list_ifModifiedSince_afterCreateInTheSameSecond_modified() {
+        //given
+        given(categoryRepository.findAll()).willReturn(Flux.fromIterable(stubCategoryList));
+        given(categoryRepository.save(any(Category.class))).willReturn(Mono.just(stubCategoryList.get(0)));
+        String lastModified = webTestClient.get().uri(BASE_URL)
+                .exchange()
+                .expectBody(byte[].class)
+                .returnResult()
+                .getResponseHeaders().getFirst(LAST_MODIFIED);
+        webTestClient.post().uri(BASE_URL)
+                .contentType(APPLICATION_JSON)
+                .bodyValue(stubCategoryList.get(0))
+                .exchange()
+                .expectStatus().isCreated();
+
+        //when
+        webTestClient.get().uri(BASE_URL)
+                .header(IF_MODIFIED_SINCE, lastModified)
+                .exchange()
+
+                //then
+                .expectStatus().isOk()
+                .expectHeader().value(LAST_MODIFIED, newLastModified -> assertThat(newLastModified).isNotEqualTo(lastModified))
+                .expectBodyList(Category.class)
+                .hasSize(SIZE);
+    }
+
+    @Test
+    void stream_ndjson() {
+        //given
+        given(categoryRepository.streamAllByOrderByIdAsc()).willReturn(Flux.fromIterable(stubCategoryList));
+
+        //when
+        webTestClient.get()
+                .uri(BASE_URL)
+                .accept(APPLICATION_NDJSON)
+                .exchange()
+
+                //then
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(APPLICATION_NDJSON)
+                .expectBody(String.class)
+                .value(body -> assertThat(body.split("\n"))
+                        .hasSize(SIZE)
+                        .allSatisfy(line -> assertThat(line).startsWith("{\"id\":\"id")));
+        then(categoryRepository).should().streamAllByOrderByIdAsc();
+        then(categoryRepository).should(never()).findAll();
+    }
+
+    @Test
+    void stream_serverSentEvents() {
+        //given
+        given(categoryRepository.streamAllByOrderByIdAsc()).willReturn(Flux.fromIterable(stubCategoryList));
+
+        //when
+        Flux<Category> responseBody = webTestClient.get()
+                .uri(BASE_URL)
+                .accept(TEXT_EVENT_STREAM)
+                .exchange()
+
+                //then
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(TEXT_EVENT_STREAM)
+                .returnResult(Category.class)
+                .getResponseBody();
+        StepVerifier.create(responseBody)
+                .expectNextSequence(stubCategoryList)
+                .verifyComplete();
+    }
+
+    @Test
+    void stream_withSort_badRequest() {
+        //when
+        webTestClient.get()
+                .uri(BASE_URL + "?sort=-name")
+                .accept(TEXT_EVENT_STREAM)
+                .exchange()
+
+                //then
+                .expectStatus().isBadRequest();
+        then(categoryRepository).shouldHaveNoInteractions();
+    }
+
+    @Test
+    void page_first() {
+        //given
+        given(categoryRepository.findAllByOrderByIdAsc(any(Pageable.class)))
+                .willReturn(Flux.fromIterable(stubCategoryList.subList(0, 3)));
+
+        //when
+        webTestClient.get()
+                .uri(BASE_URL + "?limit={limit}", 2)
+                .accept(APPLICATION_JSON)
+                .exchange()
+
+                //then
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.content.length()").isEqualTo(2)
+                .jsonPath("$.content[1].id").isEqualTo("id2")
+                .jsonPath("$.nextCursor").isEqualTo(Cursors.encode("id2"));
+        then(categoryRepository).should().findAllByOrderByIdAsc(eq(PageRequest.of(0, 3)));
+        then(categoryRepository).should(never()).findAll();
+    }
+
+    @Test
+    void page_after_lastPage() {
+        //given
+        given(categoryRepository.findByIdGreaterThanOrderByIdAsc(anyString(), any(Pageable.class)))
+                .willReturn(Flux.fromIterable(stubCategoryList.subList(4, SIZE)));
+
+        //when
+        webTestClient.get()
+                .uri(BASE_URL + "?limit={limit}&after={after}", 2, Cursors.encode("id4"))
+                .accept(APPLICATION_JSON)
+                .exchange()
+
+                //then
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.content.length()").isEqualTo(2)
+                .jsonPath("$.nextCursor").doesNotExist();
+        then(categoryRepository).should().findByIdGreaterThanOrderByIdAsc(eq("id4"), eq(PageRequest.of(0, 3)));
+    }
+
+    @Test
+    void page_limitOutOfRange() {
+        //when
+        webTestClient.get()
+                .uri(BASE_URL + "?limit={limit}", Cursors.MAX_PAGE_SIZE + 1)
+                .accept(APPLICATION_JSON)
+                .exchange()
+
+                //then
+                .expectStatus().isBadRequest();
+        then(categoryRepository).shouldHaveNoInteractions();
+    }
+
+    @Test
+    void page_withFields_badRequest() {
+        //when
+        webTestClient.get()
+                .uri(BASE_URL + "?limit=10&fields=name")
+                .accept(APPLICATION_JSON)
+                .exchange()
+
+                //then
+                .expectStatus().isBadRequest();
+        then(categoryRepository).shouldHaveNoInteractions();
+    }
+
+    @Test
+    void changes_resumeFromLastEventId() {
+        //given
+        String lastSeenToken = changeFeed.publish(Category.class, "save", "id0", null).getResumeToken();
+        Category savedCategory = stubCategoryList.get(0);
+        changeFeed.publish(Category.class, "save", savedCategory.getId(), savedCategory);
+        changeFeed.publish(Vendor.class, "save", "vendorId", Vendor.builder().id("vendorId").build());
+        changeFeed.publish(Category.class, "delete", "id2", null);
+
+        //when
+        Flux<ServerSentEvent<ChangeEvent<Category>>> responseBody = webTestClient.get()
+                .uri(BASE_URL + "/changes")
+                .accept(TEXT_EVENT_STREAM)
+                .header("Last-Event-ID", lastSeenToken)
+                .exchange()
+
+                //then
+                .expectStatus().isOk()
+                .returnResult(new ParameterizedTypeReference<ServerSentEvent<ChangeEvent<Category>>>() {
+                })
+                .getResponseBody();
+        StepVerifier.create(responseBody)
+                .assertNext(event -> {
+                    assertThat(event.data().getOperation()).isEqualTo("save");
+                    assertThat(event.data().getDocument()).isEqualTo(savedCategory);
+                    assertThat(event.id()).isEqualTo(event.data().getResumeToken());
+                })
+                .assertNext(event -> {
+                    assertThat(event.data().getOperation()).isEqualTo("delete");
+                    assertThat(event.data().getDocumentId()).isEqualTo("id2");
+                })
+                .thenCancel()
+                .verify();
+    }
+
     @Test
     void getById() {
         //given
@@ -83,11 +364,141 @@ class CategoryControllerTest {
                 .isEqualTo(stubCategory);
     }
 
+    @Test
+    void getById_whenAbsent() {
+        //given
+        given(categoryRepository.findById(anyString())).willReturn(Mono.empty());
+        //when
+        webTestClient.get().uri(BASE_URL + "/{id}", "staleId")
+                .accept(APPLICATION_JSON)
+                .exchange()
+                //then
+                .expectStatus().isNotFound()
+                .expectHeader().contentType(APPLICATION_PROBLEM_JSON)
+                .expectBody(Problem.class)
+                .value(problem -> {
+                    assertThat(problem.getStatus()).isEqualTo(404);
+                    assertThat(problem.getDetail()).isEqualTo("Category with id `staleId` not found");
+                    assertThat(problem.getInstance()).isEqualTo(BASE_URL + "/staleId");
+                });
+    }
+
+    @Test
+    void getById_servedFromCacheOnSecondCall() {
+        //given
+        Category stubCategory = Category.builder().id("foo").name("bar").build();
+        given(categoryRepository.findById(anyString())).willReturn(Mono.just(stubCategory));
+
+        //when
+        for (int i = 0; i < 2; i++) {
+            webTestClient.get().uri(BASE_URL + "/{id}", "foo")
+                    .accept(APPLICATION_JSON)
+                    .exchange()
+                    //then
+                    .expectStatus().isOk()
+                    .expectBody(Category.class)
+                    .isEqualTo(stubCategory);
+        }
+        then(categoryRepository).should(times(1)).findById(eq("foo"));
+        assertThat(categoryCache.statistics().getHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void getById_exposesVersionAsETag() {
+        //given
+        Category stubCategory = Category.builder().id("foo").name("bar").version(3L).build();
+        given(categoryRepository.findById(anyString())).willReturn(Mono.just(stubCategory));
+
+        //when
+        webTestClient.get().uri(BASE_URL + "/{id}", "foo")
+                .accept(APPLICATION_JSON)
+                .exchange()
+                //then
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(ETAG, "\"3\"");
+    }
+
+    @Test
+    void getById_whenUnchanged_notModified() {
+        //given
+        Category stubCategory = Category.builder().id("foo").name("bar").version(3L).build();
+        given(categoryRepository.findById(anyString())).willReturn(Mono.just(stubCategory));
+
+        //when
+        webTestClient.get().uri(BASE_URL + "/{id}", "foo")
+                .header(IF_NONE_MATCH, "\"3\"")
+                .exchange()
+
+                //then
+                .expectStatus().isNotModified()
+                .expectBody().isEmpty();
+    }
+
+    @Test
+    void getById_ifModifiedSince_notModified() {
+        //given
+        Instant lastModified = Instant.parse("2020-09-13T12:26:40.123Z");
+        Category stubCategory = Category.builder().id("foo").name("bar").version(3L).lastModified(lastModified).build();
+        given(categoryRepository.findById(anyString())).willReturn(Mono.just(stubCategory));
+
+        //when
+        webTestClient.get().uri(BASE_URL + "/{id}", "foo")
+                .ifModifiedSince(lastModified.truncatedTo(ChronoUnit.SECONDS).atZone(ZoneOffset.UTC))
+                .exchange()
+
+                //then
+                .expectStatus().isNotModified()
+                .expectBody().isEmpty();
+    }
+
+    @Test
+    void getById_secondOfLastWriteNotOver_noLastModified() {
+        //given
+        // a write later in the same second could share the date, so only the tag validates
+        Instant lastModified = Instant.now().plusSeconds(2);
+        Category stubCategory = Category.builder().id("foo").name("bar").version(3L).lastModified(lastModified).build();
+        given(categoryRepository.findById(anyString())).willReturn(Mono.just(stubCategory));
+
+        //when
+        webTestClient.get().uri(BASE_URL + "/{id}", "foo")
+                .exchange()
+
+                //then
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(ETAG, "\"3\"")
+                .expectHeader().doesNotExist(LAST_MODIFIED);
+    }
+
+    @Test
+    void updateCategoryUsingPut_refreshesCache() {
+        //given
+        Category repoCategory = Category.builder().id("someId").name("Foo").version(0L).build();
+        Category categoryToUpdate = Category.builder().id("someId").name("Bar").version(1L).build();
+        given(categoryRepository.findById(anyString())).willReturn(Mono.just(repoCategory));
+        given(categoryRepository.replace(anyString(), any(Category.class), any())).willReturn(Mono.just(categoryToUpdate));
+        categoryCache.get("someId").block();
+
+        //when
+        webTestClient.put().uri(BASE_URL + "/{id}", "someId")
+                .contentType(APPLICATION_JSON)
+                .bodyValue(categoryToUpdate)
+                .exchange()
+                .expectStatus().isOk();
+
+        //then
+        webTestClient.get().uri(BASE_URL + "/{id}", "someId")
+                .accept(APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(Category.class)
+                .isEqualTo(categoryToUpdate);
+    }
+
     @Test
     void createCategory_single() {
         //given
         Category categoryToSave = Category.builder().id("myId").name("myName").build();
-        given(categoryRepository.saveAll(any(Publisher.class))).willReturn(Flux.just(categoryToSave));
+        given(categoryRepository.save(any(Category.class))).willReturn(Mono.just(categoryToSave));
 
         //when
         webTestClient
@@ -101,14 +512,18 @@ class CategoryControllerTest {
                 .expectBodyList(Category.class)
                 .hasSize(1)
                 .value(list -> assertThat(list.get(0)).isEqualTo(categoryToSave));
-        then(categoryRepository).should().saveAll(any(Publisher.class));
+        then(categoryRepository).should().save(any(Category.class));
     }
 
     @Test
     void createCategory_multiple() {
         //given
         List<Category> stubCategories = IntStream.rangeClosed(1, SIZE).mapToObj(this::createStubCategory).collect(toList());
-        given(categoryRepository.saveAll(any(Publisher.class))).willReturn(Flux.fromIterable(stubCategories));
+        given(categoryRepository.save(any(Category.class))).willAnswer(invocation -> {
+            Category category = invocation.getArgument(0);
+            category.setLastModified(null);
+            return Mono.just(category);
+        });
 
         //when
         webTestClient
@@ -122,16 +537,39 @@ class CategoryControllerTest {
                 .expectBodyList(Category.class)
                 .hasSize(SIZE)
                 .isEqualTo(stubCategories);
-        then(categoryRepository).should().saveAll(any(Publisher.class));
+        then(categoryRepository).should(times(SIZE)).save(any(Category.class));
+    }
+
+    @Test
+    void bulkCreate() {
+        //given
+        List<Category> stubCategories = IntStream.rangeClosed(1, SIZE).mapToObj(this::createStubCategory).collect(toList());
+        given(bulkInserter.insert(any(Publisher.class), eq(Category.class))).willReturn(Flux.just(
+                BulkItemResult.builder().index(0).id("id1").build(),
+                BulkItemResult.builder().index(1).id("id2").error("E11000 duplicate key error").build()));
+
+        //when
+        webTestClient
+                .post()
+                .uri(BASE_URL + "/_bulk")
+                .contentType(APPLICATION_JSON)
+                .bodyValue(stubCategories)
+                .exchange()
+                //then
+                .expectStatus().isOk()
+                .expectBodyList(BulkItemResult.class)
+                .hasSize(2)
+                .value(results -> assertThat(results.get(1).getError()).contains("duplicate"));
+        then(bulkInserter).should().insert(any(Publisher.class), eq(Category.class));
+        then(categoryRepository).shouldHaveNoInteractions();
     }
 
     @Test
     void updateCategoryUsingPut_whenPresent() {
         //given
-        Category repoCategory = Category.builder().id("someId").name("Foo").build();
-        Category categoryToUpdate = Category.builder().id("someId").name("Bar").build();
-        given(categoryRepository.findById(anyString())).willReturn(Mono.just(repoCategory));
-        given(categoryRepository.save(any(Category.class))).willReturn(Mono.just(categoryToUpdate));
+        Category categoryToUpdate = Category.builder().name("Bar").build();
+        Category updatedCategory = Category.builder().id("someId").name("Bar").version(1L).build();
+        given(categoryRepository.replace(anyString(), any(Category.class), any())).willReturn(Mono.just(updatedCategory));
 
         //when
         webTestClient.put().uri(BASE_URL + "/{id}", "someId")
@@ -141,17 +579,19 @@ class CategoryControllerTest {
                 //then
                 .expectStatus().isOk()
                 .expectHeader().contentType(APPLICATION_JSON)
+                .expectHeader().valueEquals(ETAG, "\"1\"")
                 .expectBody(Category.class)
-                .isEqualTo(categoryToUpdate);
-        then(categoryRepository).should().findById(eq("someId"));
-        then(categoryRepository).should().save(eq(categoryToUpdate));
+                .isEqualTo(updatedCategory);
+        then(categoryRepository).should().replace(eq("someId"), refEq(categoryToUpdate, "lastModified"), isNull());
+        then(categoryRepository).should(never()).findById(anyString());
+        then(categoryRepository).should(never()).save(any());
     }
 
     @Test
     void updateCategoryUsingPut_whenAbsent() {
         //given
         Category categoryToUpdate = Category.builder().id("someId").name("Bar").build();
-        given(categoryRepository.findById(anyString())).willReturn(Mono.empty());
+        given(categoryRepository.replace(anyString(), any(Category.class), any())).willReturn(Mono.empty());
 
         //when
         webTestClient.put().uri(BASE_URL + "/{id}", "someId")
@@ -159,40 +599,57 @@ class CategoryControllerTest {
                 .bodyValue(categoryToUpdate)
                 .exchange()
                 //then
-                .expectStatus().is5xxServerError();
-        then(categoryRepository).should().findById(eq("someId"));
+                .expectStatus().isNotFound()
+                .expectHeader().contentType(APPLICATION_PROBLEM_JSON);
+        then(categoryRepository).should().replace(eq("someId"), any(Category.class), isNull());
         then(categoryRepository).should(never()).save(any());
     }
 
+    @Test
+    void updateCategoryUsingPut_whenVersionIsStale() {
+        //given
+        Category categoryToUpdate = Category.builder().name("Bar").build();
+        given(categoryRepository.replace(anyString(), any(Category.class), any()))
+                .willReturn(Mono.error(new OptimisticLockingFailureException("stale")));
+
+        //when
+        webTestClient.put().uri(BASE_URL + "/{id}", "someId")
+                .contentType(APPLICATION_JSON)
+                .header(IF_MATCH, "\"4\"")
+                .bodyValue(categoryToUpdate)
+                .exchange()
+                //then
+                .expectStatus().isEqualTo(PRECONDITION_FAILED);
+        then(categoryRepository).should().replace(eq("someId"), refEq(categoryToUpdate, "lastModified"), eq(4L));
+    }
 
     @Test
     void updateCategoryNameUsingPatch_whenPresent() {
         //given
-        Category repoCategory = Category.builder().id("someId").name("Foo").build();
-        Category categoryToUpdate = Category.builder().id("someId").name("Art").build();
-        given(categoryRepository.findById(anyString())).willReturn(Mono.just(repoCategory));
-        given(categoryRepository.save(any(Category.class))).willReturn(Mono.just(categoryToUpdate));
+        Category updatedCategory = Category.builder().id("someId").name("Art").version(5L).build();
+        given(categoryRepository.patch(anyString(), any(Category.class), any())).willReturn(Mono.just(updatedCategory));
 
         //when
         webTestClient.patch().uri(BASE_URL + "/{id}", "someId")
                 .contentType(APPLICATION_JSON)
+                .header(IF_MATCH, "\"4\"")
                 .bodyValue("{\"name\":\"Art\"}")
                 .exchange()
                 //then
                 .expectStatus().isOk()
                 .expectHeader().contentType(APPLICATION_JSON)
+                .expectHeader().valueEquals(ETAG, "\"5\"")
                 .expectBody(Category.class)
-                .isEqualTo(categoryToUpdate);
-        then(categoryRepository).should().findById(eq("someId"));
-        then(categoryRepository).should().save(eq(categoryToUpdate));
+                .isEqualTo(updatedCategory);
+        then(categoryRepository).should().patch(eq("someId"), refEq(Category.builder().name("Art").build(), "lastModified"), eq(4L));
+        then(categoryRepository).should(never()).save(any());
     }
 
-
     @Test
     void updateCategoryUsingPatch_whenAbsent() {
         //given
         Category categoryToUpdate = Category.builder().id("someId").name("Bar").build();
-        given(categoryRepository.findById(anyString())).willReturn(Mono.empty());
+        given(categoryRepository.patch(anyString(), any(Category.class), any())).willReturn(Mono.empty());
 
         //when
         webTestClient.patch().uri(BASE_URL + "/{id}", "someId")
@@ -200,11 +657,24 @@ class CategoryControllerTest {
                 .bodyValue(categoryToUpdate)
                 .exchange()
                 //then
-                .expectStatus().is5xxServerError();
-        then(categoryRepository).should().findById(eq("someId"));
+                .expectStatus().isNotFound()
+                .expectHeader().contentType(APPLICATION_PROBLEM_JSON);
+        then(categoryRepository).should().patch(eq("someId"), any(Category.class), isNull());
         then(categoryRepository).should(never()).save(any());
     }
 
+    @Test
+    void updateCategoryUsingPatch_whenIfMatchIsNotAVersion() {
+        //when
+        webTestClient.patch().uri(BASE_URL + "/{id}", "someId")
+                .contentType(APPLICATION_JSON)
+                .header(IF_MATCH, "W/\"4\"")
+                .bodyValue("{\"name\":\"Art\"}")
+                .exchange()
+                //then
+                .expectStatus().isEqualTo(PRECONDITION_FAILED);
+        then(categoryRepository).shouldHaveNoInteractions();
+    }
 
     private Category createStubCategory(int stubId) {
         return Category.builder()
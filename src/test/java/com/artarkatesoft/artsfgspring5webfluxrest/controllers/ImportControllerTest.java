@@ -0,0 +1,111 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.controllers;
+
+import com.artarkatesoft.artsfgspring5webfluxrest.bulk.BulkInserter;
+import com.artarkatesoft.artsfgspring5webfluxrest.changes.CollectionVersions;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.BulkItemResult;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.Category;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.ImportSummary;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.Vendor;
+import com.artarkatesoft.artsfgspring5webfluxrest.importer.Importer;
+import com.artarkatesoft.artsfgspring5webfluxrest.importer.JsonRecordReader;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.reactivestreams.Publisher;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+import static com.artarkatesoft.artsfgspring5webfluxrest.config.WebFluxConfig.APPLICATION_NDJSON;
+import static com.artarkatesoft.artsfgspring5webfluxrest.controllers.ImportController.BASE_URL;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+
+@ExtendWith(MockitoExtension.class)
+class ImportControllerTest {
+
+    @Mock
+    BulkInserter bulkInserter;
+
+    WebTestClient webTestClient;
+
+    @BeforeEach
+    void setUp() {
+        Importer importer = new Importer(new JsonRecordReader(Jackson2ObjectMapperBuilder.json().build()), bulkInserter,
+                new CollectionVersions());
+        webTestClient = WebTestClient.bindToController(new ImportController(importer)).build();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importJson_wrappedCategories() {
+        //given
+        given(bulkInserter.insert(any(Publisher.class), eq(Category.class))).willAnswer(invocation -> {
+            Publisher<Category> categories = invocation.getArgument(0);
+            return Flux.from(categories)
+                    .index()
+                    .map(indexed -> BulkItemResult.builder()
+                            .index(indexed.getT1())
+                            .error(indexed.getT2().getName().equals("Nuts") ? "duplicate" : null)
+                            .build());
+        });
+
+        //when
+        webTestClient.post().uri(BASE_URL + "?collection=categories")
+                .contentType(APPLICATION_JSON)
+                .bodyValue("{\"categories\":[{\"name\":\"Fruits\"},{\"name\":\"Nuts\"},{\"name\":\"Dried\"}]}")
+                .exchange()
+
+                //then
+                .expectStatus().isOk()
+                .expectBody(ImportSummary.class)
+                .isEqualTo(new ImportSummary("categories", 2, 1));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importNdjson_vendors() {
+        //given
+        given(bulkInserter.insert(any(Publisher.class), eq(Vendor.class))).willAnswer(invocation -> {
+            Publisher<Vendor> vendors = invocation.getArgument(0);
+            return Flux.from(vendors).collectList()
+                    .doOnNext(list -> assertThat(list).extracting(Vendor::getFirstName).containsExactly("Joe", "Art"))
+                    .doOnNext(list -> assertThat(list).extracting(Vendor::getLastModified).doesNotContainNull())
+                    .flatMapIterable(list -> list)
+                    .map(vendor -> BulkItemResult.builder().build());
+        });
+
+        //when
+        webTestClient.post().uri(BASE_URL + "?collection=vendors")
+                .contentType(APPLICATION_NDJSON)
+                .bodyValue("{\"firstName\":\"Joe\"}\n{\"firstName\":\"Art\"}\n")
+                .exchange()
+
+                //then
+                .expectStatus().isOk()
+                .expectBody(ImportSummary.class)
+                .isEqualTo(new ImportSummary("vendors", 2, 0));
+        then(bulkInserter).should().insert(any(Publisher.class), eq(Vendor.class));
+    }
+
+    @Test
+    void import_unknownCollection() {
+        //when
+        webTestClient.post().uri(BASE_URL + "?collection=users")
+                .contentType(APPLICATION_JSON)
+                .bodyValue("[]")
+                .exchange()
+
+                //then
+                .expectStatus().isBadRequest();
+        then(bulkInserter).shouldHaveNoInteractions();
+    }
+}
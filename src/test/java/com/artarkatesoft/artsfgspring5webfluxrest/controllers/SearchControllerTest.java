@@ -0,0 +1,69 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.controllers;
+
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.Category;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.SearchHit;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.Vendor;
+import com.artarkatesoft.artsfgspring5webfluxrest.search.SearchIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import static com.artarkatesoft.artsfgspring5webfluxrest.controllers.SearchController.BASE_URL;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.springframework.http.MediaType.APPLICATION_PROBLEM_JSON;
+
+class SearchControllerTest {
+
+    WebTestClient webTestClient;
+
+    @BeforeEach
+    void setUp() {
+        SearchIndex searchIndex = new SearchIndex();
+        searchIndex.put(Category.builder().id("c1").name("Fruits").build());
+        searchIndex.put(Category.builder().id("c2").name("Nuts").build());
+        searchIndex.put(Vendor.builder().id("v1").firstName("Frank").lastName("Nutter").build());
+        webTestClient = WebTestClient.bindToController(new SearchController(searchIndex))
+                .controllerAdvice(new ProblemExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void search_rankedAcrossCategoriesAndVendors() {
+        //when
+        webTestClient.get().uri(BASE_URL + "?q={q}", "nut")
+                .exchange()
+
+                //then
+                .expectStatus().isOk()
+                .expectBodyList(SearchHit.class)
+                .value(hits -> assertThat(hits)
+                        .extracting(SearchHit::getType, SearchHit::getId, SearchHit::getText)
+                        .containsExactly(
+                                tuple("category", "c2", "Nuts"),
+                                tuple("vendor", "v1", "Frank Nutter")));
+    }
+
+    @Test
+    void search_limit() {
+        //when
+        webTestClient.get().uri(BASE_URL + "?q=fr&limit=1")
+                .exchange()
+
+                //then
+                .expectStatus().isOk()
+                .expectBodyList(SearchHit.class)
+                .value(hits -> assertThat(hits).extracting(SearchHit::getId).containsExactly("c1"));
+    }
+
+    @Test
+    void search_limitTooLarge_badRequest() {
+        //when
+        webTestClient.get().uri(BASE_URL + "?q=fr&limit=1000")
+                .exchange()
+
+                //then
+                .expectStatus().isBadRequest()
+                .expectHeader().contentType(APPLICATION_PROBLEM_JSON);
+    }
+}
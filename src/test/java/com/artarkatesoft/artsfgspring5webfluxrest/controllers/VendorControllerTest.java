@@ -1,31 +1,76 @@
 package com.artarkatesoft.artsfgspring5webfluxrest.controllers;
 
+import com.artarkatesoft.artsfgspring5webfluxrest.bulk.BulkInserter;
+import com.artarkatesoft.artsfgspring5webfluxrest.cache.VendorCache;
+import com.artarkatesoft.artsfgspring5webfluxrest.changes.CollectionVersions;
+import com.artarkatesoft.artsfgspring5webfluxrest.changes.InMemoryChangeFeed;
+import com.artarkatesoft.artsfgspring5webfluxrest.config.WebFluxConfig;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.BatchGetItem;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.BatchGetRequest;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.BulkItemResult;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.ChangeEvent;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.Problem;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.SearchHit;
 import com.artarkatesoft.artsfgspring5webfluxrest.domain.Vendor;
+import com.artarkatesoft.artsfgspring5webfluxrest.repositories.ListQuery;
 import com.artarkatesoft.artsfgspring5webfluxrest.repositories.VendorRepository;
+import com.artarkatesoft.artsfgspring5webfluxrest.repositories.VersionedUpdateRepositoryImpl;
+import com.artarkatesoft.artsfgspring5webfluxrest.search.SearchIndex;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.reactivestreams.Publisher;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.event.MongoMappingEvent;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.test.web.reactive.server.FluxExchangeResult;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.IntStream;
 
+import static com.artarkatesoft.artsfgspring5webfluxrest.config.WebFluxConfig.APPLICATION_CBOR;
+import static com.artarkatesoft.artsfgspring5webfluxrest.config.WebFluxConfig.APPLICATION_NDJSON;
+import static com.artarkatesoft.artsfgspring5webfluxrest.config.WebFluxConfig.APPLICATION_SMILE;
 import static com.artarkatesoft.artsfgspring5webfluxrest.controllers.VendorController.BASE_URL;
 import static java.util.stream.Collectors.toList;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.then;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.springframework.http.HttpHeaders.ETAG;
+import static org.springframework.http.HttpHeaders.IF_MATCH;
+import static org.springframework.http.HttpStatus.PAYLOAD_TOO_LARGE;
+import static org.springframework.http.HttpStatus.PRECONDITION_FAILED;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.http.MediaType.APPLICATION_PROBLEM_JSON;
+import static org.springframework.http.MediaType.TEXT_EVENT_STREAM;
 
 @ExtendWith(MockitoExtension.class)
 class VendorControllerTest {
@@ -37,12 +82,34 @@ class VendorControllerTest {
     @Mock
     VendorRepository vendorRepository;
 
-    @InjectMocks
+    @Mock
+    BulkInserter bulkInserter;
+
+    @Mock
+    ReactiveMongoTemplate mongoTemplate;
+
+    InMemoryChangeFeed changeFeed;
+
+    SearchIndex searchIndex;
+
     VendorController vendorController;
 
     @BeforeEach
     void setUp() {
-        webTestClient = WebTestClient.bindToController(vendorController).build();
+        changeFeed = new InMemoryChangeFeed();
+        searchIndex = new SearchIndex();
+        vendorController = new VendorController(vendorRepository,
+                new VendorCache(vendorRepository, 100, Duration.ofMinutes(1), 1, Duration.ZERO),
+                changeFeed, bulkInserter, new CollectionVersions(), searchIndex);
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        webTestClient = WebTestClient.bindToController(vendorController)
+                .controllerAdvice(new ProblemExceptionHandler())
+                .httpMessageCodecs(configurer -> WebFluxConfig.configureJacksonCodecs(configurer, objectMapper,
+                        Jackson2ObjectMapperBuilder::json))
+                .configureClient()
+                .codecs(configurer -> WebFluxConfig.configureJacksonCodecs(configurer, objectMapper,
+                        Jackson2ObjectMapperBuilder::json))
+                .build();
 
     }
 
@@ -68,6 +135,249 @@ class VendorControllerTest {
         then(vendorRepository).should().findAll();
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    void list_filteredProjectedAndSorted() {
+
+        //given
+        List<Vendor> stubVendorList = IntStream
+                .rangeClosed(1, SIZE).mapToObj(this::createStubVendor).collect(toList());
+        given(vendorRepository.search(any())).willReturn(Flux.fromIterable(stubVendorList));
+
+        //when
+        webTestClient.get().uri(BASE_URL + "?lastName=Last*&fields=firstName,lastName&sort=-lastName,-firstName")
+                .accept(APPLICATION_JSON)
+                .exchange()
+
+                //then
+                .expectStatus().isOk()
+                .expectBodyList(Vendor.class)
+                .hasSize(SIZE);
+        ArgumentCaptor<ListQuery<Vendor>> queryCaptor = ArgumentCaptor.forClass(ListQuery.class);
+        then(vendorRepository).should().search(queryCaptor.capture());
+        then(vendorRepository).should(never()).findAll();
+        ListQuery<Vendor> query = queryCaptor.getValue();
+        assertThat(query.getFilters()).containsExactly(entry("lastName", "Last*"));
+        assertThat(query.getFields()).containsExactly("firstName", "lastName");
+        assertThat(query.getSort()).isEqualTo(Sort.by(Sort.Order.desc("lastName"), Sort.Order.desc("firstName")));
+    }
+
+    @Test
+    void list_sortOnNonIndexedProperty_badRequest() {
+
+        //when
+        webTestClient.get().uri(BASE_URL + "?sort=id")
+                .accept(APPLICATION_JSON)
+                .exchange()
+
+                //then
+                .expectStatus().isBadRequest();
+        then(vendorRepository).shouldHaveNoInteractions();
+    }
+
+    @Test
+    void list_mixedDirectionSort_badRequest() {
+
+        //when
+        webTestClient.get().uri(BASE_URL + "?sort=lastName,-firstName")
+                .accept(APPLICATION_JSON)
+                .exchange()
+
+                //then
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.detail").isEqualTo("Sort properties must share one direction");
+        then(vendorRepository).shouldHaveNoInteractions();
+    }
+
+    @Test
+    void list_fieldsOnNonIndexedProperty_badRequest() {
+
+        //when
+        webTestClient.get().uri(BASE_URL + "?fields=class")
+                .accept(APPLICATION_JSON)
+                .exchange()
+
+                //then
+                .expectStatus().isBadRequest();
+        then(vendorRepository).shouldHaveNoInteractions();
+    }
+
+    @Test
+    void list_bareWildcardFilter_badRequest() {
+
+        //when
+        webTestClient.get().uri(BASE_URL + "?firstName=*")
+                .accept(APPLICATION_JSON)
+                .exchange()
+
+                //then
+                .expectStatus().isBadRequest();
+        then(vendorRepository).shouldHaveNoInteractions();
+    }
+
+    @Test
+    void stream_ndjson() {
+        //given
+        List<Vendor> stubVendorList = IntStream
+                .rangeClosed(1, SIZE).mapToObj(this::createStubVendor).collect(toList());
+        given(vendorRepository.streamAllByOrderByIdAsc()).willReturn(Flux.fromIterable(stubVendorList));
+
+        //when
+        webTestClient.get().uri(BASE_URL)
+                .accept(APPLICATION_NDJSON)
+                .exchange()
+
+                //then
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(APPLICATION_NDJSON)
+                .expectBody(String.class)
+                .value(body -> assertThat(body.split("\n")).hasSize(SIZE));
+        then(vendorRepository).should().streamAllByOrderByIdAsc();
+        then(vendorRepository).should(never()).findAll();
+    }
+
+    @Test
+    void stream_withListParameters_badRequest() {
+        //when
+        webTestClient.get().uri(BASE_URL + "?lastName=Sm*&fields=firstName")
+                .accept(APPLICATION_NDJSON)
+                .exchange()
+
+                //then
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.detail").isEqualTo("`lastName` cannot be combined with a streaming response");
+        then(vendorRepository).shouldHaveNoInteractions();
+    }
+
+    @Test
+    void page() {
+        //given
+        List<Vendor> stubVendorList = IntStream
+                .rangeClosed(1, SIZE).mapToObj(this::createStubVendor).collect(toList());
+        given(vendorRepository.findByIdGreaterThanOrderByIdAsc(anyString(), any(Pageable.class)))
+                .willReturn(Flux.fromIterable(stubVendorList.subList(1, SIZE)));
+
+        //when
+        webTestClient.get().uri(BASE_URL + "?limit={limit}&after={after}", 2, Cursors.encode("id1"))
+                .accept(APPLICATION_JSON)
+                .exchange()
+
+                //then
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.content.length()").isEqualTo(2)
+                .jsonPath("$.content[0].id").isEqualTo("id2")
+                .jsonPath("$.nextCursor").isEqualTo(Cursors.encode("id3"));
+        then(vendorRepository).should().findByIdGreaterThanOrderByIdAsc(eq("id1"), eq(PageRequest.of(0, 3)));
+        then(vendorRepository).should(never()).findAll();
+    }
+
+    @Test
+    void page_malformedCursor() {
+        //when
+        webTestClient.get().uri(BASE_URL + "?limit=2&after={after}", "not*base64")
+                .accept(APPLICATION_JSON)
+                .exchange()
+
+                //then
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void page_withListParameters_badRequest() {
+        //when
+        webTestClient.get().uri(BASE_URL + "?lastName=Sm*&sort=firstName&limit=10")
+                .accept(APPLICATION_JSON)
+                .exchange()
+
+                //then
+                .expectStatus().isBadRequest()
+                .expectHeader().contentType(APPLICATION_PROBLEM_JSON)
+                .expectBody()
+                .jsonPath("$.detail").isEqualTo("`lastName` cannot be combined with `limit`");
+        then(vendorRepository).shouldHaveNoInteractions();
+    }
+
+    @Test
+    void changes_resumeAfter() {
+        //given
+        changeFeed.publish(Vendor.class, "save", "id1", createStubVendor(1));
+        Vendor updatedVendor = createStubVendor(2);
+        changeFeed.publish(Vendor.class, "save", updatedVendor.getId(), updatedVendor);
+
+        //when
+        Flux<ServerSentEvent<ChangeEvent<Vendor>>> responseBody = webTestClient.get()
+                .uri(BASE_URL + "/changes?resumeAfter={token}", "1")
+                .accept(TEXT_EVENT_STREAM)
+                .exchange()
+
+                //then
+                .expectStatus().isOk()
+                .returnResult(new ParameterizedTypeReference<ServerSentEvent<ChangeEvent<Vendor>>>() {
+                })
+                .getResponseBody();
+        StepVerifier.create(responseBody)
+                .assertNext(event -> {
+                    assertThat(event.id()).isEqualTo("2");
+                    assertThat(event.data().getDocument()).isEqualTo(updatedVendor);
+                })
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void changes_afterPatchOnMongo() {
+        //given
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, new MongoMappingContext());
+        converter.afterPropertiesSet();
+        given(mongoTemplate.getConverter()).willReturn(converter);
+        Vendor patchedVendor = Vendor.builder().id("someId").firstName("Art").lastName("Buck").version(3L).build();
+        given(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(Vendor.class)))
+                .willReturn(Mono.just(patchedVendor));
+        VersionedUpdateRepositoryImpl<Vendor> updates = new VersionedUpdateRepositoryImpl<>(mongoTemplate,
+                event -> changeFeed.onApplicationEvent((MongoMappingEvent<?>) event));
+        given(vendorRepository.patch(anyString(), any(Vendor.class), any())).willAnswer(invocation ->
+                updates.patch(invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2)));
+        webTestClient.patch().uri(BASE_URL + "/{id}", "someId")
+                .bodyValue(Vendor.builder().firstName("Art").build())
+                .exchange()
+                .expectStatus().isOk();
+
+        //when
+        Flux<ServerSentEvent<ChangeEvent<Vendor>>> responseBody = webTestClient.get()
+                .uri(BASE_URL + "/changes?resumeAfter={token}", "0")
+                .accept(TEXT_EVENT_STREAM)
+                .exchange()
+
+                //then
+                .expectStatus().isOk()
+                .returnResult(new ParameterizedTypeReference<ServerSentEvent<ChangeEvent<Vendor>>>() {
+                })
+                .getResponseBody();
+        StepVerifier.create(responseBody)
+                .assertNext(event -> {
+                    assertThat(event.data().getOperation()).isEqualTo("save");
+                    assertThat(event.data().getDocumentId()).isEqualTo("someId");
+                    assertThat(event.data().getDocument()).isEqualTo(patchedVendor);
+                })
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void changes_malformedResumeToken() {
+        //when
+        webTestClient.get()
+                .uri(BASE_URL + "/changes?resumeAfter={token}", "not-a-number")
+                .accept(TEXT_EVENT_STREAM)
+                .exchange()
+
+                //then
+                .expectStatus().isBadRequest();
+    }
+
     @Test
     void findById() {
         //given
@@ -84,11 +394,31 @@ class VendorControllerTest {
         then(vendorRepository).should().findById(eq("someId"));
     }
 
+    @Test
+    void findById_whenAbsent() {
+        //given
+        given(vendorRepository.findById(anyString())).willReturn(Mono.empty());
+        //when
+        webTestClient.get().uri(BASE_URL + "/{id}", "staleId")
+                .exchange()
+                //then
+                .expectStatus().isNotFound()
+                .expectHeader().contentType(APPLICATION_PROBLEM_JSON)
+                .expectBody(Problem.class)
+                .isEqualTo(Problem.builder()
+                        .type(Problem.UNTYPED)
+                        .title("Not Found")
+                        .status(404)
+                        .detail("Vendor with id `staleId` not found")
+                        .instance(BASE_URL + "/staleId")
+                        .build());
+    }
+
     @Test
     void createVendor_single() {
         //given
         Vendor vendorToSave = createStubVendor(1);
-        given(vendorRepository.saveAll(any(Publisher.class))).willReturn(Flux.just(vendorToSave));
+        given(vendorRepository.save(any(Vendor.class))).willReturn(Mono.just(vendorToSave));
         //when
         FluxExchangeResult<Vendor> result = webTestClient
                 .post()
@@ -105,14 +435,15 @@ class VendorControllerTest {
         StepVerifier.create(responseBody)
                 .expectNext(vendorToSave)
                 .verifyComplete();
-        then(vendorRepository).should().saveAll(any(Publisher.class));
+        then(vendorRepository).should().save(any(Vendor.class));
+        assertThat(searchIndex.search("first1", 10)).extracting(SearchHit::getId).containsExactly("id1");
     }
 
     @Test
     void createVendor_multi() {
         //given
         List<Vendor> vendorList = IntStream.rangeClosed(1, 3).mapToObj(this::createStubVendor).collect(toList());
-        given(vendorRepository.saveAll(any(Publisher.class))).willReturn(Flux.fromIterable(vendorList));
+        given(vendorRepository.save(any(Vendor.class))).willAnswer(invocation -> Mono.just(invocation.getArgument(0)));
         //when
         FluxExchangeResult<Vendor> result = webTestClient
                 .post()
@@ -129,16 +460,166 @@ class VendorControllerTest {
         StepVerifier.create(responseBody)
                 .expectNextCount(3)
                 .verifyComplete();
-        then(vendorRepository).should().saveAll(any(Publisher.class));
+        then(vendorRepository).should(times(3)).save(any(Vendor.class));
+    }
+
+    @Test
+    void createVendor_large_boundsSavesInFlight() {
+        //given
+        List<Vendor> vendorList = IntStream.rangeClosed(1, 40).mapToObj(this::createStubVendor).collect(toList());
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        given(vendorRepository.save(any(Vendor.class))).willAnswer(invocation -> Mono.delay(Duration.ofMillis(10))
+                .thenReturn(invocation.<Vendor>getArgument(0))
+                .doOnSubscribe(subscription -> maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max))
+                .doFinally(signal -> inFlight.decrementAndGet()));
+        //when
+        webTestClient
+                .post()
+                .uri(BASE_URL)
+                .contentType(APPLICATION_JSON)
+                .body(Flux.fromIterable(vendorList), Vendor.class)
+                .exchange()
+                //then
+                .expectStatus().isCreated()
+                .expectBodyList(Vendor.class)
+                .value(vendors -> assertThat(vendors).extracting(Vendor::getId)
+                        .isEqualTo(vendorList.stream().map(Vendor::getId).collect(toList())));
+        assertThat(maxInFlight.get()).isBetween(1, VendorController.MAX_CONCURRENT_SAVES);
+    }
+
+    @Test
+    void createVendor_cborArray() {
+        //given
+        List<Vendor> vendorList = IntStream.rangeClosed(1, 3).mapToObj(this::createStubVendor).collect(toList());
+        given(vendorRepository.save(any(Vendor.class))).willAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        //when
+        webTestClient
+                .post()
+                .uri(BASE_URL)
+                .contentType(APPLICATION_CBOR)
+                .accept(APPLICATION_CBOR)
+                .bodyValue(vendorList)
+                .exchange()
+                //then
+                .expectStatus().isCreated()
+                .expectHeader().contentType(APPLICATION_CBOR)
+                .expectBodyList(Vendor.class)
+                .value(vendors -> assertThat(vendors)
+                        .usingElementComparatorIgnoringFields("lastModified")
+                        .isEqualTo(vendorList));
+    }
+
+    @Test
+    void createVendor_cborValueOverLimit_payloadTooLarge() {
+        //given
+        char[] name = new char[300 * 1024];
+        Arrays.fill(name, 'a');
+        Vendor vendor = Vendor.builder().firstName(new String(name)).lastName("Last").build();
+        //when
+        webTestClient
+                .post()
+                .uri(BASE_URL)
+                .contentType(APPLICATION_CBOR)
+                .bodyValue(Arrays.asList(vendor, createStubVendor(1)))
+                .exchange()
+                //then
+                .expectStatus().isEqualTo(PAYLOAD_TOO_LARGE)
+                .expectHeader().contentType(APPLICATION_PROBLEM_JSON)
+                .expectBody(Problem.class)
+                .value(problem -> assertThat(problem.getStatus()).isEqualTo(413));
+        then(vendorRepository).should(never()).save(any(Vendor.class));
+    }
+
+    @Test
+    void list_smile() {
+        //given
+        List<Vendor> vendorList = IntStream.rangeClosed(1, SIZE).mapToObj(this::createStubVendor).collect(toList());
+        given(vendorRepository.findAll()).willReturn(Flux.fromIterable(vendorList));
+        //when
+        webTestClient.get().uri(BASE_URL)
+                .accept(APPLICATION_SMILE)
+                .exchange()
+                //then
+                .expectStatus().isOk()
+                .expectHeader().contentType(APPLICATION_SMILE)
+                .expectBodyList(Vendor.class)
+                .isEqualTo(vendorList);
+    }
+
+    @Test
+    void bulkCreate_ndjson() {
+        //given
+        List<Vendor> vendorList = IntStream.rangeClosed(1, 3).mapToObj(this::createStubVendor).collect(toList());
+        given(bulkInserter.insert(any(Publisher.class), eq(Vendor.class))).willReturn(Flux.range(0, 3)
+                .map(i -> BulkItemResult.builder().index(i).id("id" + i).build()));
+
+        //when
+        FluxExchangeResult<BulkItemResult> result = webTestClient
+                .post()
+                .uri(BASE_URL + "/_bulk")
+                .contentType(APPLICATION_NDJSON)
+                .body(Flux.fromIterable(vendorList), Vendor.class)
+                .exchange()
+                //then
+                .expectStatus().isOk()
+                .returnResult(BulkItemResult.class);
+
+        StepVerifier.create(result.getResponseBody())
+                .expectNextCount(3)
+                .verifyComplete();
+        then(vendorRepository).shouldHaveNoInteractions();
+    }
+
+    @Test
+    void batchGet_preservesRequestOrderAndMarksMissingIds() {
+        //given
+        given(vendorRepository.findAllById(anyIterable()))
+                .willReturn(Flux.just(createStubVendor(1), createStubVendor(2)));
+        BatchGetRequest request = new BatchGetRequest(Arrays.asList("id2", "missing", "id1", "id2"));
+
+        //when
+        List<BatchGetItem<Vendor>> items = webTestClient.post()
+                .uri(BASE_URL + "/_batch-get")
+                .bodyValue(request)
+                .exchange()
+                //then
+                .expectStatus().isOk()
+                .expectBodyList(new ParameterizedTypeReference<BatchGetItem<Vendor>>() {
+                })
+                .returnResult()
+                .getResponseBody();
+
+        assertThat(items).extracting(BatchGetItem::getId).containsExactly("id2", "missing", "id1", "id2");
+        assertThat(items).extracting(BatchGetItem::isFound).containsExactly(true, false, true, true);
+        assertThat(items.get(1).getItem()).isNull();
+        assertThat(items.get(2).getItem()).isEqualTo(createStubVendor(1));
+        then(vendorRepository).should().findAllById(eq(new LinkedHashSet<>(Arrays.asList("id2", "missing", "id1"))));
+        then(vendorRepository).shouldHaveNoMoreInteractions();
+    }
+
+    @Test
+    void batchGet_tooManyIds_badRequest() {
+        //given
+        BatchGetRequest request = new BatchGetRequest(IntStream.rangeClosed(0, BatchGets.MAX_IDS)
+                .mapToObj(i -> "id" + i).collect(toList()));
+
+        //when
+        webTestClient.post()
+                .uri(BASE_URL + "/_batch-get")
+                .bodyValue(request)
+                .exchange()
+                //then
+                .expectStatus().isBadRequest();
+        then(vendorRepository).shouldHaveNoInteractions();
     }
 
     @Test
     void updateVendorUsingPut_whenPresent() {
         //given
         Vendor vendorToUpdate = Vendor.builder().firstName("foo").lastName("bar").build();
-        Vendor stubVendor = Vendor.builder().id("someId").firstName("foo").lastName("bar").build();
-        given(vendorRepository.findById(anyString())).willReturn(Mono.just(stubVendor));
-        given(vendorRepository.save(any(Vendor.class))).willReturn(Mono.just(stubVendor));
+        Vendor stubVendor = Vendor.builder().id("someId").firstName("foo").lastName("bar").version(1L).build();
+        given(vendorRepository.replace(anyString(), any(Vendor.class), any())).willReturn(Mono.just(stubVendor));
         //when
         webTestClient.put().uri(BASE_URL + "/{id}", "someId")
                 .bodyValue(vendorToUpdate)
@@ -146,50 +627,67 @@ class VendorControllerTest {
                 //then
                 .expectStatus().isOk()
                 .expectHeader().contentType(APPLICATION_JSON)
+                .expectHeader().valueEquals(ETAG, "\"1\"")
                 .expectBody(Vendor.class)
                 .isEqualTo(stubVendor);
-        then(vendorRepository).should().findById(eq("someId"));
-        then(vendorRepository).should().save(eq(stubVendor));
+        then(vendorRepository).should().replace(eq("someId"), refEq(vendorToUpdate, "lastModified"), isNull());
+        then(vendorRepository).should(never()).save(any());
     }
 
     @Test
     void updateVendorFirstNameUsingPatch_whenPresent() {
         //given
-        Vendor stubVendor = Vendor.builder().id("someId").firstName("foo").lastName("bar").build();
-        Vendor updatedVendor = Vendor.builder().id("someId").firstName("Art").lastName("bar").build();
-        given(vendorRepository.findById(anyString())).willReturn(Mono.just(stubVendor));
-        given(vendorRepository.save(any(Vendor.class))).willReturn(Mono.just(updatedVendor));
+        Vendor updatedVendor = Vendor.builder().id("someId").firstName("Art").lastName("bar").version(3L).build();
+        given(vendorRepository.patch(anyString(), any(Vendor.class), any())).willReturn(Mono.just(updatedVendor));
         //when
         webTestClient.patch().uri(BASE_URL + "/{id}", "someId")
                 .contentType(APPLICATION_JSON)
+                .header(IF_MATCH, "\"2\"")
                 .bodyValue("{\"firstName\":\"Art\"}")
                 .exchange()
                 //then
                 .expectStatus().isOk()
                 .expectHeader().contentType(APPLICATION_JSON)
+                .expectHeader().valueEquals(ETAG, "\"3\"")
                 .expectBody(Vendor.class)
-                .isEqualTo(stubVendor);
-        then(vendorRepository).should().findById(eq("someId"));
-        then(vendorRepository).should().save(eq(updatedVendor));
+                .isEqualTo(updatedVendor);
+        then(vendorRepository).should().patch(eq("someId"), refEq(Vendor.builder().firstName("Art").build(), "lastModified"), eq(2L));
+        then(vendorRepository).should(never()).findById(anyString());
+        then(vendorRepository).should(never()).save(any());
+        assertThat(searchIndex.search("art", 10)).extracting(SearchHit::getText).containsExactly("Art bar");
+    }
+
+    @Test
+    void updateVendorUsingPatch_whenVersionIsStale() {
+        //given
+        given(vendorRepository.patch(anyString(), any(Vendor.class), any()))
+                .willReturn(Mono.error(new OptimisticLockingFailureException("stale")));
+        //when
+        webTestClient.patch().uri(BASE_URL + "/{id}", "someId")
+                .contentType(APPLICATION_JSON)
+                .header(IF_MATCH, "\"2\"")
+                .bodyValue("{\"firstName\":\"Art\"}")
+                .exchange()
+                //then
+                .expectStatus().isEqualTo(PRECONDITION_FAILED);
+        then(vendorRepository).should().patch(eq("someId"), any(Vendor.class), eq(2L));
     }
 
     @Test
     void updateVendorUsingPut_whenAbsent() {
         //given
         Vendor vendorToUpdate = Vendor.builder().firstName("foo").lastName("bar").build();
-        Vendor stubVendor = Vendor.builder().id("someId").firstName("foo").lastName("bar").build();
-        given(vendorRepository.findById(anyString())).willReturn(Mono.empty());
+        given(vendorRepository.replace(anyString(), any(Vendor.class), any())).willReturn(Mono.empty());
         //when
-        Flux<Object> responseBody = webTestClient.put().uri(BASE_URL + "/{id}", "someId")
+        webTestClient.put().uri(BASE_URL + "/{id}", "someId")
                 .bodyValue(vendorToUpdate)
                 .exchange()
                 //then
-                .expectStatus().is5xxServerError()
-                .returnResult(Object.class)
-                .getResponseBody();
-        responseBody.subscribe(System.out::println);
-//        responseBody.subscribe();
-        then(vendorRepository).should().findById(eq("someId"));
+                .expectStatus().isNotFound()
+                .expectHeader().contentType(APPLICATION_PROBLEM_JSON)
+                .expectBody(Problem.class)
+                .value(problem -> assertThat(problem.getDetail()).isEqualTo("Vendor with id `someId` not found"));
+        then(vendorRepository).should().replace(eq("someId"), refEq(vendorToUpdate, "lastModified"), isNull());
         then(vendorRepository).should(never()).save(any());
     }
 
@@ -197,19 +695,15 @@ class VendorControllerTest {
     void updateVendorUsingPatch_whenAbsent() {
         //given
         Vendor vendorToUpdate = Vendor.builder().firstName("foo").lastName("bar").build();
-        Vendor stubVendor = Vendor.builder().id("someId").firstName("foo").lastName("bar").build();
-        given(vendorRepository.findById(anyString())).willReturn(Mono.empty());
+        given(vendorRepository.patch(anyString(), any(Vendor.class), any())).willReturn(Mono.empty());
         //when
-        Flux<Object> responseBody = webTestClient.patch().uri(BASE_URL + "/{id}", "someId")
+        webTestClient.patch().uri(BASE_URL + "/{id}", "someId")
                 .bodyValue(vendorToUpdate)
                 .exchange()
                 //then
-                .expectStatus().is5xxServerError()
-                .returnResult(Object.class)
-                .getResponseBody();
-        responseBody.subscribe(System.out::println);
-
-        then(vendorRepository).should().findById(eq("someId"));
+                .expectStatus().isNotFound()
+                .expectHeader().contentType(APPLICATION_PROBLEM_JSON);
+        then(vendorRepository).should().patch(eq("someId"), refEq(vendorToUpdate, "lastModified"), isNull());
         then(vendorRepository).should(never()).save(any());
     }
 
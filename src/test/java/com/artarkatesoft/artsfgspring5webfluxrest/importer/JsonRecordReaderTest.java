@@ -0,0 +1,111 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.importer;
+
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.Category;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+class JsonRecordReaderTest {
+
+    private final DefaultDataBufferFactory bufferFactory = new DefaultDataBufferFactory();
+
+    JsonRecordReader jsonRecordReader;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        jsonRecordReader = new JsonRecordReader(objectMapper);
+    }
+
+    @Test
+    void read_topLevelArray_splitAcrossBuffers() {
+        //given
+        Flux<DataBuffer> content = chunks("[{\"name\":\"Fruits\"},{\"name\":\"Nuts\"}]", 3);
+
+        //when
+        StepVerifier.create(jsonRecordReader.read(content, Category.class, "categories"))
+
+                //then
+                .expectNext(Category.builder().name("Fruits").build())
+                .expectNext(Category.builder().name("Nuts").build())
+                .verifyComplete();
+    }
+
+    @Test
+    void read_wrappedArray_skipsOtherFields() {
+        //given
+        Flux<DataBuffer> content = chunks("{\"total\":2,\"meta\":{\"categories\":[{\"name\":\"No\"}]}," +
+                "\"categories\":[{\"name\":\"Fruits\",\"tags\":[\"a\",{\"b\":1}]},{\"name\":\"Nuts\"}],\"next\":null}", 5);
+
+        //when
+        StepVerifier.create(jsonRecordReader.read(content, Category.class, "categories"))
+
+                //then
+                .expectNext(Category.builder().name("Fruits").build())
+                .expectNext(Category.builder().name("Nuts").build())
+                .verifyComplete();
+    }
+
+    @Test
+    void read_ndjson() {
+        //given
+        Flux<DataBuffer> content = chunks("{\"name\":\"Fruits\"}\n{\"name\":\"Nuts\"}\n", 7);
+
+        //when
+        StepVerifier.create(jsonRecordReader.read(content, Category.class, null))
+
+                //then
+                .expectNext(Category.builder().name("Fruits").build())
+                .expectNext(Category.builder().name("Nuts").build())
+                .verifyComplete();
+    }
+
+    @Test
+    void read_truncatedInput() {
+        //given
+        Flux<DataBuffer> content = chunks("[{\"name\":\"Fruits\"},{\"name\":", 4);
+
+        //when
+        StepVerifier.create(jsonRecordReader.read(content, Category.class, null))
+
+                //then
+                .expectNext(Category.builder().name("Fruits").build())
+                .verifyError();
+    }
+
+    @Test
+    void read_examplesFile() {
+        //given
+        Flux<DataBuffer> content = DataBufferUtils.read(new ClassPathResource("examples/categories.json"), bufferFactory, 64);
+
+        //when
+        StepVerifier.create(jsonRecordReader.read(content, Category.class, "categories"))
+
+                //then
+                .expectNextMatches(category -> category.getName().equals("Fruits"))
+                .thenConsumeWhile(category -> category.getName() != null)
+                .verifyComplete();
+    }
+
+    private Flux<DataBuffer> chunks(String json, int chunkSize) {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        List<DataBuffer> buffers = new ArrayList<>();
+        for (int offset = 0; offset < bytes.length; offset += chunkSize) {
+            DataBuffer buffer = bufferFactory.allocateBuffer(chunkSize);
+            buffer.write(bytes, offset, Math.min(chunkSize, bytes.length - offset));
+            buffers.add(buffer);
+        }
+        return Flux.fromIterable(buffers);
+    }
+}
@@ -0,0 +1,242 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.inmemory;
+
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.Vendor;
+import com.artarkatesoft.artsfgspring5webfluxrest.repositories.ListQuery;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryRepositoryTest {
+
+    private InMemoryVendorRepository repository;
+    private List<Object> events;
+
+    @BeforeEach
+    void setUp() {
+        repository = new InMemoryVendorRepository();
+        events = new ArrayList<>();
+        repository.setApplicationEventPublisher(events::add);
+    }
+
+    @Test
+    void save_assignsIdAndInitialVersion() {
+        //when
+        Vendor saved = repository.save(vendor(null, "Joe", "Buck")).block();
+
+        //then
+        assertThat(saved.getId()).hasSize(24);
+        assertThat(saved.getVersion()).isEqualTo(0L);
+        assertThat(repository.findById(saved.getId()).block()).isEqualTo(saved);
+        assertThat(events).hasSize(1).first().isInstanceOf(AfterSaveEvent.class);
+    }
+
+    @Test
+    void save_staleVersion_fails() {
+        //given
+        Vendor saved = repository.save(vendor("v1", "Joe", "Buck")).block();
+        repository.save(vendor("v1", "Joe", "Buck", saved.getVersion())).block();
+
+        //then
+        StepVerifier.create(repository.save(vendor("v1", "Joe", "Stale", 0L)))
+                .verifyError(OptimisticLockingFailureException.class);
+    }
+
+    @Test
+    void insert_existingId_fails() {
+        //given
+        repository.insert(vendor("v1", "Joe", "Buck")).block();
+
+        //then
+        StepVerifier.create(repository.insert(vendor("v1", "Jane", "Buck")))
+                .verifyError(DuplicateKeyException.class);
+    }
+
+    @Test
+    void storedDocumentsAreCopies() {
+        //given
+        Vendor saved = repository.save(vendor("v1", "Joe", "Buck")).block();
+
+        //when
+        saved.setLastName("Changed");
+        repository.findById("v1").block().setFirstName("Changed");
+
+        //then
+        assertThat(repository.findById("v1").block()).isEqualTo(vendor("v1", "Joe", "Buck", 0L));
+    }
+
+    @Test
+    void patch_setsNonNullFieldsAndBumpsVersion() {
+        //given
+        repository.save(vendor("v1", "Joe", "Buck")).block();
+
+        //when
+        Vendor patched = repository.patch("v1", vendor(null, null, "Bucket"), 0L).block();
+
+        //then
+        assertThat(patched).isEqualTo(vendor("v1", "Joe", "Bucket", 1L));
+        StepVerifier.create(repository.patch("v1", vendor(null, null, "Stale"), 0L))
+                .verifyError(OptimisticLockingFailureException.class);
+        StepVerifier.create(repository.patch("missing", vendor(null, null, "Buck"), null))
+                .verifyComplete();
+    }
+
+    @Test
+    void replace_unsetsNullFields() {
+        //given
+        repository.save(vendor("v1", "Joe", "Buck")).block();
+
+        //when
+        Vendor replaced = repository.replace("v1", vendor(null, null, "Bucket"), null).block();
+
+        //then
+        assertThat(replaced).isEqualTo(vendor("v1", null, "Bucket", 1L));
+    }
+
+    @Test
+    void search_filtersByIndexedPrefixSortsAndProjects() {
+        //given
+        repository.saveAll(Arrays.asList(vendor("v1", "Joe", "Smith"), vendor("v2", "Ann", "Smythe"),
+                vendor("v3", "Bob", "Jones"), vendor("v4", "Al", "Smith"))).blockLast();
+        ListQuery<Vendor> query = new ListQuery<>(Vendor.class);
+        query.getFilters().put("lastName", "Sm*");
+        query.getFields().add("firstName");
+        query.setSort(Sort.by(Sort.Order.desc("lastName"), Sort.Order.asc("firstName")));
+
+        //when
+        List<Vendor> found = repository.search(query).collectList().block();
+
+        //then
+        assertThat(found).containsExactly(vendor("v2", "Ann", null, null),
+                vendor("v4", "Al", null, null), vendor("v1", "Joe", null, null));
+    }
+
+    @Test
+    void search_followsIndexAcrossUpdatesAndDeletes() {
+        //given
+        repository.saveAll(Arrays.asList(vendor("v1", "Joe", "Smith"), vendor("v2", "Ann", "Smith"))).blockLast();
+        ListQuery<Vendor> query = new ListQuery<>(Vendor.class);
+        query.getFilters().put("lastName", "Smith");
+
+        //when
+        repository.patch("v1", vendor(null, null, "Jones"), null).block();
+        repository.deleteById("v2").block();
+
+        //then
+        StepVerifier.create(repository.search(query)).verifyComplete();
+        assertThat(events).last().isInstanceOf(AfterDeleteEvent.class);
+    }
+
+    @Test
+    void findAllByExample_matchesNonNullPropertiesOfTheProbe() {
+        //given
+        repository.saveAll(Arrays.asList(vendor("v1", "Joe", "Smith"), vendor("v2", "Ann", "Smythe"),
+                vendor("v3", "Joe", "Jones"))).blockLast();
+
+        //then
+        StepVerifier.create(repository.findAll(Example.of(vendor(null, "Joe", null, null)), Sort.by("lastName"))
+                .map(Vendor::getId))
+                .expectNext("v3", "v1")
+                .verifyComplete();
+        StepVerifier.create(repository.count(Example.of(vendor(null, "joe", "sm", null),
+                ExampleMatcher.matching().withIgnoreCase().withStringMatcher(ExampleMatcher.StringMatcher.STARTING))))
+                .expectNext(1L)
+                .verifyComplete();
+        StepVerifier.create(repository.findAll(Example.of(vendor(null, "Ann", "Jones", null), ExampleMatcher.matchingAny()))
+                .map(Vendor::getId))
+                .expectNext("v2", "v3")
+                .verifyComplete();
+    }
+
+    @Test
+    void findOneByExample_moreThanOneMatch_fails() {
+        //given
+        repository.saveAll(Arrays.asList(vendor("v1", "Joe", "Smith"), vendor("v2", "Joe", "Jones"))).blockLast();
+
+        //then
+        StepVerifier.create(repository.findOne(Example.of(vendor(null, null, "Jones", null))).map(Vendor::getId))
+                .expectNext("v2")
+                .verifyComplete();
+        StepVerifier.create(repository.exists(Example.of(vendor(null, null, "Brown", null))))
+                .expectNext(false)
+                .verifyComplete();
+        StepVerifier.create(repository.findOne(Example.of(vendor(null, "Joe", null, null))))
+                .verifyError(IncorrectResultSizeDataAccessException.class);
+    }
+
+    @Test
+    void keysetPagesFollowIdOrder() {
+        //given
+        repository.saveAll(Flux.range(1, 5).map(i -> vendor("v" + i, "First" + i, "Last" + i))).blockLast();
+
+        //then
+        StepVerifier.create(repository.findAllByOrderByIdAsc(PageRequest.of(0, 2)).map(Vendor::getId))
+                .expectNext("v1", "v2")
+                .verifyComplete();
+        StepVerifier.create(repository.findByIdGreaterThanOrderByIdAsc("v2", PageRequest.of(0, 2)).map(Vendor::getId))
+                .expectNext("v3", "v4")
+                .verifyComplete();
+    }
+
+    @Test
+    void findAllById_returnsExistingOnly() {
+        //given
+        repository.saveAll(Arrays.asList(vendor("v1", "Joe", "Buck"), vendor("v2", "Ann", "Buck"))).blockLast();
+
+        //then
+        StepVerifier.create(repository.findAllById(Arrays.asList("v2", "missing", "v2", "v1")).map(Vendor::getId))
+                .expectNext("v2", "v1")
+                .verifyComplete();
+    }
+
+    @Test
+    void snapshotRoundTrip(@TempDir Path directory) throws Exception {
+        //given
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        repository.saveAll(Arrays.asList(vendor("v1", "Joe", "Buck"), vendor("v2", "Ann", "Smith"))).blockLast();
+        new InMemorySnapshots(Collections.singletonList(repository), objectMapper, directory.toString(), Duration.ZERO)
+                .close();
+
+        //when
+        InMemoryVendorRepository restored = new InMemoryVendorRepository();
+        new InMemorySnapshots(Collections.singletonList(restored), objectMapper, directory.toString(), Duration.ZERO)
+                .restore();
+
+        //then
+        assertThat(restored.findAll().collectList().block()).isEqualTo(repository.findAll().collectList().block());
+        ListQuery<Vendor> query = new ListQuery<>(Vendor.class);
+        query.getFilters().put("lastName", "Smith");
+        StepVerifier.create(restored.search(query).map(Vendor::getId))
+                .expectNext("v2")
+                .verifyComplete();
+    }
+
+    private static Vendor vendor(String id, String firstName, String lastName) {
+        return vendor(id, firstName, lastName, null);
+    }
+
+    private static Vendor vendor(String id, String firstName, String lastName, Long version) {
+        return Vendor.builder().id(id).firstName(firstName).lastName(lastName).version(version).build();
+    }
+}
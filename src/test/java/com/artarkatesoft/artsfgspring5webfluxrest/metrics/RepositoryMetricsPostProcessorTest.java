@@ -0,0 +1,75 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.metrics;
+
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.Category;
+import com.artarkatesoft.artsfgspring5webfluxrest.repositories.CategoryRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static com.artarkatesoft.artsfgspring5webfluxrest.metrics.RepositoryMetricsPostProcessor.METRIC_NAME;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+class RepositoryMetricsPostProcessorTest {
+
+    @Mock
+    CategoryRepository categoryRepository;
+
+    SimpleMeterRegistry meterRegistry;
+
+    CategoryRepository instrumentedRepository;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("meterRegistry", meterRegistry);
+        RepositoryMetricsPostProcessor postProcessor =
+                new RepositoryMetricsPostProcessor(beanFactory.getBeanProvider(MeterRegistry.class));
+        instrumentedRepository = (CategoryRepository) postProcessor
+                .postProcessAfterInitialization(categoryRepository, "categoryRepository");
+    }
+
+    @Test
+    void timesFromSubscriptionToCompletion() {
+        //given
+        Category category = Category.builder().id("foo").name("bar").build();
+        given(categoryRepository.findById("foo")).willReturn(Mono.just(category));
+
+        //when
+        Mono<Category> result = instrumentedRepository.findById("foo");
+
+        //then
+        assertThat(meterRegistry.find(METRIC_NAME).timer()).isNull();
+        StepVerifier.create(result)
+                .expectNext(category)
+                .verifyComplete();
+        assertThat(meterRegistry.get(METRIC_NAME)
+                .tags("repository", "CategoryRepository", "method", "findById", "state", "SUCCESS")
+                .timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void recordsErrorsSeparately() {
+        //given
+        given(categoryRepository.findAll()).willReturn(Flux.error(new IllegalStateException("boom")));
+
+        //when
+        StepVerifier.create(instrumentedRepository.findAll())
+
+                //then
+                .verifyError(IllegalStateException.class);
+        assertThat(meterRegistry.get(METRIC_NAME)
+                .tags("method", "findAll", "state", "ERROR")
+                .timer().count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,141 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+
+import static com.artarkatesoft.artsfgspring5webfluxrest.ratelimit.RateLimitWebFilter.CLIENT_ID_HEADER;
+import static com.artarkatesoft.artsfgspring5webfluxrest.ratelimit.RateLimitWebFilter.METRIC_NAME;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.HttpHeaders.RETRY_AFTER;
+import static org.springframework.http.HttpStatus.TOO_MANY_REQUESTS;
+
+class RateLimitWebFilterTest {
+
+    private static final String VENDORS = "/api/v1/vendors";
+    private static final WebFilterChain COMPLETING = exchange -> Mono.empty();
+    private static final WebFilterChain HANGING = exchange -> Mono.never();
+
+    SimpleMeterRegistry meterRegistry;
+    RateLimitWebFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new RateLimitWebFilter(new RateLimiter(1, 2, 100), true, 8, 1, meterRegistry);
+    }
+
+    @Test
+    void filter_overRate_tooManyRequestsWithRetryAfter() {
+        //given
+        filter(get(VENDORS, "a"), COMPLETING);
+        filter(get(VENDORS, "a"), COMPLETING);
+
+        //when
+        MockServerWebExchange rejected = filter(get(VENDORS, "a"), COMPLETING);
+
+        //then
+        assertThat(rejected.getResponse().getStatusCode()).isEqualTo(TOO_MANY_REQUESTS);
+        assertThat(rejected.getResponse().getHeaders().getFirst(RETRY_AFTER)).isEqualTo("1");
+        assertThat(count("read", "admitted")).isEqualTo(2);
+        assertThat(count("read", "rate-limited")).isEqualTo(1);
+    }
+
+    @Test
+    void filter_overRate_otherClientsAdmitted() {
+        //given
+        for (int i = 0; i < 3; i++) filter(get(VENDORS, "a"), COMPLETING);
+
+        //when
+        MockServerWebExchange admitted = filter(get(VENDORS + "/id1", "b"), COMPLETING);
+
+        //then
+        assertThat(admitted.getResponse().getStatusCode()).isNull();
+    }
+
+    @Test
+    void filter_writeBulkheadFull_rejectsWritesOnly() {
+        //given
+        MockServerWebExchange streaming = post(VENDORS, "a");
+        Disposable inFlight = filter.filter(streaming, HANGING).subscribe();
+
+        //when
+        MockServerWebExchange rejectedWrite = filter(post(VENDORS, "b"), COMPLETING);
+        MockServerWebExchange read = filter(get(VENDORS, "b"), COMPLETING);
+        MockServerWebExchange otherRoute = filter(post("/api/v1/categories", "c"), COMPLETING);
+
+        //then
+        assertThat(rejectedWrite.getResponse().getStatusCode()).isEqualTo(TOO_MANY_REQUESTS);
+        assertThat(rejectedWrite.getResponse().getHeaders().getFirst(RETRY_AFTER)).isEqualTo("1");
+        assertThat(read.getResponse().getStatusCode()).isNull();
+        assertThat(otherRoute.getResponse().getStatusCode()).isNull();
+        assertThat(count("write", "bulkhead-full")).isEqualTo(1);
+
+        //when
+        inFlight.dispose();
+
+        //then
+        assertThat(filter(post(VENDORS, "c"), COMPLETING).getResponse().getStatusCode()).isNull();
+    }
+
+    @Test
+    void filter_otherPaths_notLimited() {
+        //when
+        for (int i = 0; i < 5; i++) {
+            MockServerWebExchange exchange = filter(get("/actuator/health", "a"), COMPLETING);
+
+            //then
+            assertThat(exchange.getResponse().getStatusCode()).isNull();
+        }
+        assertThat(count("read", "admitted")).isZero();
+    }
+
+    @Test
+    void filter_untrustedClientIdHeader_limitsByRemoteAddress() {
+        //given
+        filter = new RateLimitWebFilter(new RateLimiter(1, 2, 100), false, 8, 1, meterRegistry);
+        InetSocketAddress remoteAddress = new InetSocketAddress("10.0.0.1", 40000);
+        filter(from(remoteAddress, "a"), COMPLETING);
+        filter(from(remoteAddress, "b"), COMPLETING);
+
+        //when
+        MockServerWebExchange rejected = filter(from(remoteAddress, "c"), COMPLETING);
+        MockServerWebExchange otherAddress = filter(from(new InetSocketAddress("10.0.0.2", 40000), "c"), COMPLETING);
+
+        //then
+        assertThat(rejected.getResponse().getStatusCode()).isEqualTo(TOO_MANY_REQUESTS);
+        assertThat(otherAddress.getResponse().getStatusCode()).isNull();
+    }
+
+    private MockServerWebExchange filter(MockServerWebExchange exchange, WebFilterChain chain) {
+        filter.filter(exchange, chain).block();
+        return exchange;
+    }
+
+    private double count(String access, String outcome) {
+        return meterRegistry.get(METRIC_NAME)
+                .tag("route", "vendors").tag("access", access).tag("outcome", outcome)
+                .counter().count();
+    }
+
+    private static MockServerWebExchange get(String path, String clientId) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get(path).header(CLIENT_ID_HEADER, clientId));
+    }
+
+    private static MockServerWebExchange post(String path, String clientId) {
+        return MockServerWebExchange.from(MockServerHttpRequest.post(path).header(CLIENT_ID_HEADER, clientId));
+    }
+
+    private static MockServerWebExchange from(InetSocketAddress remoteAddress, String clientId) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get(VENDORS)
+                .remoteAddress(remoteAddress)
+                .header(CLIENT_ID_HEADER, clientId));
+    }
+}
@@ -0,0 +1,71 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.ratelimit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimiterTest {
+
+    private static final long INTERVAL = TimeUnit.MILLISECONDS.toNanos(100);
+
+    AtomicLong clock;
+    RateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        clock = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+        rateLimiter = new RateLimiter(10, 3, 100, clock::get);
+    }
+
+    @Test
+    void tryAcquire_admitsBurstThenAsksToWait() {
+        //when
+        long[] waits = {rateLimiter.tryAcquire("a"), rateLimiter.tryAcquire("a"), rateLimiter.tryAcquire("a"),
+                rateLimiter.tryAcquire("a")};
+
+        //then
+        assertThat(waits).containsExactly(0, 0, 0, INTERVAL);
+    }
+
+    @Test
+    void tryAcquire_refillsAtRate() {
+        //given
+        for (int i = 0; i < 3; i++) rateLimiter.tryAcquire("a");
+
+        //when
+        clock.addAndGet(INTERVAL);
+
+        //then
+        assertThat(rateLimiter.tryAcquire("a")).isZero();
+        assertThat(rateLimiter.tryAcquire("a")).isEqualTo(INTERVAL);
+    }
+
+    @Test
+    void tryAcquire_rejectedRequestsDoNotConsumeTokens() {
+        //given
+        for (int i = 0; i < 10; i++) rateLimiter.tryAcquire("a");
+
+        //when
+        clock.addAndGet(INTERVAL);
+
+        //then
+        assertThat(rateLimiter.tryAcquire("a")).isZero();
+    }
+
+    @Test
+    void tryAcquire_keepsClientsApart() {
+        //given
+        for (int i = 0; i < 3; i++) rateLimiter.tryAcquire("a");
+
+        //when
+        long wait = rateLimiter.tryAcquire("b");
+
+        //then
+        assertThat(wait).isZero();
+        assertThat(rateLimiter.tryAcquire("a")).isPositive();
+    }
+}
@@ -0,0 +1,196 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.repositories;
+
+import com.artarkatesoft.artsfgspring5webfluxrest.controllers.CategoryController;
+import com.artarkatesoft.artsfgspring5webfluxrest.controllers.ListQueries;
+import com.artarkatesoft.artsfgspring5webfluxrest.controllers.VendorController;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.Category;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.Vendor;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Every query shape the list endpoints accept must be answered from an index, never by a collection scan, and
+ * every accepted sort read in index order; the sorts they reject would need an in-memory sort.
+ */
+@DataMongoTest
+class ListQueryIndexTest {
+
+    @Autowired
+    ReactiveMongoTemplate mongoTemplate;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate.dropCollection(Vendor.class)
+                .then(mongoTemplate.dropCollection(Category.class))
+                .then(new IndexInitializer(mongoTemplate).ensureIndexes())
+                .thenMany(mongoTemplate.insertAll(IntStream.range(0, 50)
+                        .mapToObj(i -> Vendor.builder().firstName("First" + i).lastName("Last" + i).build())
+                        .collect(toList())))
+                .thenMany(mongoTemplate.insertAll(IntStream.range(0, 50)
+                        .mapToObj(i -> Category.builder().name("Name" + i).build())
+                        .collect(toList())))
+                .blockLast();
+    }
+
+    static Stream<ListQuery<?>> supportedQueries() {
+        return Stream.concat(Stream.of(
+                query(Vendor.class, "lastName", "Last7"),
+                query(Vendor.class, "lastName", "Last1*"),
+                query(Vendor.class, "firstName", "First*"),
+                query(Vendor.class, "firstName", "First1", "lastName", "Last1"),
+                sorted(query(Vendor.class, "lastName", "La*"), Sort.by("lastName", "firstName")),
+                projected(query(Vendor.class, "lastName", "Last2*"), "firstName", "lastName"),
+                query(Category.class, "name", "Name4*")),
+                acceptedSorts());
+    }
+
+    /**
+     * Every {@code sort} parameter {@link ListQueries} accepts, from each ordering and direction of the indexed
+     * properties.
+     */
+    static Stream<ListQuery<?>> acceptedSorts() {
+        return Stream.concat(
+                sortShapes(VendorController.INDEXED_PROPERTIES)
+                        .filter(sort -> accepted(Vendor.class, VendorController.INDEXED_PROPERTIES, sort))
+                        .map(sort -> ListQueries.parse(Vendor.class, VendorController.INDEXED_PROPERTIES,
+                                Collections.emptyMap(), null, sort)),
+                sortShapes(CategoryController.INDEXED_PROPERTIES)
+                        .filter(sort -> accepted(Category.class, CategoryController.INDEXED_PROPERTIES, sort))
+                        .map(sort -> ListQueries.parse(Category.class, CategoryController.INDEXED_PROPERTIES,
+                                Collections.emptyMap(), null, sort)));
+    }
+
+    /**
+     * The {@code sort} parameters {@link ListQueries} rejects, as the query they would have run.
+     */
+    static Stream<ListQuery<?>> rejectedSorts() {
+        return sortShapes(VendorController.INDEXED_PROPERTIES)
+                .filter(sort -> !accepted(Vendor.class, VendorController.INDEXED_PROPERTIES, sort))
+                .map(sort -> sorted(query(Vendor.class), toSort(sort)));
+    }
+
+    @ParameterizedTest
+    @MethodSource("supportedQueries")
+    void supportedQuery_doesNotScanCollection(ListQuery<?> listQuery) {
+        //when
+        List<String> stages = winningPlanStages(listQuery);
+
+        //then
+        assertThat(stages).contains("IXSCAN").doesNotContain("COLLSCAN");
+    }
+
+    @ParameterizedTest
+    @MethodSource("acceptedSorts")
+    void acceptedSort_readsInIndexOrder(ListQuery<?> listQuery) {
+        //when
+        List<String> stages = winningPlanStages(listQuery);
+
+        //then
+        assertThat(stages).contains("IXSCAN").doesNotContain("SORT", "COLLSCAN");
+    }
+
+    @ParameterizedTest
+    @MethodSource("rejectedSorts")
+    void rejectedSort_needsAnInMemorySort(ListQuery<?> listQuery) {
+        //when
+        List<String> stages = winningPlanStages(listQuery);
+
+        //then
+        assertThat(stages).contains("SORT");
+    }
+
+    @ParameterizedTest
+    @MethodSource("supportedQueries")
+    void supportedQuery_returnsMatches(ListQuery<?> listQuery) {
+        //when
+        Flux<?> results = mongoTemplate.find(ListQueryRepositoryImpl.toQuery(listQuery), listQuery.getType());
+
+        //then
+        assertThat(results.collectList().block()).isNotEmpty();
+    }
+
+    private List<String> winningPlanStages(ListQuery<?> listQuery) {
+        Query query = ListQueryRepositoryImpl.toQuery(listQuery);
+        Document find = new Document("find", mongoTemplate.getCollectionName(listQuery.getType()))
+                .append("filter", query.getQueryObject())
+                .append("sort", query.getSortObject())
+                .append("projection", query.getFieldsObject());
+        Document explain = mongoTemplate.executeCommand(new Document("explain", find).append("verbosity", "queryPlanner"))
+                .block();
+        return stages(explain.get("queryPlanner", Document.class).get("winningPlan", Document.class));
+    }
+
+    /**
+     * Each ordering of each non-empty subset of the properties, with every combination of directions.
+     */
+    private static Stream<String> sortShapes(Set<String> properties) {
+        return properties.stream().flatMap(property -> {
+            Set<String> rest = new LinkedHashSet<>(properties);
+            rest.remove(property);
+            return Stream.concat(Stream.of(""), sortShapes(rest).map(tail -> "," + tail))
+                    .flatMap(tail -> Stream.of(property + tail, "-" + property + tail));
+        });
+    }
+
+    private static boolean accepted(Class<?> type, Set<String> indexed, String sort) {
+        try {
+            ListQueries.parse(type, indexed, Collections.emptyMap(), null, sort);
+            return true;
+        } catch (ResponseStatusException e) {
+            return false;
+        }
+    }
+
+    private static Sort toSort(String sort) {
+        return Sort.by(Arrays.stream(sort.split(","))
+                .map(order -> order.startsWith("-") ? Sort.Order.desc(order.substring(1)) : Sort.Order.asc(order))
+                .collect(toList()));
+    }
+
+    private static <T> ListQuery<T> query(Class<T> type, String... filters) {
+        ListQuery<T> listQuery = new ListQuery<>(type);
+        for (int i = 0; i < filters.length; i += 2) listQuery.getFilters().put(filters[i], filters[i + 1]);
+        return listQuery;
+    }
+
+    private static <T> ListQuery<T> sorted(ListQuery<T> listQuery, Sort sort) {
+        listQuery.setSort(sort);
+        return listQuery;
+    }
+
+    private static <T> ListQuery<T> projected(ListQuery<T> listQuery, String... fields) {
+        listQuery.getFields().addAll(Arrays.asList(fields));
+        return listQuery;
+    }
+
+    private static List<String> stages(Document plan) {
+        List<String> stages = new ArrayList<>();
+        stages.add(plan.getString("stage"));
+        Document inputStage = plan.get("inputStage", Document.class);
+        if (inputStage != null) stages.addAll(stages(inputStage));
+        List<?> inputStages = plan.get("inputStages", List.class);
+        if (inputStages != null) inputStages.forEach(stage -> stages.addAll(stages((Document) stage)));
+        return stages;
+    }
+}
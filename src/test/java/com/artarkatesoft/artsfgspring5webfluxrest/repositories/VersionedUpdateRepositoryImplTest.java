@@ -0,0 +1,134 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.repositories;
+
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.Vendor;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+
+@ExtendWith(MockitoExtension.class)
+class VersionedUpdateRepositoryImplTest {
+
+    @Mock
+    ReactiveMongoTemplate mongoTemplate;
+
+    @Captor
+    ArgumentCaptor<Query> queryCaptor;
+
+    @Captor
+    ArgumentCaptor<Update> updateCaptor;
+
+    List<Object> events;
+
+    VersionedUpdateRepositoryImpl<Vendor> repository;
+
+    @BeforeEach
+    void setUp() {
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, new MongoMappingContext());
+        converter.afterPropertiesSet();
+        given(mongoTemplate.getConverter()).willReturn(converter);
+        events = new ArrayList<>();
+        repository = new VersionedUpdateRepositoryImpl<>(mongoTemplate, events::add);
+    }
+
+    @Test
+    void patch_setsOnlyNonNullFields() {
+        //given
+        Vendor updated = Vendor.builder().id("someId").firstName("Art").lastName("Buck").version(3L).build();
+        given(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(Vendor.class)))
+                .willReturn(Mono.just(updated));
+        given(mongoTemplate.getCollectionName(Vendor.class)).willReturn("vendor");
+
+        //when
+        StepVerifier.create(repository.patch("someId", Vendor.builder().firstName("Art").build(), 2L))
+
+                //then
+                .expectNext(updated)
+                .verifyComplete();
+        then(mongoTemplate).should().findAndModify(queryCaptor.capture(), updateCaptor.capture(), any(FindAndModifyOptions.class), eq(Vendor.class));
+        assertThat(queryCaptor.getValue().getQueryObject())
+                .containsEntry("id", "someId")
+                .containsEntry("version", 2L);
+        Document update = updateCaptor.getValue().getUpdateObject();
+        assertThat(update.get("$set", Document.class)).isEqualTo(new Document("firstName", "Art"));
+        assertThat(update.get("$inc", Document.class)).isEqualTo(new Document("version", 1));
+        assertThat(update).doesNotContainKey("$unset");
+        assertThat(events).hasSize(1).first().isInstanceOfSatisfying(AfterSaveEvent.class, event -> {
+            assertThat(event.getSource()).isEqualTo(updated);
+            assertThat(event.getDocument()).isEqualTo(new Document("_id", "someId"));
+            assertThat(event.getCollectionName()).isEqualTo("vendor");
+        });
+    }
+
+    @Test
+    void replace_unsetsNullFields() {
+        //given
+        given(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(Vendor.class)))
+                .willReturn(Mono.just(Vendor.builder().id("someId").firstName("Art").version(1L).build()));
+
+        //when
+        StepVerifier.create(repository.replace("someId", Vendor.builder().firstName("Art").build(), null))
+
+                //then
+                .expectNextCount(1)
+                .verifyComplete();
+        then(mongoTemplate).should().findAndModify(queryCaptor.capture(), updateCaptor.capture(), any(FindAndModifyOptions.class), eq(Vendor.class));
+        assertThat(queryCaptor.getValue().getQueryObject()).doesNotContainKey("version");
+        Document update = updateCaptor.getValue().getUpdateObject();
+        assertThat(update.get("$set", Document.class)).isEqualTo(new Document("firstName", "Art"));
+        assertThat(update.get("$unset", Document.class)).containsOnlyKeys("lastName");
+    }
+
+    @Test
+    void patch_whenVersionIsStale() {
+        //given
+        given(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(Vendor.class)))
+                .willReturn(Mono.empty());
+        given(mongoTemplate.exists(any(Query.class), eq(Vendor.class))).willReturn(Mono.just(true));
+
+        //when
+        StepVerifier.create(repository.patch("someId", Vendor.builder().firstName("Art").build(), 2L))
+
+                //then
+                .verifyError(OptimisticLockingFailureException.class);
+        assertThat(events).isEmpty();
+    }
+
+    @Test
+    void patch_whenAbsent() {
+        //given
+        given(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(Vendor.class)))
+                .willReturn(Mono.empty());
+        given(mongoTemplate.exists(any(Query.class), eq(Vendor.class))).willReturn(Mono.just(false));
+
+        //when
+        StepVerifier.create(repository.patch("someId", Vendor.builder().firstName("Art").build(), 2L))
+
+                //then
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,144 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.resilience;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.artarkatesoft.artsfgspring5webfluxrest.resilience.CircuitBreaker.State.CLOSED;
+import static com.artarkatesoft.artsfgspring5webfluxrest.resilience.CircuitBreaker.State.HALF_OPEN;
+import static com.artarkatesoft.artsfgspring5webfluxrest.resilience.CircuitBreaker.State.OPEN;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CircuitBreakerTest {
+
+    private static final RuntimeException DOWN = new DataAccessResourceFailureException("down");
+
+    AtomicLong clock;
+    CircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setUp() {
+        clock = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+        circuitBreaker = new CircuitBreaker("test", 3, Duration.ofSeconds(10), clock::get);
+    }
+
+    @Test
+    void isFailure_onlyForUnhealthyDatabase() {
+        assertThat(CircuitBreaker.isFailure(new TimeoutException())).isTrue();
+        assertThat(CircuitBreaker.isFailure(new QueryTimeoutException("slow"))).isTrue();
+        assertThat(CircuitBreaker.isFailure(DOWN)).isTrue();
+        assertThat(CircuitBreaker.isFailure(new OptimisticLockingFailureException("stale version"))).isFalse();
+        assertThat(CircuitBreaker.isFailure(new DuplicateKeyException("duplicate"))).isFalse();
+        assertThat(CircuitBreaker.isFailure(new IllegalArgumentException())).isFalse();
+    }
+
+    @Test
+    void opensAfterConsecutiveFailures() {
+        //when
+        fail(3);
+
+        //then
+        assertThat(circuitBreaker.getState()).isEqualTo(OPEN);
+        assertThat(circuitBreaker.tryAcquirePermission()).isFalse();
+        assertThat(circuitBreaker.getRetryAfter()).isEqualTo(Duration.ofSeconds(10));
+    }
+
+    @Test
+    void successResetsFailureCount() {
+        //given
+        fail(2);
+
+        //when
+        circuitBreaker.onSuccess();
+        fail(2);
+
+        //then
+        assertThat(circuitBreaker.getState()).isEqualTo(CLOSED);
+    }
+
+    @Test
+    void businessErrorsCountAsSuccess() {
+        //given
+        fail(2);
+
+        //when
+        circuitBreaker.onError(new DuplicateKeyException("duplicate"));
+        fail(2);
+
+        //then
+        assertThat(circuitBreaker.getState()).isEqualTo(CLOSED);
+    }
+
+    @Test
+    void afterOpenDuration_letsOneTrialThrough() {
+        //given
+        fail(3);
+
+        //when
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+
+        //then
+        assertThat(circuitBreaker.tryAcquirePermission()).isTrue();
+        assertThat(circuitBreaker.getState()).isEqualTo(HALF_OPEN);
+        assertThat(circuitBreaker.tryAcquirePermission()).isFalse();
+    }
+
+    @Test
+    void trialSuccess_closes() {
+        //given
+        fail(3);
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        circuitBreaker.tryAcquirePermission();
+
+        //when
+        circuitBreaker.onSuccess();
+
+        //then
+        assertThat(circuitBreaker.getState()).isEqualTo(CLOSED);
+        assertThat(circuitBreaker.tryAcquirePermission()).isTrue();
+    }
+
+    @Test
+    void trialFailure_reopensForFullDuration() {
+        //given
+        fail(3);
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        circuitBreaker.tryAcquirePermission();
+
+        //when
+        circuitBreaker.onError(DOWN);
+
+        //then
+        assertThat(circuitBreaker.getState()).isEqualTo(OPEN);
+        assertThat(circuitBreaker.getRetryAfter()).isEqualTo(Duration.ofSeconds(10));
+    }
+
+    @Test
+    void cancelledTrial_letsNextCallTry() {
+        //given
+        fail(3);
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        circuitBreaker.tryAcquirePermission();
+
+        //when
+        circuitBreaker.onCancel();
+
+        //then
+        assertThat(circuitBreaker.tryAcquirePermission()).isTrue();
+    }
+
+    private void fail(int times) {
+        for (int i = 0; i < times; i++) {
+            circuitBreaker.tryAcquirePermission();
+            circuitBreaker.onError(DOWN);
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.resilience;
+
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.Category;
+import com.artarkatesoft.artsfgspring5webfluxrest.exceptions.CircuitOpenException;
+import com.artarkatesoft.artsfgspring5webfluxrest.repositories.CategoryRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DuplicateKeyException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.artarkatesoft.artsfgspring5webfluxrest.resilience.CircuitBreaker.State.CLOSED;
+import static com.artarkatesoft.artsfgspring5webfluxrest.resilience.CircuitBreaker.State.OPEN;
+import static com.artarkatesoft.artsfgspring5webfluxrest.resilience.RepositoryResiliencePostProcessor.STALE_READS_METRIC;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RepositoryResiliencePostProcessorTest {
+
+    private static final Duration OPEN_DURATION = Duration.ofMillis(200);
+
+    FaultInjectingRepository faults;
+    SimpleMeterRegistry meterRegistry;
+    RepositoryResiliencePostProcessor postProcessor;
+    CategoryRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        faults = new FaultInjectingRepository();
+        faults.store.put("1", Category.builder().id("1").name("Fruits").build());
+        faults.store.put("2", Category.builder().id("2").name("Nuts").build());
+        meterRegistry = new SimpleMeterRegistry();
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("meterRegistry", meterRegistry);
+        ResiliencePolicy policy = ResiliencePolicy.builder()
+                .timeout(Duration.ofMillis(100))
+                .maxRetries(2)
+                .minBackoff(Duration.ofMillis(1))
+                .maxBackoff(Duration.ofMillis(5))
+                .failureThreshold(3)
+                .openDuration(OPEN_DURATION)
+                .staleMaxElements(100)
+                .staleMaxResultSize(10)
+                .staleTtl(Duration.ofMinutes(1))
+                .build();
+        postProcessor = new RepositoryResiliencePostProcessor(policy, beanFactory.getBeanProvider(MeterRegistry.class));
+        repository = (CategoryRepository) postProcessor.postProcessAfterInitialization(faults.asRepository(),
+                "categoryRepository");
+    }
+
+    @Test
+    void slowRead_timesOutAfterRetries() {
+        //given
+        faults.inject(Fault.SLOW);
+
+        //when
+        StepVerifier.create(repository.findById("1"))
+
+                //then
+                .verifyError(TimeoutException.class);
+        assertThat(faults.subscriptions).hasValue(3);
+    }
+
+    @Test
+    void failingRead_isRetried() {
+        //given
+        faults.inject(Fault.DOWN, 2);
+
+        //when
+        StepVerifier.create(repository.findById("1"))
+
+                //then
+                .expectNextMatches(category -> category.getName().equals("Fruits"))
+                .verifyComplete();
+        assertThat(faults.subscriptions).hasValue(3);
+        assertThat(circuitBreaker().getState()).isEqualTo(CLOSED);
+    }
+
+    @Test
+    void failingWrite_isNotRetried() {
+        //given
+        faults.inject(Fault.DOWN, 1);
+
+        //when
+        StepVerifier.create(repository.save(Category.builder().id("3").name("Grains").build()))
+
+                //then
+                .verifyError(DataAccessResourceFailureException.class);
+        assertThat(faults.subscriptions).hasValue(1);
+        assertThat(faults.store).doesNotContainKey("3");
+    }
+
+    @Test
+    void openCircuit_servesLastGoodReadWithoutCallingDatabase() {
+        //given
+        StepVerifier.create(repository.findById("1")).expectNextCount(1).verifyComplete();
+        StepVerifier.create(repository.findAll()).expectNextCount(2).verifyComplete();
+        faults.inject(Fault.DOWN);
+        StepVerifier.create(repository.findById("2")).verifyError(DataAccessResourceFailureException.class);
+        assertThat(circuitBreaker().getState()).isEqualTo(OPEN);
+        int subscriptions = faults.subscriptions.get();
+
+        //when
+        StepVerifier.create(repository.findById("1"))
+                .expectNextMatches(category -> category.getName().equals("Fruits"))
+                .verifyComplete();
+        StepVerifier.create(repository.findAll())
+                .expectNextCount(2)
+                .verifyComplete();
+
+        //then
+        assertThat(faults.subscriptions).hasValue(subscriptions);
+        assertThat(meterRegistry.get(STALE_READS_METRIC).tags("method", "findById").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(STALE_READS_METRIC).tags("method", "findAll").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void openCircuit_failsFastWithoutStaleResult() {
+        //given
+        faults.inject(Fault.DOWN);
+        StepVerifier.create(repository.findById("1")).verifyError(DataAccessResourceFailureException.class);
+        int subscriptions = faults.subscriptions.get();
+
+        //when
+        StepVerifier.create(repository.findById("2"))
+
+                //then
+                .expectErrorSatisfies(e -> {
+                    assertThat(e).isInstanceOf(CircuitOpenException.class);
+                    assertThat(((CircuitOpenException) e).getRetryAfter()).isBetween(Duration.ZERO, OPEN_DURATION);
+                })
+                .verify();
+        StepVerifier.create(repository.save(Category.builder().id("3").build()))
+                .verifyError(CircuitOpenException.class);
+        assertThat(faults.subscriptions).hasValue(subscriptions);
+    }
+
+    @Test
+    void openCircuit_closesAfterSuccessfulTrial() throws InterruptedException {
+        //given
+        faults.inject(Fault.DOWN);
+        StepVerifier.create(repository.findById("1")).verifyError(DataAccessResourceFailureException.class);
+        faults.inject(Fault.NONE);
+
+        //when
+        Thread.sleep(OPEN_DURATION.toMillis() + 50);
+
+        //then
+        StepVerifier.create(repository.findById("2"))
+                .expectNextMatches(category -> category.getName().equals("Nuts"))
+                .verifyComplete();
+        assertThat(circuitBreaker().getState()).isEqualTo(CLOSED);
+    }
+
+    @Test
+    void conflicts_doNotOpenCircuit() {
+        //given
+        faults.inject(Fault.CONFLICT);
+
+        //when
+        for (int i = 0; i < 5; i++)
+            StepVerifier.create(repository.findById("1")).verifyError(DuplicateKeyException.class);
+
+        //then
+        assertThat(faults.subscriptions).hasValue(5);
+        assertThat(circuitBreaker().getState()).isEqualTo(CLOSED);
+    }
+
+    private CircuitBreaker circuitBreaker() {
+        return postProcessor.getCircuitBreaker("CategoryRepository");
+    }
+
+    enum Fault {NONE, SLOW, DOWN, CONFLICT}
+
+    /**
+     * Category repository over a map that answers every subscription with the injected fault.
+     */
+    static class FaultInjectingRepository implements InvocationHandler {
+
+        final Map<String, Category> store = new ConcurrentHashMap<>();
+        final AtomicInteger subscriptions = new AtomicInteger();
+        private volatile Fault fault = Fault.NONE;
+        private final AtomicInteger faultsLeft = new AtomicInteger();
+
+        void inject(Fault fault) {
+            inject(fault, Integer.MAX_VALUE);
+        }
+
+        void inject(Fault fault, int times) {
+            this.fault = fault;
+            this.faultsLeft.set(times);
+        }
+
+        CategoryRepository asRepository() {
+            return (CategoryRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[]{CategoryRepository.class}, this);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == Object.class) return method.invoke(this, args);
+            switch (method.getName()) {
+                case "findById":
+                    if (args[0] instanceof String)
+                        return Mono.defer(() -> faulty(Mono.justOrEmpty(store.get((String) args[0]))).next());
+                    break;
+                case "findAll":
+                    if (args == null) return Flux.defer(() -> faulty(Flux.fromIterable(store.values())));
+                    break;
+                case "save":
+                    Category category = (Category) args[0];
+                    return Mono.defer(() -> faulty(Mono.fromSupplier(() -> {
+                        store.put(category.getId(), category);
+                        return category;
+                    })).next());
+            }
+            throw new UnsupportedOperationException(method.toString());
+        }
+
+        private Flux<Category> faulty(Publisher<Category> answer) {
+            subscriptions.incrementAndGet();
+            Fault current = (faultsLeft.getAndDecrement() > 0) ? fault : Fault.NONE;
+            switch (current) {
+                case SLOW:
+                    return Flux.never();
+                case DOWN:
+                    return Flux.error(new DataAccessResourceFailureException("Connection refused"));
+                case CONFLICT:
+                    return Flux.error(new DuplicateKeyException("E11000 duplicate key"));
+                default:
+                    return Flux.from(answer);
+            }
+        }
+    }
+}
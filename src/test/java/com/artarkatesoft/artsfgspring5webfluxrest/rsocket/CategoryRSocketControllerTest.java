@@ -0,0 +1,117 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.rsocket;
+
+import com.artarkatesoft.artsfgspring5webfluxrest.bulk.BulkInserter;
+import com.artarkatesoft.artsfgspring5webfluxrest.cache.CategoryCache;
+import com.artarkatesoft.artsfgspring5webfluxrest.changes.CollectionVersions;
+import com.artarkatesoft.artsfgspring5webfluxrest.changes.InMemoryChangeFeed;
+import com.artarkatesoft.artsfgspring5webfluxrest.controllers.CategoryController;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.BulkItemResult;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.Category;
+import com.artarkatesoft.artsfgspring5webfluxrest.repositories.CategoryRepository;
+import com.artarkatesoft.artsfgspring5webfluxrest.search.SearchIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.reactivestreams.Publisher;
+import org.springframework.messaging.rsocket.RSocketRequester;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static java.util.stream.Collectors.toList;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+
+/**
+ * Checks the category routes are wired; error mapping and demand over the loopback are covered by
+ * {@link VendorRSocketControllerTest}.
+ */
+@ExtendWith(MockitoExtension.class)
+class CategoryRSocketControllerTest {
+
+    private static final int SIZE = 5;
+
+    @Mock
+    CategoryRepository categoryRepository;
+
+    @Mock
+    BulkInserter bulkInserter;
+
+    RSocketLoopback loopback;
+    RSocketRequester requester;
+    List<Category> stubCategoryList;
+
+    @BeforeEach
+    void setUp() {
+        CategoryController categoryController = new CategoryController(categoryRepository,
+                new CategoryCache(categoryRepository, 100, Duration.ofMinutes(1), 1, Duration.ZERO),
+                new InMemoryChangeFeed(), bulkInserter, new CollectionVersions(), new SearchIndex());
+        loopback = new RSocketLoopback(new CategoryRSocketController(categoryController));
+        requester = loopback.requester;
+        stubCategoryList = IntStream.rangeClosed(1, SIZE)
+                .mapToObj(i -> Category.builder().id("id" + i).name("Category" + i).build())
+                .collect(toList());
+    }
+
+    @AfterEach
+    void tearDown() {
+        loopback.close();
+    }
+
+    @Test
+    void getById() {
+        //given
+        Category category = stubCategoryList.get(0);
+        given(categoryRepository.findById(anyString())).willReturn(Mono.just(category));
+
+        //when
+        Mono<Category> found = requester.route(CategoryRSocketController.GET_ROUTE, "id1").retrieveMono(Category.class);
+
+        //then
+        StepVerifier.create(found)
+                .expectNext(category)
+                .verifyComplete();
+    }
+
+    @Test
+    void list() {
+        //given
+        given(categoryRepository.streamAllByOrderByIdAsc()).willReturn(Flux.fromIterable(stubCategoryList));
+
+        //when
+        Flux<Category> categories = requester.route(CategoryRSocketController.LIST_ROUTE).retrieveFlux(Category.class);
+
+        //then
+        StepVerifier.create(categories)
+                .expectNextSequence(stubCategoryList)
+                .verifyComplete();
+    }
+
+    @Test
+    void bulkCreate_resultPerCategory() {
+        //given
+        given(bulkInserter.insert(any(Publisher.class), eq(Category.class))).willAnswer(invocation ->
+                Flux.from(invocation.<Publisher<Category>>getArgument(0))
+                        .index()
+                        .map(item -> BulkItemResult.builder().index(item.getT1()).id("id" + item.getT1()).build()));
+
+        //when
+        Flux<BulkItemResult> results = requester.route(CategoryRSocketController.BULK_ROUTE)
+                .data(Flux.fromIterable(stubCategoryList).map(category -> Category.builder().name(category.getName()).build()))
+                .retrieveFlux(BulkItemResult.class);
+
+        //then
+        StepVerifier.create(results)
+                .expectNextCount(SIZE)
+                .verifyComplete();
+    }
+}
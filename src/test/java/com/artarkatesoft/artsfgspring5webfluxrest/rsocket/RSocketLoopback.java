@@ -0,0 +1,51 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.rsocket;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.rsocket.core.RSocketServer;
+import io.rsocket.transport.netty.server.CloseableChannel;
+import io.rsocket.transport.netty.server.TcpServerTransport;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.messaging.rsocket.RSocketRequester;
+import org.springframework.messaging.rsocket.RSocketStrategies;
+import org.springframework.messaging.rsocket.annotation.support.RSocketMessageHandler;
+
+import java.util.Collections;
+
+import static org.springframework.http.MediaType.APPLICATION_CBOR;
+
+/**
+ * One RSocket controller served over CBOR on a random local port, with a requester connected to it.
+ */
+final class RSocketLoopback implements AutoCloseable {
+
+    private final CloseableChannel server;
+    final RSocketRequester requester;
+
+    RSocketLoopback(Object controller) {
+        ObjectMapper cborMapper = Jackson2ObjectMapperBuilder.cbor().build();
+        RSocketStrategies strategies = RSocketStrategies.builder()
+                .encoders(encoders -> encoders.add(new Jackson2CborEncoder(cborMapper)))
+                .decoders(decoders -> decoders.add(new Jackson2CborDecoder(cborMapper)))
+                .build();
+        RSocketMessageHandler handler = new RSocketMessageHandler();
+        handler.setHandlers(Collections.singletonList(controller));
+        handler.setRSocketStrategies(strategies);
+        handler.afterPropertiesSet();
+        server = RSocketServer.create(handler.responder())
+                .bind(TcpServerTransport.create("localhost", 0))
+                .block();
+        requester = RSocketRequester.builder()
+                .rsocketStrategies(strategies)
+                .dataMimeType(APPLICATION_CBOR)
+                .connectTcp("localhost", server.address().getPort())
+                .block();
+    }
+
+    @Override
+    public void close() {
+        requester.rsocket().dispose();
+        server.dispose();
+    }
+}
@@ -0,0 +1,131 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.rsocket;
+
+import com.artarkatesoft.artsfgspring5webfluxrest.bulk.BulkInserter;
+import com.artarkatesoft.artsfgspring5webfluxrest.cache.VendorCache;
+import com.artarkatesoft.artsfgspring5webfluxrest.changes.CollectionVersions;
+import com.artarkatesoft.artsfgspring5webfluxrest.changes.InMemoryChangeFeed;
+import com.artarkatesoft.artsfgspring5webfluxrest.controllers.VendorController;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.BulkItemResult;
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.Vendor;
+import com.artarkatesoft.artsfgspring5webfluxrest.repositories.VendorRepository;
+import com.artarkatesoft.artsfgspring5webfluxrest.search.SearchIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.reactivestreams.Publisher;
+import org.springframework.messaging.rsocket.RSocketRequester;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+class VendorRSocketControllerTest {
+
+    private static final int SIZE = 5;
+
+    @Mock
+    VendorRepository vendorRepository;
+
+    @Mock
+    BulkInserter bulkInserter;
+
+    RSocketLoopback loopback;
+    RSocketRequester requester;
+    List<Vendor> stubVendorList;
+
+    @BeforeEach
+    void setUp() {
+        VendorController vendorController = new VendorController(vendorRepository,
+                new VendorCache(vendorRepository, 100, Duration.ofMinutes(1), 1, Duration.ZERO),
+                new InMemoryChangeFeed(), bulkInserter, new CollectionVersions(), new SearchIndex());
+        loopback = new RSocketLoopback(new VendorRSocketController(vendorController));
+        requester = loopback.requester;
+        stubVendorList = IntStream.rangeClosed(1, SIZE)
+                .mapToObj(i -> Vendor.builder().id("id" + i).firstName("First" + i).lastName("Last" + i).build())
+                .collect(toList());
+    }
+
+    @AfterEach
+    void tearDown() {
+        loopback.close();
+    }
+
+    @Test
+    void findById() {
+        //given
+        Vendor vendor = stubVendorList.get(0);
+        given(vendorRepository.findById(anyString())).willReturn(Mono.just(vendor));
+
+        //when
+        Mono<Vendor> found = requester.route(VendorRSocketController.GET_ROUTE, "id1").retrieveMono(Vendor.class);
+
+        //then
+        StepVerifier.create(found)
+                .expectNext(vendor)
+                .verifyComplete();
+    }
+
+    @Test
+    void findById_missing_errorNamesTheId() {
+        //given
+        given(vendorRepository.findById(anyString())).willReturn(Mono.empty());
+
+        //when
+        Mono<Vendor> found = requester.route(VendorRSocketController.GET_ROUTE, "missing").retrieveMono(Vendor.class);
+
+        //then
+        StepVerifier.create(found)
+                .expectErrorSatisfies(e -> assertThat(e).hasMessageContaining("missing"))
+                .verify();
+    }
+
+    @Test
+    void list_streamsAtTheRequestersDemand() {
+        //given
+        given(vendorRepository.streamAllByOrderByIdAsc()).willReturn(Flux.fromIterable(stubVendorList));
+
+        //when
+        Flux<Vendor> vendors = requester.route(VendorRSocketController.LIST_ROUTE).retrieveFlux(Vendor.class);
+
+        //then
+        StepVerifier.create(vendors, 2)
+                .expectNextSequence(stubVendorList.subList(0, 2))
+                .expectNoEvent(Duration.ofMillis(100))
+                .thenRequest(SIZE)
+                .expectNextSequence(stubVendorList.subList(2, SIZE))
+                .verifyComplete();
+    }
+
+    @Test
+    void bulkCreate_resultPerVendor() {
+        //given
+        given(bulkInserter.insert(any(Publisher.class), eq(Vendor.class))).willAnswer(invocation ->
+                Flux.from(invocation.<Publisher<Vendor>>getArgument(0))
+                        .index()
+                        .map(item -> BulkItemResult.builder().index(item.getT1()).id("id" + item.getT1()).build()));
+
+        //when
+        Flux<BulkItemResult> results = requester.route(VendorRSocketController.BULK_ROUTE)
+                .data(Flux.fromIterable(stubVendorList).map(vendor -> Vendor.builder().firstName(vendor.getFirstName()).build()))
+                .retrieveFlux(BulkItemResult.class);
+
+        //then
+        StepVerifier.create(results)
+                .expectNextCount(SIZE)
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,115 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.search;
+
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.Category;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NGramIndexTest {
+
+    NGramIndex<Category> index;
+
+    @BeforeEach
+    void setUp() {
+        index = new NGramIndex<>(Category::getId, Category::getName);
+        put("1", "Fruits");
+        put("2", "Dried Fruits");
+        put("3", "Grapefruit");
+        put("4", "Nuts");
+        put("5", "Exotic");
+    }
+
+    @Test
+    void search_shortTermMatchesWordPrefixes() {
+        //when
+        List<String> names = names(index.search("nu", 10));
+
+        //then
+        assertThat(names).containsExactly("Nuts");
+    }
+
+    @Test
+    void search_ranksExactOverPrefixOverInfix() {
+        //given
+        put("6", "Fruit");
+
+        //when
+        List<String> names = names(index.search("fruit", 10));
+
+        //then
+        assertThat(names).containsExactly("Fruit", "Fruits", "Dried Fruits", "Grapefruit");
+    }
+
+    @Test
+    void search_requiresEveryTerm() {
+        //when
+        List<String> names = names(index.search("fru dri", 10));
+
+        //then
+        assertThat(names).containsExactly("Dried Fruits");
+    }
+
+    @Test
+    void search_ignoresCaseAndAccents() {
+        //given
+        put("6", "Crème Brûlée");
+
+        //when
+        List<String> names = names(index.search("CREME brul", 10));
+
+        //then
+        assertThat(names).containsExactly("Crème Brûlée");
+    }
+
+    @Test
+    void search_keepsBestWithinLimit() {
+        //given
+        put("6", "Fresh Fruits");
+
+        //when
+        List<String> names = names(index.search("fr", 2));
+
+        //then
+        assertThat(names).containsExactly("Fruits", "Dried Fruits");
+    }
+
+    @Test
+    void search_noMatch() {
+        assertThat(index.search("xyz", 10)).isEmpty();
+        assertThat(index.search("nutz", 10)).isEmpty();
+        assertThat(index.search(" - ", 10)).isEmpty();
+    }
+
+    @Test
+    void put_replacesPreviousText() {
+        //when
+        put("4", "Seeds");
+
+        //then
+        assertThat(index.search("nuts", 10)).isEmpty();
+        assertThat(names(index.search("see", 10))).containsExactly("Seeds");
+        assertThat(index.size()).isEqualTo(5);
+    }
+
+    @Test
+    void remove() {
+        //when
+        index.remove("1");
+
+        //then
+        assertThat(names(index.search("fruits", 10))).containsExactly("Dried Fruits");
+        assertThat(index.size()).isEqualTo(4);
+    }
+
+    private void put(String id, String name) {
+        index.put(Category.builder().id(id).name(name).build());
+    }
+
+    private static List<String> names(List<NGramIndex.Match<Category>> matches) {
+        return matches.stream().map(match -> match.getDocument().getName()).collect(Collectors.toList());
+    }
+}
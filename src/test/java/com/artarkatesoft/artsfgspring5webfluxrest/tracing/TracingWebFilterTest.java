@@ -0,0 +1,102 @@
+package com.artarkatesoft.artsfgspring5webfluxrest.tracing;
+
+import com.artarkatesoft.artsfgspring5webfluxrest.domain.Category;
+import com.artarkatesoft.artsfgspring5webfluxrest.repositories.CategoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.artarkatesoft.artsfgspring5webfluxrest.tracing.Tracing.CORRELATION_ID_HEADER;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.springframework.web.reactive.function.server.RequestPredicates.GET;
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+import static org.springframework.web.reactive.function.server.ServerResponse.ok;
+
+@ExtendWith(MockitoExtension.class)
+class TracingWebFilterTest {
+
+    @Mock
+    CategoryRepository categoryRepository;
+
+    List<String> reported;
+    Tracing tracing;
+    WebTestClient webTestClient;
+
+    @BeforeEach
+    void setUp() {
+        reported = new ArrayList<>();
+        tracing = new Tracing(1) {
+            @Override
+            public void report(String trace) {
+                reported.add(trace);
+            }
+        };
+        CategoryRepository tracedRepository = (CategoryRepository) new RepositoryTracingPostProcessor(tracing)
+                .postProcessAfterInitialization(categoryRepository, "categoryRepository");
+        webTestClient = WebTestClient
+                .bindToRouterFunction(route(GET("/categories/{id}"),
+                        request -> tracedRepository.findById(request.pathVariable("id"))
+                                .flatMap(category -> ok().bodyValue(category))))
+                .webFilter(new TracingWebFilter(tracing))
+                .build();
+    }
+
+    @Test
+    void sampledRequest_reportsSpanWithRepositoryEvents() {
+        //given
+        given(categoryRepository.findById(anyString())).willReturn(Mono.just(Category.builder().id("foo").build()));
+
+        //when
+        webTestClient.get().uri("/categories/{id}", "foo")
+                .header(CORRELATION_ID_HEADER, "abc-123")
+                .exchange()
+
+                //then
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(CORRELATION_ID_HEADER, "abc-123");
+        assertThat(reported).hasSize(1);
+        assertThat(reported.get(0))
+                .contains("correlationId=abc-123", "method=GET", "path=/categories/foo", "status=200",
+                        "CategoryRepository.findById:onComplete:");
+    }
+
+    @Test
+    void sampledRequest_generatesCorrelationId() {
+        //given
+        given(categoryRepository.findById(anyString())).willReturn(Mono.just(Category.builder().id("foo").build()));
+
+        //when
+        webTestClient.get().uri("/categories/{id}", "foo")
+                .exchange()
+
+                //then
+                .expectStatus().isOk()
+                .expectHeader().exists(CORRELATION_ID_HEADER);
+        assertThat(reported).hasSize(1);
+    }
+
+    @Test
+    void disabled_reportsNothing() {
+        //given
+        tracing.setSampleRate(0);
+        given(categoryRepository.findById(anyString())).willReturn(Mono.just(Category.builder().id("foo").build()));
+
+        //when
+        webTestClient.get().uri("/categories/{id}", "foo")
+                .exchange()
+
+                //then
+                .expectStatus().isOk()
+                .expectHeader().doesNotExist(CORRELATION_ID_HEADER);
+        assertThat(reported).isEmpty();
+    }
+}